@@ -18,10 +18,12 @@ import org.apache.mesos.Protos;
 import org.apache.mesos.SchedulerDriver;
 import org.junit.After;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 import org.mockito.Mockito;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -326,6 +328,38 @@ public class ServiceTest {
                 .run(ticks);
     }
 
+    /**
+     * Runs the default service against a simulated cluster, then checks that it recovers from task failures and an
+     * agent outage. This takes a while, so it's only run when load simulations are enabled.
+     */
+    @Test
+    public void testLoadSimulation() throws Exception {
+        Assume.assumeTrue("Load simulations are disabled", LoadSimulation.isEnabled());
+        LoadSimulationResult result = new ServiceTestRunner()
+                .setOptions("hello.count", "5", "world.count", "10")
+                .runLoadSimulation(LoadSimulation.newBuilder()
+                        .setSeed(1234)
+                        .setAgentCount(20)
+                        .setOfferInterval(Duration.ofMillis(20))
+                        .setRescindRate(0.05)
+                        .setLaunchDelay(Duration.ofMillis(1), Duration.ofMillis(10))
+                        .setMaxRefuseDuration(Duration.ofMillis(100))
+                        .setTimeout(Duration.ofMinutes(2))
+                        .addEvent(LoadSimulation.Event.taskFailures(0.5))
+                        .addEvent(LoadSimulation.Event.agentOutage(0.1, Duration.ofMillis(200)))
+                        .build());
+
+        Assert.assertTrue(result.toString(), result.isComplete());
+        Assert.assertEquals(3, result.getPhases().size());
+        Assert.assertTrue(result.getTimeToDeploy().isPresent());
+        Assert.assertEquals(2, result.getTimesToRecovery().size());
+        Assert.assertTrue(result.getTasksLaunched() >= 15);
+        Assert.assertTrue(result.getOffersAccepted() > 0);
+        Assert.assertTrue(result.getPhases().get(0).getWriteCount() > 0);
+        Assert.assertTrue(
+                result.getOfferLatencyPercentile(50).compareTo(result.getOfferLatencyPercentile(99)) <= 0);
+    }
+
     @Test
     public void testWorldDecommissionDefaultExecutor() throws Exception {
         testWorldDecommission(true);
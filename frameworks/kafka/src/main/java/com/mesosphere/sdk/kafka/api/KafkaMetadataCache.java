@@ -0,0 +1,213 @@
+package com.mesosphere.sdk.kafka.api;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.curator.utils.ZKPaths;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * An in-memory copy of the broker and topic metadata which Kafka keeps in ZooKeeper, kept up to date via ZooKeeper
+ * watches. Broker registrations and partition states are parsed once when they change, rather than on every read, and
+ * only the parsed form is kept in memory.
+ *
+ * <p>The cache covers the following nodes:
+ * <ul>
+ * <li>{@code /brokers/ids/[id]}: broker registrations</li>
+ * <li>{@code /brokers/topics/[topic]}: topic names and replica assignments</li>
+ * <li>{@code /brokers/topics/[topic]/partitions/[partition]/state}: partition states</li>
+ * </ul>
+ *
+ * <p>Until the initial load has completed, {@link #isInitialized()} returns {@code false} and callers should read from
+ * ZooKeeper directly.
+ */
+class KafkaMetadataCache {
+    private static final Logger log = LoggerFactory.getLogger(KafkaMetadataCache.class);
+
+    private static final String ROOT_PATH = "/brokers";
+    private static final String IDS_NODE = "ids";
+    private static final String TOPICS_NODE = "topics";
+    private static final String PARTITIONS_NODE = "partitions";
+    private static final String STATE_NODE = "state";
+
+    /**
+     * {@code /brokers} is depth 0, and the deepest cached nodes are {@code /brokers/topics/T/partitions/P/state}.
+     */
+    private static final int MAX_DEPTH = 5;
+
+    /**
+     * Orders broker and partition ids numerically, so that e.g. 10 comes after 9.
+     */
+    static final Comparator<String> NUMERIC_ORDER =
+            Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder());
+
+    private final TreeCache treeCache;
+    private final NavigableMap<String, JSONObject> brokers = new ConcurrentSkipListMap<>(NUMERIC_ORDER);
+    private final NavigableMap<String, NavigableMap<String, JSONObject>> partitionStatesByTopic =
+            new ConcurrentSkipListMap<>();
+    private final Map<String, JSONObject> replicaAssignmentsByTopic = new ConcurrentSkipListMap<>();
+
+    private volatile boolean initialized = false;
+    private volatile boolean connected = true;
+    /** The last time that the cache was known to be in sync with ZooKeeper, or 0 if it hasn't been yet. */
+    private volatile long lastSyncedMs = 0;
+
+    KafkaMetadataCache(CuratorFramework zkClient) {
+        this.treeCache = TreeCache.newBuilder(zkClient, ROOT_PATH)
+                // The raw node content is only needed once, when it's parsed:
+                .setCacheData(false)
+                .setMaxDepth(MAX_DEPTH)
+                .build();
+        this.treeCache.getListenable().addListener((client, event) -> handleEvent(event));
+    }
+
+    /**
+     * Starts populating the cache in the background.
+     */
+    void start() throws Exception {
+        treeCache.start();
+    }
+
+    void close() {
+        treeCache.close();
+    }
+
+    /**
+     * Returns whether the initial load has completed, after which the cache may be read from.
+     */
+    boolean isInitialized() {
+        return initialized;
+    }
+
+    /**
+     * Returns the number of milliseconds since the cache was last known to be in sync with ZooKeeper, or zero if it
+     * currently is. Before the initial load has completed, returns the time since the epoch.
+     */
+    long getStalenessMs() {
+        if (initialized && connected) {
+            return 0;
+        }
+        return System.currentTimeMillis() - lastSyncedMs;
+    }
+
+    /**
+     * Returns the registered brokers, sorted numerically by id. The returned values must not be modified.
+     */
+    NavigableMap<String, JSONObject> getBrokers() {
+        return brokers;
+    }
+
+    /**
+     * Returns the partition states of each topic, sorted by topic name and then by partition id. Topics whose
+     * partitions haven't been assigned yet have an empty map. The returned values must not be modified.
+     */
+    NavigableMap<String, NavigableMap<String, JSONObject>> getPartitionStatesByTopic() {
+        return partitionStatesByTopic;
+    }
+
+    /**
+     * Returns the replica assignment of each topic, of the form {@code {"0": [1, 2], "1": [2, 3]}}. The returned values
+     * must not be modified.
+     */
+    Map<String, JSONObject> getReplicaAssignmentsByTopic() {
+        return replicaAssignmentsByTopic;
+    }
+
+    private void handleEvent(TreeCacheEvent event) {
+        switch (event.getType()) {
+        case INITIALIZED:
+            log.info("Loaded metadata for {} brokers and {} topics", brokers.size(), partitionStatesByTopic.size());
+            initialized = true;
+            connected = true;
+            lastSyncedMs = System.currentTimeMillis();
+            break;
+        case CONNECTION_SUSPENDED:
+        case CONNECTION_LOST:
+            if (connected) {
+                log.warn("Lost connection to ZooKeeper, broker and topic metadata may become stale: {}",
+                        event.getType());
+                lastSyncedMs = System.currentTimeMillis();
+                connected = false;
+            }
+            break;
+        case CONNECTION_RECONNECTED:
+            // The TreeCache refreshes itself upon reconnection. Any changes are delivered as node events.
+            log.info("Reconnected to ZooKeeper, refreshing broker and topic metadata");
+            connected = true;
+            break;
+        case NODE_ADDED:
+        case NODE_UPDATED:
+            handleNodeChanged(event.getData(), false);
+            break;
+        case NODE_REMOVED:
+            handleNodeChanged(event.getData(), true);
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void handleNodeChanged(ChildData data, boolean removed) {
+        if (data == null) {
+            return;
+        }
+        // Path elements below ROOT_PATH:
+        List<String> fullPath = ZKPaths.split(data.getPath());
+        List<String> path = fullPath.subList(1, fullPath.size());
+        if (path.size() == 2 && path.get(0).equals(IDS_NODE)) {
+            // /brokers/ids/[id]
+            if (removed) {
+                brokers.remove(path.get(1));
+            } else {
+                parse(data).ifPresent(broker -> brokers.put(path.get(1), broker));
+            }
+        } else if (path.size() == 2 && path.get(0).equals(TOPICS_NODE)) {
+            // /brokers/topics/[topic]
+            if (removed) {
+                partitionStatesByTopic.remove(path.get(1));
+                replicaAssignmentsByTopic.remove(path.get(1));
+            } else {
+                partitionStatesByTopic.putIfAbsent(path.get(1), new ConcurrentSkipListMap<>(NUMERIC_ORDER));
+                parse(data).map(topic -> topic.optJSONObject(PARTITIONS_NODE))
+                        .ifPresent(assignment -> replicaAssignmentsByTopic.put(path.get(1), assignment));
+            }
+        } else if (path.size() == 5 && path.get(0).equals(TOPICS_NODE)
+                && path.get(2).equals(PARTITIONS_NODE) && path.get(4).equals(STATE_NODE)) {
+            // /brokers/topics/[topic]/partitions/[partition]/state
+            Map<String, JSONObject> partitionStates = partitionStatesByTopic.get(path.get(1));
+            if (partitionStates == null) {
+                // Topic was removed.
+                return;
+            }
+            if (removed) {
+                partitionStates.remove(path.get(3));
+            } else {
+                parse(data).ifPresent(state -> partitionStates.put(path.get(3), state));
+            }
+        }
+    }
+
+    private static Optional<JSONObject> parse(ChildData data) {
+        if (data.getData() == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new JSONObject(new String(data.getData(), StandardCharsets.UTF_8)));
+        } catch (JSONException e) {
+            log.warn(String.format("Failed to parse content of %s", data.getPath()), e);
+            return Optional.empty();
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.mesosphere.sdk.kafka.api;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.mesosphere.sdk.scheduler.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.curator.framework.CuratorFramework;
@@ -11,8 +14,13 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
@@ -20,6 +28,10 @@ import java.util.stream.StreamSupport;
 
 /**
  * Read-only interface for retrieving information from ZooKeeper for Kafka brokers and topics.
+ *
+ * <p>Reads are served from a {@link KafkaMetadataCache} which is kept up to date via ZooKeeper watches. Until the cache
+ * has completed its initial load, reads go to ZooKeeper directly. The time since the cache was last known to be in sync
+ * with ZooKeeper is exposed as the {@value #STALENESS_METRIC} gauge.
  */
 public class KafkaZKClient {
     private static final Logger log = LoggerFactory.getLogger(KafkaZKClient.class);
@@ -32,7 +44,45 @@ public class KafkaZKClient {
     private static final String PROTOCOL_NAME_PLAINTEXT = "PLAINTEXT";
     private static final String PROTOCOL_NAME_TLS = "SSL";
 
+    static final String STALENESS_METRIC = "kafka.metadata.staleness_ms";
+
     private final CuratorFramework zkClient;
+    private final KafkaMetadataCache cache;
+
+    /**
+     * The assignment and current state of a single partition.
+     */
+    private static class Partition {
+        private final String topic;
+        private final String id;
+        private final JSONArray replicas;
+        private final JSONObject state;
+
+        private Partition(String topic, String id, JSONArray replicas, JSONObject state) {
+            this.topic = topic;
+            this.id = id;
+            this.replicas = replicas;
+            this.state = state;
+        }
+
+        private int getLeader() {
+            return state.optInt("leader", -1);
+        }
+
+        private JSONArray getIsr() {
+            JSONArray isr = state.optJSONArray("isr");
+            return isr == null ? new JSONArray() : isr;
+        }
+
+        private JSONObject toJSON() {
+            return new JSONObject()
+                    .put("topic", topic)
+                    .put("partition", Integer.parseInt(id))
+                    .put("leader", getLeader())
+                    .put("replicas", replicas)
+                    .put("isr", getIsr());
+        }
+    }
 
     /**
      * @param kafkaConnectString the ZK URI being used by kafka, of the form "host:port/path/to/node",
@@ -45,11 +95,34 @@ public class KafkaZKClient {
                 .retryPolicy(new ExponentialBackoffRetry(POLL_DELAY_MS, CURATOR_MAX_RETRIES))
                 .build();
         this.zkClient.start();
+        this.cache = new KafkaMetadataCache(zkClient);
+        try {
+            this.cache.start();
+        } catch (Exception e) {
+            // Reads fall back to ZooKeeper until the cache is initialized.
+            log.error("Failed to start broker and topic metadata cache", e);
+        }
+        MetricRegistry registry = Metrics.getRegistry();
+        registry.remove(STALENESS_METRIC);
+        registry.register(STALENESS_METRIC, (Gauge<Long>) cache::getStalenessMs);
+    }
+
+    /**
+     * Stops the metadata cache and closes the ZooKeeper connection.
+     */
+    public void close() {
+        cache.close();
+        zkClient.close();
     }
 
     public JSONArray listBrokers() throws Exception {
+        if (cache.isInitialized()) {
+            return new JSONArray(cache.getBrokers().keySet());
+        }
         try {
-            return new JSONArray(zkClient.getChildren().forPath(IDS_PATH));
+            List<String> ids = zkClient.getChildren().forPath(IDS_PATH);
+            ids.sort(KafkaMetadataCache.NUMERIC_ORDER);
+            return new JSONArray(ids);
         } catch (KeeperException.NoNodeException e) {
             log.info("List path: " + IDS_PATH
                     + " doesn't exist, returning empty brokers list. Kafka not running yet?", e);
@@ -58,6 +131,9 @@ public class KafkaZKClient {
     }
 
     public Optional<JSONObject> getBroker(String id) throws Exception {
+        if (cache.isInitialized()) {
+            return Optional.ofNullable(cache.getBrokers().get(id));
+        }
         List<String> ids = zkClient.getChildren().forPath(IDS_PATH);
         if (!ids.contains(id)) {
             return Optional.empty();
@@ -67,6 +143,9 @@ public class KafkaZKClient {
     }
 
     public JSONArray listTopics() throws Exception {
+        if (cache.isInitialized()) {
+            return new JSONArray(cache.getPartitionStatesByTopic().keySet());
+        }
         try {
             return new JSONArray(zkClient.getChildren().forPath(TOPICS_PATH));
         } catch (KeeperException.NoNodeException e) {
@@ -77,6 +156,17 @@ public class KafkaZKClient {
     }
 
     public JSONObject getTopic(String topicName) throws Exception {
+        if (cache.isInitialized()) {
+            NavigableMap<String, JSONObject> partitionStates = cache.getPartitionStatesByTopic().get(topicName);
+            if (partitionStates == null) {
+                throw new KeeperException.NoNodeException(TOPICS_PATH + "/" + topicName + "/partitions");
+            }
+            List<JSONObject> partitions = new ArrayList<>();
+            for (Map.Entry<String, JSONObject> entry : partitionStates.entrySet()) {
+                partitions.add((new JSONObject()).put(entry.getKey(), entry.getValue()));
+            }
+            return (new JSONObject()).put("partitions", partitions);
+        }
         String partitionsNode = TOPICS_PATH + "/" + topicName + "/partitions";
         List<String> partitionIdList = zkClient.getChildren().forPath(partitionsNode);
         List<JSONObject> partitions = new ArrayList<JSONObject>();
@@ -89,6 +179,78 @@ public class KafkaZKClient {
         return (new JSONObject()).put("partitions", partitions);
     }
 
+    /**
+     * Returns the partitions whose leader is not a live broker, equivalent to
+     * {@code kafka-topics.sh --describe --unavailable-partitions}.
+     *
+     * @return an object of the form {@code {"partitions": [{"topic": "t", "partition": 0, "leader": -1,
+     *     "replicas": [1, 2], "isr": []}, ...]}}
+     */
+    public JSONObject getUnavailablePartitions() throws Exception {
+        Set<Integer> liveBrokerIds = new HashSet<>();
+        JSONArray brokerIds = listBrokers();
+        for (int i = 0; i < brokerIds.length(); i++) {
+            liveBrokerIds.add(Integer.parseInt(brokerIds.getString(i)));
+        }
+        return getPartitions(partition -> !liveBrokerIds.contains(partition.getLeader()));
+    }
+
+    /**
+     * Returns the partitions which have fewer in-sync replicas than assigned replicas, equivalent to
+     * {@code kafka-topics.sh --describe --under-replicated-partitions}.
+     *
+     * @return an object of the same form as {@link #getUnavailablePartitions()}
+     */
+    public JSONObject getUnderReplicatedPartitions() throws Exception {
+        return getPartitions(partition -> partition.getIsr().length() < partition.replicas.length());
+    }
+
+    private JSONObject getPartitions(Predicate<Partition> filter) throws Exception {
+        List<JSONObject> partitions = new ArrayList<>();
+        for (Partition partition : getPartitions()) {
+            if (filter.test(partition)) {
+                partitions.add(partition.toJSON());
+            }
+        }
+        return (new JSONObject()).put("partitions", partitions);
+    }
+
+    private List<Partition> getPartitions() throws Exception {
+        final List<Partition> partitions = new ArrayList<>();
+        if (cache.isInitialized()) {
+            Map<String, JSONObject> assignments = cache.getReplicaAssignmentsByTopic();
+            for (Map.Entry<String, NavigableMap<String, JSONObject>> topic
+                    : cache.getPartitionStatesByTopic().entrySet()) {
+                JSONObject assignment = assignments.get(topic.getKey());
+                for (Map.Entry<String, JSONObject> state : topic.getValue().entrySet()) {
+                    partitions.add(new Partition(
+                            topic.getKey(), state.getKey(), getReplicas(assignment, state.getKey()), state.getValue()));
+                }
+            }
+            return partitions;
+        }
+        JSONArray topics = listTopics();
+        for (int i = 0; i < topics.length(); i++) {
+            String topicNode = TOPICS_PATH + "/" + topics.getString(i);
+            JSONObject assignment = new JSONObject(new String(
+                    zkClient.getData().forPath(topicNode), StandardCharsets.UTF_8)).optJSONObject("partitions");
+            String partitionsNode = topicNode + "/partitions";
+            for (String partitionId : zkClient.getChildren().forPath(partitionsNode)) {
+                JSONObject state = new JSONObject(new String(
+                        zkClient.getData().forPath(partitionsNode + "/" + partitionId + "/state"),
+                        StandardCharsets.UTF_8));
+                partitions.add(new Partition(
+                        topics.getString(i), partitionId, getReplicas(assignment, partitionId), state));
+            }
+        }
+        return partitions;
+    }
+
+    private static JSONArray getReplicas(JSONObject assignment, String partitionId) {
+        JSONArray replicas = assignment == null ? null : assignment.optJSONArray(partitionId);
+        return replicas == null ? new JSONArray() : replicas;
+    }
+
     public List<String> getBrokerEndpoints() {
         try {
             return getBrokerEndpoints(PROTOCOL_NAME_PLAINTEXT);
@@ -110,10 +272,7 @@ public class KafkaZKClient {
     private List<String> getBrokerEndpoints(final String protocolName) throws Exception {
         final List<String> endpoints = new ArrayList<>();
 
-        final List<String> ids = zkClient.getChildren().forPath(IDS_PATH);
-        for (String id : ids) {
-            byte[] bytes = zkClient.getData().forPath(IDS_PATH + "/" + id);
-            JSONObject broker = new JSONObject(new String(bytes, StandardCharsets.UTF_8));
+        for (JSONObject broker : getBrokers()) {
             final String mappedProtocolName = broker
                     .getJSONObject("listener_security_protocol_map")
                     .getString(protocolName);
@@ -128,4 +287,18 @@ public class KafkaZKClient {
 
         return endpoints;
     }
+
+    private List<JSONObject> getBrokers() throws Exception {
+        if (cache.isInitialized()) {
+            return new ArrayList<>(cache.getBrokers().values());
+        }
+        final List<JSONObject> brokers = new ArrayList<>();
+        List<String> ids = zkClient.getChildren().forPath(IDS_PATH);
+        ids.sort(KafkaMetadataCache.NUMERIC_ORDER);
+        for (String id : ids) {
+            byte[] bytes = zkClient.getData().forPath(IDS_PATH + "/" + id);
+            brokers.add(new JSONObject(new String(bytes, StandardCharsets.UTF_8)));
+        }
+        return brokers;
+    }
 }
@@ -6,31 +6,40 @@ import org.apache.commons.logging.LogFactory;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.nio.charset.Charset;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.StopWatch;
 
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 
 /**
  * A simple command executor class. Migrated from dcos-kafka-service.
+ *
+ * <p>Partition health is computed from the partition state in ZooKeeper. Other operations run the Kafka command line
+ * tools, at most {@link #MAX_CONCURRENT_COMMANDS} at a time and for at most {@link #COMMAND_TIMEOUT_MINUTES} each.
  */
 public class CmdExecutor {
     private static final Log log = LogFactory.getLog(CmdExecutor.class);
 
+    private static final int MAX_CONCURRENT_COMMANDS = 4;
+    private static final long COMMAND_TIMEOUT_MINUTES = 5;
+    private static final int MAX_COMMAND_OUTPUT_BYTES = 1024 * 1024;
+
     private final String binPath;
     private final String zkUri;
     private final KafkaZKClient kafkaZkClient;
+    private final ProcessRunner processRunner;
 
     public CmdExecutor(KafkaZKClient kafkaZkClient, String kafkaZookeeperUri, String kafkaSandboxPath) {
         this.binPath = kafkaSandboxPath + "/bin/";
         this.kafkaZkClient = kafkaZkClient;
         this.zkUri = kafkaZookeeperUri;
+        this.processRunner = new ProcessRunner(
+                MAX_CONCURRENT_COMMANDS,
+                TimeUnit.MINUTES.toMillis(COMMAND_TIMEOUT_MINUTES),
+                MAX_COMMAND_OUTPUT_BYTES);
     }
 
     public JSONObject createTopic(String name, int partitionCount, int replicationFactor) throws Exception {
@@ -165,29 +174,13 @@ public class CmdExecutor {
     }
 
     public JSONObject unavailablePartitions() throws Exception {
-        // e.g. ./kafka-topics.sh --zookeeper master.mesos:2181/kafka --describe --unavailable-partitions
-
-        List<String> cmd = new ArrayList<String>();
-        cmd.add(binPath + "kafka-topics.sh");
-        cmd.add("--describe");
-        cmd.add("--zookeeper");
-        cmd.add(zkUri);
-        cmd.add("--unavailable-partitions");
-
-        return runCmd(cmd);
+        // Equivalent to ./kafka-topics.sh --zookeeper master.mesos:2181/kafka --describe --unavailable-partitions
+        return kafkaZkClient.getUnavailablePartitions();
     }
 
     public JSONObject underReplicatedPartitions() throws Exception {
-        // e.g. ./kafka-topics.sh --zookeeper master.mesos:2181/kafka --describe --under-replicate-partitions
-
-        List<String> cmd = new ArrayList<String>();
-        cmd.add(binPath + "kafka-topics.sh");
-        cmd.add("--describe");
-        cmd.add("--zookeeper");
-        cmd.add(zkUri);
-        cmd.add("--under-replicated-partitions");
-
-        return runCmd(cmd);
+        // Equivalent to ./kafka-topics.sh --zookeeper master.mesos:2181/kafka --describe --under-replicated-partitions
+        return kafkaZkClient.getUnderReplicatedPartitions();
     }
 
     private static JSONArray getPartitions(String offsets) {
@@ -212,17 +205,15 @@ public class CmdExecutor {
         return new JSONArray(partitions);
     }
 
-    private static JSONObject runCmd(List<String> cmd) throws Exception {
-        ProcessBuilder builder = new ProcessBuilder(cmd);
-
+    private JSONObject runCmd(List<String> cmd) throws Exception {
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
-        Process process = builder.start();
-        int exitCode = process.waitFor();
+        ProcessRunner.Result result = processRunner.run(cmd);
         stopWatch.stop();
 
-        String stdout = streamToString(process.getInputStream());
-        String stderr = streamToString(process.getErrorStream());
+        int exitCode = result.exitCode;
+        String stdout = result.stdout;
+        String stderr = result.stderr;
         log.warn(String.format("stdout:%n%s", stdout));
         log.warn(String.format("stderr:%n%s", stderr));
         String message = createOutputMessage(stdout, stderr);
@@ -257,16 +248,4 @@ public class CmdExecutor {
         }
         return message;
     }
-
-    private static String streamToString(InputStream stream) throws Exception {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, Charset.defaultCharset()));
-        StringBuilder builder = new StringBuilder();
-        String line = null;
-        while ((line = reader.readLine()) != null) {
-            builder.append(line);
-            builder.append(System.getProperty("line.separator"));
-        }
-
-        return builder.toString();
-    }
 }
@@ -0,0 +1,131 @@
+package com.mesosphere.sdk.kafka.cmd;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs external commands with bounds on their concurrency, duration, and captured output.
+ *
+ * <p>Each process's stdout and stderr are drained while the process runs, so that a process which writes more than
+ * the OS pipe buffer can't block waiting for a reader. Output beyond the configured limit is read and discarded.
+ * Processes which exceed the timeout are killed.
+ */
+class ProcessRunner {
+    private static final Log log = LogFactory.getLog(ProcessRunner.class);
+
+    private static final String TRUNCATED_SUFFIX = "...(truncated)";
+
+    /**
+     * The result of a completed command.
+     */
+    static class Result {
+        final int exitCode;
+        final String stdout;
+        final String stderr;
+
+        private Result(int exitCode, String stdout, String stderr) {
+            this.exitCode = exitCode;
+            this.stdout = stdout;
+            this.stderr = stderr;
+        }
+    }
+
+    private final Semaphore permits;
+    private final long timeoutMs;
+    private final int maxOutputBytes;
+    private final ExecutorService drainExecutor;
+
+    /**
+     * @param maxConcurrent the maximum number of commands to run at once, beyond which callers wait for a slot
+     * @param timeoutMs the maximum time to wait for a slot, and then for the command to complete
+     * @param maxOutputBytes the maximum number of bytes to retain from each of stdout and stderr
+     */
+    ProcessRunner(int maxConcurrent, long timeoutMs, int maxOutputBytes) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.timeoutMs = timeoutMs;
+        this.maxOutputBytes = maxOutputBytes;
+        // Two readers for each running process:
+        this.drainExecutor = Executors.newFixedThreadPool(2 * maxConcurrent, runnable -> {
+            Thread thread = new Thread(runnable, "cmd-output");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs the provided command and returns its result.
+     *
+     * @throws TimeoutException if no slot became available, or if the command didn't complete, within the timeout
+     * @throws IOException if the command couldn't be started or its output couldn't be read
+     */
+    Result run(List<String> cmd) throws IOException, InterruptedException, TimeoutException {
+        if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException(String.format(
+                    "Timed out after %dms waiting for other commands to complete: %s",
+                    timeoutMs, StringUtils.join(cmd, " ")));
+        }
+        try {
+            return runPermitted(cmd);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Result runPermitted(List<String> cmd) throws IOException, InterruptedException, TimeoutException {
+        Process process = new ProcessBuilder(cmd).start();
+        process.getOutputStream().close();
+        Future<String> stdout = drainExecutor.submit(() -> drain(process.getInputStream()));
+        Future<String> stderr = drainExecutor.submit(() -> drain(process.getErrorStream()));
+        try {
+            if (!process.waitFor(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new TimeoutException(String.format(
+                        "Command didn't complete within %dms: %s", timeoutMs, StringUtils.join(cmd, " ")));
+            }
+            // The process has exited, so its output streams will reach EOF.
+            return new Result(process.exitValue(), stdout.get(), stderr.get());
+        } catch (ExecutionException e) {
+            throw new IOException(String.format(
+                    "Failed to read output of command: %s", StringUtils.join(cmd, " ")), e.getCause());
+        } finally {
+            if (process.isAlive()) {
+                log.warn(String.format("Killing command: %s", StringUtils.join(cmd, " ")));
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Reads the provided stream to EOF, retaining at most {@code maxOutputBytes}.
+     */
+    private String drain(InputStream stream) throws IOException {
+        ByteArrayOutputStream retained = new ByteArrayOutputStream();
+        boolean truncated = false;
+        byte[] buffer = new byte[8192];
+        try (InputStream in = stream) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                int retain = Math.min(read, maxOutputBytes - retained.size());
+                if (retain > 0) {
+                    retained.write(buffer, 0, retain);
+                }
+                truncated |= retain < read;
+            }
+        }
+        String output = new String(retained.toByteArray(), Charset.defaultCharset());
+        return truncated ? output + TRUNCATED_SUFFIX : output;
+    }
+}
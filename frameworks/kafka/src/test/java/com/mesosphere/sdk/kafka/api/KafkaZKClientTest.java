@@ -0,0 +1,194 @@
+package com.mesosphere.sdk.kafka.api;
+
+import com.mesosphere.sdk.scheduler.Metrics;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.RetryOneTime;
+import org.apache.curator.test.TestingServer;
+import org.apache.zookeeper.KeeperException;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.*;
+
+public class KafkaZKClientTest {
+
+    private TestingServer testingServer;
+    private CuratorFramework writer;
+    private KafkaZKClient client;
+
+    @Before
+    public void beforeEach() throws Exception {
+        testingServer = new TestingServer();
+        writer = CuratorFrameworkFactory.newClient(testingServer.getConnectString(), new RetryOneTime(100));
+        writer.start();
+        writeBroker("1", "host1");
+        writeTopic("topic0", 2);
+    }
+
+    @After
+    public void afterEach() throws Exception {
+        if (client != null) {
+            client.close();
+        }
+        writer.close();
+        testingServer.close();
+    }
+
+    @Test
+    public void testReadsInitialState() throws Exception {
+        client = newClient();
+        assertEquals("[\"1\"]", client.listBrokers().toString());
+        assertEquals("host1", client.getBroker("1").get().getString("host"));
+        assertFalse(client.getBroker("2").isPresent());
+        assertEquals("[\"topic0\"]", client.listTopics().toString());
+        assertEquals(Arrays.asList("host1:9092"), client.getBrokerEndpoints());
+        assertEquals(Arrays.asList("host1:9093"), client.getBrokerTLSEndpoints());
+
+        JSONArray partitions = client.getTopic("topic0").getJSONArray("partitions");
+        assertEquals(2, partitions.length());
+        assertEquals(1, partitions.getJSONObject(0).getJSONObject("0").getInt("leader"));
+        assertEquals(1, partitions.getJSONObject(1).getJSONObject("1").getInt("leader"));
+        assertEquals(0L, Metrics.getRegistry().getGauges().get(KafkaZKClient.STALENESS_METRIC).getValue());
+    }
+
+    @Test(expected = KeeperException.NoNodeException.class)
+    public void testUnknownTopic() throws Exception {
+        client = newClient();
+        client.getTopic("missing");
+    }
+
+    @Test
+    public void testFollowsChanges() throws Exception {
+        client = newClient();
+
+        writeBroker("2", "host2");
+        waitFor(() -> client.listBrokers().length() == 2);
+        assertEquals(Arrays.asList("host1:9092", "host2:9092"), client.getBrokerEndpoints());
+
+        writer.delete().forPath("/brokers/ids/1");
+        waitFor(() -> client.listBrokers().length() == 1);
+        assertFalse(client.getBroker("1").isPresent());
+
+        // Partitions are listed in numeric order:
+        writeTopic("topic1", 11);
+        waitFor(() -> client.listTopics().length() == 2
+                && client.getTopic("topic1").getJSONArray("partitions").length() == 11);
+        JSONArray partitions = client.getTopic("topic1").getJSONArray("partitions");
+        assertTrue(partitions.getJSONObject(10).has("10"));
+
+        writer.setData().forPath(
+                "/brokers/topics/topic0/partitions/0/state", getPartitionState(2, 2).getBytes(StandardCharsets.UTF_8));
+        waitFor(() -> client.getTopic("topic0").getJSONArray("partitions")
+                .getJSONObject(0).getJSONObject("0").getInt("leader") == 2);
+
+        writer.delete().deletingChildrenIfNeeded().forPath("/brokers/topics/topic0");
+        waitFor(() -> client.listTopics().length() == 1);
+        assertEquals("[\"topic1\"]", client.listTopics().toString());
+    }
+
+    @Test
+    public void testBrokersListedInNumericOrder() throws Exception {
+        writeBroker("10", "host10");
+        writeBroker("2", "host2");
+
+        // The same results whether or not the cache has completed its initial load:
+        client = new KafkaZKClient(testingServer.getConnectString());
+        for (int i = 0; i < 2; i++) {
+            assertEquals("[\"1\",\"2\",\"10\"]", client.listBrokers().toString());
+            assertEquals(Arrays.asList("host1:9092", "host2:9092", "host10:9092"), client.getBrokerEndpoints());
+
+            waitFor(() -> (Long) Metrics.getRegistry().getGauges().get(KafkaZKClient.STALENESS_METRIC).getValue() == 0);
+        }
+    }
+
+    @Test
+    public void testPartitionHealth() throws Exception {
+        writeBroker("2", "host2");
+        writer.create().forPath("/brokers/topics/topic1", getAssignment(3, 1, 2).getBytes(StandardCharsets.UTF_8));
+        writePartitionState("topic1", 0, 1, 1, 2); // healthy
+        writePartitionState("topic1", 1, 2, 2); // under-replicated
+        writePartitionState("topic1", 2, 3); // leader isn't live, no replicas in sync
+
+        // The same results whether or not the cache has completed its initial load:
+        client = new KafkaZKClient(testingServer.getConnectString());
+        for (int i = 0; i < 2; i++) {
+            JSONArray unavailable = client.getUnavailablePartitions().getJSONArray("partitions");
+            assertEquals(1, unavailable.length());
+            assertEquals("topic1", unavailable.getJSONObject(0).getString("topic"));
+            assertEquals(2, unavailable.getJSONObject(0).getInt("partition"));
+            assertEquals(3, unavailable.getJSONObject(0).getInt("leader"));
+            assertEquals("[1,2]", unavailable.getJSONObject(0).getJSONArray("replicas").toString());
+
+            JSONArray underReplicated = client.getUnderReplicatedPartitions().getJSONArray("partitions");
+            assertEquals(2, underReplicated.length());
+            assertEquals(1, underReplicated.getJSONObject(0).getInt("partition"));
+            assertEquals("[2]", underReplicated.getJSONObject(0).getJSONArray("isr").toString());
+            assertEquals(2, underReplicated.getJSONObject(1).getInt("partition"));
+
+            client.close();
+            client = newClient();
+        }
+    }
+
+    private KafkaZKClient newClient() throws Exception {
+        KafkaZKClient client = new KafkaZKClient(testingServer.getConnectString());
+        waitFor(() -> (Long) Metrics.getRegistry().getGauges().get(KafkaZKClient.STALENESS_METRIC).getValue() == 0);
+        return client;
+    }
+
+    private void writeBroker(String id, String host) throws Exception {
+        JSONObject broker = new JSONObject()
+                .put("host", host)
+                .put("port", 9092)
+                .put("listener_security_protocol_map", new JSONObject().put("PLAINTEXT", "PLAINTEXT").put("SSL", "SSL"))
+                .put("endpoints", new JSONArray()
+                        .put(String.format("PLAINTEXT://%s:9092", host))
+                        .put(String.format("SSL://%s:9093", host)));
+        writer.create().creatingParentsIfNeeded()
+                .forPath("/brokers/ids/" + id, broker.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeTopic(String name, int partitionCount) throws Exception {
+        writer.create().creatingParentsIfNeeded()
+                .forPath("/brokers/topics/" + name, getAssignment(partitionCount, 1).getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < partitionCount; i++) {
+            writePartitionState(name, i, 1, 1);
+        }
+    }
+
+    private void writePartitionState(String topic, int partition, int leader, Integer... isr) throws Exception {
+        writer.create().creatingParentsIfNeeded().forPath(
+                String.format("/brokers/topics/%s/partitions/%d/state", topic, partition),
+                getPartitionState(leader, isr).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String getAssignment(int partitionCount, Integer... replicas) {
+        JSONObject partitions = new JSONObject();
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.put(String.valueOf(i), new JSONArray(Arrays.asList(replicas)));
+        }
+        return new JSONObject().put("version", 1).put("partitions", partitions).toString();
+    }
+
+    private static String getPartitionState(int leader, Integer... isr) {
+        return new JSONObject().put("leader", leader).put("isr", new JSONArray(Arrays.asList(isr))).toString();
+    }
+
+    private static void waitFor(Callable<Boolean> condition) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            if (condition.call()) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("Timed out waiting for condition");
+    }
+}
@@ -0,0 +1,57 @@
+package com.mesosphere.sdk.kafka.cmd;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+
+public class ProcessRunnerTest {
+
+    @Test
+    public void testOutputCaptured() throws Exception {
+        ProcessRunner.Result result = new ProcessRunner(1, 10000, 1024)
+                .run(Arrays.asList("/bin/sh", "-c", "echo out; echo err >&2; exit 3"));
+        assertEquals(3, result.exitCode);
+        assertEquals("out\n", result.stdout);
+        assertEquals("err\n", result.stderr);
+    }
+
+    @Test
+    public void testLargeOutputDrainedAndTruncated() throws Exception {
+        // Far larger than the OS pipe buffer, on both streams:
+        ProcessRunner.Result result = new ProcessRunner(1, 10000, 1024).run(Arrays.asList(
+                "/bin/sh", "-c", "head -c 1000000 /dev/zero | tr '\\0' a; head -c 1000000 /dev/zero | tr '\\0' b >&2"));
+        assertEquals(0, result.exitCode);
+        assertEquals(1024 + "...(truncated)".length(), result.stdout.length());
+        assertTrue(result.stdout.startsWith("aaaa"));
+        assertTrue(result.stderr.startsWith("bbbb"));
+        assertTrue(result.stderr.endsWith("...(truncated)"));
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void testTimeout() throws Exception {
+        new ProcessRunner(1, 200, 1024).run(Arrays.asList("/bin/sh", "-c", "sleep 10"));
+    }
+
+    @Test
+    public void testConcurrencyLimit() throws Exception {
+        ProcessRunner runner = new ProcessRunner(1, 10000, 1024);
+        List<String> cmd = Arrays.asList("/bin/sh", "-c", "sleep 0.5");
+        Thread other = new Thread(() -> {
+            try {
+                runner.run(cmd);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        long startMs = System.currentTimeMillis();
+        other.start();
+        runner.run(cmd);
+        other.join();
+        // The commands were run one after the other:
+        assertTrue(System.currentTimeMillis() - startMs >= 1000);
+    }
+}
@@ -158,7 +158,7 @@ def test_no_under_replicated_topics_exist(kafka_server: dict):
         config.PACKAGE_NAME, kafka_server["service"]["name"],
         'topic under_replicated_partitions', json=True)
 
-    assert partition_info == {"message": ""}
+    assert partition_info == {"partitions": []}
 
 
 @pytest.mark.sanity
@@ -167,4 +167,4 @@ def test_no_unavailable_partitions_exist(kafka_server: dict):
         config.PACKAGE_NAME, kafka_server["service"]["name"],
         'topic unavailable_partitions', json=True)
 
-    assert partition_info == {"message": ""}
+    assert partition_info == {"partitions": []}
@@ -0,0 +1,226 @@
+package com.mesosphere.sdk.benchmarks;
+
+import com.mesosphere.sdk.dcos.Capabilities;
+import com.mesosphere.sdk.dcos.DcosVersion;
+import com.mesosphere.sdk.offer.CommonIdUtils;
+import com.mesosphere.sdk.offer.ResourceBuilder;
+import com.mesosphere.sdk.offer.taskdata.TaskLabelWriter;
+import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.specification.DefaultServiceSpec;
+import com.mesosphere.sdk.specification.GoalState;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import com.mesosphere.sdk.specification.yaml.RawServiceSpec;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.storage.MemPersister;
+import com.mesosphere.sdk.storage.Persister;
+import org.apache.commons.io.FileUtils;
+import org.apache.mesos.Protos;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Synthetic but realistically sized inputs for the scheduler benchmarks: rendered service specs, offers with many
+ * fragmented port ranges and mount volumes, and state stores holding thousands of tasks.
+ *
+ * Unlike the unit test utilities, these fixtures avoid mocks so that mock bookkeeping doesn't show up in measurements.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String SERVICE_NAME = "benchmark";
+
+    /** A task type which doesn't appear in the service spec, used to fill the state store with unrelated tasks. */
+    public static final String SEED_TASK_TYPE = "seed";
+
+    private static final String SPEC_RESOURCE = "benchmark-svc.yml";
+    private static final String MOUNT_ROOT = "/dcos/volume";
+    private static final int AGENT_COUNT = 500;
+
+    private static File specFile;
+
+    private BenchmarkFixtures() {
+        // do not instantiate
+    }
+
+    /**
+     * Returns a scheduler configuration populated with the settings that the scheduler would otherwise receive from
+     * its environment.
+     */
+    public static SchedulerConfig getSchedulerConfig() {
+        Map<String, String> env = new HashMap<>();
+        env.put("EXECUTOR_URI", "http://benchmark.invalid/executor.zip");
+        env.put("BOOTSTRAP_URI", "http://benchmark.invalid/bootstrap.zip");
+        env.put("LIBMESOS_URI", "http://benchmark.invalid/libmesos-bundle.tar.gz");
+        env.put("JAVA_URI", "http://benchmark.invalid/jre.tar.gz");
+        env.put("JAVA_HOME", "jre");
+        env.put("PORT_API", "8080");
+        return SchedulerConfig.fromMap(env);
+    }
+
+    /**
+     * Returns the scheduler environment used when rendering the benchmark service spec.
+     */
+    public static Map<String, String> getSchedulerEnv(int nodeCount) {
+        Map<String, String> env = new HashMap<>();
+        env.put("SERVICE_NAME", SERVICE_NAME);
+        env.put("NODE_COUNT", String.valueOf(nodeCount));
+        return env;
+    }
+
+    /**
+     * Returns the benchmark service spec YAML, copied out of the classpath into a file as required by
+     * {@link RawServiceSpec#newBuilder(File)}.
+     */
+    public static synchronized File getSpecFile() throws IOException {
+        if (specFile == null) {
+            File dir = Files.createTempDirectory("benchmark-spec").toFile();
+            dir.deleteOnExit();
+            File file = new File(dir, SPEC_RESOURCE);
+            try (InputStream in = BenchmarkFixtures.class.getClassLoader().getResourceAsStream(SPEC_RESOURCE)) {
+                FileUtils.copyInputStreamToFile(in, file);
+            }
+            file.deleteOnExit();
+            specFile = file;
+        }
+        return specFile;
+    }
+
+    /**
+     * Returns the raw benchmark service spec, with {@code nodeCount} instances of each pod.
+     */
+    public static RawServiceSpec getRawServiceSpec(int nodeCount) throws Exception {
+        return RawServiceSpec.newBuilder(getSpecFile()).setEnv(getSchedulerEnv(nodeCount)).build();
+    }
+
+    /**
+     * Renders the provided raw service spec into a {@link ServiceSpec}.
+     */
+    public static ServiceSpec getServiceSpec(
+            RawServiceSpec rawServiceSpec, SchedulerConfig schedulerConfig, int nodeCount) throws Exception {
+        // Avoid querying a DC/OS cluster for its version:
+        Capabilities.overrideCapabilities(new Capabilities(new DcosVersion("1.11.0")));
+        return DefaultServiceSpec.newGenerator(
+                rawServiceSpec, schedulerConfig, getSchedulerEnv(nodeCount), getSpecFile().getParentFile())
+                .build();
+    }
+
+    /**
+     * Returns {@code count} offers from distinct agents. Each offer has plenty of cpus/mem/disk, {@code portRanges}
+     * fragmented port ranges, and {@code mountVolumes} mount volumes.
+     */
+    public static List<Protos.Offer> getOffers(int count, int portRanges, int mountVolumes) {
+        List<Protos.Offer> offers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            offers.add(getOffer(i, portRanges, mountVolumes));
+        }
+        return offers;
+    }
+
+    /**
+     * Returns an offer from agent {@code index}, see {@link #getOffers(int, int, int)}.
+     */
+    public static Protos.Offer getOffer(int index, int portRanges, int mountVolumes) {
+        Protos.Offer.Builder builder = Protos.Offer.newBuilder()
+                .setId(Protos.OfferID.newBuilder().setValue("offer-" + index))
+                .setFrameworkId(Protos.FrameworkID.newBuilder().setValue("benchmark-framework-id"))
+                .setSlaveId(getAgentId(index))
+                .setHostname(getHostname(index));
+        builder.addAttributesBuilder()
+                .setName("rack")
+                .setType(Protos.Value.Type.TEXT)
+                .getTextBuilder().setValue("rack-" + (index % 10));
+
+        builder.addResources(getUnreservedScalar("cpus", 32));
+        builder.addResources(getUnreservedScalar("mem", 128 * 1024));
+        builder.addResources(getUnreservedScalar("disk", 512 * 1024));
+
+        // Ports which have been fragmented by other frameworks: [1000-1009], [1020-1029], ...
+        Protos.Value.Builder ports = Protos.Value.newBuilder().setType(Protos.Value.Type.RANGES);
+        for (int i = 0; i < portRanges; i++) {
+            long begin = 1000 + i * 20;
+            ports.getRangesBuilder().addRangeBuilder().setBegin(begin).setEnd(begin + 9);
+        }
+        builder.addResources(ResourceBuilder.fromUnreservedValue("ports", ports.build()).build());
+
+        for (int i = 0; i < mountVolumes; i++) {
+            Protos.Resource.Builder mount = getUnreservedScalar("disk", 10000 + i).toBuilder();
+            mount.getDiskBuilder().getSourceBuilder()
+                    .setType(Protos.Resource.DiskInfo.Source.Type.MOUNT)
+                    .getMountBuilder().setRoot(MOUNT_ROOT + i);
+            builder.addResources(mount);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns a launched task of the provided type and index, located on the agent which sent the provided offer.
+     */
+    public static Protos.TaskInfo getTaskInfo(String taskType, int index, Protos.Offer offer, UUID targetConfigId) {
+        String taskName = String.format("%s-%d-server", taskType, index);
+        Protos.TaskInfo.Builder builder = Protos.TaskInfo.newBuilder()
+                .setName(taskName)
+                .setTaskId(CommonIdUtils.toTaskId(SERVICE_NAME, taskName))
+                .setSlaveId(offer.getSlaveId())
+                .addResources(getUnreservedScalar("cpus", 1))
+                .addResources(getUnreservedScalar("mem", 1024));
+        builder.getCommandBuilder().setValue("./server");
+        builder.setLabels(new TaskLabelWriter(builder)
+                .setType(taskType)
+                .setIndex(index)
+                .setHostname(offer)
+                .setOfferAttributes(offer)
+                .setGoalState(GoalState.RUNNING)
+                .setTargetConfiguration(targetConfigId)
+                .toProto());
+        return builder.build();
+    }
+
+    /**
+     * Returns {@code count} launched tasks of the provided type, spread across agents.
+     */
+    public static List<Protos.TaskInfo> getTaskInfos(String taskType, int count, UUID targetConfigId) {
+        List<Protos.TaskInfo> taskInfos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            taskInfos.add(getTaskInfo(taskType, i, getOffer(i % AGENT_COUNT, 1, 0), targetConfigId));
+        }
+        return taskInfos;
+    }
+
+    /**
+     * Returns a {@link MemPersister} whose state store holds the provided tasks, each with a RUNNING status.
+     */
+    public static Persister getPopulatedPersister(Collection<Protos.TaskInfo> taskInfos) throws Exception {
+        Persister persister = new MemPersister();
+        StateStore stateStore = new StateStore(persister);
+        stateStore.storeTasks(taskInfos);
+        for (Protos.TaskInfo taskInfo : taskInfos) {
+            stateStore.storeStatus(taskInfo.getName(), Protos.TaskStatus.newBuilder()
+                    .setTaskId(taskInfo.getTaskId())
+                    .setState(Protos.TaskState.TASK_RUNNING)
+                    .build());
+        }
+        return persister;
+    }
+
+    private static Protos.SlaveID getAgentId(int index) {
+        return Protos.SlaveID.newBuilder().setValue("agent-" + index).build();
+    }
+
+    private static String getHostname(int index) {
+        return String.format("agent-%d.benchmark.invalid", index);
+    }
+
+    private static Protos.Resource getUnreservedScalar(String name, double value) {
+        Protos.Value.Builder builder = Protos.Value.newBuilder().setType(Protos.Value.Type.SCALAR);
+        builder.getScalarBuilder().setValue(value);
+        return ResourceBuilder.fromUnreservedValue(name, builder.build()).build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.mesosphere.sdk.benchmarks;
+
+import com.mesosphere.sdk.offer.MesosResource;
+import com.mesosphere.sdk.offer.MesosResourcePool;
+import org.apache.mesos.Protos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures construction of a {@link MesosResourcePool} from an offer with many fragmented port ranges and mount
+ * volumes, and consumption of resources from that pool. This is performed once per offer per evaluated pod.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MesosResourcePoolBenchmark {
+
+    @Param({"10", "200"})
+    public int portRanges;
+
+    @Param({"0", "20"})
+    public int mountVolumes;
+
+    private Protos.Offer offer;
+    private Protos.Value cpus;
+    private Protos.Value ports;
+    private Protos.Value mountVolume;
+
+    @Setup
+    public void setup() {
+        offer = BenchmarkFixtures.getOffer(0, portRanges, mountVolumes);
+        cpus = scalar(1.0);
+        mountVolume = scalar(5000);
+        // A port near the end of the offered ranges:
+        long port = 1000 + (portRanges - 1) * 20;
+        Protos.Value.Builder portsBuilder = Protos.Value.newBuilder().setType(Protos.Value.Type.RANGES);
+        portsBuilder.getRangesBuilder().addRangeBuilder().setBegin(port).setEnd(port);
+        ports = portsBuilder.build();
+    }
+
+    @Benchmark
+    public MesosResourcePool create() {
+        return new MesosResourcePool(offer, Optional.empty());
+    }
+
+    @Benchmark
+    public Optional<MesosResource> consumePorts() {
+        MesosResourcePool pool = new MesosResourcePool(offer, Optional.empty());
+        pool.consumeReservableMerged("cpus", cpus, "*");
+        return pool.consumeReservableMerged("ports", ports, "*");
+    }
+
+    @Benchmark
+    public Optional<MesosResource> consumeMountVolume() {
+        return new MesosResourcePool(offer, Optional.empty()).consumeAtomic("disk", mountVolume);
+    }
+
+    private static Protos.Value scalar(double value) {
+        Protos.Value.Builder builder = Protos.Value.newBuilder().setType(Protos.Value.Type.SCALAR);
+        builder.getScalarBuilder().setValue(value);
+        return builder.build();
+    }
+}
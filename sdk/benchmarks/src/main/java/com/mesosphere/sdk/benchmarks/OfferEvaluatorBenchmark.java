@@ -0,0 +1,95 @@
+package com.mesosphere.sdk.benchmarks;
+
+import com.mesosphere.sdk.http.endpoints.ArtifactResource;
+import com.mesosphere.sdk.offer.OfferRecommendation;
+import com.mesosphere.sdk.offer.evaluate.OfferEvaluator;
+import com.mesosphere.sdk.offer.history.OfferOutcomeTracker;
+import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.scheduler.plan.DefaultPodInstance;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import com.mesosphere.sdk.state.FrameworkStore;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.storage.Persister;
+import org.apache.mesos.Protos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures evaluation of a single pod launch against a batch of offers, as performed on every offer cycle while a
+ * deployment is in progress. The state store is filled with other tasks, which are consulted for placement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OfferEvaluatorBenchmark {
+
+    @Param({"1", "50"})
+    public int offerCount;
+
+    @Param({"10", "200"})
+    public int portRanges;
+
+    @Param({"0", "5000"})
+    public int existingTasks;
+
+    private OfferEvaluator offerEvaluator;
+    private PodInstanceRequirement podInstanceRequirement;
+    private List<Protos.Offer> offers;
+
+    @Setup
+    public void setup() throws Exception {
+        SchedulerConfig schedulerConfig = BenchmarkFixtures.getSchedulerConfig();
+        ServiceSpec serviceSpec = BenchmarkFixtures.getServiceSpec(
+                BenchmarkFixtures.getRawServiceSpec(3), schedulerConfig, 3);
+        UUID targetConfigId = UUID.randomUUID();
+
+        Persister persister = BenchmarkFixtures.getPopulatedPersister(BenchmarkFixtures.getTaskInfos(
+                BenchmarkFixtures.SEED_TASK_TYPE, existingTasks, targetConfigId));
+        FrameworkStore frameworkStore = new FrameworkStore(persister);
+        frameworkStore.storeFrameworkId(Protos.FrameworkID.newBuilder().setValue("benchmark-framework-id").build());
+
+        offerEvaluator = new OfferEvaluator(
+                frameworkStore,
+                new StateStore(persister),
+                new OfferOutcomeTracker(),
+                BenchmarkFixtures.SERVICE_NAME,
+                targetConfigId,
+                ArtifactResource.getUrlFactory(BenchmarkFixtures.SERVICE_NAME),
+                schedulerConfig,
+                Optional.empty(),
+                true);
+
+        PodSpec podSpec = serviceSpec.getPods().stream()
+                .filter(pod -> pod.getType().equals("node"))
+                .findFirst()
+                .get();
+        podInstanceRequirement = PodInstanceRequirement.newBuilder(
+                new DefaultPodInstance(podSpec, 0), Arrays.asList("server")).build();
+        offers = BenchmarkFixtures.getOffers(offerCount, portRanges, 4);
+    }
+
+    @Benchmark
+    public List<OfferRecommendation> evaluate() throws Exception {
+        return offerEvaluator.evaluate(podInstanceRequirement, offers);
+    }
+}
@@ -0,0 +1,70 @@
+package com.mesosphere.sdk.benchmarks;
+
+import com.mesosphere.sdk.offer.evaluate.EvaluationOutcome;
+import com.mesosphere.sdk.offer.evaluate.placement.MarathonConstraintParser;
+import com.mesosphere.sdk.offer.evaluate.placement.PlacementRule;
+import com.mesosphere.sdk.scheduler.plan.DefaultPodInstance;
+import com.mesosphere.sdk.specification.PodInstance;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import org.apache.mesos.Protos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures evaluation of common placement constraints against an offer, given the service's other tasks. Placement is
+ * evaluated once per offer per evaluated pod, and its cost grows with the number of tasks in the service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementRuleBenchmark {
+
+    @Param({
+            "[[\"hostname\", \"UNIQUE\"]]",
+            "[[\"hostname\", \"MAX_PER\", \"2\"]]",
+            "[[\"rack\", \"GROUP_BY\", \"10\"], [\"hostname\", \"LIKE\", \"agent-.*\"]]"})
+    public String constraint;
+
+    @Param({"100", "5000"})
+    public int taskCount;
+
+    private PlacementRule rule;
+    private Protos.Offer offer;
+    private PodInstance podInstance;
+    private Collection<Protos.TaskInfo> tasks;
+
+    @Setup
+    public void setup() throws Exception {
+        rule = MarathonConstraintParser.parse("node", constraint);
+        ServiceSpec serviceSpec = BenchmarkFixtures.getServiceSpec(
+                BenchmarkFixtures.getRawServiceSpec(1), BenchmarkFixtures.getSchedulerConfig(), 1);
+        podInstance = new DefaultPodInstance(serviceSpec.getPods().get(0), 0);
+        // Share tasks between the pod type being placed and other pod types:
+        tasks = BenchmarkFixtures.getTaskInfos("node", taskCount / 2, UUID.randomUUID());
+        tasks.addAll(BenchmarkFixtures.getTaskInfos(
+                BenchmarkFixtures.SEED_TASK_TYPE, taskCount - tasks.size(), UUID.randomUUID()));
+        // An agent which doesn't already have tasks, so that the rules pass:
+        offer = BenchmarkFixtures.getOffer(100000, 1, 0);
+    }
+
+    @Benchmark
+    public EvaluationOutcome filter() {
+        return rule.filter(offer, podInstance, tasks);
+    }
+}
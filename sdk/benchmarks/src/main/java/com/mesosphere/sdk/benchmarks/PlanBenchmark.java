@@ -0,0 +1,82 @@
+package com.mesosphere.sdk.benchmarks;
+
+import com.mesosphere.sdk.scheduler.plan.Plan;
+import com.mesosphere.sdk.scheduler.plan.PlanUtils;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import com.mesosphere.sdk.scheduler.plan.Status;
+import com.mesosphere.sdk.scheduler.plan.Step;
+import com.mesosphere.sdk.specification.DefaultPlanGenerator;
+import com.mesosphere.sdk.specification.DefaultServiceSpec;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import com.mesosphere.sdk.specification.yaml.RawServiceSpec;
+import com.mesosphere.sdk.state.ConfigStore;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.storage.MemPersister;
+import com.mesosphere.sdk.storage.Persister;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the plan status queries which are performed on every offer cycle and by the plans HTTP endpoints. Plan
+ * status is aggregated from every phase and step each time it's requested.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlanBenchmark {
+
+    @Param({"10", "500"})
+    public int nodeCount;
+
+    private Plan plan;
+    private Set<PodInstanceRequirement> dirtyAssets;
+
+    @Setup
+    public void setup() throws Exception {
+        RawServiceSpec rawServiceSpec = BenchmarkFixtures.getRawServiceSpec(nodeCount);
+        ServiceSpec serviceSpec = BenchmarkFixtures.getServiceSpec(
+                rawServiceSpec, BenchmarkFixtures.getSchedulerConfig(), nodeCount);
+        Persister persister = new MemPersister();
+        ConfigStore<ServiceSpec> configStore =
+                new ConfigStore<>(DefaultServiceSpec.getConfigurationFactory(serviceSpec), persister);
+        configStore.setTargetConfig(configStore.store(serviceSpec));
+        plan = new DefaultPlanGenerator(configStore, new StateStore(persister))
+                .generate(rawServiceSpec.getPlans().get("deploy"), "deploy", serviceSpec.getPods());
+        // Complete part of the plan, as would be seen mid-deployment:
+        plan.getChildren().get(0).getChildren().stream()
+                .limit(nodeCount / 2)
+                .forEach(Step::forceComplete);
+        dirtyAssets = PlanUtils.getDirtyAssets(plan);
+    }
+
+    @Benchmark
+    public Status getStatus() {
+        return plan.getStatus();
+    }
+
+    @Benchmark
+    public Set<PodInstanceRequirement> getDirtyAssets() {
+        return PlanUtils.getDirtyAssets(plan);
+    }
+
+    @Benchmark
+    public Collection<? extends Step> getCandidates() {
+        return plan.getCandidates(dirtyAssets);
+    }
+}
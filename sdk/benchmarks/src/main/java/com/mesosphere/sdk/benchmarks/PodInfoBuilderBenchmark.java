@@ -0,0 +1,109 @@
+package com.mesosphere.sdk.benchmarks;
+
+import com.mesosphere.sdk.http.endpoints.ArtifactResource;
+import com.mesosphere.sdk.offer.evaluate.PodInfoBuilder;
+import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.scheduler.plan.DefaultPodInstance;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import com.mesosphere.sdk.specification.DefaultPodSpec;
+import com.mesosphere.sdk.specification.DefaultTaskSpec;
+import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import com.mesosphere.sdk.specification.TaskSpec;
+import org.apache.mesos.Protos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creation of the {@link PodInfoBuilder} which each offer is evaluated against, either from scratch or by
+ * copying a {@link PodInfoBuilder.Prototype} which is built once per evaluated pod. Run with {@code -prof gc} to compare
+ * allocation per operation, which grows with the number of tasks in the pod.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PodInfoBuilderBenchmark {
+
+    @Param({"1", "20"})
+    public int tasksPerPod;
+
+    private SchedulerConfig schedulerConfig;
+    private PodInstanceRequirement podInstanceRequirement;
+    private UUID targetConfigId;
+    private Protos.FrameworkID frameworkId;
+    private PodInfoBuilder.Prototype prototype;
+
+    @Setup
+    public void setup() throws Exception {
+        schedulerConfig = BenchmarkFixtures.getSchedulerConfig();
+        ServiceSpec serviceSpec = BenchmarkFixtures.getServiceSpec(
+                BenchmarkFixtures.getRawServiceSpec(1), schedulerConfig, 1);
+        PodSpec podSpec = serviceSpec.getPods().stream()
+                .filter(pod -> pod.getType().equals("node"))
+                .findFirst()
+                .get();
+
+        // Copies of the "server" task, each with its own environment, checks, and container settings:
+        TaskSpec serverTask = podSpec.getTasks().get(0);
+        List<TaskSpec> tasks = new ArrayList<>();
+        List<String> taskNames = new ArrayList<>();
+        for (int i = 0; i < tasksPerPod; i++) {
+            String taskName = String.format("%s-%d", serverTask.getName(), i);
+            tasks.add(DefaultTaskSpec.newBuilder(serverTask).name(taskName).build());
+            taskNames.add(taskName);
+        }
+        podSpec = DefaultPodSpec.newBuilder(podSpec).tasks(tasks).build();
+
+        podInstanceRequirement = PodInstanceRequirement.newBuilder(new DefaultPodInstance(podSpec, 0), taskNames)
+                .build();
+        targetConfigId = UUID.randomUUID();
+        frameworkId = Protos.FrameworkID.newBuilder().setValue("benchmark-framework-id").build();
+        prototype = PodInfoBuilder.newPrototype(
+                podInstanceRequirement,
+                BenchmarkFixtures.SERVICE_NAME,
+                targetConfigId,
+                ArtifactResource.getUrlFactory(BenchmarkFixtures.SERVICE_NAME),
+                schedulerConfig,
+                Collections.emptyList(),
+                frameworkId,
+                true,
+                Collections.emptyMap());
+    }
+
+    @Benchmark
+    public PodInfoBuilder fromScratch() throws Exception {
+        return new PodInfoBuilder(
+                podInstanceRequirement,
+                BenchmarkFixtures.SERVICE_NAME,
+                targetConfigId,
+                ArtifactResource.getUrlFactory(BenchmarkFixtures.SERVICE_NAME),
+                schedulerConfig,
+                Collections.emptyList(),
+                frameworkId,
+                true,
+                Collections.emptyMap());
+    }
+
+    @Benchmark
+    public PodInfoBuilder fromPrototype() {
+        return prototype.newBuilder();
+    }
+}
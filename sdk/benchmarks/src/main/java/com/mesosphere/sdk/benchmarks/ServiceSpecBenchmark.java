@@ -0,0 +1,53 @@
+package com.mesosphere.sdk.benchmarks;
+
+import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import com.mesosphere.sdk.specification.yaml.RawServiceSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing of a service spec YAML file, and its conversion into a {@link ServiceSpec}. This is performed at
+ * scheduler startup and whenever the configuration is updated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceSpecBenchmark {
+
+    @Param({"3", "100"})
+    public int nodeCount;
+
+    private SchedulerConfig schedulerConfig;
+    private RawServiceSpec rawServiceSpec;
+
+    @Setup
+    public void setup() throws Exception {
+        schedulerConfig = BenchmarkFixtures.getSchedulerConfig();
+        rawServiceSpec = BenchmarkFixtures.getRawServiceSpec(nodeCount);
+    }
+
+    @Benchmark
+    public RawServiceSpec parseYaml() throws Exception {
+        return BenchmarkFixtures.getRawServiceSpec(nodeCount);
+    }
+
+    @Benchmark
+    public ServiceSpec toServiceSpec() throws Exception {
+        return BenchmarkFixtures.getServiceSpec(rawServiceSpec, schedulerConfig, nodeCount);
+    }
+}
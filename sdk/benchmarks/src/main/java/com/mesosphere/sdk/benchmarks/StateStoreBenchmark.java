@@ -0,0 +1,75 @@
+package com.mesosphere.sdk.benchmarks;
+
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.storage.Persister;
+import com.mesosphere.sdk.storage.PersisterCache;
+import org.apache.mesos.Protos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link StateStore} queries which are performed on every offer cycle and by the HTTP endpoints, both
+ * directly against storage and through a {@link PersisterCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateStoreBenchmark {
+
+    @Param({"1000", "5000"})
+    public int taskCount;
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private StateStore stateStore;
+    private String taskName;
+
+    @Setup
+    public void setup() throws Exception {
+        Persister persister = BenchmarkFixtures.getPopulatedPersister(
+                BenchmarkFixtures.getTaskInfos(BenchmarkFixtures.SEED_TASK_TYPE, taskCount, UUID.randomUUID()));
+        if (cached) {
+            persister = new PersisterCache(persister);
+        }
+        stateStore = new StateStore(persister);
+        taskName = String.format("%s-%d-server", BenchmarkFixtures.SEED_TASK_TYPE, taskCount / 2);
+    }
+
+    @Benchmark
+    public Collection<Protos.TaskInfo> fetchTasks() throws Exception {
+        return stateStore.fetchTasks();
+    }
+
+    @Benchmark
+    public Collection<Protos.TaskStatus> fetchStatuses() throws Exception {
+        return stateStore.fetchStatuses();
+    }
+
+    @Benchmark
+    public Collection<String> fetchTaskNames() throws Exception {
+        return stateStore.fetchTaskNames();
+    }
+
+    @Benchmark
+    public Optional<Protos.TaskInfo> fetchTask() throws Exception {
+        return stateStore.fetchTask(taskName);
+    }
+}
@@ -1,7 +1,11 @@
 package com.mesosphere.sdk.offer.taskdata;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import org.apache.mesos.Protos.Labels;
 
@@ -10,11 +14,34 @@ import com.mesosphere.sdk.offer.TaskException;
 /**
  * Implements common logic for read access to a task's Labels. Any access to component-specific values is provided by
  * subclasses.
+ *
+ * <p>Readers are created frequently, often several times for the same task, so the parsed form of each distinct
+ * {@link Labels} is shared between all readers rather than being copied into a new map by each of them. Values which
+ * are decoded from label strings may likewise be shared via {@link #getDecodedOrThrow(String, Function)} and
+ * {@link #getDecodedOptional(String, Function)}.
  */
 class LabelReader {
 
+    /**
+     * Parsed labels, shared between readers of equal {@link Labels}. {@link Labels} are immutable, and are held
+     * weakly so that entries are dropped once no task refers to them.
+     */
+    private static final Map<Labels, LabelIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
     private final String name;
-    private final Map<String, String> labels;
+    private final LabelIndex index;
+
+    /**
+     * An immutable view of a set of labels, along with any values which have been decoded from them.
+     */
+    private static class LabelIndex {
+        private final Map<String, String> labels;
+        private final Map<String, Object> decoded = new ConcurrentHashMap<>();
+
+        private LabelIndex(Labels labels) {
+            this.labels = Collections.unmodifiableMap(LabelUtils.toMap(labels));
+        }
+    }
 
     /**
      * Creates a new instance.
@@ -24,17 +51,17 @@ class LabelReader {
      */
     LabelReader(String taskName, Labels labels) {
         this.name = taskName;
-        this.labels = LabelUtils.toMap(labels);
+        this.index = getIndex(labels);
     }
 
     /**
      * Returns the requested label value, or throws an exception if the value was not found.
      */
     protected String getOrThrow(String key) throws TaskException {
-        String value = labels.get(key);
+        String value = index.labels.get(key);
         if (value == null) {
             throw new TaskException(String.format(
-                    "%s is missing label %s. Current labels are: %s", name, key, labels));
+                    "%s is missing label %s. Current labels are: %s", name, key, index.labels));
         }
         return value;
     }
@@ -43,6 +70,54 @@ class LabelReader {
      * Returns the requested label value, or an empty Optional if the value was not found.
      */
     protected Optional<String> getOptional(String key) {
-        return Optional.ofNullable(labels.get(key));
+        return Optional.ofNullable(index.labels.get(key));
+    }
+
+    /**
+     * Returns the requested label value as decoded by the provided decoder, or throws an exception if the value was
+     * not found. The decoded value is shared with other readers of the same labels, so a given label must always be
+     * decoded the same way, and the decoder must not return {@code null}. Any exception thrown by the decoder is
+     * passed through to the caller.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T getDecodedOrThrow(String key, Function<String, T> decoder) throws TaskException {
+        Object value = index.decoded.get(key);
+        if (value == null) {
+            value = decoder.apply(getOrThrow(key));
+            index.decoded.put(key, value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Returns the requested label value as decoded by the provided decoder, or an empty Optional if the value was not
+     * found. The same restrictions apply as with {@link #getDecodedOrThrow(String, Function)}.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> Optional<T> getDecodedOptional(String key, Function<String, T> decoder) {
+        Object value = index.decoded.get(key);
+        if (value == null) {
+            Optional<String> encoded = getOptional(key);
+            if (!encoded.isPresent()) {
+                return Optional.empty();
+            }
+            value = decoder.apply(encoded.get());
+            index.decoded.put(key, value);
+        }
+        return Optional.of((T) value);
+    }
+
+    private static LabelIndex getIndex(Labels labels) {
+        if (labels.getLabelsCount() == 0) {
+            // Shortcut: Don't bother retaining empty labels.
+            return new LabelIndex(labels);
+        }
+        LabelIndex index = INDEXES.get(labels);
+        if (index == null) {
+            // Concurrent callers may both parse the same labels, but the results are equivalent.
+            index = new LabelIndex(labels);
+            INDEXES.put(labels, index);
+        }
+        return index;
     }
 }
@@ -2,6 +2,7 @@ package com.mesosphere.sdk.offer.taskdata;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.Optional;
 import java.util.TreeMap;
 
 import org.apache.commons.codec.binary.Base64;
@@ -36,6 +37,20 @@ class LabelUtils {
         return map;
     }
 
+    /**
+     * Returns the value of the provided key within the provided {@link Labels}, without copying them into a map. In the
+     * event of duplicate labels, the last duplicate wins, as with {@link #toMap(Labels)}.
+     */
+    static Optional<String> getValue(Labels labels, String key) {
+        for (int i = labels.getLabelsCount() - 1; i >= 0; --i) {
+            Label label = labels.getLabels(i);
+            if (label.getKey().equals(key)) {
+                return Optional.of(label.getValue());
+            }
+        }
+        return Optional.empty();
+    }
+
     /**
      * Returns a Protobuf representation of the provided {@link Map}.
      *
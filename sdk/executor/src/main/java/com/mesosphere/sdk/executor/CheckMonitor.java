@@ -6,10 +6,12 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.Future;
 
 /**
- * This class reacts to the failure of a health check by calling the stop() method of the ExecutorTask.
+ * This class reacts to the failure of a health check by calling the stop() method of the ExecutorTask. The check is
+ * cancelled once the task has exited.
  */
 public class CheckMonitor implements Callable<Optional<CheckStats>> {
     private final Logger logger = LoggerFactory.getLogger(getClass());
@@ -33,10 +35,15 @@ public class CheckMonitor implements Callable<Optional<CheckStats>> {
     @Override
     public Optional<CheckStats> call() throws Exception {
         Future<?> healthCheck = healthCheckHandler.start();
+        // Stop scheduling checks as soon as the task has exited, rather than waiting for the next check to notice:
+        launchedTask.onExit().whenComplete((ignored, exception) -> healthCheck.cancel(false));
         Optional<CheckStats> healthCheckStats = Optional.empty();
 
         try {
             healthCheck.get();
+        } catch (CancellationException e) {
+            logger.info("Cancelled {} check: task has exited", checkType);
+            return healthCheckStats;
         } catch (Throwable t) {
 
             if (t.getCause() instanceof CheckHandler.CheckRuntimeException) {
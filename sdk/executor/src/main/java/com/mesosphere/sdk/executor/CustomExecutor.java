@@ -48,7 +48,6 @@ public class CustomExecutor implements Executor {
             Protos.FrameworkInfo frameworkInfo,
             Protos.SlaveInfo agentInfo) {
         LOGGER.info("Registered executor: {}", TextFormat.shortDebugString(executorInfo));
-        executorService.submit(launchedTaskStore.getMonitor());
     }
 
     @Override
@@ -146,21 +145,17 @@ public class CustomExecutor implements Executor {
                             launchedTask,
                             checkType);
             LOGGER.info("Submitting {} check monitor.", checkType);
-            Future<Optional<CheckStats>> futureOptionalHealthCheckStats =
-                    executorService.submit(healthCheckMonitor);
-
-            executorService.submit(new Runnable() {
-                @Override
-                public void run() {
-                    try {
-                        Optional<CheckStats> optionalHealthCheckStats = futureOptionalHealthCheckStats.get();
-                        if (optionalHealthCheckStats.isPresent()) {
-                            LOGGER.info("{} check exited with statistics: {}",
-                                    checkType, optionalHealthCheckStats.get());
-                        }
-                    } catch (InterruptedException | ExecutionException e) {
-                        LOGGER.error(String.format("Failed to get %s check stats with exception: ", checkType), e);
-                    }
+            CompletableFuture.supplyAsync(() -> {
+                try {
+                    return healthCheckMonitor.call();
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executorService).whenComplete((optionalHealthCheckStats, exception) -> {
+                if (exception != null) {
+                    LOGGER.error(String.format("Failed to get %s check stats with exception: ", checkType), exception);
+                } else if (optionalHealthCheckStats.isPresent()) {
+                    LOGGER.info("{} check exited with statistics: {}", checkType, optionalHealthCheckStats.get());
                 }
             });
         } catch (CheckHandler.CheckValidationException ex) {
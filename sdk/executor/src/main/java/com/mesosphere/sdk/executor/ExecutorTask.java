@@ -1,8 +1,19 @@
 package com.mesosphere.sdk.executor;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * All the executor tasks should implement this.
  */
 public interface ExecutorTask extends Runnable {
     public void stop();
+
+    /**
+     * Returns a future which is completed once this task has fully exited, after {@link #run()} has returned. Tasks
+     * whose {@link #run()} returns before the underlying work has finished (e.g. while a launched process is still
+     * running) should override this to complete once that work is done and any final status has been sent.
+     */
+    public default CompletableFuture<Void> onExit() {
+        return CompletableFuture.completedFuture(null);
+    }
 }
@@ -1,21 +1,22 @@
 package com.mesosphere.sdk.executor;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 
 /**
- * This class encapsulates an ExecutorTask and the Future returned when it was started.
+ * This class encapsulates an ExecutorTask and the future which is completed when it has exited.
  */
 public class LaunchedTask {
     private final ExecutorTask executorTask;
-    private final Future<?> future;
+    private final CompletableFuture<Void> exited;
 
     /**
      * Starts the provided {@link ExecutorTask} against the provided {@link ExecutorService}.
      */
     public LaunchedTask(ExecutorTask executorTask, ExecutorService executorService) {
         this.executorTask = executorTask;
-        this.future = executorService.submit(executorTask);
+        this.exited = CompletableFuture.runAsync(executorTask, executorService)
+                .thenCompose(ignored -> executorTask.onExit());
     }
 
     public void stop() {
@@ -23,6 +24,13 @@ public class LaunchedTask {
     }
 
     public boolean isDone() {
-        return future.isDone();
+        return exited.isDone();
+    }
+
+    /**
+     * Returns a future which is completed when the task has exited, whether successfully or not.
+     */
+    public CompletableFuture<Void> onExit() {
+        return exited;
     }
 }
@@ -7,17 +7,13 @@ import org.apache.mesos.Protos;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.annotations.VisibleForTesting;
-
 /**
  * Storage of tasks that are being run by this executor.
  */
 public class LaunchedTaskStore {
     private static final Logger LOGGER = LoggerFactory.getLogger(LaunchedTaskStore.class);
-    private static final int RUNNING_TASK_POLL_INTERVAL_MS = 5000;
 
-    private final Runnable monitor;
-    private final int exitPollIntervalMs;
+    private final Runnable exitCallback;
 
     private final Object launchedTasksLock = new Object();
     /**
@@ -27,29 +23,19 @@ public class LaunchedTaskStore {
     private final Map<Protos.TaskID, LaunchedTask> launchedTasks = new HashMap<>();
 
     public LaunchedTaskStore(Runnable exitCallback) {
-        this(exitCallback, RUNNING_TASK_POLL_INTERVAL_MS);
-    }
-
-    @VisibleForTesting
-    LaunchedTaskStore(Runnable exitCallback, int exitPollIntervalMs) {
-        this.monitor = new TasksRunningMonitor(exitCallback);
-        this.exitPollIntervalMs = exitPollIntervalMs;
+        this.exitCallback = exitCallback;
     }
 
     /**
-     * Returns the monitor process to be run once the executor has registered.
-     */
-    public Runnable getMonitor() {
-        return monitor;
-    }
-
-    /**
-     * Adds a launched task.
+     * Adds a launched task. Once the task has exited, the executor process is destroyed if no other launched tasks
+     * are still running.
      */
     public void put(Protos.TaskID taskId, LaunchedTask launchedTask) {
         synchronized (launchedTasksLock) {
             launchedTasks.put(taskId, launchedTask);
         }
+        // Registered outside the lock: the callback is invoked inline if the task has already exited.
+        launchedTask.onExit().whenComplete((ignored, exception) -> exitIfAllDone(taskId));
     }
 
     /**
@@ -57,7 +43,7 @@ public class LaunchedTaskStore {
      */
     public void kill(Protos.TaskID taskId) {
         final LaunchedTask launchedTask;
-        synchronized (launchedTasks) {
+        synchronized (launchedTasksLock) {
             launchedTask = launchedTasks.get(taskId);
         }
         if (launchedTask == null) {
@@ -76,7 +62,7 @@ public class LaunchedTaskStore {
      * Kills any previously added tasks that are still running.
      */
     public void killAll() {
-        synchronized (launchedTasks) {
+        synchronized (launchedTasksLock) {
             for (Map.Entry<Protos.TaskID, LaunchedTask> entry : launchedTasks.entrySet()) {
                 final Protos.TaskID taskId = entry.getKey();
                 LOGGER.info("Stopping task as part of shutdown: {}", taskId.getValue());
@@ -90,45 +76,20 @@ public class LaunchedTaskStore {
     }
 
     /**
-     * Periodically checks that launched tasks are still running.
-     * If all tasks have exited (as indicated by {@link LaunchedTask#isDone()}, the executor process is destroyed.
-     * This ensures that we aren't leaving zombie executors behind in the cluster.
+     * Invoked whenever a launched task has exited. If all tasks have exited (as indicated by
+     * {@link LaunchedTask#isDone()}), the executor process is destroyed. This ensures that we aren't leaving zombie
+     * executors behind in the cluster.
      */
-    private class TasksRunningMonitor implements Runnable {
-        private final Runnable exitCallback;
-
-        public TasksRunningMonitor(Runnable exitCallback) {
-            this.exitCallback = exitCallback;
-        }
-
-        @Override
-        public void run() {
-            while (true) {
-                exitIfAllDone();
-                try {
-                    Thread.sleep(exitPollIntervalMs);
-                } catch (InterruptedException e) {
-                    // ignore
-                }
-            }
-        }
-
-        /**
-         * Calls {@link LaunchedTaskStore#executorExit()} if no tasks are still running.
-         */
-        private void exitIfAllDone() {
-            synchronized (launchedTasksLock) {
-                if (launchedTasks.isEmpty()) {
-                    return; // no tasks have been launched yet.
-                }
-                long doneTasks = launchedTasks.values().stream().filter(lt -> lt.isDone()).count();
-                if (doneTasks == launchedTasks.size()) {
-                    LOGGER.info("Shutting down executor: All {} launched tasks have exited, nothing left to do.",
-                            launchedTasks.size());
-                    exitCallback.run();
-                } else {
-                    LOGGER.debug("{} of {} launched tasks have exited", doneTasks, launchedTasks.size());
-                }
+    private void exitIfAllDone(Protos.TaskID exitedTaskId) {
+        synchronized (launchedTasksLock) {
+            long doneTasks = launchedTasks.values().stream().filter(lt -> lt.isDone()).count();
+            if (doneTasks == launchedTasks.size()) {
+                LOGGER.info("Shutting down executor: All {} launched tasks have exited, nothing left to do.",
+                        launchedTasks.size());
+                exitCallback.run();
+            } else {
+                LOGGER.info("Task {} has exited, {} of {} launched tasks have exited",
+                        exitedTaskId.getValue(), doneTasks, launchedTasks.size());
             }
         }
     }
@@ -5,6 +5,7 @@ import org.apache.mesos.Protos;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.mesosphere.sdk.offer.taskdata.ProcessBuilderUtils;
 
 import java.time.Duration;
@@ -15,6 +16,16 @@ import java.util.concurrent.*;
  */
 public class ProcessTask implements ExecutorTask {
     private static final Logger LOGGER = LoggerFactory.getLogger(ProcessTask.class);
+    /**
+     * Reaper threads only block on {@link Process#waitFor()}, so they are given a minimal stack, as with the JDK's
+     * own process reaper.
+     */
+    private static final long PROCESS_REAPER_STACK_SIZE = 128 * 1024;
+    private static final ExecutorService PROCESS_REAPER = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(null, runnable, "process-reaper", PROCESS_REAPER_STACK_SIZE);
+        thread.setDaemon(true);
+        return thread;
+    });
     private final ProcessBuilder processBuilder;
     private final ExecutorDriver driver;
     private final Protos.TaskInfo taskInfo;
@@ -22,6 +33,8 @@ public class ProcessTask implements ExecutorTask {
             new CompletableFuture<>();
     private final CompletableFuture<Integer> exit =
             new CompletableFuture<>();
+    private final CompletableFuture<Void> exited =
+            new CompletableFuture<>();
     private volatile Process process;
 
     private static final Duration noGracePeriod = Duration.ZERO;
@@ -68,6 +81,7 @@ public class ProcessTask implements ExecutorTask {
                         taskInfo.getExecutor().getExecutorId(),
                         String.format("Empty command found for: %s", taskInfo.getName()),
                         false);
+                exited.complete(null);
                 return;
             }
 
@@ -86,28 +100,48 @@ public class ProcessTask implements ExecutorTask {
                     true);
             initialized.complete(true);
 
-            waitUninterruptably(process);
-            final int exitValue = process.exitValue();
-            exit.complete(exitValue);
-            Protos.TaskState taskState;
-
-            boolean isHealthy = true;
-            String exitValueStr = String.valueOf(exitValue);
-            if (exitValue == 0) {
-                taskState = Protos.TaskState.TASK_FINISHED;
-            } else if (exitValue > 128) {
-                taskState = Protos.TaskState.TASK_KILLED;
-                // Fatal error: 128 + N (e.g. kill -9 results in 137 == 128+9)
-                exitValueStr = String.format("%d => killed(%d)", exitValue, exitValue - 128);
-                isHealthy = false;
-            } else {
-                taskState = Protos.TaskState.TASK_FAILED;
-                isHealthy = false;
-            }
+            onExit(process).whenComplete((exitedProcess, exception) -> {
+                if (exception != null) {
+                    fail(exception);
+                } else {
+                    sendExitStatus(exitedProcess.exitValue());
+                }
+            });
+        } catch (Throwable e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Returns a future which is completed once the task process has exited and its final status has been sent.
+     */
+    @Override
+    public CompletableFuture<Void> onExit() {
+        return exited;
+    }
+
+    private void sendExitStatus(int exitValue) {
+        exit.complete(exitValue);
+        Protos.TaskState taskState;
+
+        boolean isHealthy = true;
+        String exitValueStr = String.valueOf(exitValue);
+        if (exitValue == 0) {
+            taskState = Protos.TaskState.TASK_FINISHED;
+        } else if (exitValue > 128) {
+            taskState = Protos.TaskState.TASK_KILLED;
+            // Fatal error: 128 + N (e.g. kill -9 results in 137 == 128+9)
+            exitValueStr = String.format("%d => killed(%d)", exitValue, exitValue - 128);
+            isHealthy = false;
+        } else {
+            taskState = Protos.TaskState.TASK_FAILED;
+            isHealthy = false;
+        }
 
-            String exitMessage = String.format(
-                    "Task: %s (%s) exited with code: %s",
-                    taskInfo.getName(), taskInfo.getTaskId().getValue(), exitValueStr);
+        String exitMessage = String.format(
+                "Task: %s (%s) exited with code: %s",
+                taskInfo.getName(), taskInfo.getTaskId().getValue(), exitValueStr);
+        try {
             TaskStatusUtils.sendStatus(
                     driver,
                     taskState,
@@ -116,12 +150,17 @@ public class ProcessTask implements ExecutorTask {
                     taskInfo.getExecutor().getExecutorId(),
                     exitMessage,
                     isHealthy);
-
             LOGGER.info(exitMessage);
-        } catch (Throwable e) {
-            LOGGER.error(String.format("Task: %s (%s) failed", taskInfo.getName(), taskInfo.getTaskId().getValue()), e);
-            initialized.complete(false);
-            exit.complete(1);
+        } finally {
+            exited.complete(null);
+        }
+    }
+
+    private void fail(Throwable e) {
+        LOGGER.error(String.format("Task: %s (%s) failed", taskInfo.getName(), taskInfo.getTaskId().getValue()), e);
+        initialized.complete(false);
+        exit.complete(1);
+        try {
             TaskStatusUtils.sendStatus(
                     driver,
                     Protos.TaskState.TASK_FAILED,
@@ -130,6 +169,8 @@ public class ProcessTask implements ExecutorTask {
                     taskInfo.getExecutor().getExecutorId(),
                     e.getMessage(),
                     false);
+        } finally {
+            exited.complete(null);
         }
     }
 
@@ -141,15 +182,23 @@ public class ProcessTask implements ExecutorTask {
         }
     }
 
-    private static void waitUninterruptably(final Process process) {
-        while (true) {
-            try {
-                process.waitFor();
-                return;
-            } catch (InterruptedException ex) {
-                // don't log anything: this loop is run throughout the task's lifecycle
+    /**
+     * Returns a future which is completed when the provided process has exited. This is the equivalent of Java 9's
+     * {@code Process.onExit()}: the wait is performed on a small daemon reaper thread rather than on a thread from
+     * the executor's task pool, and all exit handling is chained onto the returned future.
+     */
+    @VisibleForTesting
+    static CompletableFuture<Process> onExit(Process process) {
+        return CompletableFuture.supplyAsync(() -> {
+            while (true) {
+                try {
+                    process.waitFor();
+                    return process;
+                } catch (InterruptedException ex) {
+                    // don't log anything: this loop is run throughout the task's lifecycle
+                }
             }
-        }
+        }, PROCESS_REAPER);
     }
 
     boolean isAlive() {
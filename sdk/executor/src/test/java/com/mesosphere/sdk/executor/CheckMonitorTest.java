@@ -37,9 +37,13 @@ public class CheckMonitorTest {
     @Mock private ExecutorDriver executorDriver;
     private Protos.TaskInfo taskInfo = Protos.TaskInfo.getDefaultInstance();
 
+    private CompletableFuture<Void> taskExited;
+
     @Before
     public void beforeEach() {
         MockitoAnnotations.initMocks(this);
+        taskExited = new CompletableFuture<>();
+        when(mockLaunchedTask.onExit()).thenReturn(taskExited);
     }
 
     @Test
@@ -84,8 +88,39 @@ public class CheckMonitorTest {
         Assert.assertEquals(0, healthCheckStats.getTotalSuccesses());
         Assert.assertEquals(1, healthCheckStats.getConsecutiveFailures());
         Assert.assertEquals(0, healthCheckStats.getConsecutiveSuccesses());
+    }
+
+    @Test
+    public void testCancelHealthCheckMonitorForExitedTask() throws Exception {
+        final HealthCheck healthCheck = HealthCheck.newBuilder()
+                .setIntervalSeconds(SHORT_INTERVAL_S)
+                .setDelaySeconds(SHORT_DELAY_S)
+                .setGracePeriodSeconds(SHORT_GRACE_PERIOD_S)
+                .setTimeoutSeconds(TIMEOUT_S)
+                .setConsecutiveFailures(MAX_FAILURES)
+                .setCommand(CommandInfo.newBuilder().setValue(COMMAND).build())
+                .build();
+        final CheckHandler healthCheckHandler = new CheckHandler(
+                executorDriver,
+                taskInfo,
+                mockLaunchedTask,
+                mockProcessRunner,
+                healthCheck,
+                scheduledExecutorService,
+                new CheckStats("test"),
+                "test");
+        when(mockProcessRunner.run(any(), anyDouble())).thenReturn(0); // return success
+
+        CheckMonitor healthCheckMonitor = new CheckMonitor(
+                healthCheck,
+                healthCheckHandler,
+                mockLaunchedTask,
+                "test");
+
+        Future<Optional<CheckStats>> futureStats = executorService.submit(healthCheckMonitor);
+        taskExited.complete(null);
 
-        executorService.shutdown();
-        executorService.awaitTermination(10, TimeUnit.SECONDS);
+        Assert.assertFalse(futureStats.get(10, TimeUnit.SECONDS).isPresent());
+        verify(mockLaunchedTask, never()).stop();
     }
 }
@@ -1,23 +1,14 @@
 package com.mesosphere.sdk.executor;
 
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.mesos.Protos;
-import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.mockito.invocation.InvocationOnMock;
-import org.mockito.stubbing.Answer;
 
-import static org.mockito.Mockito.doThrow;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 public class LaunchedTaskStoreTest {
 
@@ -25,6 +16,7 @@ public class LaunchedTaskStoreTest {
 
     @Mock Runnable mockExitCallback;
     @Mock LaunchedTask mockLaunchedTask;
+    @Mock LaunchedTask mockLaunchedTask2;
 
     @Before
     public void beforeEach() {
@@ -34,68 +26,70 @@ public class LaunchedTaskStoreTest {
 
     @Test
     public void testDoneTaskAdded() {
-        ExecutorService executor = Executors.newCachedThreadPool();
-        LaunchedTaskStore store = new LaunchedTaskStore(mockExitCallback, 10);
-        Future<?> exited = executor.submit(store.getMonitor());
-        Assert.assertFalse(exited.isDone());
+        LaunchedTaskStore store = new LaunchedTaskStore(mockExitCallback);
 
         when(mockLaunchedTask.isDone()).thenReturn(true);
+        when(mockLaunchedTask.onExit()).thenReturn(CompletableFuture.completedFuture(null));
         store.put(Protos.TaskID.newBuilder().setValue("foo").build(), mockLaunchedTask);
 
-        // check that self-destruct shutdown call was invoked, and that monitor exited afterwards:
-        try {
-            exited.get();
-            Assert.fail("expected exception from shutdown invocation");
-        } catch (Exception e) {
-            Assert.assertTrue(e instanceof ExecutionException);
-            Assert.assertEquals(MESSAGE, e.getCause().getMessage());
-        }
+        // check that self-destruct shutdown call was invoked:
+        verify(mockExitCallback, times(1)).run();
     }
 
     @Test
     public void testRunningThenDoneTaskAdded() {
-        ExecutorService executor = Executors.newCachedThreadPool();
-        LaunchedTaskStore store = new LaunchedTaskStore(mockExitCallback, 10);
-        Future<?> exited = executor.submit(store.getMonitor());
-        Assert.assertFalse(exited.isDone());
-
-        // Done only after several calls:
-        when(mockLaunchedTask.isDone()).thenAnswer(new Answer<Boolean>() {
-            private int count = 0;
-
-            @Override
-            public Boolean answer(InvocationOnMock invocation) {
-                return count++ == 5;
-            }
-        });
+        LaunchedTaskStore store = new LaunchedTaskStore(mockExitCallback);
+
+        CompletableFuture<Void> exited = new CompletableFuture<>();
+        when(mockLaunchedTask.isDone()).thenReturn(false);
+        when(mockLaunchedTask.onExit()).thenReturn(exited);
         store.put(Protos.TaskID.newBuilder().setValue("foo").build(), mockLaunchedTask);
+        verify(mockExitCallback, never()).run();
 
-        // check that self-destruct shutdown call was invoked, and that monitor exited afterwards:
-        try {
-            exited.get();
-            Assert.fail("expected exception from shutdown invocation");
-        } catch (Exception e) {
-            Assert.assertTrue(e instanceof ExecutionException);
-            Assert.assertEquals(MESSAGE, e.getCause().getMessage());
-        }
+        // the task exiting should trigger the self-destruct shutdown call:
+        when(mockLaunchedTask.isDone()).thenReturn(true);
+        exited.complete(null);
+        verify(mockExitCallback, times(1)).run();
+    }
+
+    @Test
+    public void testFailedTaskAdded() {
+        LaunchedTaskStore store = new LaunchedTaskStore(mockExitCallback);
+
+        CompletableFuture<Void> exited = new CompletableFuture<>();
+        when(mockLaunchedTask.isDone()).thenReturn(false);
+        when(mockLaunchedTask.onExit()).thenReturn(exited);
+        store.put(Protos.TaskID.newBuilder().setValue("foo").build(), mockLaunchedTask);
+        verify(mockExitCallback, never()).run();
+
+        when(mockLaunchedTask.isDone()).thenReturn(true);
+        exited.completeExceptionally(new IllegalStateException("task failed"));
+        verify(mockExitCallback, times(1)).run();
     }
 
     @Test
     public void testAlwaysRunningTaskAdded() {
-        ExecutorService executor = Executors.newCachedThreadPool();
-        LaunchedTaskStore store = new LaunchedTaskStore(mockExitCallback, 10);
-        Future<?> exited = executor.submit(store.getMonitor());
-        Assert.assertFalse(exited.isDone());
+        LaunchedTaskStore store = new LaunchedTaskStore(mockExitCallback);
 
         when(mockLaunchedTask.isDone()).thenReturn(false);
+        when(mockLaunchedTask.onExit()).thenReturn(new CompletableFuture<>());
         store.put(Protos.TaskID.newBuilder().setValue("foo").build(), mockLaunchedTask);
 
-        // check that self-destruct shutdown call was invoked, and that monitor exited afterwards:
-        try {
-            exited.get(500, TimeUnit.MILLISECONDS);
-            Assert.fail("expected timeout exception when waiting for check to exit");
-        } catch (Exception e) {
-            Assert.assertTrue(e instanceof TimeoutException);
-        }
+        verify(mockExitCallback, never()).run();
+    }
+
+    @Test
+    public void testOneOfTwoTasksDone() {
+        LaunchedTaskStore store = new LaunchedTaskStore(mockExitCallback);
+
+        when(mockLaunchedTask.isDone()).thenReturn(false);
+        when(mockLaunchedTask.onExit()).thenReturn(new CompletableFuture<>());
+        store.put(Protos.TaskID.newBuilder().setValue("foo").build(), mockLaunchedTask);
+
+        when(mockLaunchedTask2.isDone()).thenReturn(true);
+        when(mockLaunchedTask2.onExit()).thenReturn(CompletableFuture.completedFuture(null));
+        store.put(Protos.TaskID.newBuilder().setValue("bar").build(), mockLaunchedTask2);
+
+        verify(mockExitCallback, never()).run();
     }
 }
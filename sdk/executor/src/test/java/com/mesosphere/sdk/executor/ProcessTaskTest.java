@@ -49,6 +49,40 @@ public class ProcessTaskTest {
         Assert.assertFalse(processTask.isAlive());
     }
 
+    @Test
+    public void testExitNotBlockingTaskThread() throws Exception {
+        final ExecutorDriver mockExecutorDriver = Mockito.mock(ExecutorDriver.class);
+        final Protos.ExecutorInfo executorInfo = Protos.ExecutorInfo.newBuilder()
+                .setName(TestConstants.EXECUTOR_NAME)
+                .setExecutorId(TestConstants.EXECUTOR_ID)
+                .setCommand(Protos.CommandInfo.newBuilder().setValue(""))
+                .build();
+
+        final Protos.TaskInfo taskInfo = Protos.TaskInfo.newBuilder()
+                .setName(TestConstants.TASK_NAME)
+                .setTaskId(TestConstants.TASK_ID)
+                .setSlaveId(SlaveID.newBuilder().setValue("ignored"))
+                .setExecutor(executorInfo)
+                .setCommand(Protos.CommandInfo.newBuilder().setValue("sleep 60"))
+                .build();
+
+        final ProcessTask processTask = ProcessTask.create(mockExecutorDriver, taskInfo);
+        // run() returns once the process is launched, without waiting for it to exit:
+        processTask.run();
+        Assert.assertTrue(processTask.isAlive());
+        Assert.assertFalse(processTask.onExit().isDone());
+        Mockito.verify(mockExecutorDriver, times(1)).sendStatusUpdate(Mockito.any());
+
+        processTask.stop();
+        processTask.onExit().get(5, TimeUnit.SECONDS);
+        Assert.assertFalse(processTask.isAlive());
+
+        // TASK_RUNNING + TASK_KILLED, sent once the process exit was observed:
+        ArgumentCaptor<Protos.TaskStatus> captor = ArgumentCaptor.forClass(Protos.TaskStatus.class);
+        Mockito.verify(mockExecutorDriver, times(2)).sendStatusUpdate(captor.capture());
+        Assert.assertEquals(Protos.TaskState.TASK_KILLED, captor.getAllValues().get(1).getState());
+    }
+
     @Test
     public void testFailingTask() throws Exception {
         final ExecutorDriver mockExecutorDriver = Mockito.mock(ExecutorDriver.class);
@@ -70,6 +104,7 @@ public class ProcessTaskTest {
         final ProcessTask processTask = ProcessTask.create(mockExecutorDriver, taskInfo);
         Assert.assertFalse(processTask.isAlive());
         processTask.run();
+        processTask.onExit().get(5, TimeUnit.SECONDS);
         Assert.assertFalse(processTask.isAlive());
 
         // Wait for processTask to run: TASK_RUNNING + TASK_FAILED
@@ -103,6 +138,7 @@ public class ProcessTaskTest {
         final ProcessTask processTask = ProcessTask.create(mockExecutorDriver, taskInfo);
         Assert.assertFalse(processTask.isAlive());
         processTask.run();
+        processTask.onExit().get(5, TimeUnit.SECONDS);
         Assert.assertFalse(processTask.isAlive());
 
         // Wait for processTask to run: TASK_RUNNING + TASK_FINISHED
@@ -136,6 +172,7 @@ public class ProcessTaskTest {
         final ProcessTask processTask = ProcessTask.create(mockExecutorDriver, taskInfo);
         Assert.assertFalse(processTask.isAlive());
         processTask.run();
+        processTask.onExit().get(5, TimeUnit.SECONDS);
         Assert.assertFalse(processTask.isAlive());
 
         // Wait for processTask to run: TASK_RUNNING + TASK_KILLED
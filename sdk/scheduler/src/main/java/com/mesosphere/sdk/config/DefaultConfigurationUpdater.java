@@ -182,8 +182,10 @@ public class DefaultConfigurationUpdater implements ConfigurationUpdater<Service
         List<Protos.TaskInfo> taskInfosToUpdate = new ArrayList<>();
         Set<UUID> neededConfigs = new HashSet<>();
         neededConfigs.add(targetConfigId);
+        Collection<Protos.TaskInfo> taskInfos = stateStore.fetchTasks();
+        prefetchConfigs(targetConfigId, taskInfos);
         // Search task labels for configs which need to be cleaned up.
-        for (Protos.TaskInfo taskInfo : stateStore.fetchTasks()) {
+        for (Protos.TaskInfo taskInfo : taskInfos) {
             final UUID taskConfigId;
             try {
                 taskConfigId = new TaskLabelReader(taskInfo).getTargetConfiguration();
@@ -241,6 +243,29 @@ public class DefaultConfigurationUpdater implements ConfigurationUpdater<Service
         clearConfigsNotListed(neededConfigs);
     }
 
+    /**
+     * Loads the target configuration and the configurations which are referenced by the provided tasks in a single
+     * batch, as each of these is then fetched individually during cleanup. Any other stored configurations aren't
+     * referenced by a task, so they're only loaded if they're left over for cleanup.
+     */
+    private void prefetchConfigs(UUID targetConfigId, Collection<Protos.TaskInfo> taskInfos) {
+        Set<UUID> configIds = new HashSet<>();
+        configIds.add(targetConfigId);
+        for (Protos.TaskInfo taskInfo : taskInfos) {
+            try {
+                configIds.add(new TaskLabelReader(taskInfo).getTargetConfiguration());
+            } catch (TaskException e) {
+                // Logged during cleanup.
+            }
+        }
+        try {
+            configStore.prefetch(configIds);
+        } catch (ConfigStoreException e) {
+            // Any configurations which are needed will be fetched individually.
+            LOGGER.warn("Failed to prefetch configurations", e);
+        }
+    }
+
     private static void printConfigDiff(ServiceSpec oldConfig, UUID oldConfigId, String newConfigJson) {
         // Print a diff of this new config vs the prior config:
         try {
@@ -364,5 +389,6 @@ public class DefaultConfigurationUpdater implements ConfigurationUpdater<Service
         for (UUID configToClear : configsToClear) {
             configStore.clear(configToClear);
         }
+        configStore.clearUnusedTemplates();
     }
 }
@@ -0,0 +1,191 @@
+package com.mesosphere.sdk.curator;
+
+import com.mesosphere.sdk.offer.LoggingUtils;
+import com.mesosphere.sdk.scheduler.Metrics;
+import com.mesosphere.sdk.storage.PersisterCache;
+import com.mesosphere.sdk.storage.PersisterException;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a {@link PersisterCache} in sync with changes which are made in ZK by another process. This allows a standby
+ * scheduler to have an up-to-date copy of the active scheduler's state by the time it takes over, rather than reading
+ * all of the state from ZK after acquiring the lock.
+ *
+ * <p>Changes are observed using a {@link TreeCache} over the service's root node, and are applied to the provided
+ * cache without being written back to ZK. Once this instance is started, nothing else should write to the provided
+ * cache until this instance has been closed.
+ */
+public class CuratorCacheSync {
+    private static final Logger LOGGER = LoggingUtils.getLogger(CuratorCacheSync.class);
+
+    private static final int MAX_CATCH_UP_ROUNDS = 10;
+    private static final Duration CATCH_UP_ROUND_TIMEOUT = Duration.ofSeconds(10);
+
+    private final CuratorFramework client;
+    private final String serviceRootPath;
+    private final PersisterCache cache;
+    private final TreeCache treeCache;
+    private final CountDownLatch initialized = new CountDownLatch(1);
+    private final AtomicLong appliedChanges = new AtomicLong(0);
+
+    /**
+     * Events are handled by a single thread, in the order that they were observed.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "standby-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Whether a change failed to be applied, in which case the cache is reloaded in full when catching up.
+     */
+    private volatile boolean stale = false;
+
+    /**
+     * Creates a new instance which applies changes under the provided persister's root node to the provided cache.
+     *
+     * @param persister the persister which accesses the same data as the provided cache
+     * @param cache the cache to be kept in sync, which should not be otherwise written to until this has been closed
+     */
+    public CuratorCacheSync(CuratorPersister persister, PersisterCache cache) {
+        this.client = persister.getClient();
+        this.serviceRootPath = persister.getServiceRootPath();
+        this.cache = cache;
+        this.treeCache = TreeCache.newBuilder(client, serviceRootPath)
+                .setCacheData(true)
+                .setExecutor(executor)
+                .build();
+        this.treeCache.getListenable().addListener((c, event) -> handleEvent(event));
+    }
+
+    /**
+     * Starts watching for changes, and waits for the cache to be loaded with the current content of ZK.
+     */
+    public void start() throws Exception {
+        LOGGER.info("Starting sync of {}", serviceRootPath);
+        treeCache.start();
+        initialized.await();
+    }
+
+    /**
+     * Waits for any changes which were made in ZK before this call to be applied to the cache. This is done by
+     * repeatedly syncing with the ZK leader and waiting for the resulting events to be handled, until a round doesn't
+     * apply any further changes. If a change previously failed to be applied, the cache is instead reloaded.
+     */
+    public void catchUp() throws Exception {
+        for (int round = 1; round <= MAX_CATCH_UP_ROUNDS && !stale; ++round) {
+            long changesBefore = appliedChanges.get();
+
+            CountDownLatch synced = new CountDownLatch(1);
+            client.sync().inBackground((c, event) -> synced.countDown()).forPath(serviceRootPath);
+            await(synced, "Timed out syncing with ZK");
+            // Any reads made by the TreeCache in response to watches triggered by the sync were sent ahead of this
+            // read on the same connection, so their callbacks are run first. The resulting events are then queued to
+            // the executor ahead of the no-op below.
+            CountDownLatch probed = new CountDownLatch(1);
+            client.checkExists().inBackground((c, event) -> probed.countDown()).forPath(serviceRootPath);
+            await(probed, "Timed out reading from ZK");
+            executor.submit(() -> { }).get(CATCH_UP_ROUND_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+            long changes = appliedChanges.get() - changesBefore;
+            if (changes == 0) {
+                LOGGER.info("Caught up with changes in {} after {} round{}",
+                        serviceRootPath, round, round == 1 ? "" : "s");
+                return;
+            }
+            LOGGER.info("Applied {} change{} while catching up, checking for more",
+                    changes, changes == 1 ? "" : "s");
+        }
+        if (stale) {
+            LOGGER.warn("Reloading all data in {} after failing to apply a change", serviceRootPath);
+        } else {
+            LOGGER.warn("Unable to catch up with changes in {}, reloading all data", serviceRootPath);
+        }
+        cache.refresh();
+        stale = false;
+    }
+
+    /**
+     * Stops watching for changes. The cache may then be written to.
+     */
+    public void close() {
+        treeCache.close();
+        executor.shutdown();
+    }
+
+    private static void await(CountDownLatch latch, String timeoutMessage) throws Exception {
+        if (!latch.await(CATCH_UP_ROUND_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException(timeoutMessage);
+        }
+    }
+
+    private void handleEvent(TreeCacheEvent event) {
+        switch (event.getType()) {
+        case INITIALIZED:
+            // Events for the initial content of ZK have been ignored: load the cache directly instead.
+            try {
+                cache.refresh();
+                LOGGER.info("Loaded data for sync of {}", serviceRootPath);
+            } catch (PersisterException e) {
+                LOGGER.error("Failed to load data, will reload when catching up", e);
+                stale = true;
+            }
+            initialized.countDown();
+            break;
+        case CONNECTION_SUSPENDED:
+        case CONNECTION_LOST:
+            LOGGER.warn("Lost connection to ZK, synced data may become stale: {}", event.getType());
+            break;
+        case CONNECTION_RECONNECTED:
+            // The TreeCache refreshes itself upon reconnection. Any changes are delivered as node events.
+            LOGGER.info("Reconnected to ZK, resuming sync");
+            break;
+        case NODE_ADDED:
+        case NODE_UPDATED:
+        case NODE_REMOVED:
+            if (initialized.getCount() == 0) {
+                applyChange(event.getType(), event.getData());
+            }
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void applyChange(TreeCacheEvent.Type type, ChildData data) {
+        if (data == null || !data.getPath().startsWith(serviceRootPath + "/")) {
+            // Ignore the root node itself, which isn't stored in the cache.
+            return;
+        }
+        String path = data.getPath().substring(serviceRootPath.length());
+        try {
+            if (type == TreeCacheEvent.Type.NODE_REMOVED) {
+                cache.applyExternalDelete(path);
+            } else if (data.getData() != null) {
+                cache.applyExternalSet(path, data.getData());
+            } else {
+                // Parent nodes lacking data of their own are omitted from the cache, as they are when it's loaded.
+                return;
+            }
+        } catch (PersisterException e) {
+            LOGGER.error(String.format("Failed to apply %s of %s, will reload when catching up", type, path), e);
+            stale = true;
+        }
+        appliedChanges.incrementAndGet();
+        Metrics.incrementStandbySyncedChanges();
+    }
+}
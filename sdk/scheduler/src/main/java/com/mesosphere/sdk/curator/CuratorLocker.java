@@ -43,11 +43,8 @@ public class CuratorLocker {
         if (curatorClient != null) {
             throw new IllegalStateException("Already locked");
         }
-        curatorClient = CuratorFrameworkFactory.newClient(zookeeperConnection, CuratorUtils.getDefaultRetry());
-        curatorClient.start();
-
         final String lockPath = PersisterUtils.join(CuratorUtils.getServiceRootPath(serviceName), LOCK_PATH_NAME);
-        InterProcessSemaphoreMutex curatorMutex = new InterProcessSemaphoreMutex(curatorClient, lockPath);
+        InterProcessSemaphoreMutex curatorMutex = newMutex(lockPath);
 
         LOGGER.info("Acquiring ZK lock on {}...", lockPath);
         final String failureLogMsg = String.format("Failed to acquire ZK lock on %s. " +
@@ -74,22 +71,55 @@ public class CuratorLocker {
     }
 
     /**
-     * Releases the lock previously obtained via {@link #lock()}.
+     * Gets an exclusive lock on service-specific ZK node, waiting for as long as another scheduler holds the lock. This
+     * is used by a standby scheduler, which should take over as soon as the active scheduler has exited.
+     */
+    public void lockWhenAvailable() {
+        if (curatorClient != null) {
+            throw new IllegalStateException("Already locked");
+        }
+        final String lockPath = PersisterUtils.join(CuratorUtils.getServiceRootPath(serviceName), LOCK_PATH_NAME);
+        InterProcessSemaphoreMutex curatorMutex = newMutex(lockPath);
+
+        LOGGER.info("Waiting for ZK lock on {}...", lockPath);
+        try {
+            curatorMutex.acquire();
+            LOGGER.info("Lock acquired.");
+            this.curatorMutex = curatorMutex;
+            return;
+        } catch (Exception ex) {
+            LOGGER.error(String.format("Error acquiring ZK lock on path: %s", lockPath), ex);
+        }
+        curatorClient = null;
+        exit();
+    }
+
+    /**
+     * Releases the lock previously obtained via {@link #lock()} or {@link #lockWhenAvailable()}. If the lock is still
+     * being waited for, stops waiting.
      */
     public void unlock() {
         if (curatorClient == null) {
             throw new IllegalStateException("Already unlocked");
         }
-        try {
-            curatorMutex.release();
-        } catch (Exception ex) {
-            LOGGER.error("Error releasing ZK lock.", ex);
+        if (curatorMutex != null) {
+            try {
+                curatorMutex.release();
+            } catch (Exception ex) {
+                LOGGER.error("Error releasing ZK lock.", ex);
+            }
         }
         curatorClient.close();
         curatorMutex = null;
         curatorClient = null;
     }
 
+    private InterProcessSemaphoreMutex newMutex(String lockPath) {
+        curatorClient = CuratorFrameworkFactory.newClient(zookeeperConnection, CuratorUtils.getDefaultRetry());
+        curatorClient.start();
+        return new InterProcessSemaphoreMutex(curatorClient, lockPath);
+    }
+
     /**
      * Broken out into a separate function to allow overrides in tests.
      */
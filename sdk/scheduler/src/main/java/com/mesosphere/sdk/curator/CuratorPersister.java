@@ -142,6 +142,20 @@ public class CuratorPersister implements Persister {
         this.client.start();
     }
 
+    /**
+     * Returns the ZK path which all paths passed to this instance are relative to.
+     */
+    String getServiceRootPath() {
+        return serviceRootPath;
+    }
+
+    /**
+     * Returns the client which this instance uses to access ZK.
+     */
+    CuratorFramework getClient() {
+        return client;
+    }
+
     @Override
     public byte[] get(String unprefixedPath) throws PersisterException {
         final String path = withFrameworkPrefix(unprefixedPath);
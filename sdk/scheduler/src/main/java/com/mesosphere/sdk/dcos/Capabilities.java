@@ -22,7 +22,7 @@ public class Capabilities {
         synchronized (lock) {
             if (capabilities == null) {
                 try {
-                    DcosVersionClient client = new DcosVersionClient(new DcosHttpExecutor(new DcosHttpClientBuilder()));
+                    DcosVersionClient client = new DcosVersionClient(DcosHttpExecutor.getUnauthenticated());
                     capabilities = new Capabilities(client.getDcosVersion());
                 } catch (IOException e) {
                     LOGGER.error("Unable to fetch DC/OS version.", e);
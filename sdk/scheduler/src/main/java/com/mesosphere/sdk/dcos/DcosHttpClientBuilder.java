@@ -1,18 +1,96 @@
 package com.mesosphere.sdk.dcos;
 
+import com.codahale.metrics.MetricRegistry;
 import com.mesosphere.sdk.dcos.auth.TokenProvider;
+import com.mesosphere.sdk.scheduler.Metrics;
+import org.apache.http.HttpHost;
 import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * A {@link DcosHttpClientBuilder} is a helper that simplifies common modifications
  * of {@link org.apache.http.client.HttpClient}.
+ *
+ * <p>Clients which are built with the same connection manager (see {@link #newConnectionManager()}) share its
+ * connection pool, so that connections to cluster components (e.g. the CA, the secret store, and the IAM service) are
+ * kept alive and reused across clients rather than being renegotiated for each client. The owner of the connection
+ * manager is responsible for shutting it down. Request latency is recorded to {@link Metrics} per target host.
  */
 public class DcosHttpClientBuilder extends HttpClientBuilder {
 
+    /** The maximum number of pooled connections, across all routes. */
+    private static final int MAX_CONNECTIONS_TOTAL = 50;
+    /** The maximum number of pooled connections to any one host. */
+    private static final int MAX_CONNECTIONS_PER_ROUTE = 10;
+    /** Connections idle for longer than this are revalidated before being reused. */
+    private static final int VALIDATE_AFTER_INACTIVITY_MS = 2000;
+    /** How long to keep idle connections open when the server doesn't specify a keep-alive timeout. */
+    private static final long DEFAULT_KEEP_ALIVE_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final String REQUEST_START_ATTRIBUTE = DcosHttpClientBuilder.class.getName() + ".start";
+    private static final String METRICS_PREFIX = "dcos_http";
+
+    private static final ConnectionKeepAliveStrategy KEEP_ALIVE_STRATEGY = (response, context) -> {
+        long keepAliveMs = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+        // -1 means that the server didn't specify a timeout. Don't keep connections around indefinitely.
+        return keepAliveMs > 0 ? keepAliveMs : DEFAULT_KEEP_ALIVE_MS;
+    };
+
+    /**
+     * Returns a new connection pool which may be shared by several clients via
+     * {@link #DcosHttpClientBuilder(HttpClientConnectionManager)}. The caller must shut it down once those clients are
+     * no longer needed.
+     */
+    public static PoolingHttpClientConnectionManager newConnectionManager() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(MAX_CONNECTIONS_TOTAL);
+        connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_ROUTE);
+        connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MS);
+        return connectionManager;
+    }
+
+    /**
+     * Creates a builder for a client with its own connection pool, which is shut down when the client is closed.
+     */
     public DcosHttpClientBuilder() {
         super();
+        init();
+    }
+
+    /**
+     * Creates a builder for a client which uses the provided shared connection pool. Closing the client leaves the
+     * pool running for any other clients.
+     */
+    public DcosHttpClientBuilder(HttpClientConnectionManager sharedConnectionManager) {
+        super();
+        this.setConnectionManager(sharedConnectionManager);
+        // Closing any one client must not shut down the pool for all other clients:
+        this.setConnectionManagerShared(true);
+        init();
+    }
+
+    private void init() {
+        this.setKeepAliveStrategy(KEEP_ALIVE_STRATEGY);
+        this.addInterceptorLast((HttpRequestInterceptor) (request, context) ->
+                context.setAttribute(REQUEST_START_ATTRIBUTE, System.nanoTime()));
+        this.addInterceptorLast((HttpResponseInterceptor) (response, context) -> {
+            Object startNanos = context.getAttribute(REQUEST_START_ATTRIBUTE);
+            HttpHost targetHost = HttpClientContext.adapt(context).getTargetHost();
+            if (startNanos instanceof Long && targetHost != null) {
+                Metrics.getRegistry()
+                        .timer(MetricRegistry.name(METRICS_PREFIX, targetHost.getHostName()))
+                        .update(System.nanoTime() - (Long) startNanos, TimeUnit.NANOSECONDS);
+            }
+        });
     }
 
     /**
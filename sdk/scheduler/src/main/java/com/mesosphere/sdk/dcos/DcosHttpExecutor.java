@@ -13,8 +13,24 @@ import org.apache.http.impl.client.HttpClientBuilder;
  * ensure that the validation is performed.
  */
 public class DcosHttpExecutor {
+    private static final Object UNAUTHENTICATED_LOCK = new Object();
+    private static DcosHttpExecutor unauthenticated;
+
     private final Executor executor;
 
+    /**
+     * Returns a shared executor for requests to DC/OS components which don't require authentication, such as the DC/OS
+     * version. It's created on first use.
+     */
+    public static DcosHttpExecutor getUnauthenticated() {
+        synchronized (UNAUTHENTICATED_LOCK) {
+            if (unauthenticated == null) {
+                unauthenticated = new DcosHttpExecutor(new DcosHttpClientBuilder());
+            }
+            return unauthenticated;
+        }
+    }
+
     /**
      * Validates that the provided client is valid before constructing an {@link Executor} which may be used via
      * {@link #execute(Request)}.
@@ -1,65 +1,266 @@
 package com.mesosphere.sdk.dcos.auth;
 
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.mesosphere.sdk.offer.LoggingUtils;
+import com.mesosphere.sdk.scheduler.Metrics;
+import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Optional;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
- * CachedTokenProvider retrieves token from underlying provider and caches the value. It automatically triggers
- * getToken() method on underlying provider when token is about to expire.
+ * CachedTokenProvider retrieves token from underlying provider and caches the value. The token is refreshed in the
+ * background shortly before it's about to expire, while callers continue to be served the current token. Concurrent
+ * refreshes are coalesced into a single request against the underlying provider. Callers only block on a refresh if
+ * there is no unexpired token available, and refreshes which take longer than the refresh timeout are abandoned.
+ *
+ * <p>Background refreshes are only scheduled while the token is in use: If no token has been requested since the last
+ * refresh, the next one is left to the next call to {@link #getToken()}.
  */
 public class CachedTokenProvider implements TokenProvider {
 
+    private static final Logger LOGGER = LoggingUtils.getLogger(CachedTokenProvider.class);
+
+    /** How long to wait before retrying a failed background refresh. */
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+
+    /** The default limit on how long a refresh may take before it's treated as failed. */
+    private static final Duration DEFAULT_REFRESH_TIMEOUT = Duration.ofSeconds(30);
+
+    static final String REFRESH_TIMER = "auth_token.refresh";
+    static final String REFRESH_FAILURES = "auth_token.refresh.failures";
+
+    /**
+     * Triggers scheduled refreshes and refresh timeouts. Refresh requests themselves are run on
+     * {@link #REFRESH_EXECUTOR}, so that a slow request doesn't delay any of these.
+     */
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "token-refresh-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * Runs refresh requests against the underlying providers. Threads are only kept while refreshes are in progress.
+     */
+    private static final ExecutorService REFRESH_EXECUTOR = Executors.newCachedThreadPool(
+            runnable -> {
+                Thread thread = new Thread(runnable, "token-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * A retrieved token along with the times when it should be refreshed, and when it stops being usable.
+     */
+    private static class CachedToken {
+        private final DecodedJWT token;
+        private final Instant refreshAt;
+        private final Instant expiresAt;
+
+        private CachedToken(DecodedJWT token, Instant refreshAt, Instant expiresAt) {
+            this.token = token;
+            this.refreshAt = refreshAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+
     private final TokenProvider provider;
-    private Optional<DecodedJWT> token;
     private final Duration ttl;
+    private final Duration refreshTimeout;
 
-    private final ReadWriteLock internalLock = new ReentrantReadWriteLock();
-    private final Lock rlock = internalLock.readLock();
-    private final Lock rwlock = internalLock.writeLock();
-
+    private final Object refreshLock = new Object();
+    private volatile CachedToken cachedToken;
+    /** Whether the token has been requested since it was last refreshed. */
+    private volatile boolean usedSinceRefresh = false;
+    // Guarded by refreshLock:
+    private CompletableFuture<DecodedJWT> inFlightRefresh;
 
+    /**
+     * Creates a new provider which refreshes tokens from the provided {@code provider} when they are within {@code ttl}
+     * of expiring.
+     */
     public CachedTokenProvider(TokenProvider provider, Duration ttl) {
+        this(provider, ttl, DEFAULT_REFRESH_TIMEOUT);
+    }
+
+    /**
+     * Creates a new provider which refreshes tokens from the provided {@code provider} when they are within {@code ttl}
+     * of expiring, treating any refresh which takes longer than {@code refreshTimeout} as failed.
+     */
+    public CachedTokenProvider(TokenProvider provider, Duration ttl, Duration refreshTimeout) {
         this.provider = provider;
         this.ttl = ttl;
-        this.token = Optional.empty();
+        this.refreshTimeout = refreshTimeout;
     }
 
     @Override
     public DecodedJWT getToken() throws IOException {
-        rlock.lock();
+        usedSinceRefresh = true;
+        CachedToken current = cachedToken;
+        if (current != null) {
+            Instant now = Instant.now();
+            if (now.isBefore(current.refreshAt)) {
+                return current.token;
+            }
+            if (now.isBefore(current.expiresAt)) {
+                // The token is still usable: Serve it while a refresh is performed in the background.
+                refreshAsync(true);
+                return current.token;
+            }
+        }
+
+        // No usable token: Wait for a (possibly already in-flight) refresh. This is bounded by the refresh timeout.
         try {
-            if (token.isPresent()) {
-                Instant triggerRefresh = token.get()
-                        .getExpiresAt()
-                        .toInstant()
-                        .minusSeconds(this.ttl.getSeconds());
-
-                if (triggerRefresh.isAfter(Instant.now())) {
-                    return token.get();
-                }
+            return refreshAsync(true).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for auth token", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
             }
-        } finally {
-            rlock.unlock();
+            throw new IOException("Failed to retrieve auth token", cause);
         }
+    }
 
-        return refreshToken();
+    /**
+     * Starts a refresh of the token, or returns the refresh which is already in progress. The returned future fails
+     * with a {@link TimeoutException} if the refresh doesn't complete within the refresh timeout, in which case the
+     * request is interrupted.
+     *
+     * @param onlyIfDue whether to return the cached token rather than refreshing it if it isn't due for a refresh, e.g.
+     *     because another refresh completed after the caller checked it
+     */
+    private CompletableFuture<DecodedJWT> refreshAsync(boolean onlyIfDue) {
+        synchronized (refreshLock) {
+            if (inFlightRefresh != null) {
+                return inFlightRefresh;
+            }
+            CachedToken current = cachedToken;
+            if (onlyIfDue && current != null && Instant.now().isBefore(current.refreshAt)) {
+                return CompletableFuture.completedFuture(current.token);
+            }
+            CompletableFuture<DecodedJWT> refresh = new CompletableFuture<>();
+            Future<?> request = REFRESH_EXECUTOR.submit(() -> {
+                try {
+                    DecodedJWT token = refreshToken();
+                    synchronized (refresh) {
+                        refresh.complete(token);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    failRefresh(refresh, e);
+                }
+            });
+            ScheduledFuture<?> timeout = SCHEDULER.schedule(() -> {
+                if (failRefresh(refresh, new TimeoutException(String.format(
+                        "Auth token refresh didn't complete within %dms", refreshTimeout.toMillis())))) {
+                    request.cancel(true);
+                }
+            }, refreshTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            inFlightRefresh = refresh;
+            // Note: This may run immediately on this thread if the refresh has already completed.
+            refresh.whenComplete((token, exception) -> {
+                timeout.cancel(false);
+                synchronized (refreshLock) {
+                    if (inFlightRefresh == refresh) {
+                        inFlightRefresh = null;
+                    }
+                }
+            });
+            return refresh;
+        }
     }
 
     private DecodedJWT refreshToken() throws IOException {
-        rwlock.lock();
+        final Timer.Context context = Metrics.getRegistry().timer(REFRESH_TIMER).time();
         try {
             DecodedJWT newToken = provider.getToken();
-            token = Optional.of(newToken);
+            Instant expiresAt = newToken.getExpiresAt().toInstant();
+            // Jitter the refresh so that many schedulers started at the same time don't all refresh at once.
+            long jitterMs = ThreadLocalRandom.current().nextLong(ttl.toMillis() / 4 + 1);
+            Instant refreshAt = expiresAt.minus(ttl).minusMillis(jitterMs);
+            usedSinceRefresh = false;
+            cachedToken = new CachedToken(newToken, refreshAt, expiresAt);
+            scheduleRefresh(Duration.between(Instant.now(), refreshAt));
             return newToken;
         } finally {
-            rwlock.unlock();
+            context.stop();
+        }
+    }
+
+    /**
+     * Records the failure of the provided refresh and completes it with the provided exception, unless the refresh has
+     * already completed. Returns whether the refresh was failed.
+     */
+    private boolean failRefresh(CompletableFuture<DecodedJWT> refresh, Exception e) {
+        synchronized (refresh) {
+            if (refresh.isDone()) {
+                return false;
+            }
+            // Record the failure before any waiting callers are released:
+            onRefreshFailed(e);
+            return refresh.completeExceptionally(e);
+        }
+    }
+
+    private void onRefreshFailed(Exception e) {
+        Metrics.getRegistry().counter(REFRESH_FAILURES).inc();
+        LOGGER.error("Failed to refresh auth token", e);
+        // Try again later, if we still have an unexpired token which is worth keeping fresh.
+        CachedToken current = cachedToken;
+        if (current != null && Instant.now().isBefore(current.expiresAt)) {
+            scheduleRefresh(RETRY_DELAY);
+        }
+    }
+
+    /**
+     * Schedules a background refresh after the provided delay. The scheduled task doesn't keep this provider alive, so
+     * refreshes stop once the provider is no longer in use.
+     */
+    private void scheduleRefresh(Duration delay) {
+        if (delay.isNegative() || delay.isZero()) {
+            // Already due: The next call to getToken() will handle it. Avoids spinning on short-lived tokens.
+            return;
+        }
+        WeakReference<CachedTokenProvider> providerRef = new WeakReference<>(this);
+        SCHEDULER.schedule(() -> {
+            CachedTokenProvider cachedTokenProvider = providerRef.get();
+            if (cachedTokenProvider != null) {
+                cachedTokenProvider.refreshIfUsed();
+            }
+        }, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts a background refresh if the token has been requested since the last refresh, and returns whether a
+     * refresh was started. Otherwise, scheduled refreshes stop until the token is requested again.
+     */
+    @VisibleForTesting
+    boolean refreshIfUsed() {
+        if (!usedSinceRefresh) {
+            LOGGER.debug("Auth token hasn't been used since its last refresh, skipping scheduled refresh");
+            return false;
         }
+        refreshAsync(false);
+        return true;
     }
 }
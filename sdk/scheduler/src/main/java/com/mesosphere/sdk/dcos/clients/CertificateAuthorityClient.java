@@ -34,10 +34,19 @@ public class CertificateAuthorityClient {
     private final Logger logger = LoggingUtils.getLogger(getClass());
 
     private DcosHttpExecutor httpExecutor;
+    private String baseUri;
     private CertificateFactory certificateFactory;
 
     public CertificateAuthorityClient(DcosHttpExecutor httpExecutor) {
+        this(httpExecutor, DcosConstants.CA_BASE_URI);
+    }
+
+    /**
+     * Creates a client for the CA API at the provided base URI, which must end with a {@code /}.
+     */
+    public CertificateAuthorityClient(DcosHttpExecutor httpExecutor, String baseUri) {
         this.httpExecutor = httpExecutor;
+        this.baseUri = baseUri;
 
         try {
             this.certificateFactory = CertificateFactory.getInstance("X.509");
@@ -109,7 +118,7 @@ public class CertificateAuthorityClient {
     }
 
     private JSONObject doPostRequest(String path, JSONObject data) throws Exception {
-        Request request = Request.Post(new URI(DcosConstants.CA_BASE_URI + path))
+        Request request = Request.Post(new URI(baseUri + path))
                 .bodyString(data.toString(), ContentType.APPLICATION_JSON);
         Response response = httpExecutor.execute(request);
         HttpResponse httpResponse = response.returnResponse();
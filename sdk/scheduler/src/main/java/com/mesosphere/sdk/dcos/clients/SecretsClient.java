@@ -75,9 +75,18 @@ public class SecretsClient {
     private final Logger logger = LoggingUtils.getLogger(getClass());
 
     private DcosHttpExecutor httpExecutor;
+    private String baseUri;
 
     public SecretsClient(DcosHttpExecutor httpExecutor) {
+        this(httpExecutor, DcosConstants.DEFAULT_SECRET_STORE_URI);
+    }
+
+    /**
+     * Creates a client for the secret store at the provided base URI, which must end with a {@code /}.
+     */
+    public SecretsClient(DcosHttpExecutor httpExecutor, String baseUri) {
         this.httpExecutor = httpExecutor;
+        this.baseUri = baseUri;
     }
 
     /**
@@ -138,9 +147,9 @@ public class SecretsClient {
         query("delete", path, Request.Delete(uriForPath(path)), 204);
     }
 
-    private static URI uriForPath(String path) {
+    private URI uriForPath(String path) {
         try {
-            return new URI(DcosConstants.DEFAULT_SECRET_STORE_URI + path);
+            return new URI(baseUri + path);
         } catch (Exception e) {
             throw new IllegalArgumentException(e);
         }
@@ -0,0 +1,152 @@
+package com.mesosphere.sdk.http;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A cache of rendered read-only responses, which are reused for as long as the underlying data is unchanged. The
+ * underlying data is tracked via a version counter, e.g.
+ * {@link com.mesosphere.sdk.state.StateStore#getTaskInfoVersion()}. The counter should only reflect writes to the data
+ * which the cached responses are rendered from, so that unrelated writes don't needlessly invalidate them.
+ *
+ * <p>Responses are also tagged with an {@code ETag} reflecting the version, so that clients which repeatedly poll an
+ * endpoint (e.g. dashboards or CLIs) may send {@code If-None-Match} to get a {@code 304 Not Modified} when nothing has
+ * changed, skipping both the rendering and the transfer of the response.
+ *
+ * <p>The number of cached responses is bounded, with the least recently used responses evicted first. This keeps
+ * memory use in check when keys include request parameters, such as task or pod names.
+ */
+public class VersionedResponseCache {
+
+    /**
+     * Included in all tags, so that tags from a previous scheduler process aren't matched against the version counter
+     * of the current process.
+     */
+    private static final String PROCESS_EPOCH = UUID.randomUUID().toString().substring(0, 8);
+
+    /**
+     * The default maximum number of responses to keep cached.
+     */
+    private static final int DEFAULT_MAX_ENTRIES = 100;
+
+    /**
+     * A rendered response, along with the tag of the data version which it was rendered from.
+     */
+    private static class Entry {
+        private final String tag;
+        private final int status;
+        private final Object entity;
+        private final MultivaluedMap<String, Object> headers;
+
+        private Entry(String tag, Response response) {
+            this.tag = tag;
+            this.status = response.getStatus();
+            this.entity = response.getEntity();
+            // Copy the headers (including the content type), excluding the tag which is set on each returned response:
+            this.headers = new MultivaluedHashMap<>();
+            for (Map.Entry<String, List<Object>> header : response.getHeaders().entrySet()) {
+                if (!header.getKey().equalsIgnoreCase(HttpHeaders.ETAG)) {
+                    this.headers.put(header.getKey(), header.getValue());
+                }
+            }
+        }
+
+        private Response toResponse(EntityTag entityTag) {
+            Response.ResponseBuilder builder = Response.status(status).entity(entity);
+            for (Map.Entry<String, List<Object>> header : headers.entrySet()) {
+                for (Object value : header.getValue()) {
+                    builder.header(header.getKey(), value);
+                }
+            }
+            return builder.tag(entityTag).build();
+        }
+    }
+
+    private final LongSupplier versionSupplier;
+    private final AtomicLong generation = new AtomicLong(0);
+    private final Cache<String, Entry> entries;
+
+    /**
+     * Creates a new cache where responses are valid for as long as the provided {@code versionSupplier} returns the
+     * same value.
+     */
+    public VersionedResponseCache(LongSupplier versionSupplier) {
+        this(versionSupplier, DEFAULT_MAX_ENTRIES);
+    }
+
+    @VisibleForTesting
+    VersionedResponseCache(LongSupplier versionSupplier, int maxEntries) {
+        this.versionSupplier = versionSupplier;
+        // A single segment, so that eviction is in LRU order across all entries:
+        this.entries = CacheBuilder.newBuilder()
+                .concurrencyLevel(1)
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Returns the response for the provided {@code key}, which should uniquely identify the request (e.g. its path).
+     *
+     * <ul>
+     * <li>If the {@code request} has an {@code If-None-Match} header matching the current version, returns a
+     * {@code 304 Not Modified} response.</li>
+     * <li>Otherwise, if a response was already rendered for this {@code key} at the current version, returns it.</li>
+     * <li>Otherwise, renders a new response using the provided {@code renderer}. Successful responses are cached if
+     * the data didn't change while they were being rendered.</li>
+     * </ul>
+     *
+     * @param request the request to evaluate preconditions against, or {@code null} if not available
+     */
+    public Response get(String key, Request request, Supplier<Response> renderer) {
+        String tag = getTag();
+        EntityTag entityTag = new EntityTag(tag);
+        if (request != null) {
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+            if (notModified != null) {
+                return notModified.tag(entityTag).build();
+            }
+        }
+
+        Entry entry = entries.getIfPresent(key);
+        if (entry != null && entry.tag.equals(tag)) {
+            return entry.toResponse(entityTag);
+        }
+
+        Response response = renderer.get();
+        if (response.getStatus() != Response.Status.OK.getStatusCode() || !tag.equals(getTag())) {
+            // Don't cache or tag errors, or responses which may reflect a mix of data versions.
+            return response;
+        }
+        entry = new Entry(tag, response);
+        entries.put(key, entry);
+        return entry.toResponse(entityTag);
+    }
+
+    /**
+     * Drops all cached responses, and changes the tag of future responses. This should be invoked when something other
+     * than the underlying versioned data affects the content of responses.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        entries.invalidateAll();
+    }
+
+    private String getTag() {
+        return String.format("%s-%d-%d", PROCESS_EPOCH, generation.get(), versionSupplier.getAsLong());
+    }
+}
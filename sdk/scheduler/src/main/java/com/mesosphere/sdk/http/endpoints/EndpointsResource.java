@@ -1,38 +1,98 @@
 package com.mesosphere.sdk.http.endpoints;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
+import com.mesosphere.sdk.http.VersionedResponseCache;
+import com.mesosphere.sdk.http.queries.EndpointsModel;
 import com.mesosphere.sdk.http.queries.EndpointsQueries;
 import com.mesosphere.sdk.http.types.EndpointProducer;
+import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.scheduler.SchedulerConfig;
 import com.mesosphere.sdk.state.StateStore;
 
 import org.apache.mesos.Protos.DiscoveryInfo;
 import org.apache.mesos.Protos.TaskInfo;
+import org.slf4j.Logger;
 
 /**
  * A read-only API for accessing information about how to connect to the service.
+ *
+ * <p>Clients which need to follow changes to an endpoint may long-poll it: Requests to {@code /v1/endpoints/{name}}
+ * which include a {@code wait=SECONDS} parameter, along with an {@code If-None-Match} header matching the endpoint's
+ * current {@code ETag}, are held until the endpoint's content changes, or until the wait expires with a
+ * {@code 304 Not Modified}.
  */
 @Path("/v1/endpoints")
 public class EndpointsResource {
 
-    private final StateStore stateStore;
-    private final String serviceName;
+    private static final Logger LOGGER = LoggingUtils.getLogger(EndpointsResource.class);
+
+    /**
+     * The longest that a long-poll request may be held, regardless of what the client requested.
+     */
+    private static final int MAX_WAIT_SECONDS = 60;
+
+    /**
+     * Checks waiting requests against the current endpoints. Shared by all instances, as checks are short-lived and
+     * each instance only has one pending check at a time.
+     */
+    private static final ExecutorService WAITER_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "endpoints-watch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * A long-poll request which is waiting for an endpoint's tag to change.
+     */
+    private static class Waiter {
+        private final String name;
+        private final String tag;
+        private final AsyncResponse response;
+
+        private Waiter(String name, String tag, AsyncResponse response) {
+            this.name = name;
+            this.tag = tag;
+            this.response = response;
+        }
+    }
+
     private final Map<String, EndpointProducer> customEndpoints = new HashMap<>();
-    private final SchedulerConfig schedulerConfig;
+    private final EndpointsModel endpointsModel;
+    private final VersionedResponseCache responseCache;
+
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean checkPending = new AtomicBoolean(false);
+
+    @Context
+    private Request request;
 
     /**
      * Creates a new instance which retrieves task/pod state from the provided {@link StateStore},
      * using the provided {@code serviceName} for endpoint paths.
      */
     public EndpointsResource(StateStore stateStore, String serviceName, SchedulerConfig schedulerConfig) {
-        this.stateStore = stateStore;
-        this.serviceName = serviceName;
-        this.schedulerConfig = schedulerConfig;
+        this.endpointsModel = new EndpointsModel(stateStore, serviceName, schedulerConfig);
+        stateStore.addTaskChangeListener(endpointsModel);
+        // Endpoints are built from TaskInfos, along with the IP addresses in task statuses:
+        this.responseCache = new VersionedResponseCache(
+                () -> stateStore.getTaskInfoVersion() + stateStore.getTaskStatusVersion());
+        stateStore.addChangeListener(this::onStateChanged);
     }
 
     /**
@@ -55,6 +115,8 @@ public class EndpointsResource {
      */
     public EndpointsResource setCustomEndpoint(String name, EndpointProducer endpointProducer) {
         this.customEndpoints.put(name, endpointProducer);
+        // The listing of endpoint names has changed:
+        responseCache.invalidate();
         return this;
     }
 
@@ -63,15 +125,86 @@ public class EndpointsResource {
      */
     @GET
     public Response getEndpoints() {
-        return EndpointsQueries.getEndpoints(stateStore, serviceName, customEndpoints, schedulerConfig);
+        return responseCache.get("", request, () -> EndpointsQueries.getEndpoints(endpointsModel, customEndpoints));
     }
 
     /**
+     * @param waitSeconds if the request's {@code If-None-Match} header matches the endpoint's current content, the
+     *     number of seconds to wait for the content to change before returning {@code 304 Not Modified}
      * @see EndpointsQueries
      */
     @Path("/{name}")
     @GET
-    public Response getEndpoint(@PathParam("name") String name) {
-        return EndpointsQueries.getEndpoint(stateStore, serviceName, customEndpoints, name, schedulerConfig);
+    public void getEndpoint(
+            @PathParam("name") String name,
+            @QueryParam("wait") Integer waitSeconds,
+            @Suspended AsyncResponse asyncResponse) {
+        if (customEndpoints.containsKey(name)) {
+            // Custom endpoint values aren't derived from the state store, and may change at any time.
+            asyncResponse.resume(EndpointsQueries.getEndpoint(endpointsModel, customEndpoints, name));
+            return;
+        }
+
+        Response response = EndpointsQueries.getEndpoint(endpointsModel, customEndpoints, name);
+        EntityTag tag = response.getEntityTag();
+        if (tag == null || request == null) {
+            // Error or not found.
+            asyncResponse.resume(response);
+            return;
+        }
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified == null) {
+            // The client doesn't have the current content.
+            asyncResponse.resume(response);
+            return;
+        }
+        if (waitSeconds == null || waitSeconds <= 0) {
+            asyncResponse.resume(notModified.tag(tag).build());
+            return;
+        }
+
+        // The client has the current content, and would like to wait for it to change:
+        Waiter waiter = new Waiter(name, tag.getValue(), asyncResponse);
+        asyncResponse.setTimeout(Math.min(waitSeconds, MAX_WAIT_SECONDS), TimeUnit.SECONDS);
+        asyncResponse.setTimeoutHandler(timedOut -> {
+            if (waiters.remove(waiter)) {
+                timedOut.resume(Response.notModified(tag).build());
+            }
+        });
+        waiters.add(waiter);
+        // In case the endpoint changed before the waiter was added:
+        onStateChanged();
+    }
+
+    /**
+     * Schedules a check of the waiting requests against the current endpoints. Multiple changes which occur before the
+     * check is run are handled by a single check.
+     */
+    private void onStateChanged() {
+        if (!waiters.isEmpty() && checkPending.compareAndSet(false, true)) {
+            WAITER_EXECUTOR.execute(this::checkWaiters);
+        }
+    }
+
+    private void checkWaiters() {
+        checkPending.set(false);
+        Map<String, EndpointsModel.Endpoint> endpoints;
+        try {
+            endpoints = endpointsModel.getEndpoints();
+        } catch (Exception e) {
+            // Let the waiters time out. The next change will retry.
+            LOGGER.error("Failed to refresh endpoints for waiting requests", e);
+            return;
+        }
+        for (Waiter waiter : waiters) {
+            EndpointsModel.Endpoint endpoint = endpoints.get(waiter.name);
+            if (endpoint != null && endpoint.getTag().equals(waiter.tag)) {
+                continue;
+            }
+            if (waiters.remove(waiter)) {
+                // Changed or removed: Return the current state of the endpoint.
+                waiter.response.resume(EndpointsQueries.getEndpoint(endpointsModel, customEndpoints, waiter.name));
+            }
+        }
     }
 }
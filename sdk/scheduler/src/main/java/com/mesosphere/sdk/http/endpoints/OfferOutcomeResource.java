@@ -2,6 +2,7 @@ package com.mesosphere.sdk.http.endpoints;
 
 import com.mesosphere.sdk.http.ResponseUtils;
 import com.mesosphere.sdk.offer.history.OfferOutcomeTracker;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.QueryParam;
@@ -20,15 +21,34 @@ public class OfferOutcomeResource {
     }
 
     /**
-     * Renders the current set of offer outcomes as an HTML table.
-     * @return HTML response of the table.
+     * Renders the most recent offer outcomes as an HTML table, or as JSON if requested. Outcomes may be filtered by pod
+     * instance name (e.g. {@code hello-0:[server]}), agent ID, failed evaluation stage (e.g.
+     * {@code PlacementRuleEvaluationStage}), and whether they passed.
+     * @return HTML or JSON response of the matching outcomes.
      */
     @GET
-    public Response getOfferOutcomes(@QueryParam("json") boolean json) {
+    public Response getOfferOutcomes(
+            @QueryParam("json") boolean json,
+            @QueryParam("pod") String podInstanceName,
+            @QueryParam("agent") String agentId,
+            @QueryParam("stage") String failedStage,
+            @QueryParam("pass") Boolean pass,
+            @QueryParam("limit") @DefaultValue("100") int limit) {
+        OfferOutcomeTracker.Query query;
+        try {
+            query = new OfferOutcomeTracker.Query()
+                    .setPodInstanceName(podInstanceName)
+                    .setAgentId(agentId)
+                    .setFailedStage(failedStage)
+                    .setPass(pass)
+                    .setLimit(limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseUtils.plainResponse(e.getMessage(), Response.Status.BAD_REQUEST);
+        }
         if (json) {
-            return ResponseUtils.jsonOkResponse(offerOutcomeTracker.toJson());
+            return ResponseUtils.jsonOkResponse(offerOutcomeTracker.toJson(query));
         } else {
-            return ResponseUtils.htmlOkResponse(offerOutcomeTracker.toHtml());
+            return ResponseUtils.htmlOkResponse(offerOutcomeTracker.toHtml(query));
         }
     }
 }
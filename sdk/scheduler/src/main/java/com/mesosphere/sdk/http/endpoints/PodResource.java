@@ -1,7 +1,9 @@
 package com.mesosphere.sdk.http.endpoints;
 
+import com.mesosphere.sdk.http.VersionedResponseCache;
 import com.mesosphere.sdk.http.queries.PodQueries;
 import com.mesosphere.sdk.http.types.PrettyJsonResource;
+import com.mesosphere.sdk.scheduler.TaskKiller;
 import com.mesosphere.sdk.scheduler.recovery.RecoveryType;
 import com.mesosphere.sdk.specification.ServiceSpec;
 import com.mesosphere.sdk.state.ConfigStore;
@@ -10,6 +12,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
 /**
@@ -21,15 +25,27 @@ public class PodResource extends PrettyJsonResource {
 
     private final StateStore stateStore;
     private final ConfigStore<ServiceSpec> configStore;
+    private final TaskKiller taskKiller;
     private final String serviceName;
+    // Responses which only depend on TaskInfos, and responses which also depend on task statuses:
+    private final VersionedResponseCache taskInfoResponseCache;
+    private final VersionedResponseCache taskStatusResponseCache;
+
+    @Context
+    private Request request;
 
     /**
      * Creates a new instance which retrieves task/pod state from the provided {@link StateStore}.
      */
-    public PodResource(StateStore stateStore, ConfigStore<ServiceSpec> configStore, String serviceName) {
+    public PodResource(
+            StateStore stateStore, ConfigStore<ServiceSpec> configStore, TaskKiller taskKiller, String serviceName) {
         this.stateStore = stateStore;
         this.configStore = configStore;
+        this.taskKiller = taskKiller;
         this.serviceName = serviceName;
+        this.taskInfoResponseCache = new VersionedResponseCache(stateStore::getTaskInfoVersion);
+        this.taskStatusResponseCache = new VersionedResponseCache(
+                () -> stateStore.getTaskInfoVersion() + stateStore.getTaskStatusVersion());
     }
 
     /**
@@ -37,7 +53,7 @@ public class PodResource extends PrettyJsonResource {
      */
     @GET
     public Response list() {
-        return PodQueries.list(stateStore);
+        return taskInfoResponseCache.get("list", request, () -> PodQueries.list(stateStore));
     }
 
     /**
@@ -46,7 +62,7 @@ public class PodResource extends PrettyJsonResource {
     @Path("/status")
     @GET
     public Response getStatuses() {
-        return PodQueries.getStatuses(stateStore, serviceName);
+        return taskStatusResponseCache.get("status", request, () -> PodQueries.getStatuses(stateStore, serviceName));
     }
 
     /**
@@ -55,7 +71,8 @@ public class PodResource extends PrettyJsonResource {
     @Path("/{name}/status")
     @GET
     public Response getStatus(@PathParam("name") String podInstanceName) {
-        return PodQueries.getStatus(stateStore, podInstanceName);
+        return taskStatusResponseCache.get(
+                podInstanceName + "/status", request, () -> PodQueries.getStatus(stateStore, podInstanceName));
     }
 
     /**
@@ -64,7 +81,8 @@ public class PodResource extends PrettyJsonResource {
     @Path("/{name}/info")
     @GET
     public Response getInfo(@PathParam("name") String podInstanceName) {
-        return PodQueries.getInfo(stateStore, podInstanceName);
+        return taskStatusResponseCache.get(
+                podInstanceName + "/info", request, () -> PodQueries.getInfo(stateStore, podInstanceName));
     }
 
     /**
@@ -73,7 +91,7 @@ public class PodResource extends PrettyJsonResource {
     @Path("/{name}/pause")
     @POST
     public Response pause(@PathParam("name") String podInstanceName, String bodyPayload) {
-        return PodQueries.pause(stateStore, podInstanceName, bodyPayload);
+        return PodQueries.pause(stateStore, taskKiller, podInstanceName, bodyPayload);
     }
 
     /**
@@ -82,7 +100,7 @@ public class PodResource extends PrettyJsonResource {
     @Path("/{name}/resume")
     @POST
     public Response resume(@PathParam("name") String podInstanceName, String bodyPayload) {
-        return PodQueries.resume(stateStore, podInstanceName, bodyPayload);
+        return PodQueries.resume(stateStore, taskKiller, podInstanceName, bodyPayload);
     }
 
     /**
@@ -91,7 +109,7 @@ public class PodResource extends PrettyJsonResource {
     @Path("/{name}/restart")
     @POST
     public Response restart(@PathParam("name") String podInstanceName) {
-        return PodQueries.restart(stateStore, configStore, podInstanceName, RecoveryType.TRANSIENT);
+        return PodQueries.restart(stateStore, configStore, taskKiller, podInstanceName, RecoveryType.TRANSIENT);
     }
 
     /**
@@ -100,6 +118,6 @@ public class PodResource extends PrettyJsonResource {
     @Path("/{name}/replace")
     @POST
     public Response replace(@PathParam("name") String podInstanceName) {
-        return PodQueries.restart(stateStore, configStore, podInstanceName, RecoveryType.PERMANENT);
+        return PodQueries.restart(stateStore, configStore, taskKiller, podInstanceName, RecoveryType.PERMANENT);
     }
 }
@@ -1,5 +1,6 @@
 package com.mesosphere.sdk.http.endpoints;
 
+import com.mesosphere.sdk.http.VersionedResponseCache;
 import com.mesosphere.sdk.http.queries.StateQueries;
 import com.mesosphere.sdk.http.types.PropertyDeserializer;
 import com.mesosphere.sdk.state.FrameworkStore;
@@ -7,7 +8,9 @@ import com.mesosphere.sdk.state.StateStore;
 import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
 import org.glassfish.jersey.media.multipart.FormDataParam;
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import java.io.*;
 
@@ -21,6 +24,13 @@ public class StateResource {
     private final FrameworkStore frameworkStore;
     private final StateStore stateStore;
     private final PropertyDeserializer propertyDeserializer;
+    // Responses which depend on properties, on TaskInfos, and on both TaskInfos and task statuses:
+    private final VersionedResponseCache propertyResponseCache;
+    private final VersionedResponseCache taskInfoResponseCache;
+    private final VersionedResponseCache taskStatusResponseCache;
+
+    @Context
+    private Request request;
 
     /**
      * Creates a new StateResource which can deserialize Properties. Callers will be able to view
@@ -36,6 +46,10 @@ public class StateResource {
         this.frameworkStore = frameworkStore;
         this.stateStore = stateStore;
         this.propertyDeserializer = propertyDeserializer;
+        this.propertyResponseCache = new VersionedResponseCache(stateStore::getPropertyVersion);
+        this.taskInfoResponseCache = new VersionedResponseCache(stateStore::getTaskInfoVersion);
+        this.taskStatusResponseCache = new VersionedResponseCache(
+                () -> stateStore.getTaskInfoVersion() + stateStore.getTaskStatusVersion());
     }
 
     /**
@@ -54,7 +68,7 @@ public class StateResource {
     @Produces(MediaType.TEXT_PLAIN)
     @GET
     public Response getFiles() {
-        return StateQueries.getFiles(stateStore);
+        return propertyResponseCache.get("files", request, () -> StateQueries.getFiles(stateStore));
     }
 
     /**
@@ -64,7 +78,8 @@ public class StateResource {
     @Produces(MediaType.TEXT_PLAIN)
     @GET
     public Response getFile(@PathParam("file") String fileName) {
-        return StateQueries.getFile(stateStore, fileName);
+        return propertyResponseCache.get(
+                "files/" + fileName, request, () -> StateQueries.getFile(stateStore, fileName));
     }
 
     /**
@@ -85,7 +100,7 @@ public class StateResource {
     @Path("/zone/tasks")
     @GET
     public Response getTaskNamesToZones() {
-        return StateQueries.getTaskNamesToZones(stateStore);
+        return taskInfoResponseCache.get("zone/tasks", request, () -> StateQueries.getTaskNamesToZones(stateStore));
     }
 
     /**
@@ -94,7 +109,8 @@ public class StateResource {
     @Path("/zone/tasks/{taskName}")
     @GET
     public Response getTaskNameToZone(@PathParam("taskName") String taskName) {
-        return StateQueries.getTaskNameToZone(stateStore, taskName);
+        return taskInfoResponseCache.get(
+                "zone/tasks/" + taskName, request, () -> StateQueries.getTaskNameToZone(stateStore, taskName));
     }
 
     /**
@@ -103,7 +119,8 @@ public class StateResource {
     @Path("/zone/{podType}/{ip}")
     @GET
     public Response getTaskIPsToZones(@PathParam("podType") String podType, @PathParam("ip") String ip) {
-        return StateQueries.getTaskIPsToZones(stateStore, podType, ip);
+        return taskStatusResponseCache.get(
+                "zone/" + podType + "/" + ip, request, () -> StateQueries.getTaskIPsToZones(stateStore, podType, ip));
     }
 
     /**
@@ -112,7 +129,7 @@ public class StateResource {
     @Path("/properties")
     @GET
     public Response getPropertyKeys() {
-        return StateQueries.getPropertyKeys(stateStore);
+        return propertyResponseCache.get("properties", request, () -> StateQueries.getPropertyKeys(stateStore));
     }
 
     /**
@@ -121,7 +138,8 @@ public class StateResource {
     @Path("/properties/{key}")
     @GET
     public Response getProperty(@PathParam("key") String key) {
-        return StateQueries.getProperty(stateStore, propertyDeserializer, key);
+        return propertyResponseCache.get(
+                "properties/" + key, request, () -> StateQueries.getProperty(stateStore, propertyDeserializer, key));
     }
 
     /**
@@ -1,11 +1,10 @@
 package com.mesosphere.sdk.http.queries;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.mesosphere.sdk.http.endpoints.ArtifactResource;
 import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.specification.ConfigFileSpec;
-import com.mesosphere.sdk.specification.PodSpec;
 import com.mesosphere.sdk.specification.ServiceSpec;
-import com.mesosphere.sdk.specification.TaskSpec;
 import com.mesosphere.sdk.state.ConfigStore;
 import com.mesosphere.sdk.state.ConfigStoreException;
 import com.mesosphere.sdk.storage.StorageError.Reason;
@@ -16,10 +15,10 @@ import javax.ws.rs.core.Response;
 
 import static com.mesosphere.sdk.http.ResponseUtils.plainOkResponse;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * A read-only API for accessing file artifacts (e.g. config templates) for retrieval by pods.
@@ -71,9 +70,11 @@ public class ArtifactQueries {
                     "Failed to parse requested configuration id as a UUID: '%s'", configurationId), ex);
             return Response.status(Response.Status.BAD_REQUEST).build();
         }
-        ServiceSpec serviceSpec;
+        Optional<String> content;
         try {
-            serviceSpec = configStore.fetch(uuid);
+            // Only the requested template is needed, so avoid deserializing the full ServiceSpec:
+            content = configStore.fetchTemplate(
+                    uuid, root -> findConfigFile(root, podType, taskName, configurationName));
         } catch (ConfigStoreException ex) {
             if (ex.getReason() == Reason.NOT_FOUND) {
                 LOGGER.warn(String.format("Requested configuration '%s' doesn't exist", configurationId), ex);
@@ -83,51 +84,54 @@ public class ArtifactQueries {
                     "Failed to fetch requested configuration with id '%s'", configurationId), ex);
             return Response.serverError().build();
         }
-        try {
-            ConfigFileSpec config = getConfigFile(getTask(getPod(serviceSpec, podType), taskName), configurationName);
-            return plainOkResponse(config.getTemplateContent());
-        } catch (Exception ex) {
-            LOGGER.warn(String.format(
-                    "Couldn't find requested template in config '%s'", configurationId), ex);
+        if (!content.isPresent()) {
+            LOGGER.warn("Couldn't find requested template in config '{}'", configurationId);
             return Response.status(Response.Status.NOT_FOUND).build();
         }
+        return plainOkResponse(content.get());
     }
 
-    private static PodSpec getPod(ServiceSpec serviceSpec, String podType) throws Exception {
-        Optional<PodSpec> podOptional =
-                serviceSpec.getPods().stream().filter(pod -> podType.equals(pod.getType())).findFirst();
-        if (!podOptional.isPresent()) {
-            List<String> availablePodTypes =
-                    serviceSpec.getPods().stream().map(podSpec -> podSpec.getType()).collect(Collectors.toList());
-            throw new Exception(String.format(
-                    "Couldn't find pod of type '%s'. Known pod types are: %s", podType, availablePodTypes));
+    /**
+     * Returns the serialized {@link ConfigFileSpec} matching the provided pod type, task name, and config name within
+     * the provided serialized {@link ServiceSpec}, or an empty {@link Optional} if any of them couldn't be found.
+     */
+    private static Optional<JsonNode> findConfigFile(
+            JsonNode serviceSpec, String podType, String taskName, String configName) {
+        Optional<JsonNode> podSpec = findElement(serviceSpec, "pod-specs", "type", podType);
+        if (!podSpec.isPresent()) {
+            LOGGER.warn("Couldn't find pod of type '{}'. Known pod types are: {}",
+                    podType, getFieldValues(serviceSpec, "pod-specs", "type"));
+            return Optional.empty();
         }
-        return podOptional.get();
+        Optional<JsonNode> taskSpec = findElement(podSpec.get(), "task-specs", "name", taskName);
+        if (!taskSpec.isPresent()) {
+            LOGGER.warn("Couldn't find task named '{}' within pod '{}'. Known task names are: {}",
+                    taskName, podType, getFieldValues(podSpec.get(), "task-specs", "name"));
+            return Optional.empty();
+        }
+        Optional<JsonNode> configFileSpec = findElement(taskSpec.get(), "config-files", "name", configName);
+        if (!configFileSpec.isPresent()) {
+            LOGGER.warn("Couldn't find config named '{}' within task '{}'. Known config names are: {}",
+                    configName, taskName, getFieldValues(taskSpec.get(), "config-files", "name"));
+        }
+        return configFileSpec;
     }
 
-    private static TaskSpec getTask(PodSpec podSpec, String taskName) throws Exception {
-        Optional<TaskSpec> taskOptional =
-                podSpec.getTasks().stream().filter(task -> taskName.equals(task.getName())).findFirst();
-        if (!taskOptional.isPresent()) {
-            List<String> availableTaskNames =
-                    podSpec.getTasks().stream().map(taskSpec -> taskSpec.getName()).collect(Collectors.toList());
-            throw new Exception(String.format(
-                    "Couldn't find task named '%s' within pod '%s'. Known task names are: %s",
-                    taskName, podSpec.getType(), availableTaskNames));
+    private static Optional<JsonNode> findElement(JsonNode parent, String listField, String keyField, String key) {
+        JsonNode list = parent.path(listField);
+        for (JsonNode element : list) {
+            if (key.equals(element.path(keyField).asText(null))) {
+                return Optional.of(element);
+            }
         }
-        return taskOptional.get();
+        return Optional.empty();
     }
 
-    private static ConfigFileSpec getConfigFile(TaskSpec taskSpec, String configName) throws Exception {
-        Optional<ConfigFileSpec> configOptional =
-                taskSpec.getConfigFiles().stream().filter(config -> configName.equals(config.getName())).findFirst();
-        if (!configOptional.isPresent()) {
-            List<String> availableConfigNames =
-                    taskSpec.getConfigFiles().stream().map(config -> config.getName()).collect(Collectors.toList());
-            throw new Exception(String.format(
-                    "Couldn't find config named '%s' within task '%s'. Known config names are: %s",
-                    configName, taskSpec.getName(), availableConfigNames));
+    private static List<String> getFieldValues(JsonNode parent, String listField, String keyField) {
+        List<String> values = new ArrayList<>();
+        for (JsonNode element : parent.path(listField)) {
+            values.add(element.path(keyField).asText(null));
         }
-        return configOptional.get();
+        return values;
     }
 }
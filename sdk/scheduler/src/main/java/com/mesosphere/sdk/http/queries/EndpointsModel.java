@@ -0,0 +1,358 @@
+package com.mesosphere.sdk.http.queries;
+
+import com.google.protobuf.TextFormat;
+import com.mesosphere.sdk.http.EndpointUtils;
+import com.mesosphere.sdk.offer.Constants;
+import com.mesosphere.sdk.offer.LoggingUtils;
+import com.mesosphere.sdk.offer.TaskException;
+import com.mesosphere.sdk.offer.taskdata.AuxLabelAccess;
+import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
+import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreUtils;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.logging.log4j.util.Strings;
+import org.apache.mesos.Protos;
+import org.apache.mesos.Protos.DiscoveryInfo;
+import org.apache.mesos.Protos.Port;
+import org.apache.mesos.Protos.TaskInfo;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * The service's default endpoints, as derived from the {@link DiscoveryInfo} of its tasks, along with a tag for each
+ * endpoint which changes whenever that endpoint's content changes.
+ *
+ * <p>All tasks are read when the endpoints are first retrieved. After that, if this instance has been registered via
+ * {@link StateStore#addTaskChangeListener(StateStore.TaskChangeListener)}, only the tasks which have since been
+ * written are reread, and only the endpoints which those tasks contributed to are rebuilt. Unregistered instances
+ * don't observe any changes after the first retrieval.
+ */
+public class EndpointsModel implements StateStore.TaskChangeListener {
+
+    private static final Logger LOGGER = LoggingUtils.getLogger(EndpointsModel.class);
+    private static final String RESPONSE_KEY_DNS = "dns";
+    private static final String RESPONSE_KEY_ADDRESS = "address";
+    private static final String RESPONSE_KEY_VIP = "vip";
+
+    /**
+     * A rendered endpoint, along with a tag identifying its content.
+     */
+    public static class Endpoint {
+        private final JSONObject content;
+        private final String tag;
+
+        private Endpoint(JSONObject content) {
+            this.content = content;
+            this.tag = DigestUtils.md5Hex(content.toString());
+        }
+
+        /**
+         * Returns the content of the endpoint. This should be treated as read-only.
+         */
+        public JSONObject getContent() {
+            return content;
+        }
+
+        /**
+         * Returns a value which changes whenever the content of the endpoint changes.
+         */
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    /**
+     * A single port listing within an endpoint.
+     */
+    private static class PortEntry {
+        private final String portName;
+        private final String autoipHostPort;
+        private final String ipHostPort;
+        private final String vipHostPort;
+
+        private PortEntry(String portName, String autoipHostPort, String ipHostPort, String vipHostPort) {
+            this.portName = portName;
+            this.autoipHostPort = autoipHostPort;
+            this.ipHostPort = ipHostPort;
+            this.vipHostPort = vipHostPort;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PortEntry)) {
+                return false;
+            }
+            PortEntry other = (PortEntry) o;
+            return portName.equals(other.portName)
+                    && autoipHostPort.equals(other.autoipHostPort)
+                    && ipHostPort.equals(other.ipHostPort)
+                    && Objects.equals(vipHostPort, other.vipHostPort);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(portName, autoipHostPort, ipHostPort, vipHostPort);
+        }
+    }
+
+    private final StateStore stateStore;
+    private final String frameworkName;
+    private final SchedulerConfig schedulerConfig;
+
+    /**
+     * Tasks which have been written since the endpoints were last retrieved. Updated by writing threads.
+     */
+    private final Set<String> changedTaskNames = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Whether all tasks should be reread, e.g. because the underlying data was refreshed. Updated by writing threads.
+     */
+    private final AtomicBoolean reloadAll = new AtomicBoolean(true);
+
+    /**
+     * The port listings of each task which has any, in the order that the tasks were first seen.
+     */
+    private final Map<String, List<PortEntry>> taskPorts = new LinkedHashMap<>();
+
+    /**
+     * The names of the tasks which list each port name, in the order that the tasks first listed the port.
+     */
+    private final Map<String, Set<String>> taskNamesByPort = new HashMap<>();
+
+    private Map<String, Endpoint> endpoints = Collections.emptyMap();
+
+    public EndpointsModel(StateStore stateStore, String frameworkName, SchedulerConfig schedulerConfig) {
+        this.stateStore = stateStore;
+        this.frameworkName = frameworkName;
+        this.schedulerConfig = schedulerConfig;
+    }
+
+    @Override
+    public void onTasksChanged(Collection<String> taskNames) {
+        changedTaskNames.addAll(taskNames);
+    }
+
+    @Override
+    public void onAllTasksChanged() {
+        reloadAll.set(true);
+    }
+
+    /**
+     * Returns a sorted mapping of endpoint name to endpoint, first updating the endpoints contributed by any tasks
+     * which have changed since they were last retrieved.
+     *
+     * @throws TaskException if a task with advertised ports lacks the information needed to list them
+     */
+    public synchronized Map<String, Endpoint> getEndpoints() throws TaskException {
+        Set<String> changedPortNames = new HashSet<>();
+        try {
+            if (reloadAll.getAndSet(false)) {
+                changedTaskNames.clear();
+                changedPortNames.addAll(taskNamesByPort.keySet());
+                taskPorts.clear();
+                taskNamesByPort.clear();
+                for (TaskInfo taskInfo : stateStore.fetchTasks()) {
+                    updateTask(taskInfo.getName(), Optional.of(taskInfo), changedPortNames);
+                }
+            } else if (!changedTaskNames.isEmpty()) {
+                List<String> taskNames = new ArrayList<>(changedTaskNames);
+                changedTaskNames.removeAll(taskNames);
+                for (String taskName : taskNames) {
+                    updateTask(taskName, stateStore.fetchTask(taskName), changedPortNames);
+                }
+            }
+        } catch (RuntimeException | TaskException e) {
+            // Some tasks may have been skipped: Start over on the next retrieval.
+            reloadAll.set(true);
+            throw e;
+        }
+        if (changedPortNames.isEmpty()) {
+            return endpoints;
+        }
+
+        Map<String, Endpoint> updatedEndpoints = new TreeMap<>(endpoints);
+        for (String portName : changedPortNames) {
+            Set<String> taskNames = taskNamesByPort.get(portName);
+            if (taskNames == null) {
+                updatedEndpoints.remove(portName);
+            } else {
+                updatedEndpoints.put(portName, buildEndpoint(portName, taskNames));
+            }
+        }
+        endpoints = Collections.unmodifiableMap(updatedEndpoints);
+        return endpoints;
+    }
+
+    /**
+     * Updates the port listings of the provided task, adding the names of any ports whose listings changed to
+     * {@code changedPortNames}.
+     *
+     * @param taskInfo the task's current {@link TaskInfo}, or an empty Optional if the task has been removed
+     */
+    private void updateTask(String taskName, Optional<TaskInfo> taskInfo, Set<String> changedPortNames)
+            throws TaskException {
+        List<PortEntry> ports = taskInfo.isPresent() ? getPorts(taskInfo.get()) : Collections.emptyList();
+        List<PortEntry> previousPorts = taskPorts.getOrDefault(taskName, Collections.emptyList());
+        if (ports.equals(previousPorts)) {
+            return;
+        }
+
+        Set<String> portNames = ports.stream().map(port -> port.portName).collect(Collectors.toSet());
+        for (PortEntry port : previousPorts) {
+            changedPortNames.add(port.portName);
+            Set<String> taskNames = taskNamesByPort.get(port.portName);
+            if (taskNames != null && !portNames.contains(port.portName)) {
+                taskNames.remove(taskName);
+                if (taskNames.isEmpty()) {
+                    taskNamesByPort.remove(port.portName);
+                }
+            }
+        }
+        for (String portName : portNames) {
+            changedPortNames.add(portName);
+            taskNamesByPort.computeIfAbsent(portName, name -> new LinkedHashSet<>()).add(taskName);
+        }
+
+        if (ports.isEmpty()) {
+            taskPorts.remove(taskName);
+        } else {
+            taskPorts.put(taskName, ports);
+        }
+    }
+
+    private Endpoint buildEndpoint(String portName, Collection<String> taskNames) {
+        JSONObject portEndpoint = new JSONObject();
+        for (String taskName : taskNames) {
+            for (PortEntry port : taskPorts.get(taskName)) {
+                if (!port.portName.equals(portName)) {
+                    continue;
+                }
+                portEndpoint.append(RESPONSE_KEY_DNS, port.autoipHostPort);
+                portEndpoint.append(RESPONSE_KEY_ADDRESS, port.ipHostPort);
+                if (port.vipHostPort != null) {
+                    portEndpoint.put(RESPONSE_KEY_VIP, port.vipHostPort);
+                }
+            }
+        }
+        return new Endpoint(portEndpoint);
+    }
+
+    /**
+     * Returns the port listings for the provided task.
+     */
+    private List<PortEntry> getPorts(TaskInfo taskInfo) throws TaskException {
+        if (!taskInfo.hasDiscovery()) {
+            LOGGER.debug("Task lacks any discovery information, no endpoints to report: {}", taskInfo.getName());
+            return Collections.emptyList();
+        }
+
+        // TODO(mrb): Also extract DiscoveryInfo from executor, when executors get the ability to specify resources
+        DiscoveryInfo discoveryInfo = taskInfo.getDiscovery();
+
+        // Autoip hostname:
+        String autoIpTaskName = discoveryInfo.hasName() ? discoveryInfo.getName() : taskInfo.getName();
+        // Hostname of agent at offer time:
+        String nativeHost = new TaskLabelReader(taskInfo).getHostname();
+        // Get IP address(es) from container status on the latest TaskStatus, if the latest TaskStatus has an IP.
+        // Otherwise use the latest TaskStatus' IP stored in the stateStore.
+        List<String> ipAddresses = getIpAddresses(stateStore.fetchStatus(taskInfo.getName()).orElse(null));
+        if (ipAddresses.isEmpty()) {
+            // The latest TaskStatus lacks an IP address (it's a TASK_KILLED, LOST, etc.), so use the last IP address
+            // recorded in the stateStore (this is better than nothing).
+            ipAddresses = getIpAddresses(
+                    StateStoreUtils.getTaskStatusFromProperty(stateStore, taskInfo.getName()).orElse(null));
+        }
+        final String hostIpString;
+        switch (ipAddresses.size()) {
+        case 0:
+            hostIpString = nativeHost;
+            break;
+        case 1:
+            hostIpString = ipAddresses.get(0);
+            break;
+        default:
+            hostIpString = ipAddresses.toString();
+            break;
+        }
+
+        List<PortEntry> ports = new ArrayList<>();
+        for (Port port : discoveryInfo.getPorts().getPortsList()) {
+            if (port.getVisibility() != Constants.DISPLAYED_PORT_VISIBILITY) {
+                LOGGER.debug(
+                        "Port {} in task {} has {} visibility. {} is needed to be listed in endpoints.",
+                        port.getName(), taskInfo.getName(), port.getVisibility(),
+                        Constants.DISPLAYED_PORT_VISIBILITY);
+                continue;
+            }
+            addPortEntries(
+                    ports,
+                    taskInfo.getName(),
+                    port,
+                    EndpointUtils.toAutoIpEndpoint(frameworkName, autoIpTaskName, port.getNumber(), schedulerConfig),
+                    EndpointUtils.toEndpoint(hostIpString, port.getNumber()));
+        }
+        return ports;
+    }
+
+    private static List<String> getIpAddresses(Protos.TaskStatus taskStatus) {
+        if (taskStatus != null && taskStatus.hasContainerStatus() &&
+                taskStatus.getContainerStatus().getNetworkInfosCount() > 0) {
+            List<String> ipAddresses = taskStatus.getContainerStatus().getNetworkInfosList().stream()
+                    .flatMap(networkInfo -> networkInfo.getIpAddressesList().stream())
+                    .map(ipAddress -> ipAddress.getIpAddress())
+                    .collect(Collectors.toList());
+            return ipAddresses;
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Adds information about a {@link Port} to the provided {@code ports}. Information will be added for any VIPs
+     * listed against the {@link Port}'s labels, or if no VIPs are found, the information will be added without a VIP.
+     *
+     * @param ports the list to write to
+     * @param taskName the name of the task which has the port in question
+     * @param taskInfoPort the port being added (from the task's DiscoveryInfo)
+     * @param autoipHostPort the host:port value to advertise for connecting to the task over DNS
+     * @param ipHostPort the host:port value to advertise for connecting to the task's IP
+     */
+    private void addPortEntries(
+            List<PortEntry> ports,
+            String taskName,
+            Port taskInfoPort,
+            String autoipHostPort,
+            String ipHostPort) {
+        if (Strings.isEmpty(taskInfoPort.getName())) {
+            // Older tasks may omit the port name in their DiscoveryInfo. In practice this shouldn't happen because
+            // tasks that old should have been long updated/relaunched by the time this is invoked, but just in case...
+            LOGGER.warn("Missing port name. Old task?: {}", TextFormat.shortDebugString(taskInfoPort));
+            return;
+        }
+
+        // Search for any VIPs to list the port against:
+        Collection<EndpointUtils.VipInfo> vips = AuxLabelAccess.getVIPsFromLabels(taskName, taskInfoPort);
+
+        for (EndpointUtils.VipInfo vip : vips) {
+            // VIP found. file host:port against the PORT name.
+            ports.add(new PortEntry(
+                    taskInfoPort.getName(),
+                    autoipHostPort,
+                    ipHostPort,
+                    EndpointUtils.toVipEndpoint(frameworkName, vip)));
+        }
+
+        // If no VIPs were found, list the port against the port name:
+        if (vips.isEmpty()) {
+            ports.add(new PortEntry(taskInfoPort.getName(), autoipHostPort, ipHostPort, null));
+        }
+    }
+}
@@ -160,7 +160,7 @@ public class PodQueries {
     /**
      * Restarts a pod in a "paused" debug mode.
      */
-    public static Response pause(StateStore stateStore, String podName, String bodyPayload) {
+    public static Response pause(StateStore stateStore, TaskKiller taskKiller, String podName, String bodyPayload) {
         Set<String> taskFilter;
         try {
             taskFilter = new HashSet<>(RequestUtils.parseJsonList(bodyPayload));
@@ -169,7 +169,7 @@ public class PodQueries {
             return Response.status(Response.Status.BAD_REQUEST).build();
         }
         try {
-            return overrideGoalState(stateStore, podName, taskFilter, GoalStateOverride.PAUSED);
+            return overrideGoalState(stateStore, taskKiller, podName, taskFilter, GoalStateOverride.PAUSED);
         } catch (Exception e) {
             LOGGER.error(String.format("Failed to pause pod '%s' with task filter '%s'", podName, taskFilter), e);
             return Response.serverError().build();
@@ -179,7 +179,7 @@ public class PodQueries {
     /**
      * Restarts a pod in a normal state following a prior "pause" command.
      */
-    public static Response resume(StateStore stateStore, String podName, String bodyPayload) {
+    public static Response resume(StateStore stateStore, TaskKiller taskKiller, String podName, String bodyPayload) {
         Set<String> taskFilter;
         try {
             taskFilter = new HashSet<>(RequestUtils.parseJsonList(bodyPayload));
@@ -188,7 +188,7 @@ public class PodQueries {
             return Response.status(Response.Status.BAD_REQUEST).build();
         }
         try {
-            return overrideGoalState(stateStore, podName, taskFilter, GoalStateOverride.NONE);
+            return overrideGoalState(stateStore, taskKiller, podName, taskFilter, GoalStateOverride.NONE);
         } catch (Exception e) {
             LOGGER.error(String.format("Failed to resume pod '%s' with task filter '%s'", podName, taskFilter), e);
             return Response.serverError().build();
@@ -196,7 +196,11 @@ public class PodQueries {
     }
 
     private static Response overrideGoalState(
-            StateStore stateStore, String podInstanceName, Set<String> taskNameFilter, GoalStateOverride override) {
+            StateStore stateStore,
+            TaskKiller taskKiller,
+            String podInstanceName,
+            Set<String> taskNameFilter,
+            GoalStateOverride override) {
         Optional<Collection<TaskInfoAndStatus>> allPodTasks =
                 GroupedTasks.create(stateStore).getPodInstanceTasks(podInstanceName);
         if (!allPodTasks.isPresent()) {
@@ -226,16 +230,17 @@ public class PodQueries {
         }
 
         // Second pass: Restart the tasks. They will be updated to IN_PROGRESS once we receive a terminal TaskStatus.
-        return killTasks(podInstanceName, podTasks, RecoveryType.TRANSIENT);
+        return killTasks(taskKiller, podInstanceName, podTasks, RecoveryType.TRANSIENT);
     }
 
     /**
      * Restarts a pod instance in-place.
      */
-    public static Response restart(StateStore stateStore, ConfigStore<ServiceSpec> configStore, String podInstanceName,
-            RecoveryType recoveryType) {
+    public static Response restart(StateStore stateStore, ConfigStore<ServiceSpec> configStore, TaskKiller taskKiller,
+            String podInstanceName, RecoveryType recoveryType) {
         try {
-            return restartPod(stateStore, configStore, podInstanceName, recoveryType, DEFAULT_FAILURE_SETTER);
+            return restartPod(
+                    stateStore, configStore, taskKiller, podInstanceName, recoveryType, DEFAULT_FAILURE_SETTER);
         } catch (Exception e) {
             LOGGER.error(String.format("Failed to %s pod '%s'",
                     recoveryType == RecoveryType.PERMANENT ? "replace" : "restart", podInstanceName), e);
@@ -247,6 +252,7 @@ public class PodQueries {
     static Response restartPod(
             StateStore stateStore,
             ConfigStore<ServiceSpec> configStore,
+            TaskKiller taskKiller,
             String podInstanceName,
             RecoveryType recoveryType,
             FailureSetter failureSetter) {
@@ -269,7 +275,7 @@ public class PodQueries {
             failureSetter.setFailure(configStore, stateStore, taskInfos);
         }
 
-        return killTasks(podInstanceName, podTasks.get(), recoveryType);
+        return killTasks(taskKiller, podInstanceName, podTasks.get(), recoveryType);
     }
 
     /**
@@ -307,6 +313,7 @@ public class PodQueries {
     }
 
     private static Response killTasks(
+            TaskKiller taskKiller,
             String podName,
             Collection<TaskInfoAndStatus> tasksToKill,
             RecoveryType recoveryType) {
@@ -322,7 +329,7 @@ public class PodQueries {
                         taskInfo.getName(),
                         taskInfo.getTaskId().getValue());
             }
-            TaskKiller.killTask(taskInfo.getTaskId());
+            taskKiller.killTask(taskInfo);
         }
 
         JSONObject json = new JSONObject();
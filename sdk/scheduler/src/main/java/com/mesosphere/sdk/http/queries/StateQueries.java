@@ -214,6 +214,8 @@ public class StateQueries {
                     stateStore.fetchTaskNames(), stateStore.fetchPropertyKeys());
 
             cache.refresh();
+            // Data may have changed behind our back: Invalidate anything derived from the previous data.
+            stateStore.markChanged();
 
             LOGGER.info("After:\n- tasks: {}\n- properties: {}",
                     stateStore.fetchTaskNames(), stateStore.fetchPropertyKeys());
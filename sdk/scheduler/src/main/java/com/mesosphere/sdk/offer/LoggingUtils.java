@@ -1,6 +1,7 @@
 package com.mesosphere.sdk.offer;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -45,6 +46,19 @@ public class LoggingUtils {
         return name.isPresent() ? getLogger(clazz, name.get()) : getLogger(clazz);
     }
 
+    /**
+     * Returns an object whose {@code toString()} invokes the provided {@code supplier}. This may be passed as a logger
+     * argument for values which are expensive to render, so that they are only rendered if the message is logged.
+     */
+    public static Object lazy(Supplier<String> supplier) {
+        return new Object() {
+            @Override
+            public String toString() {
+                return supplier.get();
+            }
+        };
+    }
+
     /**
      * Returns a class name suitable for using in logs.
      *
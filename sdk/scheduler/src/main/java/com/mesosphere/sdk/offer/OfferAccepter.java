@@ -26,7 +26,25 @@ public class OfferAccepter {
     }
 
     public List<OfferID> accept(List<OfferRecommendation> recommendations) {
-        if (CollectionUtils.isEmpty(recommendations)) {
+        return acceptByAgent(Collections.singletonList(recommendations));
+    }
+
+    /**
+     * Accepts several groups of recommendations, where each group is sent to Mesos in its own accept call. Mesos
+     * requires that all offers in an accept call come from the same agent, so each group should contain offers from a
+     * single agent. The operations across all groups are recorded together before any of them are accepted, which
+     * allows recorders to batch their writes for the whole offer cycle.
+     *
+     * @return the IDs of all offers which were accepted
+     */
+    public List<OfferID> acceptByAgent(Collection<List<OfferRecommendation>> recommendationsByAgent) {
+        List<OfferRecommendation> allRecommendations = new ArrayList<>();
+        for (List<OfferRecommendation> recommendations : recommendationsByAgent) {
+            if (recommendations != null) {
+                allRecommendations.addAll(recommendations);
+            }
+        }
+        if (allRecommendations.isEmpty()) {
             LOGGER.warn("No recommendations, nothing to do");
             return Collections.emptyList();
         }
@@ -36,32 +54,37 @@ public class OfferAccepter {
             throw new IllegalStateException("No driver present for accepting offers.  This should never happen.");
         }
 
-        List<OfferID> offerIds = getOfferIds(recommendations);
-        List<Operation> operations = getOperations(recommendations);
-
-        logOperations(operations);
-
         try {
-            record(recommendations);
+            record(allRecommendations);
         } catch (Exception ex) {
             LOGGER.error("Failed to record Operations so not launching Task", ex);
             return Collections.emptyList();
         }
 
-        if (CollectionUtils.isNotEmpty(operations)) {
-            driver.get().acceptOffers(offerIds, operations, FILTERS);
-        } else {
-            LOGGER.warn("No Operations to perform.");
+        List<OfferID> acceptedOfferIds = new ArrayList<>();
+        for (List<OfferRecommendation> recommendations : recommendationsByAgent) {
+            if (CollectionUtils.isEmpty(recommendations)) {
+                continue;
+            }
+            List<OfferID> offerIds = getOfferIds(recommendations);
+            List<Operation> operations = getOperations(recommendations);
+
+            logOperations(operations);
+
+            if (CollectionUtils.isNotEmpty(operations)) {
+                driver.get().acceptOffers(offerIds, operations, FILTERS);
+            } else {
+                LOGGER.warn("No Operations to perform.");
+            }
+            acceptedOfferIds.addAll(offerIds);
         }
 
-        return offerIds;
+        return acceptedOfferIds;
     }
 
     private void record(List<OfferRecommendation> recommendations) throws Exception {
-        for (OfferRecommendation recommendation : recommendations) {
-            for (OperationRecorder recorder : recorders) {
-                recorder.record(recommendation);
-            }
+        for (OperationRecorder recorder : recorders) {
+            recorder.recordAll(recommendations);
         }
     }
 
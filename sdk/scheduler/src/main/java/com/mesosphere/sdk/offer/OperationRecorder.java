@@ -1,5 +1,7 @@
 package com.mesosphere.sdk.offer;
 
+import java.util.Collection;
+
 /**
  * The OperationRecorder is an Interface required by the OfferAccepter.
  * This interface is intended to allow Framework authors an opportunity to record
@@ -8,4 +10,15 @@ package com.mesosphere.sdk.offer;
  */
 public interface OperationRecorder {
     void record(OfferRecommendation offerRecommendation) throws Exception;
+
+    /**
+     * Records a batch of operations which are all about to be performed in the same offer cycle. Implementations may
+     * override this to combine their writes into a single storage update. By default, each operation is passed to
+     * {@link #record(OfferRecommendation)} in order.
+     */
+    default void recordAll(Collection<OfferRecommendation> offerRecommendations) throws Exception {
+        for (OfferRecommendation offerRecommendation : offerRecommendations) {
+            record(offerRecommendation);
+        }
+    }
 }
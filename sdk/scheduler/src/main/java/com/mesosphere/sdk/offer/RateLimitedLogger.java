@@ -0,0 +1,126 @@
+package com.mesosphere.sdk.offer;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.helpers.MessageFormatter;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Wraps a {@link Logger} to limit how often repetitive messages are logged at INFO. A message which is identical to the
+ * previous message of the same format is logged at INFO at most once per interval. Any other repeats of that message
+ * within the interval are logged at DEBUG instead, so nothing is lost when DEBUG is enabled. The next INFO message of
+ * that format then notes how many repeats were demoted in the meantime. A message whose arguments render differently
+ * from the previous message of the same format is always logged at INFO, so changes in state aren't hidden.
+ *
+ * <p>This is intended for messages which are logged on every cycle of the offer loop, where a burst of offers would
+ * otherwise produce a flood of identical lines.
+ */
+public class RateLimitedLogger {
+
+    /** The default minimum interval between identical INFO messages of the same format. */
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(10);
+
+    /**
+     * Tracks the last message of a given format, and when a message of that format was last logged at INFO.
+     */
+    private static class FormatState {
+        private String lastMessage;
+        private long lastInfoNanos;
+        private long demotedCount;
+
+        private FormatState(String lastMessage, long lastInfoNanos) {
+            this.lastMessage = lastMessage;
+            this.lastInfoNanos = lastInfoNanos;
+        }
+    }
+
+    private final Logger logger;
+    private final long intervalNanos;
+    private final LongSupplier nanoTime;
+    private final Map<String, FormatState> formatStates = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new instance which logs repeats of each message at INFO at most once per {@link #DEFAULT_INTERVAL}.
+     */
+    public RateLimitedLogger(Logger logger) {
+        this(logger, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Creates a new instance which logs repeats of each message at INFO at most once per {@code interval}.
+     */
+    public RateLimitedLogger(Logger logger, Duration interval) {
+        this(logger, interval, System::nanoTime);
+    }
+
+    @VisibleForTesting
+    RateLimitedLogger(Logger logger, Duration interval, LongSupplier nanoTime) {
+        this.logger = logger;
+        this.intervalNanos = interval.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Returns the underlying logger, for messages which shouldn't be rate limited.
+     */
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /**
+     * Logs the provided message at INFO if it differs from the previous message of the same {@code format}, or if no
+     * message of that format has been logged at INFO within the interval, or at DEBUG otherwise. The format and
+     * arguments are as in {@link Logger#info(String, Object...)}.
+     */
+    public void info(String format, Object... args) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+
+        long nowNanos = nanoTime.getAsLong();
+        String message = MessageFormatter.arrayFormat(format, args).getMessage();
+        FormatState state = formatStates.get(format);
+        if (state == null) {
+            FormatState newState = new FormatState(message, nowNanos);
+            state = formatStates.putIfAbsent(format, newState);
+            if (state == null) {
+                // First occurrence of this format
+                logger.info(format, args);
+                return;
+            }
+        }
+
+        boolean changed;
+        long demotedCount;
+        synchronized (state) {
+            changed = !message.equals(state.lastMessage);
+            if (!changed && nowNanos - state.lastInfoNanos < intervalNanos) {
+                state.demotedCount++;
+                demotedCount = -1;
+            } else {
+                state.lastMessage = message;
+                state.lastInfoNanos = nowNanos;
+                demotedCount = state.demotedCount;
+                state.demotedCount = 0;
+            }
+        }
+
+        if (demotedCount < 0) {
+            logger.debug(format, args);
+        } else if (demotedCount == 0) {
+            logger.info(format, args);
+        } else {
+            Object[] argsWithCount = Arrays.copyOf(args, args.length + 1);
+            argsWithCount[args.length] = demotedCount;
+            logger.info(changed ?
+                    format + " (previous message repeated {} more times at DEBUG)" :
+                    format + " (repeated {} more times at DEBUG)",
+                    argsWithCount);
+        }
+    }
+}
@@ -23,18 +23,17 @@ public class ResourceCleanerScheduler {
 
     public List<OfferID> resourceOffers(List<Offer> offers) {
         final List<OfferRecommendation> recommendations = resourceCleaner.evaluate(offers);
+        if (recommendations.isEmpty()) {
+            return Collections.emptyList();
+        }
 
         // Recommendations should be grouped by agent, as Mesos enforces processing of acceptOffers Operations
         // that belong to a single agent.
         final Map<Protos.SlaveID, List<OfferRecommendation>> recommendationsGroupedByAgents =
                         groupRecommendationsByAgent(recommendations);
 
-        final List<OfferID> processedOffers = new ArrayList<>(offers.size());
-        for (Map.Entry<Protos.SlaveID, List<OfferRecommendation>> entry : recommendationsGroupedByAgents.entrySet()) {
-            processedOffers.addAll(offerAccepter.accept(recommendationsGroupedByAgents.get(entry.getKey())));
-        }
-
-        return processedOffers;
+        // All agents are accepted together, so that the resulting operations may be recorded as a single batch.
+        return offerAccepter.acceptByAgent(recommendationsGroupedByAgents.values());
     }
 
     /**
@@ -4,6 +4,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.TextFormat;
 import com.mesosphere.sdk.http.queries.ArtifactQueries;
 import com.mesosphere.sdk.offer.*;
+import com.mesosphere.sdk.offer.evaluate.security.TLSProvisioner;
 import com.mesosphere.sdk.offer.history.OfferOutcome;
 import com.mesosphere.sdk.offer.history.OfferOutcomeTracker;
 import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
@@ -31,6 +32,7 @@ import java.util.stream.Collectors;
 public class OfferEvaluator {
 
     private final Logger logger;
+    private final RateLimitedLogger rateLimitedLogger;
     private final FrameworkStore frameworkStore;
     private final StateStore stateStore;
     private final OfferOutcomeTracker offerOutcomeTracker;
@@ -41,6 +43,11 @@ public class OfferEvaluator {
     private final Optional<String> resourceNamespace;
     private final boolean useDefaultExecutor;
 
+    /**
+     * Lazily created on first use, see {@link #getTLSProvisioner()}.
+     */
+    private TLSProvisioner tlsProvisioner;
+
     public OfferEvaluator(
             FrameworkStore frameworkStore,
             StateStore stateStore,
@@ -52,6 +59,7 @@ public class OfferEvaluator {
             Optional<String> resourceNamespace,
             boolean useDefaultExecutor) {
         this.logger = LoggingUtils.getLogger(getClass(), resourceNamespace);
+        this.rateLimitedLogger = new RateLimitedLogger(logger);
         this.frameworkStore = frameworkStore;
         this.stateStore = stateStore;
         this.offerOutcomeTracker = offerOutcomeTracker;
@@ -63,8 +71,43 @@ public class OfferEvaluator {
         this.useDefaultExecutor = useDefaultExecutor;
     }
 
+    /**
+     * Starts background provisioning of TLS artifacts for any of the provided requirements which have tasks using
+     * transport encryption. This allows the artifacts to be ready by the time that the requirements are evaluated
+     * against offers. The provided requirements should be all of the requirements currently being deployed, so that
+     * provisioning which is no longer needed can be discarded. Returns immediately.
+     */
+    public synchronized void provisionTLSArtifacts(Collection<PodInstanceRequirement> podInstanceRequirements) {
+        List<PodInstance> podInstances = podInstanceRequirements.stream()
+                .filter(OfferEvaluator::hasTasksWithTLS)
+                .map(PodInstanceRequirement::getPodInstance)
+                .collect(Collectors.toList());
+        if (podInstances.isEmpty() && tlsProvisioner == null) {
+            // Nothing to provision, and nothing previously provisioned to clean up.
+            return;
+        }
+        try {
+            getTLSProvisioner().provision(podInstances);
+        } catch (IOException e) {
+            // Evaluation will encounter the same error and report it against the offers.
+            logger.error("Failed to start provisioning of TLS artifacts", e);
+        }
+    }
+
+    /**
+     * Returns whether any TLS artifacts are currently being provisioned. Offers which were not used while provisioning
+     * is in progress may be useful once provisioning has completed.
+     */
+    public synchronized boolean hasPendingTLSProvisioning() {
+        return tlsProvisioner != null && tlsProvisioner.hasPendingProvisioning();
+    }
+
     public List<OfferRecommendation> evaluate(PodInstanceRequirement podInstanceRequirement, List<Protos.Offer> offers)
             throws InvalidRequirementException, IOException {
+        if (offers.isEmpty()) {
+            return Collections.emptyList();
+        }
+
         // All tasks in the service (used by some PlacementRules):
         Map<String, Protos.TaskInfo> allTasks = stateStore.fetchTasks().stream()
                 .collect(Collectors.toMap(Protos.TaskInfo::getName, Function.identity()));
@@ -75,6 +118,28 @@ public class OfferEvaluator {
                 .filter(taskInfo -> taskInfo != null)
                 .collect(Collectors.toMap(Protos.TaskInfo::getName, Function.identity()));
 
+        Map<TaskSpec, GoalStateOverride> overrideMap = new HashMap<>();
+        for (TaskSpec taskSpec : podInstanceRequirement.getPodInstance().getPod().getTasks()) {
+            GoalStateOverride override =
+                    stateStore.fetchGoalOverrideStatus(
+                            TaskSpec.getInstanceName(podInstanceRequirement.getPodInstance(), taskSpec))
+                            .target;
+
+            overrideMap.put(taskSpec, override);
+        }
+
+        // None of this depends on the offer, so build it once and copy it for each offer:
+        PodInfoBuilder.Prototype podInfoPrototype = PodInfoBuilder.newPrototype(
+                podInstanceRequirement,
+                serviceName,
+                getTargetConfig(podInstanceRequirement, thisPodTasks.values()),
+                templateUrlFactory,
+                schedulerConfig,
+                thisPodTasks.values(),
+                frameworkStore.fetchFrameworkId().get(),
+                useDefaultExecutor,
+                overrideMap);
+
         for (int i = 0; i < offers.size(); ++i) {
             List<OfferEvaluationStage> evaluationStages =
                     getEvaluationPipeline(podInstanceRequirement, allTasks.values(), thisPodTasks);
@@ -85,72 +150,49 @@ public class OfferEvaluator {
                     offer,
                     OfferEvaluationUtils.getRole(podInstanceRequirement.getPodInstance().getPod()));
 
-            Map<TaskSpec, GoalStateOverride> overrideMap = new HashMap<>();
-            for (TaskSpec taskSpec : podInstanceRequirement.getPodInstance().getPod().getTasks()) {
-                GoalStateOverride override =
-                        stateStore.fetchGoalOverrideStatus(
-                                TaskSpec.getInstanceName(podInstanceRequirement.getPodInstance(), taskSpec))
-                                .target;
-
-                overrideMap.put(taskSpec, override);
-            }
-
-            PodInfoBuilder podInfoBuilder = new PodInfoBuilder(
-                    podInstanceRequirement,
-                    serviceName,
-                    getTargetConfig(podInstanceRequirement, thisPodTasks.values()),
-                    templateUrlFactory,
-                    schedulerConfig,
-                    thisPodTasks.values(),
-                    frameworkStore.fetchFrameworkId().get(),
-                    useDefaultExecutor,
-                    overrideMap);
+            PodInfoBuilder podInfoBuilder = podInfoPrototype.newBuilder();
             List<EvaluationOutcome> outcomes = new ArrayList<>();
-            int failedOutcomeCount = 0;
+            List<String> failedStages = new ArrayList<>();
 
             for (OfferEvaluationStage evaluationStage : evaluationStages) {
                 EvaluationOutcome outcome = evaluationStage.evaluate(resourcePool, podInfoBuilder);
                 outcomes.add(outcome);
                 if (!outcome.isPassing()) {
-                    failedOutcomeCount++;
+                    failedStages.add(outcome.getSource());
                 }
             }
+            int failedOutcomeCount = failedStages.size();
 
-            StringBuilder outcomeDetails = new StringBuilder();
-            for (EvaluationOutcome outcome : outcomes) {
-                logOutcome(outcomeDetails, outcome, "");
-            }
-            if (outcomeDetails.length() != 0) {
-                // trim extra trailing newline:
-                outcomeDetails.deleteCharAt(outcomeDetails.length() - 1);
-            }
+            // Rendering the outcomes is expensive, so only do it if they're logged or requested via the offers API:
+            OfferOutcome offerOutcome = new OfferOutcome(
+                    podInstanceRequirement.getName(),
+                    failedOutcomeCount == 0,
+                    offer,
+                    failedStages,
+                    () -> renderOutcomes(outcomes));
+            offerOutcomeTracker.track(offerOutcome);
 
             if (failedOutcomeCount != 0) {
-                logger.info("Offer {}, {}: failed {} of {} evaluation stages:\n{}",
+                rateLimitedLogger.info("Offer {}, {}: failed {} of {} evaluation stages for {}",
                         i + 1,
                         offer.getId().getValue(),
                         failedOutcomeCount,
                         evaluationStages.size(),
-                        outcomeDetails.toString());
-
-                offerOutcomeTracker.track(new OfferOutcome(
-                        podInstanceRequirement.getName(),
-                        false,
-                        offer,
-                        outcomeDetails.toString()));
+                        podInstanceRequirement.getName());
+                logger.debug("Offer {}, {} evaluation stages:\n{}",
+                        i + 1,
+                        offer.getId().getValue(),
+                        LoggingUtils.lazy(offerOutcome::getOutcomeDetails));
             } else {
                 List<OfferRecommendation> recommendations = outcomes.stream()
                         .map(outcome -> outcome.getOfferRecommendations())
                         .flatMap(xs -> xs.stream())
                         .collect(Collectors.toList());
                 logger.info("Offer {}: passed all {} evaluation stages, returning {} recommendations:\n{}",
-                        i + 1, evaluationStages.size(), recommendations.size(), outcomeDetails.toString());
-
-                offerOutcomeTracker.track(new OfferOutcome(
-                        podInstanceRequirement.getName(),
-                        true,
-                        offer,
-                        outcomeDetails.toString()));
+                        i + 1,
+                        evaluationStages.size(),
+                        recommendations.size(),
+                        LoggingUtils.lazy(offerOutcome::getOutcomeDetails));
 
                 return recommendations;
             }
@@ -195,10 +237,8 @@ public class OfferEvaluator {
 
         // Only create a TLS Evaluation Stage builder if the service actually uses TLS certs.
         // This avoids performing TLS cert generation in cases where the cluster may not support it (e.g. DC/OS Open).
-        boolean anyTasksWithTLS = podInstanceRequirement.getPodInstance().getPod().getTasks().stream()
-                .anyMatch(taskSpec -> !taskSpec.getTransportEncryption().isEmpty());
-        Optional<TLSEvaluationStage.Builder> tlsStageBuilder = anyTasksWithTLS
-                ? Optional.of(new TLSEvaluationStage.Builder(serviceName, schedulerConfig))
+        Optional<TLSEvaluationStage.Builder> tlsStageBuilder = hasTasksWithTLS(podInstanceRequirement)
+                ? Optional.of(new TLSEvaluationStage.Builder(serviceName, getTLSProvisioner(), schedulerConfig))
                 : Optional.empty();
 
         List<OfferEvaluationStage> evaluationPipeline = new ArrayList<>();
@@ -223,6 +263,27 @@ public class OfferEvaluator {
         return evaluationPipeline;
     }
 
+    private static boolean hasTasksWithTLS(PodInstanceRequirement podInstanceRequirement) {
+        return podInstanceRequirement.getPodInstance().getPod().getTasks().stream()
+                .anyMatch(taskSpec -> !taskSpec.getTransportEncryption().isEmpty());
+    }
+
+    /**
+     * Returns the {@link TLSProvisioner} shared across all evaluations, creating it if needed. The provisioner tracks
+     * in-progress and completed provisioning, so it must be reused rather than recreated for each evaluation.
+     */
+    private synchronized TLSProvisioner getTLSProvisioner() throws IOException {
+        if (tlsProvisioner == null) {
+            tlsProvisioner = TLSProvisioner.create(serviceName, schedulerConfig);
+        }
+        return tlsProvisioner;
+    }
+
+    @VisibleForTesting
+    synchronized void setTLSProvisioner(TLSProvisioner tlsProvisioner) {
+        this.tlsProvisioner = tlsProvisioner;
+    }
+
     private Protos.ExecutorInfo getExecutorInfo(
             PodInstanceRequirement podInstanceRequirement,
             Collection<Protos.TaskInfo> taskInfos) {
@@ -269,6 +330,18 @@ public class OfferEvaluator {
         }
     }
 
+    private static String renderOutcomes(Collection<EvaluationOutcome> outcomes) {
+        StringBuilder outcomeDetails = new StringBuilder();
+        for (EvaluationOutcome outcome : outcomes) {
+            logOutcome(outcomeDetails, outcome, "");
+        }
+        if (outcomeDetails.length() != 0) {
+            // trim extra trailing newline:
+            outcomeDetails.deleteCharAt(outcomeDetails.length() - 1);
+        }
+        return outcomeDetails.toString();
+    }
+
     static void logOutcome(StringBuilder stringBuilder, EvaluationOutcome outcome, String indent) {
         stringBuilder.append(String.format("  %s%s%n", indent, outcome.toString()));
         for (EvaluationOutcome child : outcome.getChildren()) {
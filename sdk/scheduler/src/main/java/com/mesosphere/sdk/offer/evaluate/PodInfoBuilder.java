@@ -31,6 +31,12 @@ import java.util.stream.Collectors;
  * optionally, a {@link org.apache.mesos.Protos.ExecutorInfo.Builder}. This supports the modification of task infos
  * during the evaluation process, allowing e.g. dynamic ports to be represented as environment variables in the task
  * to which they are attached.
+ *
+ * <p>Most of the content of a {@link PodInfoBuilder} depends only on the {@link PodInstanceRequirement} and not on the
+ * offer being evaluated. When evaluating a requirement against several offers, callers should build a {@link Prototype}
+ * once via {@link #newPrototype}, then get a fresh {@link PodInfoBuilder} for each offer via
+ * {@link Prototype#newBuilder()}. Only the offer-specific changes made by the evaluation stages are then repeated for
+ * each offer.
  */
 public class PodInfoBuilder {
     private static final Logger LOGGER = LoggingUtils.getLogger(PodInfoBuilder.class);
@@ -38,7 +44,7 @@ public class PodInfoBuilder {
     private static final String CONFIG_TEMPLATE_DOWNLOAD_PATH = "config-templates/";
     private Set<Long> assignedOverlayPorts = new HashSet<>();
     private final Map<String, Protos.TaskInfo.Builder> taskBuilders = new HashMap<>();
-    private Protos.ExecutorInfo.Builder executorBuilder;
+    private final Protos.ExecutorInfo.Builder executorBuilder;
     private final PodInstance podInstance;
     private final Map<String, TaskPortLookup> portsByTask;
     private final boolean useDefaultExecutor;
@@ -102,6 +108,84 @@ public class PodInfoBuilder {
         }
     }
 
+    /**
+     * Creates a new instance whose content is a copy of the provided prototype.
+     */
+    private PodInfoBuilder(Prototype prototype) {
+        for (Map.Entry<String, Protos.TaskInfo> entry : prototype.taskInfos.entrySet()) {
+            this.taskBuilders.put(entry.getKey(), entry.getValue().toBuilder());
+        }
+        this.executorBuilder = prototype.executorInfo == null ? null : prototype.executorInfo.toBuilder();
+        this.assignedOverlayPorts.addAll(prototype.assignedOverlayPorts);
+        this.podInstance = prototype.podInstance;
+        this.portsByTask = prototype.portsByTask;
+        this.useDefaultExecutor = prototype.useDefaultExecutor;
+    }
+
+    /**
+     * Returns an immutable snapshot of the offer-independent content of a {@link PodInfoBuilder} for the provided
+     * requirement. The arguments are the same as with the {@link PodInfoBuilder} constructor.
+     *
+     * @throws InvalidRequirementException if the resulting tasks are invalid
+     */
+    public static Prototype newPrototype(
+            PodInstanceRequirement podInstanceRequirement,
+            String serviceName,
+            UUID targetConfigId,
+            ArtifactQueries.TemplateUrlFactory templateUrlFactory,
+            SchedulerConfig schedulerConfig,
+            Collection<Protos.TaskInfo> currentPodTasks,
+            Protos.FrameworkID frameworkID,
+            boolean useDefaultExecutor,
+            Map<TaskSpec, GoalStateOverride> overrideMap) throws InvalidRequirementException {
+        return new Prototype(new PodInfoBuilder(
+                podInstanceRequirement,
+                serviceName,
+                targetConfigId,
+                templateUrlFactory,
+                schedulerConfig,
+                currentPodTasks,
+                frameworkID,
+                useDefaultExecutor,
+                overrideMap));
+    }
+
+    /**
+     * An immutable snapshot of a {@link PodInfoBuilder} from which any number of equivalent {@link PodInfoBuilder}s may
+     * be created. Building a {@link PodInfoBuilder} from scratch involves rendering each task's environment, commands,
+     * health checks, and container settings, whereas copying a prototype only copies the resulting protobufs.
+     */
+    public static class Prototype {
+        // Retains the iteration order of the original builder:
+        private final Map<String, Protos.TaskInfo> taskInfos = new LinkedHashMap<>();
+        private final Protos.ExecutorInfo executorInfo;
+        private final Set<Long> assignedOverlayPorts;
+        private final PodInstance podInstance;
+        private final Map<String, TaskPortLookup> portsByTask;
+        private final boolean useDefaultExecutor;
+
+        private Prototype(PodInfoBuilder podInfoBuilder) {
+            for (Map.Entry<String, Protos.TaskInfo.Builder> entry : podInfoBuilder.taskBuilders.entrySet()) {
+                // The empty task and agent IDs are only filled in during evaluation, so don't require them here:
+                taskInfos.put(entry.getKey(), entry.getValue().buildPartial());
+            }
+            this.executorInfo =
+                    podInfoBuilder.executorBuilder == null ? null : podInfoBuilder.executorBuilder.buildPartial();
+            this.assignedOverlayPorts = Collections.unmodifiableSet(new HashSet<>(podInfoBuilder.assignedOverlayPorts));
+            this.podInstance = podInfoBuilder.podInstance;
+            this.portsByTask = Collections.unmodifiableMap(podInfoBuilder.portsByTask);
+            this.useDefaultExecutor = podInfoBuilder.useDefaultExecutor;
+        }
+
+        /**
+         * Returns a new {@link PodInfoBuilder} with the content of this prototype, which may be modified without
+         * affecting the prototype or any other builders created from it.
+         */
+        public PodInfoBuilder newBuilder() {
+            return new PodInfoBuilder(this);
+        }
+    }
+
     public Collection<Protos.TaskInfo.Builder> getTaskBuilders() {
         return taskBuilders.values();
     }
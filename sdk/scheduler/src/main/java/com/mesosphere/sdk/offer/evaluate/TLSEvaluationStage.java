@@ -1,35 +1,29 @@
 package com.mesosphere.sdk.offer.evaluate;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.mesosphere.sdk.dcos.DcosHttpClientBuilder;
-import com.mesosphere.sdk.dcos.DcosHttpExecutor;
-import com.mesosphere.sdk.dcos.clients.CertificateAuthorityClient;
-import com.mesosphere.sdk.dcos.clients.SecretsClient;
 import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.offer.MesosResourcePool;
 import com.mesosphere.sdk.offer.evaluate.security.*;
 import com.mesosphere.sdk.scheduler.SchedulerConfig;
 import com.mesosphere.sdk.specification.TaskSpec;
 import com.mesosphere.sdk.specification.TransportEncryptionSpec;
-import org.apache.http.client.methods.HttpPut;
-import org.apache.http.impl.client.LaxRedirectStrategy;
 import org.apache.mesos.Protos;
 import org.slf4j.Logger;
 
-import java.io.IOException;
 import java.util.*;
 
 /**
- * A {@link TLSEvaluationStage} is responsible for provisioning X.509 certificates, converting them to
- * PEM and KeyStore formats and injecting them to the container as a secret.
+ * A {@link TLSEvaluationStage} is responsible for injecting the X.509 certificates provisioned by a
+ * {@link TLSProvisioner}, in PEM and KeyStore formats, to the container as a secret. Provisioning itself is performed in
+ * the background: if the artifacts for the task are not yet ready, evaluation fails and is retried against a later
+ * offer.
  */
 public class TLSEvaluationStage implements OfferEvaluationStage {
 
     private final Logger logger;
     private final String serviceName;
     private final String taskName;
-    private final String namespace;
-    private final TLSArtifactsUpdater tlsArtifactsUpdater;
+    private final TLSProvisioner tlsProvisioner;
     private final SchedulerConfig schedulerConfig;
 
     /**
@@ -37,49 +31,29 @@ public class TLSEvaluationStage implements OfferEvaluationStage {
      */
     static class Builder {
         private final String serviceName;
-        private final String namespace;
-        private final TLSArtifactsUpdater tlsArtifactsUpdater;
+        private final TLSProvisioner tlsProvisioner;
         private final SchedulerConfig schedulerConfig;
 
-        /**
-         * Creates a new builder instance. Callers should avoid invoking this until/unless they have validated that TLS
-         * functionality is needed.
-         *
-         * @throws IOException if the necessary clients could not be built, which may occur if the cluster doesn't
-         *                     support TLS
-         */
-        public Builder(String serviceName, SchedulerConfig schedulerConfig) throws IOException {
+        public Builder(String serviceName, TLSProvisioner tlsProvisioner, SchedulerConfig schedulerConfig) {
             this.serviceName = serviceName;
+            this.tlsProvisioner = tlsProvisioner;
             this.schedulerConfig = schedulerConfig;
-            this.namespace = schedulerConfig.getSecretsNamespace(serviceName);
-            DcosHttpExecutor executor = new DcosHttpExecutor(new DcosHttpClientBuilder()
-                    .setTokenProvider(schedulerConfig.getDcosAuthTokenProvider())
-                    .setRedirectStrategy(new LaxRedirectStrategy() {
-                        protected boolean isRedirectable(String method) {
-                            // Also treat PUT calls as redirectable
-                            return method.equalsIgnoreCase(HttpPut.METHOD_NAME) || super.isRedirectable(method);
-                        }
-                    }));
-            this.tlsArtifactsUpdater = new TLSArtifactsUpdater(
-                    serviceName, new SecretsClient(executor), new CertificateAuthorityClient(executor));
         }
 
         public TLSEvaluationStage build(String taskName) {
-            return new TLSEvaluationStage(serviceName, taskName, namespace, tlsArtifactsUpdater, schedulerConfig);
+            return new TLSEvaluationStage(serviceName, taskName, tlsProvisioner, schedulerConfig);
         }
     }
 
     @VisibleForTesting
     TLSEvaluationStage(String serviceName,
                        String taskName,
-                       String namespace,
-                       TLSArtifactsUpdater tlsArtifactsUpdater,
+                       TLSProvisioner tlsProvisioner,
                        SchedulerConfig schedulerConfig) {
         this.logger = LoggingUtils.getLogger(getClass(), serviceName);
         this.serviceName = serviceName;
         this.taskName = taskName;
-        this.namespace = namespace;
-        this.tlsArtifactsUpdater = tlsArtifactsUpdater;
+        this.tlsProvisioner = tlsProvisioner;
         this.schedulerConfig = schedulerConfig;
     }
 
@@ -96,26 +70,39 @@ public class TLSEvaluationStage implements OfferEvaluationStage {
         CertificateNamesGenerator certificateNamesGenerator =
                 new CertificateNamesGenerator(serviceName, taskSpec, podInfoBuilder.getPodInstance(), schedulerConfig);
         TLSArtifactPaths tlsArtifactPaths = new TLSArtifactPaths(
-                namespace,
+                tlsProvisioner.getNamespace(),
                 TaskSpec.getInstanceName(podInfoBuilder.getPodInstance(), taskName),
                 certificateNamesGenerator.getSANsHash());
+
+        // Check all specs before touching the task, so that a partially provisioned task isn't left with some volumes.
         for (TransportEncryptionSpec transportEncryptionSpec : taskSpec.getTransportEncryption()) {
-            try {
-                tlsArtifactsUpdater.update(
-                        tlsArtifactPaths, certificateNamesGenerator, transportEncryptionSpec.getName());
-            } catch (Exception e) {
-                logger.error(String.format("Failed to process certificates for %s", taskName), e);
+            TLSProvisioner.Status status = tlsProvisioner.getStatus(
+                    tlsArtifactPaths, certificateNamesGenerator, transportEncryptionSpec.getName());
+            switch (status.getState()) {
+            case READY:
+                break;
+            case PENDING:
+                return EvaluationOutcome.fail(
+                        this, "TLS artifacts for task %s are still being provisioned", taskName)
+                        .build();
+            case FAILED:
+                logger.error(String.format("Failed to process certificates for %s", taskName),
+                        status.getError().orElse(null));
                 return EvaluationOutcome.fail(
-                        this, "Failed to store TLS artifacts for task %s because of exception: %s", taskName, e)
+                        this, "Failed to store TLS artifacts for task %s because of exception: %s",
+                        taskName, status.getError().orElse(null))
                         .build();
+            default:
+                throw new IllegalStateException(String.format("Unsupported TLS status: %s", status.getState()));
             }
+        }
 
+        for (TransportEncryptionSpec transportEncryptionSpec : taskSpec.getTransportEncryption()) {
             // Share keys to the task container
             podInfoBuilder
                     .getTaskBuilder(taskName)
                     .getContainerBuilder()
                     .addAllVolumes(getExecutorInfoSecretVolumes(transportEncryptionSpec, tlsArtifactPaths));
-
         }
 
         return EvaluationOutcome.pass(this, "TLS certificate created and added to the task").build();
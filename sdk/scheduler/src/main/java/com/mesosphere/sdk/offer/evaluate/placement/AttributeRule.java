@@ -2,7 +2,6 @@ package com.mesosphere.sdk.offer.evaluate.placement;
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.stream.Collectors;
 
 import com.mesosphere.sdk.specification.PodInstance;
 import org.apache.mesos.Protos.Attribute;
@@ -50,8 +49,6 @@ public class AttributeRule extends StringMatcherRule {
 
     @Override
     public Collection<String> getKeys(Offer offer) {
-        return offer.getAttributesList().stream()
-                .map(attribute -> AttributeStringUtils.toString(attribute))
-                .collect(Collectors.toList());
+        return OfferPlacementInfo.of(offer).getAttributeStrings();
     }
 }
@@ -36,6 +36,14 @@ public class ExactMatcher implements StringMatcher {
 
     @Override
     public boolean matches(String value) {
+        if (str.equals(value)) {
+            // Also covers numeric values which are already formatted the same way as ours.
+            return true;
+        }
+        if (!mayBeNumeric(value)) {
+            // Skip the cost of a NumberFormatException for the common case of non-numeric values like "rack:a".
+            return false;
+        }
         try {
             Double in = Double.valueOf(value);
             value = format.format(in);
@@ -46,6 +54,18 @@ public class ExactMatcher implements StringMatcher {
         return str.equals(value);
     }
 
+    /**
+     * Returns whether the provided value could possibly be parsed by {@link Double#valueOf(String)}, which accepts
+     * leading whitespace, a sign, digits, a decimal point, "NaN", and "Infinity".
+     */
+    private static boolean mayBeNumeric(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        char c = value.charAt(0);
+        return c <= ' ' || (c >= '0' && c <= '9') || c == '.' || c == '-' || c == '+' || c == 'N' || c == 'I';
+    }
+
     @JsonProperty("string")
     private String getString() {
         return str;
@@ -42,6 +42,6 @@ public class HostnameRule extends StringMatcherRule {
 
     @Override
     public Collection<String> getKeys(Offer offer) {
-        return Arrays.asList(offer.getHostname());
+        return OfferPlacementInfo.of(offer).getHostnameKeys();
     }
 }
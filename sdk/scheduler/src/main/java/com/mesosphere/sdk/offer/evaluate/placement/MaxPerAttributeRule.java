@@ -3,8 +3,6 @@ package com.mesosphere.sdk.offer.evaluate.placement;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.mesosphere.sdk.offer.evaluate.EvaluationOutcome;
-import com.mesosphere.sdk.offer.taskdata.AttributeStringUtils;
-import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
 import com.mesosphere.sdk.specification.PodInstance;
 import com.mesosphere.sdk.specification.validation.ValidationUtils;
 import org.apache.mesos.Protos.Offer;
@@ -131,15 +129,14 @@ public class MaxPerAttributeRule extends MaxPerRule {
             return Collections.emptyList();
         }
 
-        return new TaskLabelReader(taskInfo).getOfferAttributeStrings().stream()
+        return TaskPlacementInfo.of(taskInfo).getOfferAttributeStrings().stream()
                 .filter(attribute -> attributeMatcher.matches(attribute))
                 .collect(Collectors.toList());
     }
 
     @Override
     public Collection<String> getKeys(Offer offer) {
-        return offer.getAttributesList().stream()
-                .map(proto -> AttributeStringUtils.toString(proto))
+        return OfferPlacementInfo.of(offer).getAttributeStrings().stream()
                 .filter(attribute -> attributeMatcher.matches(attribute))
                 .collect(Collectors.toList());
     }
@@ -5,7 +5,6 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.offer.TaskException;
 import com.mesosphere.sdk.offer.evaluate.EvaluationOutcome;
-import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
 import com.mesosphere.sdk.specification.PodInstance;
 import com.mesosphere.sdk.specification.validation.ValidationUtils;
 import org.apache.mesos.Protos.Offer;
@@ -16,7 +15,6 @@ import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 
 /**
  * Ensures that no more than N instances of a task type are running on a given hostname (or hostname
@@ -106,17 +104,18 @@ public class MaxPerHostnameRule extends MaxPerRule {
 
     @Override
     public Collection<String> getKeys(TaskInfo taskInfo) {
+        TaskPlacementInfo info = TaskPlacementInfo.of(taskInfo);
         try {
-            return Arrays.asList(new TaskLabelReader(taskInfo).getHostname());
+            info.getHostname();
         } catch (TaskException e) {
             LOGGER.warn("Unable to extract hostname from task for filtering", e);
-            return Collections.emptyList();
         }
+        return info.getHostnameKeys();
     }
 
     @Override
     public Collection<String> getKeys(Offer offer) {
-        return Arrays.asList(offer.getHostname());
+        return OfferPlacementInfo.of(offer).getHostnameKeys();
     }
 
     @Override
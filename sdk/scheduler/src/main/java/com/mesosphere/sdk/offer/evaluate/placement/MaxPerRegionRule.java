@@ -3,14 +3,11 @@ package com.mesosphere.sdk.offer.evaluate.placement;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.mesosphere.sdk.offer.evaluate.EvaluationOutcome;
-import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
 import com.mesosphere.sdk.specification.PodInstance;
 import org.apache.mesos.Protos;
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Optional;
 
 /**
  * This rules implements a placement rule for restricting the maximum number of tasks per Region.
@@ -29,17 +26,12 @@ public class MaxPerRegionRule extends MaxPerRule {
 
     @Override
     public Collection<String> getKeys(Protos.TaskInfo taskInfo) {
-        Optional<String> region = new TaskLabelReader(taskInfo).getRegion();
-        return region.isPresent() ? Arrays.asList(region.get()) : Collections.emptyList();
+        return TaskPlacementInfo.of(taskInfo).getRegionKeys();
     }
 
     @Override
     public Collection<String> getKeys(Protos.Offer offer) {
-        if (offer.hasDomain() && offer.getDomain().hasFaultDomain()) {
-            return Arrays.asList(offer.getDomain().getFaultDomain().getRegion().getName());
-        }
-
-        return Collections.emptyList();
+        return OfferPlacementInfo.of(offer).getRegionKeys();
     }
 
     @Override
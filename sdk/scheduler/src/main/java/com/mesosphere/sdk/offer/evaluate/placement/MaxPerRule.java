@@ -11,7 +11,6 @@ import javax.validation.constraints.Min;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * This interface defines the required methods for generic application of a PlacementRule which forces a
@@ -51,33 +50,39 @@ public abstract class MaxPerRule implements PlacementRule {
             PodInstance podInstance,
             Collection<Protos.TaskInfo> tasks) {
 
-        tasks = tasks.stream()
-                .filter(task -> getTaskFilter().matches(task.getName()))
-                .filter(task -> !PlacementUtils.areEquivalent(task, podInstance))
-                .collect(Collectors.toList());
+        Collection<String> offerKeys = getKeys(offer);
+        if (offerKeys.isEmpty()) {
+            // Nothing to count tasks against.
+            return true;
+        }
 
         Map<String, Integer> counts = new HashMap<>();
-
-        Collection<String> offerKeys = getKeys(offer);
-        updateMap(counts, offerKeys);
+        for (String key : offerKeys) {
+            if (!increment(counts, key)) {
+                return false;
+            }
+        }
 
         for (Protos.TaskInfo task : tasks) {
-            updateMap(
-                    counts,
-                    getKeys(task).stream()
-                            .filter(key -> offerKeys.contains(key))
-                            .collect(Collectors.toList()));
+            if (!getTaskFilter().matches(task.getName()) || PlacementUtils.areEquivalent(task, podInstance)) {
+                continue;
+            }
+            for (String key : getKeys(task)) {
+                // Counts only ever increase, so the first key to exceed the maximum decides the outcome.
+                if (offerKeys.contains(key) && !increment(counts, key)) {
+                    return false;
+                }
+            }
         }
 
-        return counts.values().stream().allMatch(value -> value <= max);
+        return true;
     }
 
-    private void updateMap(Map<String, Integer> map, Collection<String> keys) {
-        for (String key : keys) {
-            Integer count = map.get(key);
-            count = count == null ? 1 : count + 1;
-            map.put(key, count);
-        }
+    /**
+     * Increments the count for the provided key, and returns whether the count is still within the maximum.
+     */
+    private boolean increment(Map<String, Integer> counts, String key) {
+        return counts.merge(key, 1, Integer::sum) <= max;
     }
 
     @Override
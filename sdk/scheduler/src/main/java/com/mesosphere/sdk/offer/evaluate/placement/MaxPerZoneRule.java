@@ -3,14 +3,11 @@ package com.mesosphere.sdk.offer.evaluate.placement;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.mesosphere.sdk.offer.evaluate.EvaluationOutcome;
-import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
 import com.mesosphere.sdk.specification.PodInstance;
 import org.apache.mesos.Protos;
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Optional;
 
 /**
  * This rules implements a placement rule for restricting the maximum number of tasks per Zone.
@@ -30,21 +27,12 @@ public class MaxPerZoneRule extends MaxPerRule {
 
     @Override
     public Collection<String> getKeys(Protos.TaskInfo taskInfo) {
-        Optional<String> zone = new TaskLabelReader(taskInfo).getZone();
-        if (zone.isPresent()) {
-            return Arrays.asList(zone.get());
-        } else {
-            return Collections.emptyList();
-        }
+        return TaskPlacementInfo.of(taskInfo).getZoneKeys();
     }
 
     @Override
     public Collection<String> getKeys(Protos.Offer offer) {
-        if (offer.hasDomain() && offer.getDomain().hasFaultDomain()) {
-            return Arrays.asList(offer.getDomain().getFaultDomain().getZone().getName());
-        } else {
-            return Collections.emptyList();
-        }
+        return OfferPlacementInfo.of(offer).getZoneKeys();
     }
 
     @Override
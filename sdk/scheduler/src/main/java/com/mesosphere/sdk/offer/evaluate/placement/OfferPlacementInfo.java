@@ -0,0 +1,140 @@
+package com.mesosphere.sdk.offer.evaluate.placement;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.mesosphere.sdk.offer.taskdata.AttributeStringUtils;
+import org.apache.mesos.Protos.Attribute;
+import org.apache.mesos.Protos.Offer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The placement-relevant values of an {@link Offer}: its hostname, agent ID, region, zone, and attribute strings.
+ * <p>
+ * Each offer is evaluated by every {@link PlacementRule} of every pod which is awaiting placement, and each rule would
+ * otherwise convert the offer's attributes and domain to strings on every evaluation. Instead, these values are
+ * extracted once per offer via {@link #of(Offer)}, and the result is shared by all rules until the offer itself is
+ * discarded. Strings are interned so that identical values across offers share a single instance.
+ */
+public final class OfferPlacementInfo {
+
+    /**
+     * Keys are compared by identity and held weakly, so that entries are dropped along with the offers they describe.
+     */
+    private static final Cache<Offer, OfferPlacementInfo> CACHE = CacheBuilder.newBuilder().weakKeys().build();
+
+    static final Interner<String> INTERNER = Interners.newWeakInterner();
+
+    private final String agentId;
+    private final List<String> hostnameKeys;
+    private final List<String> regionKeys;
+    private final List<String> zoneKeys;
+    private final List<String> attributeStrings;
+    private final List<String> attributeNames;
+    private final List<String> attributeValues;
+
+    /**
+     * Returns the placement values of the provided offer, extracting them if this offer hasn't been seen before.
+     *
+     * @throws IllegalArgumentException if one of the offer's attributes couldn't be converted to a string
+     */
+    public static OfferPlacementInfo of(Offer offer) throws IllegalArgumentException {
+        OfferPlacementInfo info = CACHE.getIfPresent(offer);
+        if (info == null) {
+            // Concurrent callers may both extract the same offer, but the results are equivalent.
+            info = new OfferPlacementInfo(offer);
+            CACHE.put(offer, info);
+        }
+        return info;
+    }
+
+    private OfferPlacementInfo(Offer offer) {
+        this.agentId = INTERNER.intern(offer.getSlaveId().getValue());
+        this.hostnameKeys = Collections.singletonList(INTERNER.intern(offer.getHostname()));
+        if (offer.hasDomain() && offer.getDomain().hasFaultDomain()) {
+            this.regionKeys = Collections.singletonList(
+                    INTERNER.intern(offer.getDomain().getFaultDomain().getRegion().getName()));
+            this.zoneKeys = Collections.singletonList(
+                    INTERNER.intern(offer.getDomain().getFaultDomain().getZone().getName()));
+        } else {
+            this.regionKeys = Collections.emptyList();
+            this.zoneKeys = Collections.emptyList();
+        }
+
+        List<String> attributeStrings = new ArrayList<>(offer.getAttributesCount());
+        List<String> attributeNames = new ArrayList<>(offer.getAttributesCount());
+        List<String> attributeValues = new ArrayList<>(offer.getAttributesCount());
+        for (Attribute attribute : offer.getAttributesList()) {
+            String value = AttributeStringUtils.valueString(attribute);
+            attributeStrings.add(INTERNER.intern(AttributeStringUtils.join(attribute.getName(), value)));
+            attributeNames.add(INTERNER.intern(attribute.getName()));
+            attributeValues.add(INTERNER.intern(value));
+        }
+        this.attributeStrings = Collections.unmodifiableList(attributeStrings);
+        this.attributeNames = attributeNames;
+        this.attributeValues = attributeValues;
+    }
+
+    /**
+     * Returns the agent ID of the offer.
+     */
+    public String getAgentId() {
+        return agentId;
+    }
+
+    /**
+     * Returns the offer's hostname.
+     */
+    public String getHostname() {
+        return hostnameKeys.get(0);
+    }
+
+    /**
+     * Returns a single-element list containing the offer's hostname.
+     */
+    public List<String> getHostnameKeys() {
+        return hostnameKeys;
+    }
+
+    /**
+     * Returns a list containing the offer's region name if the offer has a fault domain, or an empty list otherwise.
+     */
+    public List<String> getRegionKeys() {
+        return regionKeys;
+    }
+
+    /**
+     * Returns a list containing the offer's zone name if the offer has a fault domain, or an empty list otherwise.
+     */
+    public List<String> getZoneKeys() {
+        return zoneKeys;
+    }
+
+    /**
+     * Returns the string representations of the offer's attributes, in offer order.
+     *
+     * @see AttributeStringUtils#toString(Attribute)
+     */
+    public List<String> getAttributeStrings() {
+        return attributeStrings;
+    }
+
+    /**
+     * Returns the value string of the first attribute whose name matches the provided name, ignoring case, or
+     * {@code null} if no attribute matched.
+     *
+     * @see AttributeStringUtils#valueString(Attribute)
+     */
+    public String getAttributeValue(String name) {
+        for (int i = 0; i < attributeNames.size(); ++i) {
+            if (attributeNames.get(i).equalsIgnoreCase(name)) {
+                return attributeValues.get(i);
+            }
+        }
+        return null;
+    }
+}
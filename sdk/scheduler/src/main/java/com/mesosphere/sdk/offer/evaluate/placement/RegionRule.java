@@ -8,7 +8,6 @@ import org.apache.mesos.Protos;
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 
 /**
  * This rule enforces that a task be placed on the specified region, or enforces that the task
@@ -23,11 +22,7 @@ public class RegionRule extends StringMatcherRule {
 
     @Override
     public Collection<String> getKeys(Protos.Offer offer) {
-        if (offer.hasDomain() && offer.getDomain().hasFaultDomain()) {
-            return Arrays.asList(offer.getDomain().getFaultDomain().getRegion().getName());
-        }
-
-        return Collections.emptyList();
+        return OfferPlacementInfo.of(offer).getRegionKeys();
     }
 
     @Override
@@ -2,10 +2,7 @@ package com.mesosphere.sdk.offer.evaluate.placement;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.mesosphere.sdk.offer.taskdata.AttributeStringUtils;
-import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
 
-import org.apache.mesos.Protos.Attribute;
 import org.apache.mesos.Protos.Offer;
 import org.apache.mesos.Protos.TaskInfo;
 
@@ -59,24 +56,12 @@ public class RoundRobinByAttributeRule extends AbstractRoundRobinRule {
 
     @Override
     protected String getKey(Offer offer) {
-        for (Attribute attribute : offer.getAttributesList()) {
-            if (attribute.getName().equalsIgnoreCase(attributeName)) {
-                return AttributeStringUtils.valueString(attribute);
-            }
-        }
-        return null;
+        return OfferPlacementInfo.of(offer).getAttributeValue(attributeName);
     }
 
     @Override
     protected String getKey(TaskInfo task) {
-        for (String taskAttributeString : new TaskLabelReader(task).getOfferAttributeStrings()) {
-            AttributeStringUtils.NameValue taskAttributeNameValue =
-                    AttributeStringUtils.split(taskAttributeString);
-            if (taskAttributeNameValue.name.equalsIgnoreCase(attributeName)) {
-                return taskAttributeNameValue.value;
-            }
-        }
-        return null;
+        return TaskPlacementInfo.of(task).getOfferAttributeValue(attributeName);
     }
 
     @JsonProperty("name")
@@ -4,7 +4,6 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.offer.TaskException;
-import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
 
 import org.apache.mesos.Protos.Offer;
 import org.apache.mesos.Protos.TaskInfo;
@@ -60,7 +59,7 @@ public class RoundRobinByHostnameRule extends AbstractRoundRobinRule {
      * Returns a value to round robin against from the provided {@link Offer}.
      */
     protected String getKey(Offer offer) {
-        return offer.getHostname();
+        return OfferPlacementInfo.of(offer).getHostname();
     }
 
     /**
@@ -68,7 +67,7 @@ public class RoundRobinByHostnameRule extends AbstractRoundRobinRule {
      */
     protected String getKey(TaskInfo task) {
         try {
-            return new TaskLabelReader(task).getHostname();
+            return TaskPlacementInfo.of(task).getHostname();
         } catch (TaskException e) {
             LOGGER.warn("Unable to extract hostname from task for filtering", e);
             return null;
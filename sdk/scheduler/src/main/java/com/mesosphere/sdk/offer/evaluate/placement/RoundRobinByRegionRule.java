@@ -1,11 +1,11 @@
 package com.mesosphere.sdk.offer.evaluate.placement;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
 import org.apache.mesos.Protos;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -29,17 +29,14 @@ public class RoundRobinByRegionRule extends AbstractRoundRobinRule {
 
     @Override
     protected String getKey(Protos.Offer offer) {
-        if (offer.hasDomain() && offer.getDomain().hasFaultDomain()) {
-            return offer.getDomain().getFaultDomain().getRegion().getName();
-        }
-
-        return null;
+        List<String> regionKeys = OfferPlacementInfo.of(offer).getRegionKeys();
+        return regionKeys.isEmpty() ? null : regionKeys.get(0);
     }
 
     @Override
     protected String getKey(Protos.TaskInfo task) {
-        Optional<String> region = new TaskLabelReader(task).getRegion();
-        return region.isPresent() ? region.get() : null;
+        List<String> regionKeys = TaskPlacementInfo.of(task).getRegionKeys();
+        return regionKeys.isEmpty() ? null : regionKeys.get(0);
     }
 
     @JsonProperty("region-count")
@@ -1,11 +1,11 @@
 package com.mesosphere.sdk.offer.evaluate.placement;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
 import org.apache.mesos.Protos;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -28,17 +28,14 @@ public class RoundRobinByZoneRule extends AbstractRoundRobinRule {
 
     @Override
     public String getKey(Protos.Offer offer) {
-        if (offer.hasDomain() && offer.getDomain().hasFaultDomain()) {
-            return offer.getDomain().getFaultDomain().getZone().getName();
-        }
-
-        return null;
+        List<String> zoneKeys = OfferPlacementInfo.of(offer).getZoneKeys();
+        return zoneKeys.isEmpty() ? null : zoneKeys.get(0);
     }
 
     @Override
     public String getKey(Protos.TaskInfo task) {
-        Optional<String> zone = new TaskLabelReader(task).getZone();
-        return zone.isPresent() ? zone.get() : null;
+        List<String> zoneKeys = TaskPlacementInfo.of(task).getZoneKeys();
+        return zoneKeys.isEmpty() ? null : zoneKeys.get(0);
     }
 
     @JsonProperty("zone-count")
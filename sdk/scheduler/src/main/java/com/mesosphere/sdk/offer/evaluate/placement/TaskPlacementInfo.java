@@ -0,0 +1,224 @@
+package com.mesosphere.sdk.offer.evaluate.placement;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.mesosphere.sdk.offer.TaskException;
+import com.mesosphere.sdk.offer.taskdata.AttributeStringUtils;
+import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
+import com.mesosphere.sdk.specification.PodInstance;
+import org.apache.mesos.Protos.TaskInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The placement-relevant values of a previously launched task, as recorded in its {@link TaskInfo} labels: its pod
+ * type and index, and the hostname, region, zone, and attributes of the offer it was launched on.
+ * <p>
+ * {@link PlacementRule}s compare each offer against all of the service's deployed tasks, so without caching the same
+ * task labels would be parsed once per task, per rule, per offer. Instead, these values are extracted once per
+ * {@link TaskInfo} via {@link #of(TaskInfo)}, and the result is shared until the {@link TaskInfo} itself is discarded.
+ */
+public final class TaskPlacementInfo {
+
+    /**
+     * Keys are compared by identity and held weakly, so that entries are dropped along with the tasks they describe.
+     */
+    private static final Cache<TaskInfo, TaskPlacementInfo> CACHE = CacheBuilder.newBuilder().weakKeys().build();
+
+    private final String taskName;
+    private final String agentId;
+    private final String type;
+    private final Integer index;
+    private final List<String> hostnameKeys;
+    private final List<String> regionKeys;
+    private final List<String> zoneKeys;
+    private final List<String> attributeStrings;
+    private final List<String> attributeNames;
+    private final List<String> attributeValues;
+
+    /**
+     * Returns the placement values of the provided task, extracting them if this task hasn't been seen before.
+     */
+    public static TaskPlacementInfo of(TaskInfo taskInfo) {
+        TaskPlacementInfo info = CACHE.getIfPresent(taskInfo);
+        if (info == null) {
+            // Concurrent callers may both extract the same task, but the results are equivalent.
+            info = new TaskPlacementInfo(taskInfo);
+            CACHE.put(taskInfo, info);
+        }
+        return info;
+    }
+
+    private TaskPlacementInfo(TaskInfo taskInfo) {
+        TaskLabelReader reader = new TaskLabelReader(taskInfo);
+        this.taskName = taskInfo.getName();
+        this.agentId = OfferPlacementInfo.INTERNER.intern(taskInfo.getSlaveId().getValue());
+        this.type = getOrNull(reader::getType);
+        Integer index;
+        try {
+            index = reader.getIndex();
+        } catch (TaskException | NumberFormatException e) {
+            index = null;
+        }
+        this.index = index;
+        this.hostnameKeys = toKeys(Optional.ofNullable(getOrNull(reader::getHostname)));
+        this.regionKeys = toKeys(reader.getRegion());
+        this.zoneKeys = toKeys(reader.getZone());
+
+        List<String> attributeStrings = reader.getOfferAttributeStrings();
+        List<String> attributeNames = new ArrayList<>(attributeStrings.size());
+        List<String> attributeValues = new ArrayList<>(attributeStrings.size());
+        for (int i = 0; i < attributeStrings.size(); ++i) {
+            String attributeString = OfferPlacementInfo.INTERNER.intern(attributeStrings.get(i));
+            attributeStrings.set(i, attributeString);
+            AttributeStringUtils.NameValue nameValue;
+            try {
+                nameValue = AttributeStringUtils.split(attributeString);
+            } catch (IllegalArgumentException e) {
+                // Left for getOfferAttributeValue() to report, if it's ever reached.
+                attributeNames.add(null);
+                attributeValues.add(attributeString);
+                continue;
+            }
+            attributeNames.add(nameValue.name);
+            attributeValues.add(OfferPlacementInfo.INTERNER.intern(nameValue.value));
+        }
+        this.attributeStrings = Collections.unmodifiableList(attributeStrings);
+        this.attributeNames = attributeNames;
+        this.attributeValues = attributeValues;
+    }
+
+    /**
+     * Returns the name of the task.
+     */
+    public String getTaskName() {
+        return taskName;
+    }
+
+    /**
+     * Returns the ID of the agent which the task was launched on.
+     */
+    public String getAgentId() {
+        return agentId;
+    }
+
+    /**
+     * Returns the task type string, which was embedded in the task.
+     *
+     * @throws TaskException if the type could not be found
+     */
+    public String getType() throws TaskException {
+        if (type == null) {
+            throw missingLabelException("type");
+        }
+        return type;
+    }
+
+    /**
+     * Returns whether the task has a type label.
+     */
+    public boolean hasType() {
+        return type != null;
+    }
+
+    /**
+     * Returns whether the task belongs to the provided pod instance, according to its type and index labels.
+     *
+     * @throws TaskException if the type or a valid index could not be found
+     */
+    public boolean isSamePodInstance(PodInstance podInstance) throws TaskException {
+        if (index == null) {
+            throw missingLabelException("index");
+        }
+        return getType().equals(podInstance.getPod().getType()) && index == podInstance.getIndex();
+    }
+
+    /**
+     * Returns the hostname of the agent machine running the task.
+     *
+     * @throws TaskException if the hostname could not be found
+     */
+    public String getHostname() throws TaskException {
+        if (hostnameKeys.isEmpty()) {
+            throw missingLabelException("hostname");
+        }
+        return hostnameKeys.get(0);
+    }
+
+    /**
+     * Returns a list containing the task's hostname, or an empty list if the hostname could not be found.
+     */
+    public List<String> getHostnameKeys() {
+        return hostnameKeys;
+    }
+
+    /**
+     * Returns a list containing the region in which the task was launched, or an empty list if none was recorded.
+     */
+    public List<String> getRegionKeys() {
+        return regionKeys;
+    }
+
+    /**
+     * Returns a list containing the zone in which the task was launched, or an empty list if none was recorded.
+     */
+    public List<String> getZoneKeys() {
+        return zoneKeys;
+    }
+
+    /**
+     * Returns the string representations of the offer attributes which were embedded in the task.
+     */
+    public List<String> getOfferAttributeStrings() {
+        return attributeStrings;
+    }
+
+    /**
+     * Returns the value of the first embedded offer attribute whose name matches the provided name, ignoring case, or
+     * {@code null} if no attribute matched.
+     *
+     * @throws IllegalArgumentException if an attribute preceding the match couldn't be split into a name and value
+     */
+    public String getOfferAttributeValue(String name) throws IllegalArgumentException {
+        for (int i = 0; i < attributeNames.size(); ++i) {
+            String attributeName = attributeNames.get(i);
+            if (attributeName == null) {
+                // Throws the original parse error:
+                AttributeStringUtils.split(attributeValues.get(i));
+            }
+            if (attributeName.equalsIgnoreCase(name)) {
+                return attributeValues.get(i);
+            }
+        }
+        return null;
+    }
+
+
+    private TaskException missingLabelException(String field) {
+        return new TaskException(String.format("Task %s is missing a valid %s label", taskName, field));
+    }
+
+    private static List<String> toKeys(Optional<String> value) {
+        return value.isPresent()
+                ? Collections.singletonList(OfferPlacementInfo.INTERNER.intern(value.get()))
+                : Collections.emptyList();
+    }
+
+    /**
+     * A label lookup which may fail due to the label being missing.
+     */
+    private interface LabelGetter {
+        String get() throws TaskException;
+    }
+
+    private static String getOrNull(LabelGetter getter) {
+        try {
+            return getter.get();
+        } catch (TaskException e) {
+            return null;
+        }
+    }
+}
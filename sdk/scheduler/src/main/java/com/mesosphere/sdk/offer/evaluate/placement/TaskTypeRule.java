@@ -1,9 +1,7 @@
 package com.mesosphere.sdk.offer.evaluate.placement;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 
 import com.mesosphere.sdk.specification.PodInstance;
 import org.apache.commons.lang3.builder.EqualsBuilder;
@@ -94,17 +92,30 @@ public class TaskTypeRule implements PlacementRule {
 
     @Override
     public EvaluationOutcome filter(Offer offer, PodInstance podInstance, Collection<TaskInfo> tasks) {
-        List<TaskInfo> matchingTasks = new ArrayList<>();
+        // Find whether any tasks of the type exist, and whether any are on the offered agent, in a single pass and
+        // without collecting the matching tasks.
+        String offerAgentId = OfferPlacementInfo.of(offer).getAgentId();
+        boolean foundType = false;
+        boolean foundTypeOnAgent = false;
         for (TaskInfo task : tasks) {
-            if (typeToFind.equals(typeConverter.getTaskType(task))) {
-                matchingTasks.add(task);
+            if (!typeToFind.equals(typeConverter.getTaskType(task))) {
+                continue;
+            }
+            foundType = true;
+            if (PlacementUtils.areEquivalent(task, podInstance)) {
+                // This is stale data for the same task that we're currently evaluating for
+                // placement. Don't worry about avoiding or colocating with it. This occurs when we're
+                // redeploying a given task with a new configuration (old data not deleted yet).
+                continue;
+            }
+            if (TaskPlacementInfo.of(task).getAgentId().equals(offerAgentId)) {
+                foundTypeOnAgent = true;
+                break;
             }
         }
-        // Create a rule which will handle most of the validation. Logic is deferred to avoid
-        // double-counting a task against a prior version of itself.
         switch (behaviorType) {
         case AVOID:
-            if (matchingTasks.isEmpty()) {
+            if (!foundType) {
                 // nothing to avoid, but this is expected when avoiding nodes of the same type
                 // (self-avoidance), or when the developer has configured bidirectional rules
                 // (A avoids B + B avoids A)
@@ -114,10 +125,10 @@ public class TaskTypeRule implements PlacementRule {
                         typeToFind)
                         .build();
             } else {
-                return filterAvoid(offer, podInstance, matchingTasks);
+                return filterAvoid(foundTypeOnAgent);
             }
         case COLOCATE:
-            if (matchingTasks.isEmpty()) {
+            if (!foundType) {
                 // nothing to colocate with! fall back to allowing any location.
                 // this is expected when the developer has configured bidirectional rules
                 // (A colocates with B + B colocates with A)
@@ -127,7 +138,7 @@ public class TaskTypeRule implements PlacementRule {
                         typeToFind)
                         .build();
             } else {
-                return filterColocate(offer, podInstance, matchingTasks);
+                return filterColocate(foundTypeOnAgent);
             }
         default:
             throw new IllegalStateException("Unsupported behavior type: " + behaviorType);
@@ -141,61 +152,33 @@ public class TaskTypeRule implements PlacementRule {
     }
 
     /**
-     * Implementation of task type avoidance. Considers the presence of tasks in the cluster to
-     * determine whether the provided task can be launched against a given offer. This rule requires
-     * that the offer be located on an agent which doesn't currently have an instance of the
-     * specified task type.
+     * Implementation of task type avoidance. This rule requires that the offer be located on an
+     * agent which doesn't currently have an instance of the specified task type.
      */
-    private EvaluationOutcome filterAvoid(
-            Offer offer,
-            PodInstance podInstance,
-            Collection<TaskInfo> tasksToAvoid) {
-
-        for (TaskInfo taskToAvoid : tasksToAvoid) {
-            if (PlacementUtils.areEquivalent(taskToAvoid, podInstance)) {
-                // This is stale data for the same task that we're currently evaluating for
-                // placement. Don't worry about avoiding it. This occurs when we're redeploying
-                // a given task with a new configuration (old data not deleted yet).
-                continue;
-            }
-            if (taskToAvoid.getSlaveId().equals(offer.getSlaveId())) {
-                // The offer is for an agent which has a task to be avoided. Denied!
-                return EvaluationOutcome.fail(
-                        this,
-                        "Found a task matching avoided type '%s' on this agent.", typeToFind)
-                        .build();
-            }
+    private EvaluationOutcome filterAvoid(boolean foundTypeOnAgent) {
+        if (foundTypeOnAgent) {
+            // The offer is for an agent which has a task to be avoided. Denied!
+            return EvaluationOutcome.fail(
+                    this,
+                    "Found a task matching avoided type '%s' on this agent.", typeToFind)
+                    .build();
         }
         // The offer doesn't match any tasks to avoid. Approved!
         return EvaluationOutcome.pass(this, "No tasks of avoided type '%s' found on this agent.", typeToFind).build();
     }
 
     /**
-     * Implementation of task type colocation. Considers the presence of tasks in the cluster to
-     * determine whether the provided task can be launched against a given offer. This rule requires
-     * that the offer be located on an agent which currently has an instance of the specified task
-     * type.
+     * Implementation of task type colocation. This rule requires that the offer be located on an
+     * agent which currently has an instance of the specified task type.
      */
-    private EvaluationOutcome filterColocate(
-            Offer offer,
-            PodInstance podInstance,
-            Collection<TaskInfo> tasksToColocate) {
-
-        for (TaskInfo taskToColocate : tasksToColocate) {
-            if (PlacementUtils.areEquivalent(taskToColocate, podInstance)) {
-                // This is stale data for the same task that we're currently evaluating for
-                // placement. Don't worry about colocating with it. This occurs when we're
-                // redeploying a given task with a new configuration (old data not deleted yet).
-                continue;
-            }
-            if (taskToColocate.getSlaveId().equals(offer.getSlaveId())) {
-                // The offer is for an agent which has a task to colocate with. Approved!
-                return EvaluationOutcome.pass(
-                        this,
-                        "Found a task matching colocated type '%s' on this agent.",
-                        typeToFind)
-                        .build();
-            }
+    private EvaluationOutcome filterColocate(boolean foundTypeOnAgent) {
+        if (foundTypeOnAgent) {
+            // The offer is for an agent which has a task to colocate with. Approved!
+            return EvaluationOutcome.pass(
+                    this,
+                    "Found a task matching colocated type '%s' on this agent.",
+                    typeToFind)
+                    .build();
         }
         // The offer doesn't match any tasks to colocate with. Denied!
         return EvaluationOutcome.fail(
@@ -8,7 +8,6 @@ import org.apache.mesos.Protos;
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 
 /**
  * This rule enforces that a task be placed on the specified zone, or enforces that the task
@@ -22,11 +21,7 @@ public class ZoneRule extends StringMatcherRule {
 
     @Override
     public Collection<String> getKeys(Protos.Offer offer) {
-        if (offer.hasDomain() && offer.getDomain().hasFaultDomain()) {
-            return Arrays.asList(offer.getDomain().getFaultDomain().getZone().getName());
-        }
-
-        return Collections.emptyList();
+        return OfferPlacementInfo.of(offer).getZoneKeys();
     }
 
     @Override
@@ -0,0 +1,104 @@
+package com.mesosphere.sdk.offer.evaluate.security;
+
+import org.slf4j.Logger;
+
+import com.mesosphere.sdk.offer.LoggingUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A pool of pre-generated {@link KeyPair}s. RSA keypair generation takes a noticeable amount of CPU time, so keypairs
+ * are generated ahead of time on a background thread and handed out by {@link #take()}. If the pool is exhausted, a
+ * keypair is generated inline by the caller.
+ */
+public class KeyPairPool {
+
+    private final Logger logger = LoggingUtils.getLogger(getClass());
+
+    private final KeyPairGenerator keyPairGenerator;
+    private final BlockingQueue<KeyPair> pool;
+    private final ExecutorService refillExecutor;
+    private final AtomicBoolean refillInProgress = new AtomicBoolean(false);
+
+    /**
+     * Creates a new pool which keeps up to {@code size} keypairs pre-generated. A {@code size} of zero disables
+     * pre-generation, in which case all keypairs are generated inline by {@link #take()}.
+     */
+    public KeyPairPool(KeyPairGenerator keyPairGenerator, int size) {
+        this.keyPairGenerator = keyPairGenerator;
+        if (size > 0) {
+            this.pool = new ArrayBlockingQueue<>(size);
+            this.refillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "keypair-pool");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refill();
+        } else {
+            this.pool = null;
+            this.refillExecutor = null;
+        }
+    }
+
+    /**
+     * Returns a pre-generated keypair, or generates a new keypair if none are currently available. Any keypair
+     * returned by this call is never returned again.
+     */
+    public KeyPair take() {
+        if (pool == null) {
+            return generateKeyPair();
+        }
+        KeyPair keyPair = pool.poll();
+        refill();
+        if (keyPair == null) {
+            logger.info("No pre-generated keypairs are available, generating a keypair inline");
+            keyPair = generateKeyPair();
+        }
+        return keyPair;
+    }
+
+    /**
+     * Returns the number of keypairs which are currently available in the pool.
+     */
+    public int available() {
+        return pool == null ? 0 : pool.size();
+    }
+
+    /**
+     * Schedules a background refill of the pool, unless one is already in progress.
+     */
+    private void refill() {
+        if (!refillInProgress.compareAndSet(false, true)) {
+            return;
+        }
+        refillExecutor.execute(() -> {
+            try {
+                while (pool.remainingCapacity() > 0) {
+                    if (!pool.offer(generateKeyPair())) {
+                        break;
+                    }
+                }
+            } catch (Throwable t) {
+                logger.error("Failed to pre-generate keypairs", t);
+            } finally {
+                refillInProgress.set(false);
+            }
+        });
+    }
+
+    /**
+     * {@link KeyPairGenerator} instances are not guaranteed to be thread-safe, and this pool may generate keypairs
+     * from both the refill thread and from callers of {@link #take()}.
+     */
+    private KeyPair generateKeyPair() {
+        synchronized (keyPairGenerator) {
+            return keyPairGenerator.generateKeyPair();
+        }
+    }
+}
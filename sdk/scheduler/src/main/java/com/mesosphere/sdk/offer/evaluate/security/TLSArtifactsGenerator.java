@@ -43,16 +43,26 @@ class TLSArtifactsGenerator {
     static final char[] KEYSTORE_PASSWORD = "notsecure".toCharArray();
 
     private final CertificateAuthorityClient caClient;
-    private final KeyPairGenerator keyPairGenerator;
+    private final KeyPairPool keyPairPool;
 
     public TLSArtifactsGenerator(CertificateAuthorityClient caClient) {
-        this(caClient, getDefaultKeyPairGenerator());
+        this(caClient, new KeyPairPool(getDefaultKeyPairGenerator(), 0));
+    }
+
+    public TLSArtifactsGenerator(CertificateAuthorityClient caClient, KeyPairPool keyPairPool) {
+        this.caClient = caClient;
+        this.keyPairPool = keyPairPool;
+    }
+
+    @VisibleForTesting
+    TLSArtifactsGenerator(CertificateAuthorityClient caClient, KeyPairGenerator keyPairGenerator) {
+        this(caClient, new KeyPairPool(keyPairGenerator, 0));
     }
 
     /**
-     * Wrapper to allow construction in {@code this()} above.
+     * Returns a new RSA {@link KeyPairGenerator}.
      */
-    private static KeyPairGenerator getDefaultKeyPairGenerator() {
+    static KeyPairGenerator getDefaultKeyPairGenerator() {
         try {
             return KeyPairGenerator.getInstance("RSA");
         } catch (NoSuchAlgorithmException e) {
@@ -60,17 +70,11 @@ class TLSArtifactsGenerator {
         }
     }
 
-    @VisibleForTesting
-    TLSArtifactsGenerator(CertificateAuthorityClient caClient, KeyPairGenerator keyPairGenerator) {
-        this.caClient = caClient;
-        this.keyPairGenerator = keyPairGenerator;
-    }
-
     /**
      * Returns a mapping of {@link TLSArtifact} types to generated secret content, to be stored in a SecretStore.
      */
     Map<TLSArtifact, String> generate(CertificateNamesGenerator certificateNamesGenerator) throws Exception {
-        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        KeyPair keyPair = keyPairPool.take();
 
         // Get new end-entity certificate from CA
         X509Certificate certificate = caClient.sign(generateCSR(keyPair, certificateNamesGenerator));
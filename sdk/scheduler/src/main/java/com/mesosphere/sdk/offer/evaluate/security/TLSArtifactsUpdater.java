@@ -28,6 +28,14 @@ public class TLSArtifactsUpdater {
         this(serviceName, secretsClient, new TLSArtifactsGenerator(caClient));
     }
 
+    public TLSArtifactsUpdater(
+            String serviceName,
+            SecretsClient secretsClient,
+            CertificateAuthorityClient caClient,
+            KeyPairPool keyPairPool) {
+        this(serviceName, secretsClient, new TLSArtifactsGenerator(caClient, keyPairPool));
+    }
+
     @VisibleForTesting
     TLSArtifactsUpdater(String serviceName, SecretsClient secretsClient, TLSArtifactsGenerator tlsArtifactsGenerator) {
         this.serviceName = serviceName;
@@ -0,0 +1,262 @@
+package com.mesosphere.sdk.offer.evaluate.security;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.mesosphere.sdk.dcos.DcosHttpExecutor;
+import com.mesosphere.sdk.dcos.clients.CertificateAuthorityClient;
+import com.mesosphere.sdk.dcos.clients.SecretsClient;
+import com.mesosphere.sdk.offer.LoggingUtils;
+import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.specification.PodInstance;
+import com.mesosphere.sdk.specification.TaskSpec;
+import com.mesosphere.sdk.specification.TransportEncryptionSpec;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Provisions TLS artifacts for tasks on background threads. Generating a keypair, having the CA sign a CSR, and writing
+ * the resulting artifacts to the secret store can take several seconds per task, so this work is kept off of the offer
+ * evaluation thread: work is started ahead of time via {@link #provision(Collection)} for pending pods, and offer
+ * evaluation only checks readiness via {@link #getStatus(TLSArtifactPaths, CertificateNamesGenerator, String)}.
+ */
+public class TLSProvisioner {
+
+    /**
+     * The readiness of the TLS artifacts for a given task and {@link TransportEncryptionSpec}.
+     */
+    public static class Status {
+
+        /**
+         * The possible states of a task's TLS artifacts.
+         */
+        public enum State {
+            /** The artifacts are present in the secret store and may be used by the task. */
+            READY,
+            /** The artifacts are still being provisioned. */
+            PENDING,
+            /** Provisioning the artifacts failed. Provisioning will be retried on the next status check. */
+            FAILED
+        }
+
+        private static final Status READY = new Status(State.READY, Optional.empty());
+        private static final Status PENDING = new Status(State.PENDING, Optional.empty());
+
+        private final State state;
+        private final Optional<Throwable> error;
+
+        private Status(State state, Optional<Throwable> error) {
+            this.state = state;
+            this.error = error;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        /**
+         * Returns the cause of the failure when the state is {@link State#FAILED}, or an empty {@link Optional}
+         * otherwise.
+         */
+        public Optional<Throwable> getError() {
+            return error;
+        }
+    }
+
+    private static final int PROVISIONING_THREADS = 2;
+    private static final int KEYPAIR_POOL_SIZE = 4;
+    /**
+     * How long a successful provisioning is trusted before the secret store is checked again. This allows recovery
+     * from secrets being removed from the secret store out from under us.
+     */
+    private static final Duration READY_VALIDITY = Duration.ofMinutes(10);
+
+    private final Logger logger;
+    private final String serviceName;
+    private final String namespace;
+    private final SchedulerConfig schedulerConfig;
+    private final TLSArtifactsUpdater tlsArtifactsUpdater;
+    private final Executor executor;
+    private final Clock clock;
+
+    /**
+     * Maps the secret store path of a task's TLS artifacts to the provisioning of those artifacts. The future is
+     * completed with the time (in epoch millis) at which the artifacts were confirmed to be present. Entries are
+     * removed once they fail, or once they've completed and their task is no longer being deployed.
+     */
+    private final Map<String, CompletableFuture<Long>> provisionings = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new instance which provisions artifacts using the cluster's CA and secret store. Callers should avoid
+     * invoking this until/unless they have validated that TLS functionality is needed.
+     *
+     * @throws IOException if the necessary clients could not be built, which may occur if the cluster doesn't
+     *                     support TLS
+     */
+    public static TLSProvisioner create(String serviceName, SchedulerConfig schedulerConfig) throws IOException {
+        DcosHttpExecutor httpExecutor = schedulerConfig.getDcosHttpExecutor();
+        return create(
+                serviceName,
+                schedulerConfig,
+                new SecretsClient(httpExecutor),
+                new CertificateAuthorityClient(httpExecutor));
+    }
+
+    /**
+     * Creates a new instance which provisions artifacts using the provided CA and secret store clients.
+     */
+    public static TLSProvisioner create(
+            String serviceName,
+            SchedulerConfig schedulerConfig,
+            SecretsClient secretsClient,
+            CertificateAuthorityClient caClient) {
+        KeyPairPool keyPairPool =
+                new KeyPairPool(TLSArtifactsGenerator.getDefaultKeyPairGenerator(), KEYPAIR_POOL_SIZE);
+        return new TLSProvisioner(
+                serviceName,
+                schedulerConfig,
+                new TLSArtifactsUpdater(serviceName, secretsClient, caClient, keyPairPool),
+                Executors.newFixedThreadPool(PROVISIONING_THREADS, runnable -> {
+                    Thread thread = new Thread(runnable, "tls-provisioner");
+                    thread.setDaemon(true);
+                    return thread;
+                }),
+                Clock.systemUTC());
+    }
+
+    @VisibleForTesting
+    public TLSProvisioner(
+            String serviceName,
+            SchedulerConfig schedulerConfig,
+            TLSArtifactsUpdater tlsArtifactsUpdater,
+            Executor executor,
+            Clock clock) {
+        this.logger = LoggingUtils.getLogger(getClass(), serviceName);
+        this.serviceName = serviceName;
+        this.namespace = schedulerConfig.getSecretsNamespace(serviceName);
+        this.schedulerConfig = schedulerConfig;
+        this.tlsArtifactsUpdater = tlsArtifactsUpdater;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the secrets namespace where TLS artifacts are stored.
+     */
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * Starts provisioning TLS artifacts for all tasks in the provided pod instances which have any
+     * {@link TransportEncryptionSpec}s, unless they are already provisioned or being provisioned. Returns immediately.
+     *
+     * <p>The provided pod instances should be all of the pods currently being deployed. Completed provisionings for
+     * any other pods are discarded: their tasks have either been launched with the artifacts, or are no longer being
+     * deployed. If they're needed again later, the secret store is checked again.
+     */
+    public void provision(Collection<PodInstance> podInstances) {
+        Set<String> keys = new HashSet<>();
+        for (PodInstance podInstance : podInstances) {
+            for (TaskSpec taskSpec : podInstance.getPod().getTasks()) {
+                if (taskSpec.getTransportEncryption().isEmpty()) {
+                    continue;
+                }
+                CertificateNamesGenerator certificateNamesGenerator =
+                        new CertificateNamesGenerator(serviceName, taskSpec, podInstance, schedulerConfig);
+                TLSArtifactPaths tlsArtifactPaths = new TLSArtifactPaths(
+                        namespace,
+                        TaskSpec.getInstanceName(podInstance, taskSpec),
+                        certificateNamesGenerator.getSANsHash());
+                for (TransportEncryptionSpec transportEncryptionSpec : taskSpec.getTransportEncryption()) {
+                    keys.add(getKey(tlsArtifactPaths, transportEncryptionSpec.getName()));
+                    getStatus(tlsArtifactPaths, certificateNamesGenerator, transportEncryptionSpec.getName());
+                }
+            }
+        }
+        // In-progress provisionings are kept so that they're reflected by hasPendingProvisioning(). They're discarded
+        // in a later call once they've completed.
+        provisionings.entrySet().removeIf(entry -> !keys.contains(entry.getKey()) && entry.getValue().isDone());
+    }
+
+    /**
+     * Returns the current readiness of the TLS artifacts for the provided task paths and encryption spec, starting
+     * provisioning in the background if it isn't already ready or in progress. Never blocks on provisioning.
+     */
+    public Status getStatus(
+            TLSArtifactPaths tlsArtifactPaths,
+            CertificateNamesGenerator certificateNamesGenerator,
+            String encryptionSpecName) {
+        String key = getKey(tlsArtifactPaths, encryptionSpecName);
+        CompletableFuture<Long> provisioning = provisionings.computeIfAbsent(
+                key, k -> start(tlsArtifactPaths, certificateNamesGenerator, encryptionSpecName));
+
+        if (provisioning.isDone() && !provisioning.isCompletedExceptionally()
+                && clock.millis() - provisioning.join() > READY_VALIDITY.toMillis()) {
+            // Check the secret store again, in case the secrets have since been removed.
+            provisionings.remove(key, provisioning);
+            provisioning = provisionings.computeIfAbsent(
+                    key, k -> start(tlsArtifactPaths, certificateNamesGenerator, encryptionSpecName));
+        }
+
+        if (!provisioning.isDone()) {
+            return Status.PENDING;
+        }
+        try {
+            provisioning.join();
+            return Status.READY;
+        } catch (CompletionException e) {
+            // Clear the failure so that provisioning is retried on the next call.
+            provisionings.remove(key, provisioning);
+            return new Status(Status.State.FAILED, Optional.of(e.getCause() == null ? e : e.getCause()));
+        }
+    }
+
+    /**
+     * Returns whether any provisioning is currently in progress.
+     */
+    public boolean hasPendingProvisioning() {
+        return provisionings.values().stream().anyMatch(provisioning -> !provisioning.isDone());
+    }
+
+    /**
+     * Returns the number of provisionings which are currently tracked, whether in progress or completed.
+     */
+    @VisibleForTesting
+    int getProvisioningCount() {
+        return provisionings.size();
+    }
+
+    private static String getKey(TLSArtifactPaths tlsArtifactPaths, String encryptionSpecName) {
+        return tlsArtifactPaths.getSecretStorePath(TLSArtifact.CERTIFICATE, encryptionSpecName);
+    }
+
+    private CompletableFuture<Long> start(
+            TLSArtifactPaths tlsArtifactPaths,
+            CertificateNamesGenerator certificateNamesGenerator,
+            String encryptionSpecName) {
+        logger.info("Provisioning TLS artifacts for task '{}' and TLS config '{}'",
+                tlsArtifactPaths.getTaskInstanceName(), encryptionSpecName);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                tlsArtifactsUpdater.update(tlsArtifactPaths, certificateNamesGenerator, encryptionSpecName);
+                return clock.millis();
+            } catch (Exception e) {
+                logger.error(String.format("Failed to provision TLS artifacts for task '%s' and TLS config '%s'",
+                        tlsArtifactPaths.getTaskInstanceName(), encryptionSpecName), e);
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+}
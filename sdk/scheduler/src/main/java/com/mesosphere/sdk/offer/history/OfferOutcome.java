@@ -2,22 +2,85 @@ package com.mesosphere.sdk.offer.history;
 
 import org.apache.mesos.Protos;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
 /**
  * Encapsulates the outcome of an offer evaluation in OfferEvaluator.
+ *
+ * <p>The outcome is kept as a compact record of what was evaluated and which evaluation stages failed. The full offer
+ * and the human-readable details of the evaluation are only retained for the most recent outcomes, see
+ * {@link OfferOutcomeTracker}. The details are only rendered when they are first requested, as most outcomes are never
+ * looked at.
  */
 public class OfferOutcome {
+
+    /** Returned by {@link #getOutcomeDetails()} once the details have been discarded. */
+    static final String DISCARDED_DETAILS = "(details are no longer retained for this outcome)";
+
+    /**
+     * The parts of the outcome which are only retained for recent outcomes.
+     */
+    private static class Details {
+        private final Protos.Offer offer;
+        private final Supplier<String> outcomeDetailsSupplier;
+        private volatile String outcomeDetails;
+
+        private Details(Protos.Offer offer, Supplier<String> outcomeDetailsSupplier) {
+            this.offer = offer;
+            this.outcomeDetailsSupplier = outcomeDetailsSupplier;
+        }
+
+        private String getOutcomeDetails() {
+            String details = outcomeDetails;
+            if (details == null) {
+                // Rendering is idempotent, so a concurrent duplicate render is harmless.
+                details = outcomeDetailsSupplier.get();
+                outcomeDetails = details;
+            }
+            return details;
+        }
+    }
+
     private final long timestamp;
     private final String podInstanceName;
     private final boolean pass;
-    private final Protos.Offer offer;
-    private final String outcomeDetails;
+    private final String offerId;
+    private final String agentId;
+    private final String hostname;
+    private final Set<String> failedStages;
+    private volatile Details details;
 
     public OfferOutcome(String podInstanceName, boolean pass, Protos.Offer offer, String outcomeDetails) {
+        this(podInstanceName, pass, offer, Collections.emptyList(), () -> outcomeDetails);
+    }
+
+    /**
+     * Creates a new outcome whose details are rendered by the provided {@code outcomeDetailsSupplier} when they're
+     * first requested.
+     *
+     * @param failedStages the names of the evaluation stages which failed, or an empty collection if the offer passed
+     */
+    public OfferOutcome(
+            String podInstanceName,
+            boolean pass,
+            Protos.Offer offer,
+            Collection<String> failedStages,
+            Supplier<String> outcomeDetailsSupplier) {
         this.timestamp = System.currentTimeMillis();
         this.podInstanceName = podInstanceName;
         this.pass = pass;
-        this.offer = offer;
-        this.outcomeDetails = outcomeDetails;
+        this.offerId = offer.getId().getValue();
+        this.agentId = offer.getSlaveId().getValue();
+        this.hostname = offer.getHostname();
+        this.failedStages = failedStages.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(new LinkedHashSet<>(failedStages));
+        this.details = new Details(offer, outcomeDetailsSupplier);
     }
 
     public String getPodInstanceName() {
@@ -28,15 +91,49 @@ public class OfferOutcome {
         return pass;
     }
 
-    public Protos.Offer getOffer() {
-        return offer;
+    public String getOfferId() {
+        return offerId;
     }
 
+    public String getAgentId() {
+        return agentId;
+    }
+
+    public String getHostname() {
+        return hostname;
+    }
+
+    /**
+     * Returns the names of the evaluation stages which failed, or an empty set if the offer passed.
+     */
+    public Set<String> getFailedStages() {
+        return failedStages;
+    }
+
+    /**
+     * Returns the evaluated offer, or an empty {@link Optional} if it's no longer retained.
+     */
+    public Optional<Protos.Offer> getOffer() {
+        Details currentDetails = details;
+        return currentDetails == null ? Optional.empty() : Optional.of(currentDetails.offer);
+    }
+
+    /**
+     * Returns a human-readable description of the evaluation, or a placeholder if it's no longer retained.
+     */
     public String getOutcomeDetails() {
-        return outcomeDetails;
+        Details currentDetails = details;
+        return currentDetails == null ? DISCARDED_DETAILS : currentDetails.getOutcomeDetails();
     }
 
     public long getTimestamp() {
         return timestamp;
     }
+
+    /**
+     * Drops the full offer and evaluation details, leaving only the compact record.
+     */
+    void discardDetails() {
+        details = null;
+    }
 }
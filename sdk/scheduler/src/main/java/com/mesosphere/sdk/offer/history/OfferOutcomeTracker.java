@@ -1,24 +1,40 @@
 package com.mesosphere.sdk.offer.history;
 
-import com.google.common.collect.EvictingQueue;
 import j2html.tags.DomContent;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import static j2html.TagCreator.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Tracks the outcome of offers as they are evaluated against a PodInstanceRequirement.
+ *
+ * <p>Outcomes are kept in a fixed-size ring buffer, which is written by the offer thread and may be queried
+ * concurrently by HTTP threads. Retained outcomes are indexed by pod instance, agent, and failed evaluation stage, so
+ * that queries against any of those only visit matching outcomes. The full offer and evaluation details are only kept
+ * for the most recent outcomes, while older outcomes are kept as compact records. Failure counts per evaluation stage
+ * are kept for all outcomes ever tracked.
  */
 public class OfferOutcomeTracker {
-    private final EvictingQueue<OfferOutcome> outcomes;
-    private static final int DEFAULT_CAPACITY = 100;
+
+    private static final int DEFAULT_CAPACITY = 10000;
+    private static final int DEFAULT_DETAILED_CAPACITY = 100;
 
     static final String OUTCOMES_FIELD = "outcomes";
     static final String TIMESTAMP_FIELD = "timestamp";
@@ -26,56 +42,268 @@ public class OfferOutcomeTracker {
     static final String OUTCOME_FIELD = "outcome";
     static final String EXPLANATION_FIELD = "explanation";
     static final String OFFER_FIELD = "offer";
+    static final String OFFER_ID_FIELD = "offer-id";
+    static final String AGENT_ID_FIELD = "agent-id";
+    static final String HOSTNAME_FIELD = "hostname";
+    static final String FAILED_STAGES_FIELD = "failed-stages";
+    static final String SUMMARY_FIELD = "summary";
+    static final String PASSED_COUNT_FIELD = "passed";
+    static final String FAILED_COUNT_FIELD = "failed";
+    static final String STAGE_FAILURE_COUNTS_FIELD = "stage-failures";
+
+    /**
+     * Criteria for selecting outcomes from the tracker. Unset criteria match all outcomes.
+     */
+    public static class Query {
+        /** The maximum number of outcomes returned by default. */
+        public static final int DEFAULT_LIMIT = 100;
+
+        private Optional<String> podInstanceName = Optional.empty();
+        private Optional<String> agentId = Optional.empty();
+        private Optional<String> failedStage = Optional.empty();
+        private Optional<Boolean> pass = Optional.empty();
+        private int limit = DEFAULT_LIMIT;
+
+        /**
+         * Only selects outcomes for the provided pod instance, e.g. {@code hello-0:[server]}. Ignored if null.
+         */
+        public Query setPodInstanceName(String podInstanceName) {
+            this.podInstanceName = Optional.ofNullable(podInstanceName);
+            return this;
+        }
+
+        /**
+         * Only selects outcomes for offers from the provided agent ID. Ignored if null.
+         */
+        public Query setAgentId(String agentId) {
+            this.agentId = Optional.ofNullable(agentId);
+            return this;
+        }
+
+        /**
+         * Only selects outcomes where the provided evaluation stage failed. Ignored if null.
+         */
+        public Query setFailedStage(String failedStage) {
+            this.failedStage = Optional.ofNullable(failedStage);
+            return this;
+        }
+
+        /**
+         * Only selects passing ({@code true}) or failing ({@code false}) outcomes. Ignored if null.
+         */
+        public Query setPass(Boolean pass) {
+            this.pass = Optional.ofNullable(pass);
+            return this;
+        }
+
+        /**
+         * Limits the number of returned outcomes, which are the most recent matching outcomes.
+         */
+        public Query setLimit(int limit) {
+            if (limit <= 0) {
+                throw new IllegalArgumentException(String.format("Limit must be positive: %d", limit));
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        private boolean matches(OfferOutcome outcome) {
+            return (!podInstanceName.isPresent() || podInstanceName.get().equals(outcome.getPodInstanceName()))
+                    && (!agentId.isPresent() || agentId.get().equals(outcome.getAgentId()))
+                    && (!failedStage.isPresent() || outcome.getFailedStages().contains(failedStage.get()))
+                    && (!pass.isPresent() || pass.get() == outcome.pass());
+        }
+    }
+
+    /**
+     * An outcome along with its position in the sequence of all tracked outcomes.
+     */
+    private static class Entry {
+        private final long sequence;
+        private final OfferOutcome outcome;
+
+        private Entry(long sequence, OfferOutcome outcome) {
+            this.sequence = sequence;
+            this.outcome = outcome;
+        }
+    }
+
+    /**
+     * The retained outcomes which share an index key, oldest first. The size is tracked separately, as
+     * {@link ConcurrentLinkedDeque#size()} traverses the whole deque. Only modified while holding the track lock.
+     */
+    private static class IndexedOutcomes {
+        private static final IndexedOutcomes EMPTY = new IndexedOutcomes();
+
+        private final Deque<OfferOutcome> outcomes = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        private void add(OfferOutcome outcome) {
+            outcomes.addLast(outcome);
+            size.incrementAndGet();
+        }
+
+        private void remove(OfferOutcome outcome) {
+            // Outcomes are evicted in the order they were added, so the evicted outcome should be the oldest:
+            boolean removed;
+            if (outcomes.peekFirst() == outcome) {
+                removed = outcomes.pollFirst() != null;
+            } else {
+                removed = outcomes.remove(outcome);
+            }
+            if (removed) {
+                size.decrementAndGet();
+            }
+        }
+
+        private int size() {
+            return size.get();
+        }
+    }
+
+    private final int capacity;
+    private final int detailedCapacity;
+
+    private final AtomicReferenceArray<Entry> entries;
+    /** The number of outcomes ever tracked, which is also the sequence number of the next outcome. */
+    private final AtomicLong trackedCount = new AtomicLong();
+    private final Object trackLock = new Object();
+
+    private final Map<String, IndexedOutcomes> outcomesByPodInstance = new ConcurrentHashMap<>();
+    private final Map<String, IndexedOutcomes> outcomesByAgent = new ConcurrentHashMap<>();
+    private final Map<String, IndexedOutcomes> outcomesByFailedStage = new ConcurrentHashMap<>();
+
+    private final LongAdder passedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final Map<String, LongAdder> failureCountsByStage = new ConcurrentHashMap<>();
 
     public OfferOutcomeTracker() {
-        this.outcomes = EvictingQueue.create(DEFAULT_CAPACITY);
+        this(DEFAULT_CAPACITY);
     }
 
     public OfferOutcomeTracker(int capacity) {
-        this.outcomes = EvictingQueue.create(capacity);
+        this(capacity, Math.min(capacity, DEFAULT_DETAILED_CAPACITY));
+    }
+
+    /**
+     * Creates a new tracker which retains up to {@code capacity} outcomes, where the most recent
+     * {@code detailedCapacity} of those also retain their offer and evaluation details.
+     */
+    public OfferOutcomeTracker(int capacity, int detailedCapacity) {
+        if (capacity <= 0 || detailedCapacity < 0 || detailedCapacity > capacity) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid capacities: capacity=%d detailedCapacity=%d", capacity, detailedCapacity));
+        }
+        this.capacity = capacity;
+        this.detailedCapacity = detailedCapacity;
+        this.entries = new AtomicReferenceArray<>(capacity);
     }
 
     public void track(OfferOutcome outcome) {
-        outcomes.add(outcome);
+        synchronized (trackLock) {
+            long sequence = trackedCount.get();
+
+            // The outcome which is no longer among the most recent detailedCapacity outcomes:
+            if (sequence >= detailedCapacity) {
+                Entry undetailed = entries.get(getSlot(sequence - detailedCapacity));
+                if (undetailed != null) {
+                    undetailed.outcome.discardDetails();
+                }
+            }
+
+            int slot = getSlot(sequence);
+            Entry evicted = entries.get(slot);
+            if (evicted != null) {
+                unindex(evicted.outcome);
+            }
+            entries.set(slot, new Entry(sequence, outcome));
+            index(outcome);
+            trackedCount.set(sequence + 1);
+        }
+
+        if (outcome.pass()) {
+            passedCount.increment();
+        } else {
+            failedCount.increment();
+            for (String stage : outcome.getFailedStages()) {
+                failureCountsByStage.computeIfAbsent(stage, s -> new LongAdder()).increment();
+            }
+        }
     }
 
     public void track(OfferOutcome... outcomes) {
-        this.outcomes.addAll(Arrays.asList(outcomes));
+        for (OfferOutcome outcome : outcomes) {
+            track(outcome);
+        }
     }
 
-    private List<OfferOutcome> reverseList() {
-        // Read the current outcomes into a list, reversing the list
-        // as callers want to see the most recent offer outcomes first.
-        List<OfferOutcome> recentFirst = outcomes.stream().collect(Collectors.toList());
-        Collections.reverse(recentFirst);
-        return recentFirst;
+    /**
+     * Returns the most recent retained outcomes which match the provided query, most recent first.
+     */
+    public List<OfferOutcome> getOutcomes(Query query) {
+        // Use the narrowest index which applies to the query, if any:
+        Optional<IndexedOutcomes> indexed = Optional.empty();
+        indexed = narrowest(indexed, query.podInstanceName, outcomesByPodInstance);
+        indexed = narrowest(indexed, query.agentId, outcomesByAgent);
+        indexed = narrowest(indexed, query.failedStage, outcomesByFailedStage);
+
+        Iterator<OfferOutcome> mostRecentFirst = indexed.isPresent()
+                ? indexed.get().outcomes.descendingIterator()
+                : new RingIterator();
+        List<OfferOutcome> outcomes = new ArrayList<>();
+        while (mostRecentFirst.hasNext() && outcomes.size() < query.limit) {
+            OfferOutcome outcome = mostRecentFirst.next();
+            if (query.matches(outcome)) {
+                outcomes.add(outcome);
+            }
+        }
+        return outcomes;
     }
 
-    private DomContent newLineToHtmlBreak(String newLined) {
-        return each(Arrays.asList(newLined.split("\\n")), line ->
-            div(
-                    div(line),
-                    br()
-            )
-        );
+    /**
+     * Returns the number of failures of each evaluation stage, across all outcomes which have ever been tracked.
+     */
+    public Map<String, Long> getFailureCountsByStage() {
+        Map<String, Long> counts = new TreeMap<>();
+        failureCountsByStage.forEach((stage, count) -> counts.put(stage, count.sum()));
+        return counts;
     }
 
     public JSONObject toJson() {
+        return toJson(new Query());
+    }
+
+    public JSONObject toJson(Query query) {
         JSONArray outcomes = new JSONArray();
-        reverseList().stream().forEach(offerOutcome -> {
+        getOutcomes(query).forEach(offerOutcome -> {
             JSONObject outcome = new JSONObject();
             outcome.put(TIMESTAMP_FIELD, offerOutcome.getTimestamp())
                     .put(POD_INSTANCE_NAME_FIELD, offerOutcome.getPodInstanceName())
                     .put(OUTCOME_FIELD, offerOutcome.pass() ? "pass" : "fail")
+                    .put(FAILED_STAGES_FIELD, new JSONArray(offerOutcome.getFailedStages()))
+                    .put(OFFER_ID_FIELD, offerOutcome.getOfferId())
+                    .put(AGENT_ID_FIELD, offerOutcome.getAgentId())
+                    .put(HOSTNAME_FIELD, offerOutcome.getHostname())
                     .put(EXPLANATION_FIELD, offerOutcome.getOutcomeDetails())
-                    .put(OFFER_FIELD, offerOutcome.getOffer().toString());
+                    .put(OFFER_FIELD, getOfferString(offerOutcome));
             outcomes.put(outcome);
         });
 
-        return new JSONObject().put(OUTCOMES_FIELD, outcomes);
+        JSONObject summary = new JSONObject()
+                .put(PASSED_COUNT_FIELD, passedCount.sum())
+                .put(FAILED_COUNT_FIELD, failedCount.sum())
+                .put(STAGE_FAILURE_COUNTS_FIELD, new JSONObject(getFailureCountsByStage()));
+
+        return new JSONObject()
+                .put(OUTCOMES_FIELD, outcomes)
+                .put(SUMMARY_FIELD, summary);
     }
 
     public String toHtml() {
+        return toHtml(new Query());
+    }
+
+    public String toHtml(Query query) {
         // Construct a table of the current outcomes.
         return html(
                 style("table, th, td { border: 1px solid black; }" +
@@ -90,7 +318,7 @@ public class OfferOutcomeTracker {
                                         th("Explanation"),
                                         th("Offer")
                                 ),
-                                each(reverseList(), offerOutcome ->
+                                each(getOutcomes(query), offerOutcome ->
                                     tr(
                                             td(new Date(offerOutcome.getTimestamp()).toString())
                                                     .withStyle("white-space: nowrap"),
@@ -98,11 +326,113 @@ public class OfferOutcomeTracker {
                                             td(offerOutcome.pass() ? "PASS" : "FAIL"),
                                             td(newLineToHtmlBreak(offerOutcome.getOutcomeDetails()))
                                                     .withStyle("width: 500px"),
-                                            td(offerOutcome.getOffer().toString()).withStyle("width: 500px")
+                                            td(getOfferString(offerOutcome)).withStyle("width: 500px")
                                     )
                                 )
                         ).withStyle("border: 1px solid black")
                 )
         ).render();
     }
+
+    private static String getOfferString(OfferOutcome offerOutcome) {
+        return offerOutcome.getOffer()
+                .map(Object::toString)
+                .orElse(String.format("id: %s, agent: %s, hostname: %s",
+                        offerOutcome.getOfferId(), offerOutcome.getAgentId(), offerOutcome.getHostname()));
+    }
+
+    private DomContent newLineToHtmlBreak(String newLined) {
+        return each(Arrays.asList(newLined.split("\\n")), line ->
+            div(
+                    div(line),
+                    br()
+            )
+        );
+    }
+
+    private int getSlot(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    private void index(OfferOutcome outcome) {
+        addToIndex(outcomesByPodInstance, outcome.getPodInstanceName(), outcome);
+        addToIndex(outcomesByAgent, outcome.getAgentId(), outcome);
+        for (String stage : outcome.getFailedStages()) {
+            addToIndex(outcomesByFailedStage, stage, outcome);
+        }
+    }
+
+    private void unindex(OfferOutcome outcome) {
+        removeFromIndex(outcomesByPodInstance, outcome.getPodInstanceName(), outcome);
+        removeFromIndex(outcomesByAgent, outcome.getAgentId(), outcome);
+        for (String stage : outcome.getFailedStages()) {
+            removeFromIndex(outcomesByFailedStage, stage, outcome);
+        }
+    }
+
+    private static void addToIndex(Map<String, IndexedOutcomes> index, String key, OfferOutcome outcome) {
+        index.computeIfAbsent(key, k -> new IndexedOutcomes()).add(outcome);
+    }
+
+    private static void removeFromIndex(Map<String, IndexedOutcomes> index, String key, OfferOutcome outcome) {
+        IndexedOutcomes outcomes = index.get(key);
+        if (outcomes == null) {
+            return;
+        }
+        outcomes.remove(outcome);
+        if (outcomes.size() == 0) {
+            index.remove(key, outcomes);
+        }
+    }
+
+    private static Optional<IndexedOutcomes> narrowest(
+            Optional<IndexedOutcomes> current,
+            Optional<String> key,
+            Map<String, IndexedOutcomes> index) {
+        if (!key.isPresent()) {
+            return current;
+        }
+        IndexedOutcomes candidate = index.getOrDefault(key.get(), IndexedOutcomes.EMPTY);
+        return current.isPresent() && current.get().size() <= candidate.size() ? current : Optional.of(candidate);
+    }
+
+    /**
+     * Iterates over all retained outcomes, most recent first. Outcomes which are overwritten by newer outcomes during
+     * iteration are skipped.
+     */
+    private class RingIterator implements Iterator<OfferOutcome> {
+        private long sequence;
+        private final long oldestSequence;
+        private OfferOutcome next;
+
+        private RingIterator() {
+            long count = trackedCount.get();
+            this.sequence = count - 1;
+            this.oldestSequence = Math.max(0, count - capacity);
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public OfferOutcome next() {
+            OfferOutcome current = next;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null && sequence >= oldestSequence) {
+                Entry entry = entries.get(getSlot(sequence));
+                if (entry != null && entry.sequence == sequence) {
+                    next = entry.outcome;
+                }
+                --sequence;
+            }
+        }
+    }
 }
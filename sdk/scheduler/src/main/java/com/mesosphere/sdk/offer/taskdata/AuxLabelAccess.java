@@ -164,11 +164,7 @@ public class AuxLabelAccess {
     }
 
     private static Optional<String> getLabel(Protos.Labels labels, String key) {
-        if (labels.getLabelsCount() == 0) {
-            // Shortcut/optimization
-            return Optional.empty();
-        }
-        return Optional.ofNullable(LabelUtils.toMap(labels).get(key));
+        return LabelUtils.getValue(labels, key);
     }
 
     /**
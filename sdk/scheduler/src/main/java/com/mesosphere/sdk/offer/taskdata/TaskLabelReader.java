@@ -45,7 +45,7 @@ public class TaskLabelReader {
      * @throws NumberFormatException if parsing the index as an integer failed
      */
     public int getIndex() throws TaskException, NumberFormatException {
-        return Integer.parseInt(reader.getOrThrow(LabelConstants.TASK_INDEX_LABEL));
+        return reader.getDecodedOrThrow(LabelConstants.TASK_INDEX_LABEL, Integer::valueOf);
     }
 
     /**
@@ -89,7 +89,7 @@ public class TaskLabelReader {
      *                       an indicated target configuration
      */
     public UUID getTargetConfiguration() throws TaskException {
-        return UUID.fromString(reader.getOrThrow(LabelConstants.TARGET_CONFIGURATION_LABEL));
+        return reader.getDecodedOrThrow(LabelConstants.TARGET_CONFIGURATION_LABEL, UUID::fromString);
     }
 
     /**
@@ -127,8 +127,8 @@ public class TaskLabelReader {
      * be automatically overwritten when the TaskInfo is replaced.
      */
     public boolean isPermanentlyFailed() {
-        // null is false
-        return Boolean.valueOf(reader.getOptional(LabelConstants.PERMANENTLY_FAILED_LABEL).orElse(null));
+        // missing is false
+        return reader.getDecodedOptional(LabelConstants.PERMANENTLY_FAILED_LABEL, Boolean::valueOf).orElse(false);
     }
 
     /**
@@ -23,6 +23,9 @@ public class OfferQueue {
     private static final Duration DEFAULT_OFFER_WAIT = Duration.ofSeconds(5);
     private final Logger logger = LoggingUtils.getLogger(getClass());
     private final BlockingQueue<Protos.Offer> queue;
+    private final int capacity;
+    // Notified whenever offers are removed from the queue:
+    private final Object capacityMonitor = new Object();
 
     public OfferQueue() {
         this(DEFAULT_CAPACITY);
@@ -35,6 +38,7 @@ public class OfferQueue {
      */
     public OfferQueue(int capacity) {
         this.queue = capacity == 0 ? new LinkedBlockingQueue<>() : new LinkedBlockingQueue<>(capacity);
+        this.capacity = capacity;
     }
 
     /**
@@ -56,6 +60,9 @@ public class OfferQueue {
             logger.warn("Interrupted while waiting for offer in queue.");
         }
 
+        if (!offers.isEmpty()) {
+            notifyCapacity();
+        }
         return offers;
     }
 
@@ -77,6 +84,32 @@ public class OfferQueue {
         return queue.offer(offer);
     }
 
+    /**
+     * Waits until the queue has room for the provided number of Offers, or for the whole queue's capacity if fewer
+     * than that. This allows the source of Offers to be slowed down instead of having Offers be rejected by
+     * {@link #offer(Protos.Offer)}.
+     *
+     * @return true if the capacity is available, false if the timeout was reached first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitCapacity(int offerCount, Duration timeout) throws InterruptedException {
+        if (capacity == 0) {
+            return true;
+        }
+        int requiredCapacity = Math.min(offerCount, capacity);
+        long deadlineNanos = System.nanoTime() + timeout.toNanos();
+        synchronized (capacityMonitor) {
+            while (queue.remainingCapacity() < requiredCapacity) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    return false;
+                }
+                capacityMonitor.wait(remainingMillis);
+            }
+        }
+        return true;
+    }
+
     /**
      * This method removes an offer from the queue based on its OfferID.
      */
@@ -90,6 +123,13 @@ public class OfferQueue {
             logger.warn("Attempted to remove offer: '{}' but it was not present in the queue.", offerID.getValue());
         } else {
             logger.info("Removed offer: {}", offerID.getValue());
+            notifyCapacity();
+        }
+    }
+
+    private void notifyCapacity() {
+        synchronized (capacityMonitor) {
+            capacityMonitor.notifyAll();
         }
     }
 
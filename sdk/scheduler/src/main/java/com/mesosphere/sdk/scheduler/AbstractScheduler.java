@@ -5,9 +5,11 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.TextFormat;
 import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.offer.OfferUtils;
+import com.mesosphere.sdk.offer.RateLimitedLogger;
 import com.mesosphere.sdk.offer.evaluate.placement.IsLocalRegionRule;
 import com.mesosphere.sdk.queue.OfferQueue;
 import com.mesosphere.sdk.reconciliation.Reconciler;
+import com.mesosphere.sdk.scheduler.mesos.HttpMesos;
 import com.mesosphere.sdk.scheduler.plan.*;
 import com.mesosphere.sdk.scheduler.uninstall.UninstallScheduler;
 import com.mesosphere.sdk.specification.ServiceSpec;
@@ -19,6 +21,7 @@ import org.apache.mesos.Scheduler;
 import org.apache.mesos.SchedulerDriver;
 import org.slf4j.Logger;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -32,12 +35,19 @@ import java.util.stream.Collectors;
 public abstract class AbstractScheduler {
 
     private static final Logger LOGGER = LoggingUtils.getLogger(AbstractScheduler.class);
+    /** For messages which are logged on every offer cycle. */
+    private static final RateLimitedLogger CYCLE_LOGGER = new RateLimitedLogger(LOGGER);
+
+    // How long incoming offers may be held back while the offer queue is full, before they're enqueued regardless
+    // (and declined if the queue is still full).
+    private static final Duration OFFER_BACKPRESSURE_TIMEOUT = Duration.ofSeconds(10);
 
     protected final Protos.FrameworkInfo frameworkInfo;
     protected final FrameworkStore frameworkStore;
     protected final StateStore stateStore;
     protected final ConfigStore<ServiceSpec> configStore;
     protected final SchedulerConfig schedulerConfig;
+    protected final TaskKiller taskKiller;
 
     // Tracks whether apiServer has entered a started state. We avoid launching tasks until after the API server has
     // started, because when tasks launch they typically require access to ArtifactResource for config templates.
@@ -72,13 +82,15 @@ public abstract class AbstractScheduler {
             StateStore stateStore,
             ConfigStore<ServiceSpec> configStore,
             SchedulerConfig schedulerConfig,
-            Optional<PlanCustomizer> planCustomizer) {
+            Optional<PlanCustomizer> planCustomizer,
+            TaskKiller taskKiller) {
         this.frameworkInfo = frameworkInfo;
         this.frameworkStore = frameworkStore;
         this.stateStore = stateStore;
         this.configStore = configStore;
         this.schedulerConfig = schedulerConfig;
         this.planCustomizer = planCustomizer;
+        this.taskKiller = taskKiller;
     }
 
     /**
@@ -123,6 +135,15 @@ public abstract class AbstractScheduler {
         return this;
     }
 
+    /**
+     * Stops any background work which isn't tied to the Mesos driver, such as retrying task kills, and closes the
+     * scheduler's connections to DC/OS components. Should be called once the scheduler's driver has exited.
+     */
+    public void stop() {
+        taskKiller.close();
+        schedulerConfig.closeDcosHttpClients();
+    }
+
     /**
      * Returns a Mesos API {@link Scheduler} object to be registered with Mesos, or an empty {@link Optional} if Mesos
      * registration should not be performed.
@@ -236,7 +257,7 @@ public abstract class AbstractScheduler {
      * Implementation of Mesos' {@link Scheduler} interface.
      * Messages received from Mesos are forwarded to the parent {@link AbstractScheduler} instance.
      */
-    private class MesosScheduler implements Scheduler {
+    private class MesosScheduler implements Scheduler, HttpMesos.OfferFlowControl {
 
         // Mesos may call registered() multiple times in the lifespan of a Scheduler process, specifically when there's
         // master re-election. Avoid performing initialization multiple times, which would cause queues to be stuck.
@@ -267,7 +288,7 @@ public abstract class AbstractScheduler {
             LOGGER.info("Registered framework with frameworkId: {}", frameworkId.getValue());
             this.reviveManager = new ReviveManager();
             this.reconciler = new Reconciler(stateStore);
-            this.taskCleaner = new TaskCleaner(stateStore, multithreaded);
+            this.taskCleaner = new TaskCleaner(stateStore, taskKiller, multithreaded);
 
             try {
                 frameworkStore.storeFrameworkId(frameworkId);
@@ -339,6 +360,19 @@ public abstract class AbstractScheduler {
             }
         }
 
+        @Override
+        public void awaitOfferCapacity(int offerCount) {
+            try {
+                if (!offerQueue.awaitCapacity(offerCount, OFFER_BACKPRESSURE_TIMEOUT)) {
+                    LOGGER.warn("Offer queue still lacks capacity for {} offer{} after {}ms",
+                            offerCount, offerCount == 1 ? "" : "s", OFFER_BACKPRESSURE_TIMEOUT.toMillis());
+                }
+            } catch (InterruptedException e) {
+                LOGGER.warn("Interrupted while waiting for offer queue capacity");
+                Thread.currentThread().interrupt();
+            }
+        }
+
         @Override
         public void statusUpdate(SchedulerDriver driver, Protos.TaskStatus status) {
             LOGGER.info("Received status update for taskId={} state={} message={} protobuf={}",
@@ -354,7 +388,7 @@ public abstract class AbstractScheduler {
             }
 
             reconciler.update(status);
-            TaskKiller.update(status);
+            taskKiller.update(status);
             Metrics.record(status);
             taskCleaner.statusUpdate(status);
         }
@@ -402,7 +436,7 @@ public abstract class AbstractScheduler {
          * appear.
          */
         private void processQueuedOffers() {
-            LOGGER.info("Waiting for queued offers...");
+            CYCLE_LOGGER.info("Waiting for queued offers...");
             List<Protos.Offer> offers = offerQueue.takeAll();
             try {
                 if (offers.isEmpty() && !isInitialized.get()) {
@@ -430,19 +464,20 @@ public abstract class AbstractScheduler {
                 // Revive previously suspended offers, if necessary
                 Collection<Step> activeWorkSet = new HashSet<>(steps);
                 Collection<Step> inProgressSteps = getInProgressSteps(getPlanCoordinator());
-                LOGGER.info(
-                        "InProgress Steps: {}",
-                        inProgressSteps.stream()
-                                .map(step -> step.getMessage())
-                                .collect(Collectors.toList()));
+                CYCLE_LOGGER.info("InProgress Steps: {}", LoggingUtils.lazy(() -> inProgressSteps.stream()
+                        .map(step -> step.getMessage())
+                        .collect(Collectors.toList())
+                        .toString()));
                 activeWorkSet.addAll(inProgressSteps);
                 reviveManager.revive(activeWorkSet);
 
-                LOGGER.info("Processing {} offer{} against {} step{}:",
+                CYCLE_LOGGER.info("Processing {} offer{} against {} step{}",
                         offers.size(), offers.size() == 1 ? "" : "s",
                         steps.size(), steps.size() == 1 ? "" : "s");
-                for (int i = 0; i < offers.size(); ++i) {
-                    LOGGER.info("  {}: {}", i + 1, TextFormat.shortDebugString(offers.get(i)));
+                if (LOGGER.isDebugEnabled()) {
+                    for (int i = 0; i < offers.size(); ++i) {
+                        LOGGER.debug("  {}: {}", i + 1, TextFormat.shortDebugString(offers.get(i)));
+                    }
                 }
 
                 // Match offers with work (call into implementation)
@@ -460,12 +495,11 @@ public abstract class AbstractScheduler {
                             offers.stream()
                                     .map(offer -> offer.getId())
                                     .collect(Collectors.toList()));
-                    LOGGER.info("Processed {} queued offer{}. {} {} in progress: {}",
+                    CYCLE_LOGGER.info("Processed {} queued offer{}. {} {} in progress",
                             offers.size(),
                             offers.size() == 1 ? "" : "s",
                             offersInProgress.size(),
-                            offersInProgress.size() == 1 ? "offer remains" : "offers remain",
-                            offersInProgress.stream().map(Protos.OfferID::getValue).collect(Collectors.toList()));
+                            offersInProgress.size() == 1 ? "offer remains" : "offers remain");
                 }
             }
         }
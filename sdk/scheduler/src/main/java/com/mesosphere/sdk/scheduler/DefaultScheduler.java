@@ -40,6 +40,7 @@ public class DefaultScheduler extends AbstractScheduler {
     private final PlanCoordinator planCoordinator;
 
     private PlanScheduler planScheduler;
+    private final OfferEvaluator offerEvaluator;
 
     private final OfferOutcomeTracker offerOutcomeTracker;
 
@@ -81,9 +82,10 @@ public class DefaultScheduler extends AbstractScheduler {
             FrameworkStore frameworkStore,
             StateStore stateStore,
             ConfigStore<ServiceSpec> configStore,
+            TaskKiller taskKiller,
             ArtifactQueries.TemplateUrlFactory templateUrlFactory,
             Map<String, EndpointProducer> customEndpointProducers) throws ConfigStoreException {
-        super(frameworkInfo, frameworkStore, stateStore, configStore, schedulerConfig, planCustomizer);
+        super(frameworkInfo, frameworkStore, stateStore, configStore, schedulerConfig, planCustomizer, taskKiller);
         this.planCoordinator = planCoordinator;
         this.offerAccepter = getOfferAccepter(stateStore, serviceSpec, planCoordinator);
 
@@ -101,25 +103,23 @@ public class DefaultScheduler extends AbstractScheduler {
         this.healthResource = new HealthResource(
                 Arrays.asList(getDeploymentManager(planCoordinator), getRecoveryManager(planCoordinator)));
         this.resources.add(this.healthResource);
-        this.podResource = new PodResource(stateStore, configStore, serviceSpec.getName());
+        this.podResource = new PodResource(stateStore, configStore, taskKiller, serviceSpec.getName());
         this.resources.add(this.podResource);
         this.resources.add(new StateResource(frameworkStore, stateStore, new StringPropertyDeserializer()));
 
         this.offerOutcomeTracker = new OfferOutcomeTracker();
         this.resources.add(new OfferOutcomeResource(offerOutcomeTracker));
-        this.planScheduler = new DefaultPlanScheduler(
-                offerAccepter,
-                new OfferEvaluator(
-                        frameworkStore,
-                        stateStore,
-                        offerOutcomeTracker,
-                        serviceSpec.getName(),
-                        configStore.getTargetConfig(),
-                        templateUrlFactory,
-                        schedulerConfig,
-                        resourceNamespace,
-                        Capabilities.getInstance().supportsDefaultExecutor()),
-                stateStore);
+        this.offerEvaluator = new OfferEvaluator(
+                frameworkStore,
+                stateStore,
+                offerOutcomeTracker,
+                serviceSpec.getName(),
+                configStore.getTargetConfig(),
+                templateUrlFactory,
+                schedulerConfig,
+                resourceNamespace,
+                Capabilities.getInstance().supportsDefaultExecutor());
+        this.planScheduler = new DefaultPlanScheduler(offerAccepter, offerEvaluator, stateStore, taskKiller);
     }
 
     private static OfferAccepter getOfferAccepter(
@@ -182,10 +182,10 @@ public class DefaultScheduler extends AbstractScheduler {
             activeTasks.addAll(decomissionedTasks);
         }
 
-        killUnneededTasks(stateStore, activeTasks);
+        killUnneededTasks(activeTasks);
     }
 
-    private static void killUnneededTasks(StateStore stateStore, Set<String> taskToDeployNames) {
+    private void killUnneededTasks(Set<String> taskToDeployNames) {
         Set<Protos.TaskInfo> taskInfos = stateStore.fetchTasks().stream()
                 .filter(taskInfo -> !taskToDeployNames.contains(taskInfo.getName()))
                 .collect(Collectors.toSet());
@@ -207,7 +207,7 @@ public class DefaultScheduler extends AbstractScheduler {
             stateStore.storeTasks(Arrays.asList(taskInfo));
         }
 
-        taskIds.forEach(taskID -> TaskKiller.killTask(taskID));
+        taskIds.forEach(taskID -> taskKiller.killTask(taskID));
 
         for (Protos.TaskInfo taskInfo : stateStore.fetchTasks()) {
             GoalStateOverride.Status overrideStatus = stateStore.fetchGoalOverrideStatus(taskInfo.getName());
@@ -215,13 +215,21 @@ public class DefaultScheduler extends AbstractScheduler {
                 // Enabling or disabling an override was triggered, but the task kill wasn't processed so that the
                 // change in override could take effect. Kill the task so that it can enter (or exit) the override. The
                 // override status will then be marked IN_PROGRESS once we have received the terminal TaskStatus.
-                TaskKiller.killTask(taskInfo.getTaskId());
+                taskKiller.killTask(taskInfo);
             }
         }
     }
 
     @Override
     protected void processOffers(List<Protos.Offer> offers, Collection<Step> steps) {
+        // Start provisioning any TLS artifacts needed by the steps in the background, so that evaluation doesn't need
+        // to wait on the CA and secret store.
+        offerEvaluator.provisionTLSArtifacts(steps.stream()
+                .map(Step::getPodInstanceRequirement)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toList()));
+
         // See which offers are useful to the plans.
         List<Protos.OfferID> planOffers = new ArrayList<>();
         planOffers.addAll(planScheduler.resourceOffers(offers, steps));
@@ -244,7 +252,12 @@ public class DefaultScheduler extends AbstractScheduler {
 
         // Decline remaining offers.
         if (!unusedOffers.isEmpty()) {
-            OfferUtils.declineLong(unusedOffers);
+            if (offerEvaluator.hasPendingTLSProvisioning()) {
+                // Offers may have been rejected only because TLS artifacts weren't ready yet. Get them back soon.
+                OfferUtils.declineShort(unusedOffers);
+            } else {
+                OfferUtils.declineLong(unusedOffers);
+            }
         }
 
         if (offers.isEmpty()) {
@@ -98,6 +98,53 @@ public class Metrics {
         metrics.counter(DECLINE_LONG).inc(amount);
     }
 
+    // Startup
+    static final String STARTUP_PREFIX = "startup";
+
+    /**
+     * Records the duration of a stage of scheduler startup, as a metric of the form "startup.build".
+     */
+    public static void recordStartupDuration(String stage, long durationMs) {
+        metrics.timer(String.format("%s.%s", STARTUP_PREFIX, stage)).update(durationMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Standby
+    static final String STANDBY_TAKEOVER = "standby.takeover";
+    static final String STANDBY_SYNCED_CHANGES = "standby.synced_changes";
+
+    /**
+     * Records the time between a standby scheduler acquiring the lock and its API server being started.
+     */
+    public static void recordStandbyTakeover(long durationMs) {
+        metrics.timer(STANDBY_TAKEOVER).update(durationMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Increments the number of changes made by the active scheduler which were applied to a standby's state cache.
+     */
+    public static void incrementStandbySyncedChanges() {
+        metrics.counter(STANDBY_SYNCED_CHANGES).inc();
+    }
+
+    // Task kills
+    static final String OUTSTANDING_TASK_KILLS = "task_kills.outstanding";
+    static final String TASK_KILL_DURATION = "task_kills.time_to_dead";
+
+    /**
+     * Adjusts the number of tasks which have been enqueued for killing but not yet reported as dead, across all
+     * schedulers in the process.
+     */
+    public static void incrementOutstandingTaskKills(long amount) {
+        metrics.counter(OUTSTANDING_TASK_KILLS).inc(amount);
+    }
+
+    /**
+     * Records the time between a task kill being requested and the task being reported as dead.
+     */
+    public static void recordTaskKillDuration(long durationMs) {
+        metrics.timer(TASK_KILL_DURATION).update(durationMs, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * This class records counter metrics for all Mesos Operations performed by the scheduler.
      */
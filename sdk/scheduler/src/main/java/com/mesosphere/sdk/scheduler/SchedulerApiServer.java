@@ -48,6 +48,8 @@ public class SchedulerApiServer {
         ResourceConfig resourceConfig = new ResourceConfig(MultiPartFeature.class)
                 .registerInstances(new HashSet<>(resources));
         ServletHolder resourceHolder = new ServletHolder(new ServletContainer(resourceConfig));
+        // Allow resources to suspend requests, e.g. long-polls of endpoints:
+        resourceHolder.setAsyncSupported(true);
         context.addServlet(resourceHolder, "/*");
 
         final InstrumentedHandler handler = new InstrumentedHandler(Metrics.getRegistry());
@@ -40,9 +40,11 @@ import com.mesosphere.sdk.state.ConfigStoreException;
 import com.mesosphere.sdk.state.FrameworkStore;
 import com.mesosphere.sdk.state.StateStore;
 import com.mesosphere.sdk.state.StateStoreUtils;
+import com.mesosphere.sdk.storage.MemPersister;
 import com.mesosphere.sdk.storage.Persister;
 import com.mesosphere.sdk.storage.PersisterCache;
 import com.mesosphere.sdk.storage.PersisterException;
+import com.mesosphere.sdk.storage.PersisterUtils;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.mesos.Protos;
@@ -73,6 +75,13 @@ public class SchedulerBuilder {
     private PlanCustomizer planCustomizer;
     private Optional<String> namespace = Optional.empty();
     private Optional<ArtifactQueries.TemplateUrlFactory> templateUrlFactory = Optional.empty();
+    private boolean taskKillRetriesEnabled = true;
+
+    /**
+     * Created upon first use, so that a standby scheduler's {@link #warmUp()} populates the same instance. Upon
+     * takeover, it's revalidated against storage by {@link #build()}.
+     */
+    private ConfigStore<ServiceSpec> configStore;
 
     SchedulerBuilder(ServiceSpec serviceSpec, SchedulerConfig schedulerConfig) throws PersisterException {
         this(
@@ -177,6 +186,16 @@ public class SchedulerBuilder {
         return this;
     }
 
+    /**
+     * Disables background retries of task kills in the resulting scheduler instance, so that kills are only sent when
+     * they're requested. Only intended for tests, where retries would result in unexpected kill invocations.
+     */
+    @VisibleForTesting
+    public SchedulerBuilder disableTaskKillRetries() {
+        this.taskKillRetriesEnabled = false;
+        return this;
+    }
+
     /**
      * Configures the resulting scheduler instance with a region constraint.
      */
@@ -246,6 +265,14 @@ public class SchedulerBuilder {
      * @throws IllegalArgumentException if validating the provided configuration failed
      */
     public AbstractScheduler build() {
+        return build(new StartupTimer());
+    }
+
+    /**
+     * Creates a new Mesos scheduler instance as with {@link #build()}, recording the durations of the stages of the
+     * build to the provided {@link StartupTimer}.
+     */
+    AbstractScheduler build(StartupTimer startupTimer) {
         // NOTE: we specifically avoid accessing the provided persister before build() is called.
         // This is to ensure that upstream has a chance to e.g. lock it via CuratorLocker.
 
@@ -254,10 +281,15 @@ public class SchedulerBuilder {
         String namespaceStr = namespace.orElse("");
         FrameworkStore frameworkStore = new FrameworkStore(persister);
         StateStore stateStore = new StateStore(persister, namespaceStr);
-        ConfigStore<ServiceSpec> configStore = new ConfigStore<>(
-                DefaultServiceSpec.getConfigurationFactory(serviceSpec), persister, namespaceStr);
+        if (this.configStore != null) {
+            revalidateWarmedUpConfigStore(startupTimer);
+        }
+        ConfigStore<ServiceSpec> configStore = getConfigStore(namespaceStr);
 
         Protos.FrameworkInfo frameworkInfo = getFrameworkInfo(serviceSpec, frameworkStore);
+        TaskKiller taskKiller = taskKillRetriesEnabled ?
+                TaskKiller.withRetries(Driver::getDriver) :
+                TaskKiller.withoutRetries(Driver::getDriver);
 
         if (schedulerConfig.isUninstallEnabled()) {
             // FRAMEWORK UNINSTALL: The scheduler and all its service(s) are being uninstalled. Launch this service in
@@ -269,7 +301,8 @@ public class SchedulerBuilder {
                     stateStore,
                     configStore,
                     schedulerConfig,
-                    Optional.ofNullable(planCustomizer));
+                    Optional.ofNullable(planCustomizer),
+                    taskKiller);
         }
 
         if (StateStoreUtils.isUninstalling(stateStore)) {
@@ -284,7 +317,8 @@ public class SchedulerBuilder {
                         stateStore,
                         configStore,
                         schedulerConfig,
-                        Optional.ofNullable(planCustomizer));
+                        Optional.ofNullable(planCustomizer),
+                        taskKiller);
             } else {
                 // This is an illegal state for a single-service scheduler. SchedulerConfig's uninstall bit should have
                 // also been enabled. If we got here, it means that the user likely tampered with the scheduler env
@@ -297,7 +331,8 @@ public class SchedulerBuilder {
         }
 
         try {
-            return getDefaultScheduler(frameworkInfo, frameworkStore, stateStore, configStore);
+            return getDefaultScheduler(
+                    frameworkInfo, frameworkStore, stateStore, configStore, taskKiller, startupTimer);
         } catch (ConfigStoreException e) {
             logger.error("Failed to construct scheduler.", e);
             SchedulerUtils.hardExit(SchedulerErrorCode.INITIALIZATION_FAILURE);
@@ -305,6 +340,61 @@ public class SchedulerBuilder {
         }
     }
 
+    /**
+     * Prepares for a later call to {@link #build()} without writing to the persister, for use by a standby scheduler
+     * while another scheduler holds the lock. The stored configurations are deserialized and retained, and plans are
+     * generated from the target configuration against a snapshot of the current state, which is then discarded.
+     *
+     * <p>The plans themselves aren't retained: {@link #build()} may update the target configuration, and the state
+     * which the plans reflect may continue to change until the active scheduler has exited.
+     */
+    void warmUp() {
+        String namespaceStr = namespace.orElse("");
+        ConfigStore<ServiceSpec> configStore = getConfigStore(namespaceStr);
+        try {
+            if (configStore.list().isEmpty()) {
+                logger.info("No prior configuration to warm up");
+                return;
+            }
+            configStore.prefetch(configStore.list());
+            ServiceSpec targetServiceSpec = configStore.fetch(configStore.getTargetConfig());
+            // Any repairs made by the StateStore upon creation only affect the snapshot.
+            StateStore snapshotStateStore = new StateStore(
+                    new MemPersister(MemPersister.LockMode.ENABLED, PersisterUtils.getAllData(persister)),
+                    namespaceStr);
+            Collection<Plan> plans = getPlans(snapshotStateStore, configStore, targetServiceSpec, yamlPlans);
+            logger.info("Warmed up {} plan{} for target configuration",
+                    plans.size(), plans.size() == 1 ? "" : "s");
+        } catch (Exception e) {
+            // This is best-effort: any problems with the configuration are handled when the scheduler is built.
+            logger.warn("Failed to warm up scheduler, continuing without", e);
+        }
+    }
+
+    /**
+     * Discards anything in the {@link ConfigStore} populated by {@link #warmUp()} which relies on this scheduler having
+     * been the only writer, as other schedulers may have updated or cleaned up configurations in the meantime. Falls
+     * back to a new {@link ConfigStore} if that fails.
+     */
+    private void revalidateWarmedUpConfigStore(StartupTimer startupTimer) {
+        startupTimer.time("config_revalidate", () -> {
+            try {
+                configStore.revalidate();
+            } catch (ConfigStoreException e) {
+                logger.warn("Failed to revalidate warmed up configurations, discarding them", e);
+                configStore = null;
+            }
+        });
+    }
+
+    private ConfigStore<ServiceSpec> getConfigStore(String namespaceStr) {
+        if (configStore == null) {
+            configStore = new ConfigStore<>(
+                    DefaultServiceSpec.getConfigurationFactory(serviceSpec), persister, namespaceStr);
+        }
+        return configStore;
+    }
+
     /**
      * Creates a new scheduler instance with the provided values or their defaults.
      *
@@ -315,12 +405,15 @@ public class SchedulerBuilder {
             Protos.FrameworkInfo frameworkInfo,
             FrameworkStore frameworkStore,
             StateStore stateStore,
-            ConfigStore<ServiceSpec> configStore) throws ConfigStoreException {
-
+            ConfigStore<ServiceSpec> configStore,
+            TaskKiller taskKiller,
+            StartupTimer startupTimer) throws ConfigStoreException {
         // Determine whether deployment had previously completed BEFORE we update the config.
         // Plans may be generated from the config content.
-        boolean hasCompletedDeployment = StateStoreUtils.getDeploymentWasCompleted(stateStore);
-        if (!hasCompletedDeployment) {
+        boolean hasCompletedDeployment = startupTimer.time("prior_deployment_check", () -> {
+            if (StateStoreUtils.getDeploymentWasCompleted(stateStore)) {
+                return true;
+            }
             try {
                 // Check for completion against the PRIOR service spec. For example, if the new service spec has n+1
                 // nodes, then we want to check that the prior n nodes had successfully deployed.
@@ -330,40 +423,50 @@ public class SchedulerBuilder {
                 if (deployPlan.isPresent() && deployPlan.get().isComplete()) {
                     logger.info("Marking deployment as having been previously completed");
                     StateStoreUtils.setDeploymentWasCompleted(stateStore);
-                    hasCompletedDeployment = true;
+                    return true;
                 }
             } catch (ConfigStoreException e) {
                 // This is expected during initial deployment, when there is no prior configuration.
                 logger.info("Unable to retrieve last configuration. Assuming that no prior deployment has completed");
             }
-        }
+            return false;
+        });
 
-        List<PodSpec> pods = serviceSpec.getPods().stream()
-                .map(podSpec -> updatePodPlacement(podSpec))
-                .collect(Collectors.toList());
-        serviceSpec = DefaultServiceSpec.newBuilder(serviceSpec).pods(pods).build();
-
-        // Update/validate config as needed to reflect the new service spec:
-        Collection<ConfigValidator<ServiceSpec>> configValidators = new ArrayList<>();
-        configValidators.addAll(DefaultConfigValidators.getValidators(schedulerConfig));
-        configValidators.addAll(customConfigValidators);
-        final ConfigurationUpdater.UpdateResult configUpdateResult =
-                updateConfig(serviceSpec, stateStore, configStore, configValidators);
-        if (!configUpdateResult.getErrors().isEmpty()) {
-            logger.warn("Failed to update configuration due to validation errors: {}", configUpdateResult.getErrors());
-            try {
-                // If there were errors, stick with the last accepted target configuration.
-                serviceSpec = configStore.fetch(configStore.getTargetConfig());
-            } catch (ConfigStoreException e) {
-                // Uh oh. Bail.
-                logger.error("Failed to retrieve previous target configuration", e);
-                throw new IllegalArgumentException(e);
+        final ConfigurationUpdater.UpdateResult configUpdateResult = startupTimer.time("config_update", () -> {
+            List<PodSpec> pods = serviceSpec.getPods().stream()
+                    .map(podSpec -> updatePodPlacement(podSpec))
+                    .collect(Collectors.toList());
+            serviceSpec = DefaultServiceSpec.newBuilder(serviceSpec).pods(pods).build();
+
+            // Update/validate config as needed to reflect the new service spec:
+            Collection<ConfigValidator<ServiceSpec>> configValidators = new ArrayList<>();
+            configValidators.addAll(DefaultConfigValidators.getValidators(schedulerConfig));
+            configValidators.addAll(customConfigValidators);
+            ConfigurationUpdater.UpdateResult result =
+                    updateConfig(serviceSpec, stateStore, configStore, configValidators);
+            if (!result.getErrors().isEmpty()) {
+                logger.warn("Failed to update configuration due to validation errors: {}", result.getErrors());
+                try {
+                    // If there were errors, stick with the last accepted target configuration.
+                    serviceSpec = configStore.fetch(configStore.getTargetConfig());
+                } catch (ConfigStoreException e) {
+                    // Uh oh. Bail.
+                    logger.error("Failed to retrieve previous target configuration", e);
+                    throw new IllegalArgumentException(e);
+                }
             }
-        }
-
-        // Now that a ServiceSpec has been chosen, generate the plans.
-        Collection<Plan> plans = getPlans(stateStore, configStore, serviceSpec, yamlPlans);
-        plans = selectDeployPlan(plans, hasCompletedDeployment);
+            return result;
+        });
+
+        // Now that a ServiceSpec has been chosen, generate the plans. The decommission plan is generated first, rather
+        // than concurrently with the others: generating it may update the state of the tasks being decommissioned,
+        // which the other plans read when determining the status of their steps.
+        Optional<PlanManager> decommissionPlanManager = startupTimer.time(
+                "decommission_plan", () -> getDecommissionPlanManager(stateStore, taskKiller));
+        Collection<Plan> plans = startupTimer.time("plans", () -> {
+            Collection<Plan> generatedPlans = getPlans(stateStore, configStore, serviceSpec, yamlPlans);
+            return selectDeployPlan(generatedPlans, hasCompletedDeployment);
+        });
         Optional<Plan> deployPlan = getDeployPlan(plans);
         if (!deployPlan.isPresent()) {
             throw new IllegalArgumentException("No deploy plan provided: " + plans);
@@ -384,7 +487,6 @@ public class SchedulerBuilder {
                 stateStore,
                 configStore,
                 plans);
-        Optional<PlanManager> decommissionPlanManager = getDecommissionPlanManager(stateStore);
         PlanCoordinator planCoordinator = buildPlanCoordinator(
                 serviceSpec.getName(),
                 deploymentPlanManager,
@@ -403,6 +505,7 @@ public class SchedulerBuilder {
                 frameworkStore,
                 stateStore,
                 configStore,
+                taskKiller,
                 templateUrlFactory.orElse(ArtifactResource.getUrlFactory(serviceSpec.getName())),
                 endpointProducers);
     }
@@ -441,8 +544,9 @@ public class SchedulerBuilder {
                 overrideRecoveryPlanManagers);
     }
 
-    private Optional<PlanManager> getDecommissionPlanManager(StateStore stateStore) {
-        DecommissionPlanFactory decommissionPlanFactory = new DecommissionPlanFactory(serviceSpec, stateStore);
+    private Optional<PlanManager> getDecommissionPlanManager(StateStore stateStore, TaskKiller taskKiller) {
+        DecommissionPlanFactory decommissionPlanFactory =
+                new DecommissionPlanFactory(serviceSpec, stateStore, taskKiller);
         Optional<Plan> decommissionPlan = decommissionPlanFactory.getPlan();
         if (decommissionPlan.isPresent()) {
             return Optional.of(
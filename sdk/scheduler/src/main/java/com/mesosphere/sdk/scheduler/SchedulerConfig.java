@@ -2,7 +2,9 @@ package com.mesosphere.sdk.scheduler;
 
 import com.mesosphere.sdk.offer.Constants;
 import com.mesosphere.sdk.state.GoalStateOverride;
+import org.apache.http.client.methods.HttpPut;
 import org.apache.http.impl.client.LaxRedirectStrategy;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.mesos.Protos.Credential;
 import org.bouncycastle.util.io.pem.PemReader;
 import org.json.JSONObject;
@@ -82,7 +84,7 @@ public class SchedulerConfig {
      * token refresh.
      */
     private static final String AUTH_TOKEN_REFRESH_THRESHOLD_S_ENV = "AUTH_TOKEN_REFRESH_THRESHOLD_S";
-    /** The default number of seconds to set a connection timeout when refreshing an auth token. */
+    /** The default number of seconds to wait for an auth token refresh, including for a pooled connection. */
     private static final int DEFAULT_AUTH_TOKEN_REFRESH_TIMEOUT_S = 30;
     /** The default number of seconds before auth token expiration that will trigger auth token refresh. */
     private static final int DEFAULT_AUTH_TOKEN_REFRESH_THRESHOLD_S = 30;
@@ -106,6 +108,12 @@ public class SchedulerConfig {
      */
     private static final String DISABLE_STATE_CACHE_ENV = "DISABLE_STATE_CACHE";
 
+    /**
+     * Controls whether the scheduler waits for the ZK lock as a hot standby, rather than exiting if the lock isn't
+     * acquired promptly (disabled by default). If this envvar is set (to anything at all), standby mode is enabled.
+     */
+    private static final String ENABLE_STANDBY_ENV = "ENABLE_STANDBY";
+
     /**
      * When a port named {@code api} is added to the Marathon app definition for the scheduler, marathon should create
      * an envvar with this name in the scheduler env. This is preferred over using e.g. the {@code PORT0} envvar which
@@ -154,6 +162,12 @@ public class SchedulerConfig {
      */
     private static final String MESOS_API_VERSION_ENV = "MESOS_API_VERSION";
 
+    /**
+     * Environment variable for talking to Mesos via the built-in V1 HTTP API client instead of libmesos, against the
+     * provided master URL, e.g. "http://leader.mesos:5050".
+     */
+    private static final String MESOS_HTTP_DRIVER_URL_ENV = "MESOS_HTTP_DRIVER_URL";
+
     /**
      * Environment variables for configuring goal state override behavior.
      */
@@ -185,6 +199,22 @@ public class SchedulerConfig {
 
     private final EnvStore envStore;
 
+    /**
+     * The connection pool which is shared by the DC/OS HTTP clients of this scheduler. Lazily created on first use, and
+     * shut down by {@link #closeDcosHttpClients()}.
+     */
+    private PoolingHttpClientConnectionManager dcosConnectionManager;
+
+    /**
+     * Lazily created on first use, see {@link #getDcosHttpExecutor()}.
+     */
+    private DcosHttpExecutor dcosHttpExecutor;
+
+    /**
+     * Lazily created on first use, see {@link #getDcosAuthTokenProvider()}.
+     */
+    private TokenProvider dcosAuthTokenProvider;
+
     private SchedulerConfig(Map<String, String> flagMap) {
         this.envStore = new EnvStore(flagMap);
     }
@@ -250,6 +280,10 @@ public class SchedulerConfig {
         return !envStore.isPresent(DISABLE_STATE_CACHE_ENV);
     }
 
+    public boolean isStandbyEnabled() {
+        return envStore.isPresent(ENABLE_STANDBY_ENV);
+    }
+
     public boolean isUninstallEnabled() {
         return envStore.isPresent(SDK_UNINSTALL);
     }
@@ -263,11 +297,59 @@ public class SchedulerConfig {
         return envStore.isPresent(SIDECHANNEL_AUTH_ENV_NAME);
     }
 
+    /**
+     * Returns an authenticated HTTP executor for talking to DC/OS cluster components such as the secret store and CA.
+     * The executor is created on first use and then shared by all callers, so that its auth token and its pooled
+     * connections are reused. Throws an exception if the local environment doesn't provide the needed auth
+     * information (e.g. on a DC/OS Open cluster).
+     */
+    public synchronized DcosHttpExecutor getDcosHttpExecutor() throws IOException {
+        if (dcosHttpExecutor == null) {
+            dcosHttpExecutor = new DcosHttpExecutor(new DcosHttpClientBuilder(getDcosConnectionManager())
+                    .setTokenProvider(getDcosAuthTokenProvider())
+                    .setRedirectStrategy(new LaxRedirectStrategy() {
+                        protected boolean isRedirectable(String method) {
+                            // Also treat PUT calls as redirectable
+                            return method.equalsIgnoreCase(HttpPut.METHOD_NAME) || super.isRedirectable(method);
+                        }
+                    }));
+        }
+        return dcosHttpExecutor;
+    }
+
+    /**
+     * Shuts down the connections of the HTTP executor and token provider returned by {@link #getDcosHttpExecutor()}
+     * and {@link #getDcosAuthTokenProvider()}. Any later calls to those methods return new instances.
+     */
+    public synchronized void closeDcosHttpClients() {
+        if (dcosConnectionManager != null) {
+            dcosConnectionManager.shutdown();
+            dcosConnectionManager = null;
+        }
+        dcosHttpExecutor = null;
+        dcosAuthTokenProvider = null;
+    }
+
+    private synchronized PoolingHttpClientConnectionManager getDcosConnectionManager() {
+        if (dcosConnectionManager == null) {
+            dcosConnectionManager = DcosHttpClientBuilder.newConnectionManager();
+        }
+        return dcosConnectionManager;
+    }
+
     /**
      * Returns a token provider which may be used to retrieve DC/OS JWT auth tokens, or throws an exception if the local
-     * environment doesn't provide the needed information (e.g. on a DC/OS Open cluster)
+     * environment doesn't provide the needed information (e.g. on a DC/OS Open cluster). The provider is created on
+     * first use and then shared by all callers, so that they all use the same cached token.
      */
-    public TokenProvider getDcosAuthTokenProvider() throws IOException {
+    public synchronized TokenProvider getDcosAuthTokenProvider() throws IOException {
+        if (dcosAuthTokenProvider == null) {
+            dcosAuthTokenProvider = createDcosAuthTokenProvider();
+        }
+        return dcosAuthTokenProvider;
+    }
+
+    private TokenProvider createDcosAuthTokenProvider() throws IOException {
         JSONObject serviceAccountObject = new JSONObject(envStore.getRequired(SIDECHANNEL_AUTH_ENV_NAME));
         PemReader pemReader = new PemReader(new StringReader(serviceAccountObject.getString("private_key")));
         try {
@@ -278,7 +360,7 @@ public class SchedulerConfig {
 
             ServiceAccountIAMTokenClient serviceAccountIAMTokenProvider =
                     new ServiceAccountIAMTokenClient(
-                            new DcosHttpExecutor(new DcosHttpClientBuilder()
+                            new DcosHttpExecutor(new DcosHttpClientBuilder(getDcosConnectionManager())
                                     .setDefaultConnectionTimeout(DEFAULT_AUTH_TOKEN_REFRESH_TIMEOUT_S)
                                     .setRedirectStrategy(new LaxRedirectStrategy())),
                             serviceAccountObject.getString("uid"),
@@ -287,7 +369,10 @@ public class SchedulerConfig {
             Duration authTokenRefreshThreshold = Duration.ofSeconds(envStore.getOptionalInt(
                     AUTH_TOKEN_REFRESH_THRESHOLD_S_ENV, DEFAULT_AUTH_TOKEN_REFRESH_THRESHOLD_S));
 
-            return new CachedTokenProvider(serviceAccountIAMTokenProvider, authTokenRefreshThreshold);
+            return new CachedTokenProvider(
+                    serviceAccountIAMTokenProvider,
+                    authTokenRefreshThreshold,
+                    Duration.ofSeconds(DEFAULT_AUTH_TOKEN_REFRESH_TIMEOUT_S));
         } catch (InvalidKeySpecException e) {
             throw new IllegalArgumentException(e);
         } catch (NoSuchAlgorithmException e) {
@@ -346,6 +431,20 @@ public class SchedulerConfig {
         return envStore.getRequired(MESOS_API_VERSION_ENV);
     }
 
+    /**
+     * Returns whether the built-in Mesos V1 HTTP API client should be used instead of libmesos.
+     */
+    public boolean isMesosHttpDriverEnabled() {
+        return envStore.isPresent(MESOS_HTTP_DRIVER_URL_ENV);
+    }
+
+    /**
+     * Returns the base URL of the Mesos master to be used by the built-in Mesos V1 HTTP API client.
+     */
+    public String getMesosHttpDriverUrl() {
+        return envStore.getRequired(MESOS_HTTP_DRIVER_URL_ENV);
+    }
+
     /**
      * Returns the command to be run when pausing a Task.
      */
@@ -4,19 +4,32 @@ import com.google.protobuf.ByteString;
 import com.google.protobuf.TextFormat;
 import com.mesosphere.mesos.HTTPAdapter.MesosToSchedulerDriverAdapter;
 import com.mesosphere.mesos.protobuf.EvolverDevolver;
+import com.google.common.annotations.VisibleForTesting;
 import com.mesosphere.sdk.dcos.Capabilities;
+import com.mesosphere.sdk.dcos.auth.TokenProvider;
 import com.mesosphere.sdk.offer.LoggingUtils;
+import com.mesosphere.sdk.scheduler.mesos.HttpMesos;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.mesos.MesosSchedulerDriver;
 import org.apache.mesos.Protos.Credential;
 import org.apache.mesos.Protos.FrameworkInfo;
+import org.apache.mesos.Protos.Status;
 import org.apache.mesos.Scheduler;
 import org.apache.mesos.SchedulerDriver;
 import org.apache.mesos.v1.scheduler.Mesos;
 import org.apache.mesos.v1.scheduler.V0Mesos;
 import org.slf4j.Logger;
 
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
 /**
  * Factory class for creating {@link MesosSchedulerDriver}s.
  */
@@ -87,6 +100,9 @@ public class SchedulerDriverFactory {
                     scheduler, TextFormat.shortDebugString(frameworkInfo), masterUrl);
             credential = null;
         }
+        if (schedulerConfig.isMesosHttpDriverEnabled()) {
+            return createHttpDriver(scheduler, frameworkInfo, masterUrl, credential, schedulerConfig);
+        }
         return createInternal(scheduler, frameworkInfo, masterUrl, credential, schedulerConfig.getMesosApiVersion());
     }
 
@@ -139,6 +155,88 @@ public class SchedulerDriverFactory {
         };
     }
 
+    /**
+     * Returns a driver which talks to Mesos via the built-in {@link HttpMesos} client, rather than via libmesos.
+     * If the provided {@link Scheduler} implements {@link HttpMesos.OfferFlowControl}, it's used to apply backpressure
+     * to incoming offers.
+     */
+    protected SchedulerDriver createHttpDriver(
+            final Scheduler scheduler,
+            final FrameworkInfo frameworkInfo,
+            final String masterUrl,
+            final Credential credential,
+            final SchedulerConfig schedulerConfig) {
+        URI httpDriverUri;
+        try {
+            httpDriverUri = new URL(schedulerConfig.getMesosHttpDriverUrl()).toURI();
+        } catch (MalformedURLException | URISyntaxException e) {
+            throw new IllegalArgumentException(
+                    "Invalid Mesos HTTP driver URL: " + schedulerConfig.getMesosHttpDriverUrl(), e);
+        }
+        HttpMesos.AuthorizationProvider authorizationProvider = getAuthorizationProvider(credential, schedulerConfig);
+        HttpMesos.OfferFlowControl offerFlowControl = scheduler instanceof HttpMesos.OfferFlowControl
+                ? (HttpMesos.OfferFlowControl) scheduler
+                : offerCount -> { };
+        LOGGER.info("Using Mesos V1 HTTP API client against {}", httpDriverUri);
+
+        return new MesosToSchedulerDriverAdapter(scheduler, frameworkInfo, masterUrl, true) {
+            // Guarded by the adapter's lock, which it holds while starting and stopping:
+            private HttpMesos httpMesos;
+
+            @Override
+            protected Mesos startInternal() {
+                httpMesos = new HttpMesos(this, httpDriverUri, authorizationProvider, offerFlowControl).start();
+                return httpMesos;
+            }
+
+            @Override
+            public synchronized Status stop(boolean failover) {
+                // Any TEARDOWN is queued by the adapter, and is sent before the client is closed.
+                Status status = super.stop(failover);
+                closeHttpMesos();
+                return status;
+            }
+
+            @Override
+            public synchronized Status abort() {
+                Status status = super.abort();
+                closeHttpMesos();
+                return status;
+            }
+
+            private void closeHttpMesos() {
+                if (httpMesos != null) {
+                    httpMesos.close();
+                    httpMesos = null;
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the {@code Authorization} header to use against the Mesos V1 HTTP API: HTTP basic auth when a secret
+     * was provided, a DC/OS service account token for sidechannel auth, or nothing if no credential is used.
+     */
+    @VisibleForTesting
+    static HttpMesos.AuthorizationProvider getAuthorizationProvider(
+            final Credential credential, final SchedulerConfig schedulerConfig) {
+        if (credential == null) {
+            return Optional::empty;
+        }
+        if (credential.hasSecret()) {
+            String basicAuth = "Basic " + Base64.getEncoder().encodeToString(
+                    (credential.getPrincipal() + ":" + credential.getSecret()).getBytes(StandardCharsets.UTF_8));
+            return () -> Optional.of(basicAuth);
+        }
+        TokenProvider tokenProvider;
+        try {
+            tokenProvider = schedulerConfig.getDcosAuthTokenProvider();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create DC/OS token provider for sidechannel auth", e);
+        }
+        return () -> Optional.of("token=" + tokenProvider.getToken().getToken());
+    }
+
     /**
      * Extracts the Principal name from the provided {@link FrameworkInfo}, or throws an
      * {@link IllegalArgumentException} (mentioning the provided {@code authType}) if the Principal
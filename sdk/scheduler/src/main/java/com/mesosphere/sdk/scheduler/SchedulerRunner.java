@@ -1,7 +1,9 @@
 package com.mesosphere.sdk.scheduler;
 
 import com.google.protobuf.TextFormat;
+import com.mesosphere.sdk.curator.CuratorCacheSync;
 import com.mesosphere.sdk.curator.CuratorLocker;
+import com.mesosphere.sdk.curator.CuratorPersister;
 import com.mesosphere.sdk.generated.SDKBuildInfo;
 import com.mesosphere.sdk.http.endpoints.HealthResource;
 import com.mesosphere.sdk.http.endpoints.PlansResource;
@@ -16,6 +18,8 @@ import com.mesosphere.sdk.specification.DefaultServiceSpec;
 import com.mesosphere.sdk.specification.ServiceSpec;
 import com.mesosphere.sdk.specification.yaml.RawServiceSpec;
 import com.mesosphere.sdk.state.SchemaVersionStore;
+import com.mesosphere.sdk.storage.Persister;
+import com.mesosphere.sdk.storage.PersisterCache;
 import com.mesosphere.sdk.storage.PersisterException;
 import com.mesosphere.sdk.storage.PersisterUtils;
 
@@ -28,6 +32,7 @@ import org.slf4j.Logger;
 import java.io.File;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Class which sets up and executes the correct {@link AbstractScheduler} instance.
@@ -105,32 +110,80 @@ public class SchedulerRunner implements Runnable {
      */
     @Override
     public void run() {
+        StartupTimer startupTimer = new StartupTimer();
+
+        // Reading the environment and configuring metrics don't touch the persister, so they're done while waiting
+        // for the lock. The lock may take a while to acquire if a prior scheduler instance has yet to exit.
+        CompletableFuture<SchedulerConfig> schedulerConfigFuture = startupTimer.timeAsync("config_env", () -> {
+            SchedulerConfig schedulerConfig = SchedulerConfig.fromEnv();
+            Metrics.configureStatsd(schedulerConfig);
+            return schedulerConfig;
+        });
+
         CuratorLocker locker = new CuratorLocker(schedulerBuilder.getServiceSpec());
 
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             LOGGER.info("Shutdown initiated, releasing curator lock");
             locker.unlock();
         }));
-        locker.lock();
 
-        new SchemaVersionStore(schedulerBuilder.getPersister()).check(SUPPORTED_SCHEMA_VERSION_SINGLE_SERVICE);
+        Persister persister = schedulerBuilder.getPersister();
+        Optional<CuratorCacheSync> standbySync = getStandbySync(persister);
+        if (standbySync.isPresent()) {
+            waitAsStandby(locker, standbySync.get());
+            // Startup is timed from the takeover, excluding the time spent in standby.
+            startupTimer.restart();
+            startupTimer.time("standby_catch_up", () -> {
+                try {
+                    standbySync.get().catchUp();
+                } catch (Exception e) {
+                    throw new IllegalStateException("Failed to catch up with changes made before takeover", e);
+                } finally {
+                    standbySync.get().close();
+                }
+            });
+        } else {
+            startupTimer.time("lock", locker::lock);
+            if (persister instanceof PersisterCache) {
+                startupTimer.time("cache_load", () -> {
+                    try {
+                        ((PersisterCache) persister).load();
+                    } catch (PersisterException e) {
+                        throw new IllegalStateException("Failed to load persister cache", e);
+                    }
+                });
+            }
+        }
+
+        startupTimer.time("schema_check",
+                () -> new SchemaVersionStore(persister).check(SUPPORTED_SCHEMA_VERSION_SINGLE_SERVICE));
 
-        SchedulerConfig schedulerConfig = SchedulerConfig.fromEnv();
-        Metrics.configureStatsd(schedulerConfig);
-        AbstractScheduler scheduler = schedulerBuilder.build();
-        scheduler.start();
+        SchedulerConfig schedulerConfig = StartupTimer.join(schedulerConfigFuture);
+        AbstractScheduler scheduler = startupTimer.time("build", () -> schedulerBuilder.build(startupTimer));
         Optional<Scheduler> mesosScheduler = scheduler.getMesosScheduler();
         if (mesosScheduler.isPresent()) {
-            SchedulerApiServer apiServer = new SchedulerApiServer(schedulerConfig, scheduler.getResources());
+            // Setting up the API server's resources is independent of starting the scheduler's internal threads.
+            CompletableFuture<SchedulerApiServer> apiServerFuture = startupTimer.timeAsync(
+                    "api_server_init", () -> new SchedulerApiServer(schedulerConfig, scheduler.getResources()));
+            startupTimer.time("scheduler_start", () -> {
+                scheduler.start();
+            });
+            SchedulerApiServer apiServer = StartupTimer.join(apiServerFuture);
+            long apiServerStartMs = System.currentTimeMillis();
             apiServer.start(new AbstractLifeCycle.AbstractLifeCycleListener() {
                 @Override
                 public void lifeCycleStarted(LifeCycle event) {
                     scheduler.markApiServerStarted();
+                    startupTimer.record("api_server_start", System.currentTimeMillis() - apiServerStartMs);
+                    long totalMs = startupTimer.finish();
+                    if (standbySync.isPresent()) {
+                        Metrics.recordStandbyTakeover(totalMs);
+                    }
                 }
             });
 
             runScheduler(
-                    scheduler.frameworkInfo,
+                    scheduler,
                     mesosScheduler.get(),
                     schedulerBuilder.getServiceSpec(),
                     schedulerBuilder.getSchedulerConfig());
@@ -185,22 +238,58 @@ public class SchedulerRunner implements Runnable {
                 @Override
                 public void lifeCycleStarted(LifeCycle event) {
                     LOGGER.info("Started trivially healthy API server.");
+                    startupTimer.finish();
                 }
             });
         }
     }
 
+    /**
+     * Returns a sync for keeping the persister cache up to date while in standby, or an empty {@link Optional} if
+     * standby mode isn't enabled or isn't supported by the persister.
+     */
+    private Optional<CuratorCacheSync> getStandbySync(Persister persister) {
+        if (!schedulerBuilder.getSchedulerConfig().isStandbyEnabled()) {
+            return Optional.empty();
+        }
+        if (persister instanceof PersisterCache
+                && ((PersisterCache) persister).getPersister() instanceof CuratorPersister) {
+            return Optional.of(new CuratorCacheSync(
+                    (CuratorPersister) ((PersisterCache) persister).getPersister(), (PersisterCache) persister));
+        }
+        LOGGER.warn("Standby mode requires the state cache to be enabled, starting without standby");
+        return Optional.empty();
+    }
+
+    /**
+     * Waits for the lock as a hot standby: the persister cache is kept in sync with changes made by the active
+     * scheduler, and the scheduler is warmed up, so that this scheduler can take over as soon as the lock is released.
+     */
+    private void waitAsStandby(CuratorLocker locker, CuratorCacheSync standbySync) {
+        LOGGER.info("Starting in standby mode");
+        try {
+            standbySync.start();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to start syncing persister cache", e);
+        }
+        schedulerBuilder.warmUp();
+        locker.lockWhenAvailable();
+        LOGGER.info("Taking over from standby");
+    }
+
     private static void runScheduler(
-            Protos.FrameworkInfo frameworkInfo,
+            AbstractScheduler scheduler,
             Scheduler mesosScheduler,
             ServiceSpec serviceSpec,
             SchedulerConfig schedulerConfig) {
+        Protos.FrameworkInfo frameworkInfo = scheduler.frameworkInfo;
         LOGGER.info("Registering framework: {}", TextFormat.shortDebugString(frameworkInfo));
         String zkUri = String.format("zk://%s/mesos", serviceSpec.getZookeeperConnection());
         Protos.Status status = new SchedulerDriverFactory()
                 .create(mesosScheduler, frameworkInfo, zkUri, schedulerConfig)
                 .run();
         LOGGER.error("Scheduler driver exited with status: {}", status);
+        scheduler.stop();
         // DRIVER_STOPPED will occur when we call stop(boolean) during uninstall.
         // When this happens, we want to continue running so that we can advertise that the uninstall plan is complete.
         if (status != Protos.Status.DRIVER_STOPPED) {
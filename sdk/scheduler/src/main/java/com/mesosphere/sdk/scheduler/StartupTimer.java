@@ -0,0 +1,125 @@
+package com.mesosphere.sdk.scheduler;
+
+import com.mesosphere.sdk.offer.LoggingUtils;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures the stages of scheduler startup. The duration of each stage is logged when the stage completes and is
+ * recorded as a {@code startup.<stage>} timer metric, and a summary of all stages is logged once startup has finished.
+ *
+ * <p>Stages which don't depend on each other may be run concurrently via {@link #timeAsync(String, Supplier)}, in which
+ * case the sum of the stage durations will exceed the total.
+ */
+class StartupTimer {
+    private static final Logger LOGGER = LoggingUtils.getLogger(StartupTimer.class);
+
+    /**
+     * Runs concurrent stages. Threads are only kept while startup is in progress.
+     */
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "startup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private long startNanos = System.nanoTime();
+    private final Map<String, Long> stageDurationsMs = new LinkedHashMap<>();
+
+    /**
+     * Runs the provided stage in the calling thread and returns its result.
+     */
+    <T> T time(String stage, Supplier<T> supplier) {
+        long stageStartNanos = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            record(stage, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stageStartNanos));
+        }
+    }
+
+    /**
+     * Runs the provided stage in the calling thread.
+     */
+    void time(String stage, Runnable runnable) {
+        time(stage, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Starts running the provided stage in the background. The result should be retrieved with {@link #join}.
+     */
+    <T> CompletableFuture<T> timeAsync(String stage, Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(() -> time(stage, supplier), EXECUTOR);
+    }
+
+    /**
+     * Records the duration of a stage which was measured by the caller, e.g. because it completes via a callback.
+     */
+    void record(String stage, long durationMs) {
+        synchronized (stageDurationsMs) {
+            stageDurationsMs.put(stage, durationMs);
+        }
+        Metrics.recordStartupDuration(stage, durationMs);
+        LOGGER.info("Startup stage '{}' completed in {}ms", stage, durationMs);
+    }
+
+    /**
+     * Waits for a stage started with {@link #timeAsync} to complete and returns its result, rethrowing any unchecked
+     * exception thrown by the stage as-is.
+     */
+    static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Restarts measurement of the total time, e.g. so that it excludes time that a standby scheduler spent waiting to
+     * take over. Stages which were already recorded are still included in the summary.
+     */
+    void restart() {
+        synchronized (stageDurationsMs) {
+            startNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Logs a summary of the stages completed so far, and records the total time since this instance was created (or
+     * since {@link #restart()}) as the {@code startup.total} metric.
+     *
+     * @return the total time in milliseconds
+     */
+    long finish() {
+        long totalMs;
+        List<String> stages = new ArrayList<>();
+        synchronized (stageDurationsMs) {
+            totalMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            for (Map.Entry<String, Long> entry : stageDurationsMs.entrySet()) {
+                stages.add(String.format("%s=%dms", entry.getKey(), entry.getValue()));
+            }
+        }
+        Metrics.recordStartupDuration("total", totalMs);
+        LOGGER.info("Startup completed in {}ms: {}", totalMs, String.join(", ", stages));
+        return totalMs;
+    }
+}
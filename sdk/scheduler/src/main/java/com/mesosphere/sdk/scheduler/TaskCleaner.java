@@ -1,52 +1,118 @@
 package com.mesosphere.sdk.scheduler;
 
+import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.state.StateStore;
 import org.apache.mesos.Protos;
+import org.slf4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 /**
  * This class kills unexpected Tasks which are not in a terminal state.  This scenario could be encountered if a Task
  * was replaced while in a TASK_LOST or TASK_UNREACHABLE state, but then recovered from that non-terminal state.
+ *
+ * <p>Status updates are checked by a single worker. Updates which arrive while the worker is busy, such as during
+ * reconciliation after a master failover, are coalesced by TaskID and checked together in the worker's next pass,
+ * against a set of expected TaskIDs which is only rebuilt when the TaskInfos in the {@link StateStore} have changed.
+ * The kills for any unexpected tasks found in a pass are then issued together.
  */
 public class TaskCleaner {
+    private static final Logger LOGGER = LoggingUtils.getLogger(TaskCleaner.class);
+
     private final StateStore stateStore;
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private final TaskKiller taskKiller;
     private final boolean multithreaded;
 
-    public TaskCleaner(StateStore stateStore, boolean multithreaded) {
+    private final Object pendingLock = new Object();
+    private Set<Protos.TaskID> pendingTaskIds = new LinkedHashSet<>();
+    private final AtomicBoolean checkPending = new AtomicBoolean(false);
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-cleaner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only accessed by the worker, or by the caller when not multithreaded:
+    private Set<Protos.TaskID> expectedTaskIds = Collections.emptySet();
+    private Long expectedTaskIdsVersion = null;
+
+    public TaskCleaner(StateStore stateStore, TaskKiller taskKiller, boolean multithreaded) {
         this.stateStore = stateStore;
+        this.taskKiller = taskKiller;
         this.multithreaded = multithreaded;
     }
 
     public void statusUpdate(Protos.TaskStatus taskStatus) {
-        if (multithreaded) {
-            executorService.submit(new Runnable() {
-                @Override
-                public void run() {
-                    killUnexpectedTask(taskStatus);
-                }
-            });
-        } else {
-           killUnexpectedTask(taskStatus);
+        if (!shouldBeKilled(taskStatus)) {
+            return;
+        }
+        synchronized (pendingLock) {
+            pendingTaskIds.add(taskStatus.getTaskId());
+        }
+        if (!multithreaded) {
+            killUnexpectedTasks();
+        } else if (checkPending.compareAndSet(false, true)) {
+            executorService.execute(this::killUnexpectedTasks);
         }
     }
 
-    private void killUnexpectedTask(Protos.TaskStatus taskStatus) {
-        if (!shouldBeKilled(taskStatus)) {
+    private synchronized void killUnexpectedTasks() {
+        checkPending.set(false);
+        Set<Protos.TaskID> taskIds;
+        synchronized (pendingLock) {
+            if (pendingTaskIds.isEmpty()) {
+                return;
+            }
+            taskIds = pendingTaskIds;
+            pendingTaskIds = new LinkedHashSet<>();
+        }
+
+        Set<Protos.TaskID> expectedTaskIds = getExpectedTaskIds();
+        List<Protos.TaskID> unexpectedTaskIds = new ArrayList<>();
+        for (Protos.TaskID taskId : taskIds) {
+            if (!expectedTaskIds.contains(taskId)) {
+                unexpectedTaskIds.add(taskId);
+            }
+        }
+        if (unexpectedTaskIds.isEmpty()) {
             return;
         }
 
-        Collection<Protos.TaskID> expectedTaskIds = stateStore.fetchTasks().stream()
-                .map(taskInfo -> taskInfo.getTaskId())
-                .collect(Collectors.toList());
+        LOGGER.info("Killing {} unexpected task{} out of {} checked: {}",
+                unexpectedTaskIds.size(),
+                unexpectedTaskIds.size() == 1 ? "" : "s",
+                taskIds.size(),
+                unexpectedTaskIds.stream().map(Protos.TaskID::getValue).collect(Collectors.toList()));
+        taskKiller.killTasks(unexpectedTaskIds);
+    }
 
-        if (!expectedTaskIds.contains(taskStatus.getTaskId())) {
-            TaskKiller.killTask(taskStatus.getTaskId());
+    /**
+     * Returns the TaskIDs of all tasks in the {@link StateStore}, rebuilding them only if any TaskInfos have been
+     * written since they were last built. Status updates don't change the TaskIDs, so they don't result in a rebuild.
+     */
+    private Set<Protos.TaskID> getExpectedTaskIds() {
+        // Get the version before reading, so that any concurrent write results in a rebuild on the next pass:
+        long version = stateStore.getTaskInfoVersion();
+        if (expectedTaskIdsVersion == null || expectedTaskIdsVersion != version) {
+            Collection<Protos.TaskInfo> taskInfos = stateStore.fetchTasks();
+            Set<Protos.TaskID> taskIds = new HashSet<>();
+            for (Protos.TaskInfo taskInfo : taskInfos) {
+                taskIds.add(taskInfo.getTaskId());
+            }
+            expectedTaskIds = taskIds;
+            expectedTaskIdsVersion = version;
         }
+        return expectedTaskIds;
     }
 
     private boolean shouldBeKilled(Protos.TaskStatus taskStatus) {
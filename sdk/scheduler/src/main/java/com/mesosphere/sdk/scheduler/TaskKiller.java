@@ -9,61 +9,158 @@ import org.apache.mesos.SchedulerDriver;
 import org.slf4j.Logger;
 
 import java.time.Duration;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * This class implements reliable task killing in conjunction with the {@link TaskCleaner}.  Mesos does not provide
  * reliable task killing.  This class repeatedly attempts to kill a task until Mesos declares it has been killed or that
  * Mesos doesn't know anything about this task.
+ *
+ * <p>An attempt to kill a task is made as soon as the kill is requested. Further attempts are then made with an
+ * exponential backoff for each task, starting at the larger of {@link #MIN_RETRY_INTERVAL} and the task's kill grace
+ * period, so that a task which is shutting down gracefully isn't sent redundant kills. Retries are issued by a
+ * periodic pass which sends at most {@link #MAX_RETRIES_PER_PASS} kills, so that a mass restart doesn't result in a
+ * storm of kill calls.
+ *
+ * <p>Each scheduler has its own instance, so that multiple schedulers in the same JVM don't retry each other's kills.
+ * The instance should be {@link #close()}d when the scheduler is stopped, to stop any background retries.
  */
-public final class TaskKiller {
+public class TaskKiller {
     private static final Logger LOGGER = LoggingUtils.getLogger(TaskKiller.class);
 
-    private static final Duration KILL_INTERVAL = Duration.ofSeconds(5);
-    private static final Set<TaskID> TASKS_TO_KILL = new HashSet<>();
-    private static final Object LOCK = new Object();
+    private static final Duration RETRY_CHECK_INTERVAL = Duration.ofSeconds(1);
+    private static final Duration MIN_RETRY_INTERVAL = Duration.ofSeconds(5);
+    private static final Duration MAX_RETRY_INTERVAL = Duration.ofMinutes(2);
+    private static final int MAX_RETRIES_PER_PASS = 100;
 
     /**
-     * After the first task kill, this executor will be created and will periodically reissue kill invocations for any
-     * tasks which haven't produced a dead or unknown status. We do this because the Mesos kill command is best-effort.
+     * The progress of killing a task.
      */
-    private static ScheduledExecutorService executor;
+    private enum Phase {
+        /** No kill has been sent yet, e.g. because the driver isn't set. */
+        PENDING,
+        /** A kill has been sent, but Mesos hasn't acknowledged it. */
+        SENT,
+        /** Mesos has reported that the task is being killed. */
+        KILLING
+    }
+
+    private static class KillState {
+        private final long requestedMs;
+        private final long minRetryIntervalMs;
+        private Phase phase = Phase.PENDING;
+        private int attempts = 0;
+        private long nextAttemptMs;
+
+        private KillState(long requestedMs, long minRetryIntervalMs) {
+            this.requestedMs = requestedMs;
+            this.minRetryIntervalMs = minRetryIntervalMs;
+            this.nextAttemptMs = requestedMs;
+        }
+
+        private long getRetryIntervalMs() {
+            // Double the interval for each attempt after the first: 1x, 2x, 4x, ...
+            int doublings = Math.min(Math.max(attempts - 1, 0), 20);
+            long maxIntervalMs = Math.max(minRetryIntervalMs, MAX_RETRY_INTERVAL.toMillis());
+            return Math.min(minRetryIntervalMs << doublings, maxIntervalMs);
+        }
+    }
+
+    private final Object lock = new Object();
+    private final Map<TaskID, KillState> tasksToKill = new HashMap<>();
+    private final Supplier<Optional<SchedulerDriver>> driverSupplier;
+    private final LongSupplier clock;
 
     /**
-     * Whether the above executor should be running. Only disabled for tests.
+     * After the first task kill, this executor will periodically reissue kill invocations for any tasks which haven't
+     * produced a dead or unknown status. We do this because the Mesos kill command is best-effort.
      */
-    private static boolean executorEnabled = true;
+    private final Optional<ScheduledExecutorService> retryExecutor;
+    private boolean retriesScheduled = false;
 
-    private TaskKiller() {
-        // Do not instantiate
+    /**
+     * Returns a new instance which retries kills in the background, on its own thread.
+     *
+     * @param driverSupplier returns the driver to send kills to, or an empty {@link Optional} if it isn't set yet
+     */
+    public static TaskKiller withRetries(Supplier<Optional<SchedulerDriver>> driverSupplier) {
+        return new TaskKiller(driverSupplier, Optional.of(Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-killer");
+            thread.setDaemon(true);
+            return thread;
+        })));
     }
 
     /**
-     * Resets the {@link TaskKiller}'s internal state for tests.
+     * Returns a new instance which only sends kills when they're requested, without any background retries. Only
+     * intended for tests.
      *
-     * @param executorEnabled whether the background kill executor should be enabled, should only be disabled in tests
+     * @param driverSupplier returns the driver to send kills to, or an empty {@link Optional} if it isn't set yet
      */
     @VisibleForTesting
-    public static void reset(boolean executorEnabled) throws InterruptedException {
-        synchronized (LOCK) {
-            if (executor != null) {
-                executor.shutdownNow();
-                executor.awaitTermination(KILL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
-            }
-            executor = null;
+    public static TaskKiller withoutRetries(Supplier<Optional<SchedulerDriver>> driverSupplier) {
+        return new TaskKiller(driverSupplier, Optional.empty());
+    }
 
-            TASKS_TO_KILL.clear();
+    /**
+     * Creates a new instance.
+     *
+     * @param driverSupplier returns the driver to send kills to, or an empty {@link Optional} if it isn't set yet
+     * @param retryExecutor the executor to run background retries on, which is shut down by {@link #close()}, or an
+     *     empty {@link Optional} to disable background retries
+     */
+    public TaskKiller(
+            Supplier<Optional<SchedulerDriver>> driverSupplier, Optional<ScheduledExecutorService> retryExecutor) {
+        this(driverSupplier, retryExecutor, System::currentTimeMillis);
+    }
 
-            TaskKiller.executorEnabled = executorEnabled;
+    @VisibleForTesting
+    TaskKiller(
+            Supplier<Optional<SchedulerDriver>> driverSupplier,
+            Optional<ScheduledExecutorService> retryExecutor,
+            LongSupplier clock) {
+        this.driverSupplier = driverSupplier;
+        this.retryExecutor = retryExecutor;
+        this.clock = clock;
+    }
+
+    /**
+     * Stops any background retries. Kills which are requested after this call are still sent once, but are not
+     * retried.
+     */
+    public void close() {
+        if (retryExecutor.isPresent()) {
+            // Shut down while holding the lock, so that a concurrent kill doesn't try to schedule retries on it:
+            synchronized (lock) {
+                retryExecutor.get().shutdownNow();
+            }
         }
     }
 
+    /**
+     * Calling this method will cause the referenced Task to be reliably killed. Retries are spaced to allow at least
+     * the task's kill grace period for the task to exit.
+     *
+     * @param taskInfo the TaskInfo of the Task to be killed
+     * @see #killTask(TaskID)
+     */
+    public void killTask(Protos.TaskInfo taskInfo) {
+        killTask(taskInfo.getTaskId(), getGracePeriod(taskInfo));
+    }
+
     /**
      * Calling this method will cause the referenced TaskID to be reliably killed.  An attempt to kill the task will be
      * immediately made.  Continued periodic attempts will be made to kill the task until Mesos indicates that it has
@@ -73,79 +170,188 @@ public final class TaskKiller {
      * given time.  See the {@link TaskCleaner} for the rest of the task killing system.
      * @param taskId the TaskID of the Task to be killed.
      */
-    public static void killTask(TaskID taskId) {
-        // In order to update a podinstance its normal to kill all tasks in a pod.
-        // Sometimes a task hasn't been launched ever but it has been recorded for
-        // resource reservation footprint reasons, and therefore doesn't have a TaskID yet.
-        if (taskId.getValue().isEmpty()) {
-            LOGGER.warn("Attempted to kill empty TaskID.");
-            return;
+    public void killTask(TaskID taskId) {
+        killTask(taskId, Duration.ZERO);
+    }
+
+    /**
+     * Calling this method will cause the referenced TaskIDs to be reliably killed, as with {@link #killTask(TaskID)}.
+     * The tasks are enqueued together, and their kills are then sent in a single pass.
+     *
+     * @param taskIds the TaskIDs of the Tasks to be killed
+     */
+    public void killTasks(Collection<TaskID> taskIds) {
+        Map<TaskID, Duration> gracePeriods = new LinkedHashMap<>();
+        for (TaskID taskId : taskIds) {
+            gracePeriods.put(taskId, Duration.ZERO);
         }
+        killTasks(gracePeriods);
+    }
+
+    private void killTask(TaskID taskId, Duration gracePeriod) {
+        killTasks(Collections.singletonMap(taskId, gracePeriod));
+    }
 
-        synchronized (LOCK) {
-            TASKS_TO_KILL.add(taskId);
-            LOGGER.info("Enqueued kill of task: {}, {} tasks to kill: {}",
-                    taskId.getValue(),
-                    TASKS_TO_KILL.size(),
-                    TASKS_TO_KILL.stream().map(t -> t.getValue()).collect(Collectors.toList()));
-
-            // Initialize the executor if enabled and not already running.
-            if (executor == null && executorEnabled) {
-                LOGGER.info("Initializing scheduled executor with an interval of {}s", KILL_INTERVAL.getSeconds());
-                executor = Executors.newSingleThreadScheduledExecutor();
-                executor.scheduleAtFixedRate(
-                        new Runnable() {
-                            @Override
-                            public void run() {
-                                killAllTasks();
-                            }
-                        },
-                        KILL_INTERVAL.toMillis(),
-                        KILL_INTERVAL.toMillis(),
+    private void killTasks(Map<TaskID, Duration> gracePeriods) {
+        Map<TaskID, KillState> states = new LinkedHashMap<>();
+        List<String> enqueuedTaskIds = new ArrayList<>();
+        List<String> inProgressTaskIds = new ArrayList<>();
+        synchronized (lock) {
+            for (Map.Entry<TaskID, Duration> entry : gracePeriods.entrySet()) {
+                TaskID taskId = entry.getKey();
+                // In order to update a podinstance its normal to kill all tasks in a pod.
+                // Sometimes a task hasn't been launched ever but it has been recorded for
+                // resource reservation footprint reasons, and therefore doesn't have a TaskID yet.
+                if (taskId.getValue().isEmpty()) {
+                    LOGGER.warn("Attempted to kill empty TaskID.");
+                    continue;
+                }
+
+                KillState state = tasksToKill.get(taskId);
+                if (state != null) {
+                    // Already being killed, but the caller wants it killed now (e.g. a decommission step). Send the
+                    // kill again below, while keeping the task's existing backoff for background retries.
+                    inProgressTaskIds.add(taskId.getValue());
+                } else {
+                    state = new KillState(
+                            clock.getAsLong(), Math.max(MIN_RETRY_INTERVAL.toMillis(), entry.getValue().toMillis()));
+                    tasksToKill.put(taskId, state);
+                    Metrics.incrementOutstandingTaskKills(1);
+                    enqueuedTaskIds.add(taskId.getValue());
+                }
+                states.put(taskId, state);
+            }
+            if (states.isEmpty()) {
+                return;
+            }
+            if (!inProgressTaskIds.isEmpty()) {
+                LOGGER.info("Kill of task{} {} already in progress, {} tasks to kill",
+                        inProgressTaskIds.size() == 1 ? "" : "s", inProgressTaskIds, tasksToKill.size());
+            }
+            if (!enqueuedTaskIds.isEmpty()) {
+                LOGGER.info("Enqueued kill of task{}: {}, {} tasks to kill",
+                        enqueuedTaskIds.size() == 1 ? "" : "s", enqueuedTaskIds, tasksToKill.size());
+            }
+
+            // Start the retries if enabled and not already running.
+            if (!retriesScheduled && retryExecutor.isPresent() && !retryExecutor.get().isShutdown()) {
+                LOGGER.info("Initializing kill retries with a minimum interval of {}s",
+                        MIN_RETRY_INTERVAL.getSeconds());
+                retryExecutor.get().scheduleWithFixedDelay(
+                        this::retryKills,
+                        RETRY_CHECK_INTERVAL.toMillis(),
+                        RETRY_CHECK_INTERVAL.toMillis(),
                         TimeUnit.MILLISECONDS);
+                retriesScheduled = true;
             }
         }
 
-        // Finally, try invoking the task kill (if driver is set).
-        killTaskInternal(taskId);
+        // Finally, try invoking the task kills (if driver is set).
+        List<String> taskIdValues = states.keySet().stream().map(TaskID::getValue).collect(Collectors.toList());
+        Optional<SchedulerDriver> driver = driverSupplier.get();
+        if (driver.isPresent()) {
+            LOGGER.info("Killing task{}: {}", taskIdValues.size() == 1 ? "" : "s", taskIdValues);
+            synchronized (lock) {
+                states.values().forEach(this::markAttempted);
+            }
+            for (TaskID taskId : states.keySet()) {
+                driver.get().killTask(taskId);
+            }
+        } else {
+            LOGGER.warn("Can't kill {}, driver not yet set.", taskIdValues);
+        }
     }
 
-    public static void update(Protos.TaskStatus taskStatus) {
+    public void update(Protos.TaskStatus taskStatus) {
+        TaskID taskId = taskStatus.getTaskId();
         if (isDead(taskStatus)) {
-            synchronized (LOCK) {
-                if (TASKS_TO_KILL.remove(taskStatus.getTaskId())) {
-                    LOGGER.info("Completed killing: {}, {} remaining tasks to kill: {}",
-                            taskStatus.getTaskId().getValue(),
-                            TASKS_TO_KILL.size(),
-                            TASKS_TO_KILL.stream().map(t -> t.getValue()).collect(Collectors.toList()));
-                } else {
-                    LOGGER.warn("Task was not scheduled for killing: {}", taskStatus.getTaskId().getValue());
+            KillState state;
+            int remaining;
+            synchronized (lock) {
+                state = tasksToKill.remove(taskId);
+                remaining = tasksToKill.size();
+            }
+            if (state == null) {
+                LOGGER.debug("Task was not scheduled for killing: {}", taskId.getValue());
+                return;
+            }
+            long elapsedMs = clock.getAsLong() - state.requestedMs;
+            Metrics.incrementOutstandingTaskKills(-1);
+            Metrics.recordTaskKillDuration(elapsedMs);
+            LOGGER.info("Completed killing: {} after {}ms and {} attempt{}, {} remaining tasks to kill",
+                    taskId.getValue(), elapsedMs, state.attempts, state.attempts == 1 ? "" : "s", remaining);
+        } else if (taskStatus.getState() == Protos.TaskState.TASK_KILLING) {
+            synchronized (lock) {
+                KillState state = tasksToKill.get(taskId);
+                if (state != null && state.phase != Phase.KILLING) {
+                    // The kill has been received: wait out another interval before retrying it.
+                    state.phase = Phase.KILLING;
+                    state.nextAttemptMs = clock.getAsLong() + state.getRetryIntervalMs();
                 }
             }
         }
     }
 
+    /**
+     * Returns the number of tasks which have been enqueued for killing and haven't yet been reported as dead.
+     */
+    public int getOutstandingKillCount() {
+        synchronized (lock) {
+            return tasksToKill.size();
+        }
+    }
+
+    /**
+     * Reissues kills for tasks whose retry is due, up to {@link #MAX_RETRIES_PER_PASS}, soonest due first. Any others
+     * are left for the next pass.
+     */
     @VisibleForTesting
-    static void killAllTasks() {
-        Set<TaskID> copy;
-        synchronized (LOCK) {
-            copy = new HashSet<>(TASKS_TO_KILL);
+    void retryKills() {
+        Optional<SchedulerDriver> driver = driverSupplier.get();
+        if (!driver.isPresent()) {
+            return;
+        }
+
+        List<TaskID> dueTaskIds = new ArrayList<>();
+        int outstanding;
+        synchronized (lock) {
+            outstanding = tasksToKill.size();
+            long nowMs = clock.getAsLong();
+            tasksToKill.entrySet().stream()
+                    .filter(entry -> entry.getValue().nextAttemptMs <= nowMs)
+                    .sorted((a, b) -> Long.compare(a.getValue().nextAttemptMs, b.getValue().nextAttemptMs))
+                    .limit(MAX_RETRIES_PER_PASS)
+                    .forEach(entry -> {
+                        dueTaskIds.add(entry.getKey());
+                        markAttempted(entry.getValue());
+                    });
+        }
+        if (dueTaskIds.isEmpty()) {
+            return;
         }
 
-        for (TaskID taskId : copy) {
-            killTaskInternal(taskId);
+        LOGGER.info("Reissuing kills for {} of {} outstanding tasks", dueTaskIds.size(), outstanding);
+        for (TaskID taskId : dueTaskIds) {
+            driver.get().killTask(taskId);
         }
     }
 
-    private static void killTaskInternal(TaskID taskId) {
-        Optional<SchedulerDriver> driver = Driver.getDriver();
+    /**
+     * Records an attempt to kill the task and schedules the next one. Must be called while holding the lock.
+     */
+    private void markAttempted(KillState state) {
+        if (state.phase == Phase.PENDING) {
+            state.phase = Phase.SENT;
+        }
+        state.attempts++;
+        state.nextAttemptMs = clock.getAsLong() + state.getRetryIntervalMs();
+    }
 
-        if (driver.isPresent()) {
-            LOGGER.info("Killing task: {}", taskId.getValue());
-            driver.get().killTask(taskId);
-        } else {
-            LOGGER.warn("Can't kill '{}', driver not yet set.", taskId.getValue());
+    private static Duration getGracePeriod(Protos.TaskInfo taskInfo) {
+        if (!taskInfo.hasKillPolicy() || !taskInfo.getKillPolicy().hasGracePeriod()) {
+            return Duration.ZERO;
         }
+        return Duration.ofNanos(taskInfo.getKillPolicy().getGracePeriod().getNanoseconds());
     }
 
     private static boolean isDead(Protos.TaskStatus taskStatus) {
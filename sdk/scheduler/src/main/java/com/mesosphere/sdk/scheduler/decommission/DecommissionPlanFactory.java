@@ -6,6 +6,7 @@ import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.offer.ResourceUtils;
 import com.mesosphere.sdk.offer.TaskException;
 import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
+import com.mesosphere.sdk.scheduler.TaskKiller;
 import com.mesosphere.sdk.scheduler.plan.*;
 import com.mesosphere.sdk.scheduler.plan.strategy.SerialStrategy;
 import com.mesosphere.sdk.scheduler.uninstall.ResourceCleanupStep;
@@ -57,10 +58,10 @@ public class DecommissionPlanFactory {
     private final PlanInfo planInfo;
     private final SortedMap<PodKey, Collection<Protos.TaskInfo>> podsToDecommission;
 
-    public DecommissionPlanFactory(ServiceSpec serviceSpec, StateStore stateStore) {
+    public DecommissionPlanFactory(ServiceSpec serviceSpec, StateStore stateStore, TaskKiller taskKiller) {
         Collection<Protos.TaskInfo> allTasks = stateStore.fetchTasks();
         this.podsToDecommission = getPodsToDecommission(serviceSpec, allTasks);
-        this.planInfo = buildPlanInfo(serviceSpec, stateStore, allTasks, podsToDecommission);
+        this.planInfo = buildPlanInfo(serviceSpec, stateStore, taskKiller, allTasks, podsToDecommission);
     }
 
     /**
@@ -101,6 +102,7 @@ public class DecommissionPlanFactory {
     private static PlanInfo buildPlanInfo(
             ServiceSpec serviceSpec,
             StateStore stateStore,
+            TaskKiller taskKiller,
             Collection<Protos.TaskInfo> allTasks,
             SortedMap<PodKey, Collection<Protos.TaskInfo>> podsToDecommission) {
         // Determine which tasks should be decommissioned (and which shouldn't)
@@ -142,7 +144,7 @@ public class DecommissionPlanFactory {
 
             // 1. Kill pod's tasks
             steps.addAll(entry.getValue().stream()
-                    .map(task -> new TriggerDecommissionStep(stateStore, task))
+                    .map(task -> new TriggerDecommissionStep(stateStore, task, taskKiller))
                     .collect(Collectors.toList()));
 
             // 2. Unreserve pod's resources
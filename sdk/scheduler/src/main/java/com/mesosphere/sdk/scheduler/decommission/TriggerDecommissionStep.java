@@ -20,11 +20,13 @@ public class TriggerDecommissionStep extends UninstallStep {
 
     private final StateStore stateStore;
     private final Protos.TaskInfo taskInfo;
+    private final TaskKiller taskKiller;
 
-    public TriggerDecommissionStep(StateStore stateStore,  Protos.TaskInfo taskInfo) {
+    public TriggerDecommissionStep(StateStore stateStore,  Protos.TaskInfo taskInfo, TaskKiller taskKiller) {
         super("kill-" + taskInfo.getName(), Status.PENDING);
         this.stateStore = stateStore;
         this.taskInfo = taskInfo;
+        this.taskKiller = taskKiller;
     }
 
     @Override
@@ -32,7 +34,7 @@ public class TriggerDecommissionStep extends UninstallStep {
         LOGGER.info("Marking task for decommissioning: {}", taskInfo.getName());
         setStatus(Status.IN_PROGRESS);
         stateStore.storeGoalOverrideStatus(taskInfo.getName(), DecommissionPlanFactory.DECOMMISSIONING_STATUS);
-        TaskKiller.killTask(taskInfo.getTaskId());
+        taskKiller.killTask(taskInfo);
         setStatus(Status.COMPLETE);
         return getPodInstanceRequirement();
     }
@@ -0,0 +1,496 @@
+package com.mesosphere.sdk.scheduler.mesos;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.mesosphere.sdk.offer.LoggingUtils;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.apache.mesos.v1.scheduler.Mesos;
+import org.apache.mesos.v1.scheduler.Protos.Call;
+import org.apache.mesos.v1.scheduler.Protos.Event;
+import org.apache.mesos.v1.scheduler.Scheduler;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A client for the Mesos V1 scheduler HTTP API, which may be used in place of the native libmesos client underneath
+ * {@link com.mesosphere.mesos.HTTPAdapter.MesosToSchedulerDriverAdapter}.
+ *
+ * <p>Events from the subscription stream are read on a dedicated thread, which never waits on the scheduler for
+ * anything other than heartbeats. Heartbeats are delivered right away. Other events are handed over in order by a
+ * separate delivery thread, which waits for the {@link OfferFlowControl} to have room before delivering offers. Offers
+ * which arrive in the meantime are delivered together once there's room, rather than being declined as they arrive.
+ *
+ * <p>Calls are sent in order on a separate thread and connection. Consecutive DECLINE calls with the same filters, as
+ * produced by declining offers one at a time via the driver, are merged into a single DECLINE call for all of their
+ * offers.
+ */
+public class HttpMesos implements Mesos {
+
+    private static final Logger LOGGER = LoggingUtils.getLogger(HttpMesos.class);
+
+    static final String SCHEDULER_API_PATH = "/api/v1/scheduler";
+    static final String STREAM_ID_HEADER = "Mesos-Stream-Id";
+    static final int MAX_DECLINE_BATCH_SIZE = 1000;
+
+    private static final ContentType PROTOBUF_CONTENT_TYPE = ContentType.create("application/x-protobuf");
+    private static final int MAX_REDIRECTS = 5;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration CALL_READ_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration DEFAULT_RECONNECT_DELAY = Duration.ofSeconds(1);
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
+    // Queued by close() to tell the call thread to exit once it has sent everything queued ahead of it:
+    private static final Call CLOSE_MARKER = Call.getDefaultInstance();
+
+    /**
+     * Provides the value of the {@code Authorization} header to be included in requests to the master, if any.
+     */
+    public interface AuthorizationProvider {
+        Optional<String> getAuthorization() throws IOException;
+    }
+
+    /**
+     * Applies backpressure to incoming offers.
+     */
+    public interface OfferFlowControl {
+        /**
+         * Blocks until the recipient is ready to accept the provided number of offers. Implementations should give up
+         * waiting eventually, after which the offers are delivered regardless.
+         */
+        void awaitOfferCapacity(int offerCount);
+    }
+
+    /**
+     * An open subscription stream, along with the stream ID to be included in calls made against it.
+     */
+    private static class Subscription {
+        private final HttpPost request;
+        private final CloseableHttpResponse response;
+        private final String streamId;
+
+        private Subscription(HttpPost request, CloseableHttpResponse response, String streamId) {
+            this.request = request;
+            this.response = response;
+            this.streamId = streamId;
+        }
+
+        /**
+         * Closes the stream. This may be called while another thread is reading from the stream, in which case the
+         * read fails.
+         */
+        private void close() {
+            request.abort();
+        }
+    }
+
+    /**
+     * An event which was read from a subscription stream, and has yet to be delivered to the scheduler.
+     */
+    private static class ReceivedEvent {
+        private final Subscription subscription;
+        private final Event event;
+
+        private ReceivedEvent(Subscription subscription, Event event) {
+            this.subscription = subscription;
+            this.event = event;
+        }
+    }
+
+    private final Scheduler scheduler;
+    private final AuthorizationProvider authorizationProvider;
+    private final OfferFlowControl offerFlowControl;
+    private final Duration reconnectDelay;
+
+    private final BlockingQueue<Call> pendingCalls = new LinkedBlockingQueue<>();
+    private final BlockingQueue<ReceivedEvent> receivedEvents = new LinkedBlockingQueue<>();
+    private final AtomicReference<Subscription> subscription = new AtomicReference<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final CloseableHttpClient httpClient;
+    private final ExecutorService callExecutor;
+    private final ExecutorService eventExecutor;
+    private final ScheduledExecutorService connectionExecutor;
+
+    // Updated when the master redirects us to the current leader:
+    private volatile URI masterUri;
+
+    /**
+     * Creates a new client which has yet to be {@link #start()}ed.
+     *
+     * @param scheduler the scheduler which receives connection notifications and events
+     * @param masterUri the base URI of a master, e.g. {@code http://leader.mesos:5050}
+     */
+    public HttpMesos(
+            Scheduler scheduler,
+            URI masterUri,
+            AuthorizationProvider authorizationProvider,
+            OfferFlowControl offerFlowControl) {
+        this(scheduler, masterUri, authorizationProvider, offerFlowControl, DEFAULT_RECONNECT_DELAY);
+    }
+
+    @VisibleForTesting
+    HttpMesos(
+            Scheduler scheduler,
+            URI masterUri,
+            AuthorizationProvider authorizationProvider,
+            OfferFlowControl offerFlowControl,
+            Duration reconnectDelay) {
+        this.scheduler = scheduler;
+        this.masterUri = masterUri;
+        this.authorizationProvider = authorizationProvider;
+        this.offerFlowControl = offerFlowControl;
+        this.reconnectDelay = reconnectDelay;
+        // Redirects are followed manually, so that later calls go straight to the leading master:
+        this.httpClient = HttpClientBuilder.create()
+                .disableRedirectHandling()
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) CONNECT_TIMEOUT.toMillis())
+                        .setSocketTimeout((int) CALL_READ_TIMEOUT.toMillis())
+                        .build())
+                .build();
+        this.callExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mesos-http-calls");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.eventExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mesos-http-event-delivery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.connectionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mesos-http-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts sending calls and notifies the scheduler that it's connected, after which it's expected to subscribe.
+     *
+     * @return this
+     */
+    public HttpMesos start() {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("start() can only be called once");
+        }
+        LOGGER.info("Starting Mesos HTTP client against {}", masterUri);
+        callExecutor.execute(this::sendCalls);
+        eventExecutor.execute(this::deliverEvents);
+        connectionExecutor.execute(() -> scheduler.connected(this));
+        return this;
+    }
+
+    @Override
+    public void send(Call call) {
+        if (closed.get()) {
+            LOGGER.warn("Dropping {} call: Client is closed", call.getType());
+            return;
+        }
+        pendingCalls.add(call);
+    }
+
+    @Override
+    public void reconnect() {
+        Subscription current = subscription.getAndSet(null);
+        if (current != null) {
+            current.close();
+        }
+        notifyDisconnected();
+    }
+
+    /**
+     * Sends any calls which were already queued, such as the TEARDOWN sent when the driver is stopped, then closes any
+     * subscription and stops all threads, without notifying the scheduler.
+     */
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        pendingCalls.add(CLOSE_MARKER);
+        callExecutor.shutdown();
+        try {
+            if (!callExecutor.awaitTermination(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Queued calls weren't sent within {}ms, dropping them", CLOSE_TIMEOUT.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Subscription current = subscription.getAndSet(null);
+        if (current != null) {
+            current.close();
+        }
+        callExecutor.shutdownNow();
+        eventExecutor.shutdownNow();
+        connectionExecutor.shutdownNow();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to close HTTP client", e);
+        }
+    }
+
+    /**
+     * Merges runs of consecutive DECLINE calls which have the same filters into single calls, while preserving the
+     * order of all calls. Only consecutive calls are merged, as e.g. a REVIVE between two DECLINEs clears the filters
+     * of the first DECLINE but not the second.
+     */
+    @VisibleForTesting
+    static List<Call> coalesce(List<Call> calls) {
+        List<Call> coalesced = new ArrayList<>(calls.size());
+        Call.Builder decline = null;
+        for (Call call : calls) {
+            if (decline != null && canMerge(decline, call)) {
+                decline.getDeclineBuilder().addAllOfferIds(call.getDecline().getOfferIdsList());
+                continue;
+            }
+            if (decline != null) {
+                coalesced.add(decline.build());
+                decline = null;
+            }
+            if (call.getType() == Call.Type.DECLINE) {
+                decline = call.toBuilder();
+            } else {
+                coalesced.add(call);
+            }
+        }
+        if (decline != null) {
+            coalesced.add(decline.build());
+        }
+        return coalesced;
+    }
+
+    private static boolean canMerge(Call.Builder decline, Call call) {
+        return call.getType() == Call.Type.DECLINE
+                && call.getFrameworkId().equals(decline.getFrameworkId())
+                && call.getDecline().getFilters().equals(decline.getDecline().getFilters())
+                && decline.getDecline().getOfferIdsCount() + call.getDecline().getOfferIdsCount()
+                        <= MAX_DECLINE_BATCH_SIZE;
+    }
+
+    private void sendCalls() {
+        boolean closing = false;
+        while (!closing) {
+            List<Call> calls = new ArrayList<>();
+            try {
+                calls.add(pendingCalls.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            pendingCalls.drainTo(calls);
+            closing = calls.removeIf(call -> call == CLOSE_MARKER);
+
+            List<Call> coalesced = coalesce(calls);
+            if (coalesced.size() != calls.size()) {
+                LOGGER.debug("Merged {} queued calls into {} requests", calls.size(), coalesced.size());
+            }
+            for (Call call : coalesced) {
+                try {
+                    if (call.getType() == Call.Type.SUBSCRIBE) {
+                        subscribe(call);
+                    } else {
+                        post(call);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.error(String.format("Failed to send %s call", call.getType()), e);
+                }
+            }
+        }
+    }
+
+    private void subscribe(Call call) throws IOException {
+        // A new subscription replaces the current one, without the scheduler being told of a disconnect:
+        Subscription previous = subscription.getAndSet(null);
+        if (previous != null) {
+            previous.close();
+        }
+
+        URI uri = masterUri.resolve(SCHEDULER_API_PATH);
+        for (int redirects = 0; ; ++redirects) {
+            HttpPost request = newRequest(uri, Optional.empty(), call);
+            // Heartbeat timeouts are enforced by the scheduler adapter, which reconnects as needed.
+            request.setConfig(RequestConfig.custom()
+                    .setConnectTimeout((int) CONNECT_TIMEOUT.toMillis())
+                    .setSocketTimeout(0)
+                    .build());
+            CloseableHttpResponse response = httpClient.execute(request);
+
+            int code = response.getStatusLine().getStatusCode();
+            if (code == HttpStatus.SC_TEMPORARY_REDIRECT && redirects < MAX_REDIRECTS) {
+                uri = uri.resolve(response.getFirstHeader("Location").getValue());
+                masterUri = uri.resolve("/");
+                LOGGER.info("Redirected to leading master at {}", masterUri);
+                closeResponse(response);
+                continue;
+            }
+            if (code != HttpStatus.SC_OK) {
+                String error = readError(response);
+                throw new IOException(String.format("Subscription to %s failed with code %d: %s", uri, code, error));
+            }
+            if (response.getFirstHeader(STREAM_ID_HEADER) == null) {
+                request.abort();
+                throw new IOException(String.format("Subscription response lacks %s header", STREAM_ID_HEADER));
+            }
+
+            Subscription current =
+                    new Subscription(request, response, response.getFirstHeader(STREAM_ID_HEADER).getValue());
+            LOGGER.info("Subscribed to {} with stream ID {}", uri, current.streamId);
+            subscription.set(current);
+            Thread reader = new Thread(() -> readEvents(current), "mesos-http-events");
+            reader.setDaemon(true);
+            reader.start();
+            return;
+        }
+    }
+
+    private void readEvents(Subscription current) {
+        try (RecordIOReader reader = new RecordIOReader(current.response.getEntity().getContent())) {
+            Optional<byte[]> record;
+            while (subscription.get() == current && (record = reader.read()).isPresent()) {
+                Event event = Event.parseFrom(record.get());
+                if (event.getType() == Event.Type.HEARTBEAT) {
+                    // Not held up behind other events, so that the connection isn't seen as lost while they wait.
+                    scheduler.received(this, event);
+                } else {
+                    receivedEvents.add(new ReceivedEvent(current, event));
+                }
+            }
+            LOGGER.warn("Subscription stream {} ended", current.streamId);
+        } catch (IOException e) {
+            if (subscription.get() == current) {
+                LOGGER.error(String.format("Subscription stream %s failed", current.streamId), e);
+            }
+        }
+
+        // If this is still the active subscription, then the disconnect was unexpected:
+        if (subscription.compareAndSet(current, null)) {
+            current.close();
+            notifyDisconnected();
+        }
+    }
+
+    private void deliverEvents() {
+        while (!closed.get()) {
+            ReceivedEvent received;
+            try {
+                received = receivedEvents.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            Event event = received.event;
+            if (event.getType() == Event.Type.OFFERS) {
+                event = mergeQueuedOffers(received);
+                offerFlowControl.awaitOfferCapacity(event.getOffers().getOffersCount());
+            }
+            if (subscription.get() != received.subscription) {
+                LOGGER.info("Dropping {} event from ended subscription stream {}",
+                        event.getType(), received.subscription.streamId);
+                continue;
+            }
+            try {
+                scheduler.received(this, event);
+            } catch (RuntimeException e) {
+                LOGGER.error(String.format("Failed to deliver %s event", event.getType()), e);
+            }
+        }
+    }
+
+    /**
+     * Merges any OFFERS events which are queued directly behind the provided one into it, so that a backlog of offers
+     * only waits for capacity once.
+     */
+    private Event mergeQueuedOffers(ReceivedEvent first) {
+        Event.Builder merged = null;
+        ReceivedEvent next;
+        while ((next = receivedEvents.peek()) != null
+                && next.subscription == first.subscription
+                && next.event.getType() == Event.Type.OFFERS) {
+            receivedEvents.poll();
+            if (merged == null) {
+                merged = first.event.toBuilder();
+            }
+            merged.getOffersBuilder().addAllOffers(next.event.getOffers().getOffersList());
+        }
+        return merged == null ? first.event : merged.build();
+    }
+
+    private void post(Call call) throws IOException {
+        Subscription current = subscription.get();
+        if (current == null) {
+            LOGGER.warn("Dropping {} call: Not subscribed", call.getType());
+            return;
+        }
+
+        try (CloseableHttpResponse response = httpClient.execute(
+                newRequest(masterUri.resolve(SCHEDULER_API_PATH), Optional.of(current.streamId), call))) {
+            int code = response.getStatusLine().getStatusCode();
+            if (code == HttpStatus.SC_ACCEPTED || code == HttpStatus.SC_OK) {
+                // Consume the response so that the connection may be reused:
+                EntityUtils.consume(response.getEntity());
+            } else {
+                LOGGER.error("{} call failed with code {}: {}", call.getType(), code, readError(response));
+            }
+        }
+    }
+
+    private void notifyDisconnected() {
+        if (closed.get()) {
+            return;
+        }
+        connectionExecutor.execute(() -> scheduler.disconnected(this));
+        connectionExecutor.schedule(() -> scheduler.connected(this), reconnectDelay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private HttpPost newRequest(URI uri, Optional<String> streamId, Call call) throws IOException {
+        HttpPost request = new HttpPost(uri);
+        request.setHeader("Accept", PROTOBUF_CONTENT_TYPE.getMimeType());
+        if (streamId.isPresent()) {
+            request.setHeader(STREAM_ID_HEADER, streamId.get());
+        }
+        Optional<String> authorization = authorizationProvider.getAuthorization();
+        if (authorization.isPresent()) {
+            request.setHeader("Authorization", authorization.get());
+        }
+        request.setEntity(new ByteArrayEntity(call.toByteArray(), PROTOBUF_CONTENT_TYPE));
+        return request;
+    }
+
+    private static void closeResponse(CloseableHttpResponse response) throws IOException {
+        try {
+            EntityUtils.consume(response.getEntity());
+        } finally {
+            response.close();
+        }
+    }
+
+    private static String readError(CloseableHttpResponse response) throws IOException {
+        try {
+            return response.getEntity() == null ? "" : EntityUtils.toString(response.getEntity());
+        } finally {
+            response.close();
+        }
+    }
+}
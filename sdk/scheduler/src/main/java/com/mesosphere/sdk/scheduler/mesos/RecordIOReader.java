@@ -0,0 +1,75 @@
+package com.mesosphere.sdk.scheduler.mesos;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Reads records from a stream in the RecordIO format used by the Mesos V1 HTTP API, where each record is prefixed by
+ * its length in bytes as a decimal string followed by a newline: {@code <length>\n<record bytes>}.
+ */
+class RecordIOReader implements Closeable {
+
+    /** Guards against reading a corrupt length and then attempting to allocate an enormous buffer. */
+    private static final int MAX_RECORD_BYTES = 256 * 1024 * 1024;
+
+    private final InputStream stream;
+
+    RecordIOReader(InputStream stream) {
+        this.stream = new BufferedInputStream(stream);
+    }
+
+    /**
+     * Blocks until the next record has been read, and returns its content.
+     *
+     * @return the content of the next record, or an empty {@link Optional} if the stream ended cleanly between records
+     * @throws IOException if the stream failed, or ended or was malformed within a record
+     */
+    Optional<byte[]> read() throws IOException {
+        long length = 0;
+        int digits = 0;
+        while (true) {
+            int c = stream.read();
+            if (c == -1) {
+                if (digits == 0) {
+                    return Optional.empty();
+                }
+                throw new EOFException("Stream ended within a record length");
+            }
+            if (c == '\n') {
+                break;
+            }
+            if (c < '0' || c > '9') {
+                throw new IOException(String.format("Invalid character in record length: 0x%02x", c));
+            }
+            length = length * 10 + (c - '0');
+            if (length > MAX_RECORD_BYTES) {
+                throw new IOException(String.format("Record length exceeds %d bytes", MAX_RECORD_BYTES));
+            }
+            ++digits;
+        }
+        if (digits == 0) {
+            throw new IOException("Missing record length");
+        }
+
+        byte[] record = new byte[(int) length];
+        int offset = 0;
+        while (offset < record.length) {
+            int count = stream.read(record, offset, record.length - offset);
+            if (count == -1) {
+                throw new EOFException(String.format(
+                        "Stream ended after %d of %d bytes of a record", offset, record.length));
+            }
+            offset += count;
+        }
+        return Optional.of(record);
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+}
@@ -5,10 +5,10 @@ import com.mesosphere.sdk.scheduler.plan.strategy.Strategy;
 import com.mesosphere.sdk.specification.PodInstance;
 import com.mesosphere.sdk.specification.PodSpec;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * This class generates Phases given PhaseSpecifications.
@@ -42,17 +42,21 @@ public class DefaultPhaseFactory implements PhaseFactory {
         return getPhase(podSpec, new SerialStrategy<>());
     }
 
+    /**
+     * Returns a step for each instance of the pod. Steps are generated in parallel, as each involves fetching the
+     * instance's tasks from the state store.
+     */
     private List<Step> getSteps(PodSpec podSpec) {
-        List<Step> steps = new ArrayList<>();
-        for (int i = 0; i < podSpec.getCount(); i++) {
-            PodInstance podInstance = new DefaultPodInstance(podSpec, i);
+        return IntStream.range(0, podSpec.getCount()).parallel()
+                .mapToObj(i -> getStep(new DefaultPodInstance(podSpec, i)))
+                .collect(Collectors.toList());
+    }
 
-            List<String> tasksToLaunch = podInstance.getPod().getTasks().stream()
-                    .map(taskSpec -> taskSpec.getName())
-                    .collect(Collectors.toList());
+    private Step getStep(PodInstance podInstance) {
+        List<String> tasksToLaunch = podInstance.getPod().getTasks().stream()
+                .map(taskSpec -> taskSpec.getName())
+                .collect(Collectors.toList());
 
-            steps.add(stepFactory.getStep(podInstance, tasksToLaunch));
-        }
-        return steps;
+        return stepFactory.getStep(podInstance, tasksToLaunch);
     }
 }
@@ -4,6 +4,7 @@ import org.apache.commons.collections.CollectionUtils;
 import org.slf4j.Logger;
 
 import com.mesosphere.sdk.offer.LoggingUtils;
+import com.mesosphere.sdk.offer.RateLimitedLogger;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -15,6 +16,7 @@ import java.util.stream.Collectors;
  */
 public class DefaultPlanCoordinator implements PlanCoordinator {
     private static final Logger LOGGER = LoggingUtils.getLogger(DefaultPlanCoordinator.class);
+    private static final RateLimitedLogger CYCLE_LOGGER = new RateLimitedLogger(LOGGER);
 
     private final List<PlanManager> planManagers = new LinkedList<>();
 
@@ -42,7 +44,7 @@ public class DefaultPlanCoordinator implements PlanCoordinator {
                 .flatMap(planManager -> planManager.getDirtyAssets().stream())
                 .collect(Collectors.toList()));
 
-        LOGGER.info("Initial dirtied assets: {}", dirtiedAssets);
+        LOGGER.debug("Initial dirtied assets: {}", dirtiedAssets);
 
         List<Step> candidates = new LinkedList<>();
         for (final PlanManager planManager : getPlanManagers()) {
@@ -54,14 +56,16 @@ public class DefaultPlanCoordinator implements PlanCoordinator {
             try {
                 Collection<PodInstanceRequirement> relevantDirtyAssets =
                         getRelevantDirtyAssets(planManager, dirtiedAssets);
-                LOGGER.info("Getting candidates for plan: '{}' with relevant dirtied assets: {}.",
+                LOGGER.debug("Getting candidates for plan: '{}' with relevant dirtied assets: {}.",
                         planManager.getPlan().getName(), relevantDirtyAssets);
 
                 // Get candidate steps to be scheduled
                 Collection<? extends Step> steps = planManager.getCandidates(relevantDirtyAssets);
-                LOGGER.info("Got candidates: {}, from plan: {}",
-                        steps.stream().map(step -> step.getName()).collect(Collectors.toList()),
-                        planManager.getPlan().getName());
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Got candidates: {}, from plan: {}",
+                            steps.stream().map(step -> step.getName()).collect(Collectors.toList()),
+                            planManager.getPlan().getName());
+                }
                 candidates.addAll(steps);
 
                 // Collect dirtied assets
@@ -70,14 +74,14 @@ public class DefaultPlanCoordinator implements PlanCoordinator {
                         .filter(step -> step.getPodInstanceRequirement().isPresent())
                         .map(step -> step.getPodInstanceRequirement().get())
                         .collect(Collectors.toList()));
-                LOGGER.info("Updated dirtied assets: {}", dirtiedAssets);
+                LOGGER.debug("Updated dirtied assets: {}", dirtiedAssets);
             } catch (Throwable t) {
                 LOGGER.error(String.format("Error with plan manager: %s.", planManager), t);
             }
         }
 
-        LOGGER.info("Got total candidates: {}",
-                candidates.stream().map(step -> step.getName()).collect(Collectors.toList()));
+        CYCLE_LOGGER.info("Got total candidates: {}", LoggingUtils.lazy(() ->
+                candidates.stream().map(step -> step.getName()).collect(Collectors.toList()).toString()));
         return candidates;
     }
 
@@ -89,8 +93,10 @@ public class DefaultPlanCoordinator implements PlanCoordinator {
     private Collection<PodInstanceRequirement> getRelevantDirtyAssets(
             PlanManager planManager,
             Set<PodInstanceRequirement> dirtyAssets) {
-        LOGGER.info("Input dirty assets: {}", dirtyAssets);
-        LOGGER.info("Plan's dirty assets: {}", planManager.getDirtyAssets());
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Input dirty assets: {}", dirtyAssets);
+            LOGGER.debug("Plan's dirty assets: {}", planManager.getDirtyAssets());
+        }
 
         Plan plan = planManager.getPlan();
         return dirtyAssets.stream()
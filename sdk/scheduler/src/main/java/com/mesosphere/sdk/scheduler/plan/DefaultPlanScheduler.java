@@ -26,11 +26,17 @@ public class DefaultPlanScheduler implements PlanScheduler {
     private final OfferAccepter offerAccepter;
     private final OfferEvaluator offerEvaluator;
     private final StateStore stateStore;
+    private final TaskKiller taskKiller;
 
-    public DefaultPlanScheduler(OfferAccepter offerAccepter, OfferEvaluator offerEvaluator, StateStore stateStore) {
+    public DefaultPlanScheduler(
+            OfferAccepter offerAccepter,
+            OfferEvaluator offerEvaluator,
+            StateStore stateStore,
+            TaskKiller taskKiller) {
         this.offerAccepter = offerAccepter;
         this.offerEvaluator = offerEvaluator;
         this.stateStore = stateStore;
+        this.taskKiller = taskKiller;
     }
 
     @Override
@@ -153,7 +159,7 @@ public class DefaultPlanScheduler implements PlanScheduler {
                 }
 
                 if (!TaskUtils.isTerminal(state)) {
-                    TaskKiller.killTask(taskInfo.getTaskId());
+                    taskKiller.killTask(taskInfo);
                 }
             }
         }
@@ -44,7 +44,8 @@ public class DeployPlanFactory implements PlanFactory {
     }
 
     private List<Phase> getPhases(ServiceSpec serviceSpec) {
-        return serviceSpec.getPods().stream()
+        // Each pod's phase is generated independently, so they may be generated in parallel:
+        return serviceSpec.getPods().parallelStream()
                 .map(phaseFactory::getPhase)
                 .collect(Collectors.toList());
     }
@@ -14,7 +14,14 @@ import java.util.Collection;
 public class DependencyStrategy<C extends Element> extends InterruptibleStrategy<C> {
     private final DependencyStrategyHelper<C> helper;
 
-    public DependencyStrategy(DependencyStrategyHelper<C> helper) {
+    /**
+     * Creates a new strategy which follows the dependencies in the provided helper.
+     *
+     * @throws DependencyStrategyHelper.InvalidDependencyException if the dependencies contain a cycle
+     */
+    public DependencyStrategy(DependencyStrategyHelper<C> helper)
+            throws DependencyStrategyHelper.InvalidDependencyException {
+        helper.validate();
         this.helper = helper;
     }
 
@@ -10,6 +10,13 @@ import java.util.stream.Collectors;
  * The {@link DependencyStrategyHelper} exists to aid in the construction of {@link Strategy} objects which describe a
  * set of dependencies between constituent elements.
  *
+ * <p>Readiness is tracked incrementally: Each element has a count of its prerequisites which are not yet complete,
+ * and elements whose count is zero are kept in a ready set. On each call to
+ * {@link #getCandidates(boolean, Collection)}, each prerequisite's completion is checked once, and only the
+ * dependents of prerequisites whose completion has changed since the previous call are updated. This keeps the cost
+ * of each call proportional to the number of elements rather than the number of dependencies, and still handles
+ * elements which go back to being incomplete, e.g. when a plan is restarted.
+ *
  * @param <C> is the type of {@link Element}s to which the dependencies captured here apply.
  */
 public class DependencyStrategyHelper<C extends Element> {
@@ -18,9 +25,79 @@ public class DependencyStrategyHelper<C extends Element> {
      */
     private final Map<C, Set<C>> dependencies;
 
+    /**
+     * Mapping of elements to the elements which have them as a prerequisite.
+     */
+    private final Map<C, Set<C>> dependents;
+
+    /**
+     * Readiness state, which is (re)built on the first call to {@link #getCandidates(boolean, Collection)} after any
+     * change to the dependencies.
+     */
+    private Readiness readiness;
+
+    /**
+     * Incrementally maintained readiness of all elements.
+     */
+    private class Readiness {
+        /** Position of each element in insertion order, which is the order that candidates are returned in. */
+        private final Map<C, Integer> positions = new HashMap<>();
+        /** Last observed completion of each element which is a prerequisite of another element. */
+        private final Map<C, Boolean> prerequisiteCompletion = new LinkedHashMap<>();
+        /** Number of incomplete prerequisites of each element. */
+        private final Map<C, Integer> incompleteCounts = new HashMap<>();
+        /** Elements without any incomplete prerequisites, by position. */
+        private final SortedMap<Integer, C> ready = new TreeMap<>();
+
+        private Readiness() {
+            for (C element : dependencies.keySet()) {
+                positions.put(element, positions.size());
+            }
+            for (Map.Entry<C, Set<C>> entry : dependents.entrySet()) {
+                if (!entry.getValue().isEmpty()) {
+                    prerequisiteCompletion.put(entry.getKey(), entry.getKey().isComplete());
+                }
+            }
+            for (Map.Entry<C, Set<C>> entry : dependencies.entrySet()) {
+                int incompleteCount = (int) entry.getValue().stream()
+                        .filter(prerequisite -> !prerequisiteCompletion.get(prerequisite))
+                        .count();
+                incompleteCounts.put(entry.getKey(), incompleteCount);
+                if (incompleteCount == 0) {
+                    ready.put(positions.get(entry.getKey()), entry.getKey());
+                }
+            }
+        }
+
+        /**
+         * Checks each prerequisite for a change in completion, and updates the counts of its dependents accordingly.
+         */
+        private void refresh() {
+            for (Map.Entry<C, Boolean> entry : prerequisiteCompletion.entrySet()) {
+                boolean complete = entry.getKey().isComplete();
+                if (complete == entry.getValue()) {
+                    continue;
+                }
+                entry.setValue(complete);
+                for (C dependent : dependents.get(entry.getKey())) {
+                    int incompleteCount = incompleteCounts.merge(dependent, complete ? -1 : 1, Integer::sum);
+                    if (incompleteCount == 0) {
+                        ready.put(positions.get(dependent), dependent);
+                    } else {
+                        ready.remove(positions.get(dependent));
+                    }
+                }
+            }
+        }
+    }
+
     public DependencyStrategyHelper(Collection<C> elements) {
-        this.dependencies = new HashMap<>();
-        elements.forEach(element -> dependencies.put(element, new HashSet<>()));
+        this.dependencies = new LinkedHashMap<>();
+        this.dependents = new LinkedHashMap<>();
+        elements.forEach(element -> {
+            dependencies.put(element, new LinkedHashSet<>());
+            dependents.put(element, new LinkedHashSet<>());
+        });
     }
 
     public void addElement(C element) throws InvalidDependencyException {
@@ -28,31 +105,30 @@ public class DependencyStrategyHelper<C extends Element> {
             throw new InvalidDependencyException("Attempted to overwrite previously added element: " + element);
         }
 
-        dependencies.put(element, new HashSet<>());
+        dependencies.put(element, new LinkedHashSet<>());
+        dependents.put(element, new LinkedHashSet<>());
+        readiness = null;
     }
 
     public void addDependency(C child, C parent) {
-        Set<C> deps = dependencies.get(child);
-        if (deps == null) {
-            deps = new HashSet<>();
-        }
-
-        if (dependencies.get(parent) == null) {
-            dependencies.put(parent, new HashSet<>());
-        }
-
-        deps.add(parent);
-        dependencies.put(child, deps);
+        dependencies.computeIfAbsent(child, c -> new LinkedHashSet<>()).add(parent);
+        dependencies.computeIfAbsent(parent, p -> new LinkedHashSet<>());
+        dependents.computeIfAbsent(child, c -> new LinkedHashSet<>());
+        dependents.computeIfAbsent(parent, p -> new LinkedHashSet<>()).add(child);
+        readiness = null;
     }
 
     public Collection<C> getCandidates(boolean isInterrupted, Collection<PodInstanceRequirement> dirtyAssets) {
         if (isInterrupted) {
             return Collections.emptyList();
         }
-        return dependencies.entrySet().stream()
-                .filter(entry -> PlanUtils.isEligible(entry.getKey(), dirtyAssets))
-                .filter(entry -> dependenciesFulfilled(entry.getValue()))
-                .map(entry -> entry.getKey())
+        if (readiness == null) {
+            readiness = new Readiness();
+        } else {
+            readiness.refresh();
+        }
+        return readiness.ready.values().stream()
+                .filter(element -> PlanUtils.isEligible(element, dirtyAssets))
                 .collect(Collectors.toList());
     }
 
@@ -60,8 +136,57 @@ public class DependencyStrategyHelper<C extends Element> {
         return dependencies;
     }
 
-    private static <C extends Element> boolean dependenciesFulfilled(Set<C> deps) {
-        return deps.isEmpty() || deps.stream().allMatch(c -> c.isComplete());
+    /**
+     * Returns whether the elements in this instance are exactly the provided elements, in the same order. This allows
+     * callers which cache an instance to tell whether it needs to be rebuilt for a different list of elements.
+     */
+    public boolean hasElements(Collection<C> elements) {
+        if (elements.size() != dependencies.size()) {
+            return false;
+        }
+        Iterator<C> existingElements = dependencies.keySet().iterator();
+        for (C element : elements) {
+            // Compared by identity, as the completion of the instances which were added is what's being tracked:
+            if (existingElements.next() != element) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the dependencies don't contain any cycles, which would leave the elements in the cycle waiting on
+     * each other forever.
+     *
+     * @throws InvalidDependencyException listing the elements which are in or blocked behind a cycle, if any
+     */
+    public void validate() throws InvalidDependencyException {
+        // Kahn's algorithm: repeatedly remove elements without remaining prerequisites. Anything left over is part of,
+        // or depends on, a cycle.
+        Map<C, Integer> remainingCounts = new HashMap<>();
+        Deque<C> removable = new ArrayDeque<>();
+        for (Map.Entry<C, Set<C>> entry : dependencies.entrySet()) {
+            remainingCounts.put(entry.getKey(), entry.getValue().size());
+            if (entry.getValue().isEmpty()) {
+                removable.add(entry.getKey());
+            }
+        }
+        while (!removable.isEmpty()) {
+            C element = removable.poll();
+            remainingCounts.remove(element);
+            for (C dependent : dependents.get(element)) {
+                if (remainingCounts.merge(dependent, -1, Integer::sum) == 0) {
+                    removable.add(dependent);
+                }
+            }
+        }
+        if (!remainingCounts.isEmpty()) {
+            throw new InvalidDependencyException("Dependency cycle detected among elements: " +
+                    dependencies.keySet().stream()
+                            .filter(remainingCounts::containsKey)
+                            .map(Element::getName)
+                            .collect(Collectors.toList()));
+        }
     }
 
     /**
@@ -11,11 +11,11 @@ import java.util.Collection;
  * @param <C> is the type of {@link Element}s to which the Strategy applies.
  */
 public class ParallelStrategy<C extends Element> extends InterruptibleStrategy<C> {
+    private DependencyStrategyHelper<C> dependencyStrategyHelper;
 
     @Override
     public Collection<C> getCandidates(Collection<C> elements, Collection<PodInstanceRequirement> dirtyAssets) {
-        // No prerequisites configured:
-        return new DependencyStrategyHelper<C>(elements).getCandidates(isInterrupted(), dirtyAssets);
+        return getDependencyStrategyHelper(elements).getCandidates(isInterrupted(), dirtyAssets);
     }
 
     @Override
@@ -27,6 +27,14 @@ public class ParallelStrategy<C extends Element> extends InterruptibleStrategy<C
         return new Generator<>();
     }
 
+    private DependencyStrategyHelper<C> getDependencyStrategyHelper(Collection<C> elements) {
+        // No prerequisites configured, only rebuilt if the elements have changed:
+        if (dependencyStrategyHelper == null || !dependencyStrategyHelper.hasElements(elements)) {
+            dependencyStrategyHelper = new DependencyStrategyHelper<>(elements);
+        }
+        return dependencyStrategyHelper;
+    }
+
     /**
      * This class generates Strategy objects of the appropriate type.
      *
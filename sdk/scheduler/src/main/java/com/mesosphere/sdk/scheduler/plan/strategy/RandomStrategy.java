@@ -12,12 +12,13 @@ import java.util.*;
  * @param <C> is the type of {@link Element}s to which the Strategy applies.
  */
 public class RandomStrategy<C extends Element> extends InterruptibleStrategy<C> {
+    private DependencyStrategyHelper<C> dependencyStrategyHelper;
 
     @Override
     public Collection<C> getCandidates(Collection<C> elements, Collection<PodInstanceRequirement> dirtyAssets) {
-        // No prerequites configured, with random selection of one entry from the resulting candidates:
+        // Random selection of one entry from the resulting candidates:
         List<C> candidates = new ArrayList<>(
-                new DependencyStrategyHelper<>(elements).getCandidates(isInterrupted(), dirtyAssets));
+                getDependencyStrategyHelper(elements).getCandidates(isInterrupted(), dirtyAssets));
         Collections.shuffle(candidates);
         Optional<C> candidateOptional = candidates.stream().findFirst();
 
@@ -33,6 +34,14 @@ public class RandomStrategy<C extends Element> extends InterruptibleStrategy<C>
         return new Generator<>();
     }
 
+    private DependencyStrategyHelper<C> getDependencyStrategyHelper(Collection<C> elements) {
+        // No prerequisites configured, only rebuilt if the elements have changed:
+        if (dependencyStrategyHelper == null || !dependencyStrategyHelper.hasElements(elements)) {
+            dependencyStrategyHelper = new DependencyStrategyHelper<>(elements);
+        }
+        return dependencyStrategyHelper;
+    }
+
     /**
      * This class generates Strategy objects of the appropriate type.
      *
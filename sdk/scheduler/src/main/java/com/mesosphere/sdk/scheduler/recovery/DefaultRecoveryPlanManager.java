@@ -119,6 +119,7 @@ public class DefaultRecoveryPlanManager implements PlanManager {
      */
     @Override
     public void update(Protos.TaskStatus status) {
+        failureMonitor.update(status);
         synchronized (planLock) {
             getPlan().update(status);
         }
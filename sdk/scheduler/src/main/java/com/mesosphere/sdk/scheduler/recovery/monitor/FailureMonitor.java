@@ -1,6 +1,7 @@
 package com.mesosphere.sdk.scheduler.recovery.monitor;
 
 import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.TaskStatus;
 
 /**
  * Instances of this class are used to determine when a stopped task has failed and should be restarted elsewhere.
@@ -16,4 +17,14 @@ public interface FailureMonitor {
      * machine might still come back
      */
     boolean hasFailed(TaskInfo task);
+
+    /**
+     * Notifies the monitor of a task status update, allowing it to track failures as they happen rather than only
+     * when {@link #hasFailed(TaskInfo)} is next called. The default implementation does nothing.
+     *
+     * @param status The status update which was received for a task
+     */
+    default void update(TaskStatus status) {
+        // Do nothing by default.
+    }
 }
@@ -1,6 +1,7 @@
 package com.mesosphere.sdk.scheduler.recovery.monitor;
 
 import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.TaskStatus;
 
 import java.util.Arrays;
 import java.util.List;
@@ -26,4 +27,9 @@ public class TestingFailureMonitor implements FailureMonitor {
     public boolean hasFailed(TaskInfo task) {
         return failedList.stream().anyMatch(task::equals);
     }
+
+    @Override
+    public void update(TaskStatus status) {
+        // Implemented here rather than inherited, so that this class may be spied upon by tests.
+    }
 }
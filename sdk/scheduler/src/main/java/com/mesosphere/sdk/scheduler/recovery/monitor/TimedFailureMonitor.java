@@ -1,43 +1,81 @@
 package com.mesosphere.sdk.scheduler.recovery.monitor;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.mesosphere.sdk.offer.CommonIdUtils;
 import com.mesosphere.sdk.offer.TaskException;
 import com.mesosphere.sdk.offer.TaskUtils;
 import com.mesosphere.sdk.specification.PodInstance;
 import com.mesosphere.sdk.specification.ServiceSpec;
+import com.mesosphere.sdk.specification.TaskSpec;
 import com.mesosphere.sdk.state.ConfigStore;
 import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.mesos.Protos.TaskID;
 import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.TaskState;
+import org.apache.mesos.Protos.TaskStatus;
 import com.mesosphere.sdk.scheduler.recovery.FailureUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implements a {@link FailureMonitor} with a time-based policy.
  * <p>
- * Note that, for safety reasons, this only sets a lower bound on when task is determined failed. Since during an outage
- * system clocks can be accidentally misconfigured (for instance, when adding new nodes), we cannot rely on system time
- * (since we might underestimate the wait), and so we must reset our clock from zero when the framework restarts. This
- * unfortunately means that if the framework is also being frequently restarted, this detector may never trigger. A
- * monotonic clock built on ZooKeeper could solve this, by recording each passing second, so that we only need to rely
- * on the fact that the clock proceeds at 1 second per second, rather than on the clocks being synchronized across
- * machines.
+ * The time at which each task was first seen to have failed is tracked by task name, starting from the first
+ * {@link TaskStatus} which shows that the task needs recovery given its goal state, and ending when the task is seen to
+ * be running again. When a task has remained failed for the configured duration, the expiry is recorded without
+ * waiting for the recovery plan to next ask about the task. The pod is then marked as permanently failed by the next
+ * call to {@link #hasFailed(TaskInfo)}, on the recovery plan's own thread.
+ * <p>
+ * Failure times are persisted as {@link StateStore} properties so that they survive a scheduler restart. Note that this
+ * relies on system clocks being roughly synchronized across the machines that the scheduler may run on. A clock which
+ * is running ahead after a failover will result in tasks being considered permanently failed early.
  */
 public class TimedFailureMonitor extends DefaultFailureMonitor {
     private static final Log log = LogFactory.getLog(TimedFailureMonitor.class);
-    // This map stores the time when we first noticed the failure
-    private final HashMap<TaskID, Date> firstFailureDetected;
+
+    private static final String PROPERTY_FAILURE_DETECTED_SUFFIX = ":failure-detected";
+
+    /**
+     * A failed task which is waiting to be considered permanently failed.
+     */
+    private static class Deadline {
+        private final Date failureDetected;
+        private ScheduledFuture<?> future;
+
+        private Deadline(Date failureDetected) {
+            this.failureDetected = failureDetected;
+        }
+    }
+
+    // This map stores the time when we first noticed the failure of each task, by task name
+    private final Map<String, Deadline> deadlines = new HashMap<>();
+    // The names of tracked tasks whose deadline has passed, guarded by the deadlines lock
+    private final Set<String> expiredTaskNames = new HashSet<>();
     private final Duration durationUntilFailed;
     private final StateStore stateStore;
     private final ConfigStore<ServiceSpec> configStore;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "failure-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
      * Creates a new {@link FailureMonitor} that waits for at least a specified duration before deciding that the task
-     * has failed.
+     * has failed. Any failures which were being tracked by a previous instance are resumed.
      *
      * @param durationUntilFailed The minimum amount of time which must pass before a stopped Task can be considered
      *                            failed.
@@ -46,18 +84,41 @@ public class TimedFailureMonitor extends DefaultFailureMonitor {
             Duration durationUntilFailed,
             StateStore stateStore,
             ConfigStore<ServiceSpec> configStore) {
-        this.firstFailureDetected = new HashMap<>();
         this.durationUntilFailed = durationUntilFailed;
         this.stateStore = stateStore;
         this.configStore = configStore;
+        loadDeadlines();
+    }
+
+    /**
+     * Starts tracking a task when its status shows that it has failed, and stops tracking it once it's running again.
+     * Tasks which are expected to exit, such as those with a goal state of {@code ONCE}, aren't tracked.
+     */
+    @Override
+    public void update(TaskStatus status) {
+        String taskName;
+        try {
+            taskName = CommonIdUtils.toTaskName(status.getTaskId());
+        } catch (TaskException e) {
+            log.warn("Failed to get task name from status: " + status.getTaskId().getValue(), e);
+            return;
+        }
+        if (status.getState() == TaskState.TASK_RUNNING) {
+            clearDeadline(taskName);
+            return;
+        }
+        Optional<TaskInfo> taskInfo = stateStore.fetchTask(taskName);
+        if (taskInfo.isPresent() && needsRecovery(taskInfo.get(), status)) {
+            getFailureDetected(taskName);
+        }
     }
 
     /**
      * Determines whether the given task has failed, by tracking the time delta between the first observed failure and
      * the current time.
      * <p>
-     * The first time a task is noticed to be failed, we record that time into a map, keyed by the task's {@link
-     * TaskID}. Then, we return true if at least the configured amount of time has passed since then.
+     * If the task's failure wasn't already being tracked, tracking starts now. Then, we return true if at least the
+     * configured amount of time has passed since the failure was first observed.
      *
      * @param terminatedTask The task that stopped and might be failed
      * @return true if the task has been stopped for at least the configured interval
@@ -68,28 +129,159 @@ public class TimedFailureMonitor extends DefaultFailureMonitor {
             return true;
         }
 
-        Date taskLaunchedTime;
-        synchronized (firstFailureDetected) {
-            if (!firstFailureDetected.containsKey(terminatedTask.getTaskId())) {
-                firstFailureDetected.put(terminatedTask.getTaskId(), new Date());
+        Date failureDetected = getFailureDetected(terminatedTask.getName());
+        Date taskExpiredTime = new Date(failureDetected.getTime() + durationUntilFailed.toMillis());
+        boolean expired;
+        synchronized (deadlines) {
+            // The deadline may have passed without its timer having run yet, e.g. right after a restart.
+            expired = expiredTaskNames.contains(terminatedTask.getName()) || !new Date().before(taskExpiredTime);
+        }
+        log.info("Looking at " + terminatedTask.getName() + " failure detected at " + failureDetected
+                + ", expires at " + taskExpiredTime + " which is " + expired);
+
+        if (!expired) {
+            return false;
+        }
+        setPermanentlyFailed(terminatedTask);
+        return true;
+    }
+
+    /**
+     * Returns the time that the task's failure was first detected, starting to track the failure if needed.
+     */
+    private Date getFailureDetected(String taskName) {
+        synchronized (deadlines) {
+            Deadline deadline = deadlines.get(taskName);
+            if (deadline == null) {
+                deadline = new Deadline(new Date());
+                log.info("Detected failure of " + taskName + ", will be considered permanently failed after "
+                        + durationUntilFailed);
+                try {
+                    stateStore.storeProperty(getPropertyKey(taskName),
+                            Long.toString(deadline.failureDetected.getTime()).getBytes(StandardCharsets.UTF_8));
+                } catch (StateStoreException e) {
+                    // Keep tracking in memory: This task's clock is reset if the scheduler restarts.
+                    log.error("Failed to persist failure time of " + taskName, e);
+                }
+                deadlines.put(taskName, deadline);
+                schedule(taskName, deadline);
+            }
+            return deadline.failureDetected;
+        }
+    }
+
+    private void clearDeadline(String taskName) {
+        synchronized (deadlines) {
+            Deadline deadline = deadlines.remove(taskName);
+            if (deadline == null) {
+                return;
+            }
+            expiredTaskNames.remove(taskName);
+            log.info("No longer tracking failure of " + taskName);
+            deadline.future.cancel(false);
+            try {
+                stateStore.clearProperty(getPropertyKey(taskName));
+            } catch (StateStoreException e) {
+                log.error("Failed to clear failure time of " + taskName, e);
+            }
+        }
+    }
+
+    private void schedule(String taskName, Deadline deadline) {
+        long delayMs = deadline.failureDetected.getTime() + durationUntilFailed.toMillis() - System.currentTimeMillis();
+        deadline.future = executor.schedule(() -> onDeadline(taskName), Math.max(0, delayMs), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records that the task's deadline has passed, if it still needs recovery. The task itself isn't modified here, as
+     * that would race with the offer and plan threads which also write tasks.
+     */
+    private void onDeadline(String taskName) {
+        synchronized (deadlines) {
+            if (!deadlines.containsKey(taskName)) {
+                // Recovered in the meantime.
+                return;
+            }
+        }
+        Optional<TaskInfo> taskInfo = stateStore.fetchTask(taskName);
+        Optional<TaskStatus> status = stateStore.fetchStatus(taskName);
+        if (!taskInfo.isPresent() || !status.isPresent() || !needsRecovery(taskInfo.get(), status.get())) {
+            // The task has been removed (e.g. due to decommission), or it no longer needs recovery.
+            clearDeadline(taskName);
+            return;
+        }
+        synchronized (deadlines) {
+            if (deadlines.containsKey(taskName)) {
+                log.info(taskName + " has been failed for at least " + durationUntilFailed
+                        + ", it will be marked as permanently failed");
+                expiredTaskNames.add(taskName);
             }
-            taskLaunchedTime = firstFailureDetected.get(terminatedTask.getTaskId());
         }
+    }
 
-        Date taskExpiredTime = new Date(taskLaunchedTime.getTime() + durationUntilFailed.toMillis());
-        Date now = new Date();
-        log.info("Looking at " + terminatedTask.getName() + " launchHappened at " + taskLaunchedTime + ", expires at "
-                + taskExpiredTime + " which is " + now.after(taskExpiredTime));
+    @VisibleForTesting
+    boolean isExpired(String taskName) {
+        synchronized (deadlines) {
+            return expiredTaskNames.contains(taskName);
+        }
+    }
 
-        if (now.after(taskExpiredTime)) {
+    /**
+     * Returns whether the provided task needs recovery given its current status and the goal state in its spec.
+     */
+    private boolean needsRecovery(TaskInfo taskInfo, TaskStatus status) {
+        try {
+            Optional<TaskSpec> taskSpec = TaskUtils.getTaskSpec(configStore, taskInfo);
+            return taskSpec.isPresent() && TaskUtils.needsRecovery(taskSpec.get(), status);
+        } catch (TaskException e) {
+            log.error("Failed to get task spec of " + taskInfo.getName(), e);
+            return false;
+        }
+    }
+
+    private void setPermanentlyFailed(TaskInfo taskInfo) {
+        try {
+            PodInstance podInstance = TaskUtils.getPodInstance(configStore, taskInfo);
+            FailureUtils.setPermanentlyFailed(stateStore, podInstance);
+        } catch (TaskException e) {
+            log.error("Failed to get pod instance to mark as failed.", e);
+        }
+    }
+
+    /**
+     * Resumes tracking of any failures which were persisted by a previous instance, dropping any tasks which have since
+     * been removed or relaunched.
+     */
+    private void loadDeadlines() {
+        for (String key : stateStore.fetchPropertyKeys()) {
+            if (!key.endsWith(PROPERTY_FAILURE_DETECTED_SUFFIX)) {
+                continue;
+            }
+            String taskName = key.substring(0, key.length() - PROPERTY_FAILURE_DETECTED_SUFFIX.length());
+            Optional<TaskInfo> taskInfo = stateStore.fetchTask(taskName);
+            Optional<TaskStatus> status = stateStore.fetchStatus(taskName);
+            if (!taskInfo.isPresent() || (status.isPresent() && !needsRecovery(taskInfo.get(), status.get()))) {
+                stateStore.clearProperty(key);
+                continue;
+            }
+            Deadline deadline;
             try {
-                PodInstance podInstance = TaskUtils.getPodInstance(configStore, terminatedTask);
-                FailureUtils.setPermanentlyFailed(stateStore, podInstance);
-            } catch (TaskException e) {
-                log.error("Failed to get pod instance to mark as failed.", e);
+                deadline = new Deadline(new Date(Long.parseLong(
+                        new String(stateStore.fetchProperty(key), StandardCharsets.UTF_8))));
+            } catch (NumberFormatException e) {
+                log.error("Discarding malformed failure time of " + taskName, e);
+                stateStore.clearProperty(key);
+                continue;
+            }
+            log.info("Resuming tracking of " + taskName + " failure detected at " + deadline.failureDetected);
+            synchronized (deadlines) {
+                deadlines.put(taskName, deadline);
+                schedule(taskName, deadline);
             }
         }
+    }
 
-        return super.hasFailed(terminatedTask);
+    private static String getPropertyKey(String taskName) {
+        return taskName + PROPERTY_FAILURE_DETECTED_SUFFIX;
     }
 }
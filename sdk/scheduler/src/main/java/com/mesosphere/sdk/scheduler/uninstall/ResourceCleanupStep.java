@@ -25,6 +25,13 @@ public class ResourceCleanupStep extends UninstallStep {
         this.resourceId = resourceId;
     }
 
+    /**
+     * Returns the ID of the resource which is cleaned up by this step.
+     */
+    public String getResourceId() {
+        return resourceId;
+    }
+
     @Override
     public Optional<PodInstanceRequirement> start() {
         if (isPending()) {
@@ -13,16 +13,18 @@ import java.util.Optional;
 public class TaskKillStep extends UninstallStep {
 
     private final Protos.TaskID taskID;
+    private final TaskKiller taskKiller;
 
-    public TaskKillStep(Protos.TaskID taskID) {
+    public TaskKillStep(Protos.TaskID taskID, TaskKiller taskKiller) {
         super("kill-task-" + taskID.getValue(), Status.PENDING);
         this.taskID = taskID;
+        this.taskKiller = taskKiller;
     }
 
     @Override
     public Optional<PodInstanceRequirement> start() {
         setStatus(Status.IN_PROGRESS);
-        TaskKiller.killTask(taskID);
+        taskKiller.killTask(taskID);
         setStatus(Status.COMPLETE);
 
         return getPodInstanceRequirement();
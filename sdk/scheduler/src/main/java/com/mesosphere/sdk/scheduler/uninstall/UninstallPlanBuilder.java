@@ -7,18 +7,16 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-import org.apache.http.impl.client.LaxRedirectStrategy;
 import org.apache.mesos.Protos;
 import org.slf4j.Logger;
 
-import com.mesosphere.sdk.dcos.DcosHttpClientBuilder;
-import com.mesosphere.sdk.dcos.DcosHttpExecutor;
 import com.mesosphere.sdk.dcos.clients.SecretsClient;
 import com.mesosphere.sdk.offer.Constants;
 import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.offer.ResourceUtils;
 import com.mesosphere.sdk.offer.TaskUtils;
 import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.scheduler.TaskKiller;
 import com.mesosphere.sdk.scheduler.plan.DefaultPhase;
 import com.mesosphere.sdk.scheduler.plan.DefaultPlan;
 import com.mesosphere.sdk.scheduler.plan.Phase;
@@ -47,6 +45,7 @@ public class UninstallPlanBuilder {
     private static final String DEREGISTER_PHASE = "deregister-service";
 
     private final Plan plan;
+    private final UninstallRecorder recorder;
 
     UninstallPlanBuilder(
             ServiceSpec serviceSpec,
@@ -54,6 +53,7 @@ public class UninstallPlanBuilder {
             StateStore stateStore,
             ConfigStore<ServiceSpec> configStore,
             SchedulerConfig schedulerConfig,
+            TaskKiller taskKiller,
             Optional<SecretsClient> customSecretsClientForTests) {
 
         // If there is no framework ID, wipe ZK and produce an empty COMPLETE plan
@@ -66,6 +66,7 @@ public class UninstallPlanBuilder {
                 LOGGER.error("Failed to clear all data", e);
             }
             plan = new DefaultPlan(Constants.DEPLOY_PLAN_NAME, Collections.emptyList());
+            recorder = new UninstallRecorder(stateStore, Collections.emptyList(), Collections.emptyList());
             return;
         }
 
@@ -74,7 +75,7 @@ public class UninstallPlanBuilder {
         // First, we kill all the tasks, so that we may release their reserved resources.
         List<Step> taskKillSteps = stateStore.fetchTasks().stream()
                 .map(Protos.TaskInfo::getTaskId)
-                .map(taskID -> new TaskKillStep(taskID))
+                .map(taskID -> new TaskKillStep(taskID, taskKiller))
                 .collect(Collectors.toList());
         phases.add(new DefaultPhase(TASK_KILL_PHASE, taskKillSteps, new ParallelStrategy<>(), Collections.emptyList()));
 
@@ -99,7 +100,7 @@ public class UninstallPlanBuilder {
                         && taskIdsInErrorState.contains(taskInfo.getTaskId())))
                 .collect(Collectors.toList());
 
-        List<Step> resourceSteps =
+        List<ResourceCleanupStep> resourceSteps =
                 ResourceUtils.getResourceIds(ResourceUtils.getAllResources(tasksNotFailedAndErrored)).stream()
                         .map(resourceId -> new ResourceCleanupStep(
                                 resourceId,
@@ -109,7 +110,11 @@ public class UninstallPlanBuilder {
                 tasksNotFailedAndErrored.size(), allTasks.size(),
                 resourceSteps.stream().filter(step -> step.isComplete()).count(),
                 resourceSteps.size());
-        phases.add(new DefaultPhase(RESOURCE_PHASE, resourceSteps, new ParallelStrategy<>(), Collections.emptyList()));
+        phases.add(new DefaultPhase(
+                RESOURCE_PHASE, new ArrayList<>(resourceSteps), new ParallelStrategy<>(), Collections.emptyList()));
+
+        // Index the resources and tasks once, rather than scanning them for every resource that's uninstalled.
+        recorder = new UninstallRecorder(stateStore, resourceSteps, allTasks);
 
         // If applicable, we also clean up any TLS secrets that we'd created before.
         // Note: This won't catch certificates where the user installed the service with TLS enabled, then disabled TLS
@@ -121,10 +126,7 @@ public class UninstallPlanBuilder {
                 // Use any provided custom test client, or otherwise construct a default client
                 SecretsClient secretsClient = customSecretsClientForTests.isPresent()
                         ? customSecretsClientForTests.get()
-                        : new SecretsClient(
-                                new DcosHttpExecutor(new DcosHttpClientBuilder()
-                                        .setTokenProvider(schedulerConfig.getDcosAuthTokenProvider())
-                                        .setRedirectStrategy(new LaxRedirectStrategy())));
+                        : new SecretsClient(schedulerConfig.getDcosHttpExecutor());
                 phases.add(new DefaultPhase(
                         TLS_CLEANUP_PHASE,
                         Collections.singletonList(new TLSCleanupStep(
@@ -154,4 +156,12 @@ public class UninstallPlanBuilder {
     Plan build() {
         return plan;
     }
+
+    /**
+     * Returns the recorder which marks resources as uninstalled in the state store and updates the plan's resource
+     * cleanup steps.
+     */
+    UninstallRecorder getRecorder() {
+        return recorder;
+    }
 }
@@ -7,97 +7,131 @@ import org.apache.mesos.Protos;
 import org.slf4j.Logger;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static com.mesosphere.sdk.offer.Constants.TOMBSTONE_MARKER;
 
 /**
  * Records to persistent storage the result of uninstalling/destroying resources in the process of installing the
  * service by marking them with a tombstone id, then notifying the uninstall plan of the changes.
+ *
+ * The tasks and cleanup steps which reference each resource are indexed up front, so that recording an uninstalled
+ * resource doesn't require scanning every task or step. All resources uninstalled in an offer cycle are tombstoned in a
+ * single update to the state store. Each affected task is re-read from the state store when it's updated, so that
+ * changes which were stored since the index was built (e.g. by the task killer) aren't overwritten.
  */
 public class UninstallRecorder implements OperationRecorder {
 
     private final Logger logger = LoggingUtils.getLogger(getClass());
     private final StateStore stateStore;
-    private final Collection<ResourceCleanupStep> resourceSteps;
 
-    UninstallRecorder(StateStore stateStore, Collection<ResourceCleanupStep> resourceSteps) {
+    /** Resource ID => names of the tasks which reference that resource. */
+    private final Map<String, Collection<String>> taskNamesByResourceId = new HashMap<>();
+    /** Resource ID => the uninstall plan step which cleans up that resource. */
+    private final Map<String, ResourceCleanupStep> resourceStepsByResourceId = new HashMap<>();
+
+    UninstallRecorder(
+            StateStore stateStore, Collection<ResourceCleanupStep> resourceSteps, Collection<Protos.TaskInfo> tasks) {
         this.stateStore = stateStore;
-        this.resourceSteps = resourceSteps;
+        for (Protos.TaskInfo task : tasks) {
+            for (String resourceId : ResourceUtils.getResourceIds(ResourceUtils.getAllResources(task))) {
+                taskNamesByResourceId.computeIfAbsent(resourceId, id -> new ArrayList<>()).add(task.getName());
+            }
+        }
+        for (ResourceCleanupStep resourceStep : resourceSteps) {
+            resourceStepsByResourceId.put(resourceStep.getResourceId(), resourceStep);
+        }
     }
 
     @Override
     public void record(OfferRecommendation offerRecommendation) throws Exception {
-        if (!(offerRecommendation instanceof UninstallRecommendation)) {
-            return;
-        }
+        recordAll(Collections.singletonList(offerRecommendation));
+    }
 
-        // each offerRec ought to be tied to a resource with an ID
-        UninstallRecommendation uninstallRecommendation = (UninstallRecommendation) offerRecommendation;
-        Protos.Resource resource = uninstallRecommendation.getResource();
-        logger.info("Marking resource as uninstalled: {}", TextFormat.shortDebugString(resource));
+    @Override
+    public void recordAll(Collection<OfferRecommendation> offerRecommendations) throws Exception {
+        // Find the tasks referencing the resources in these OfferRecommendations. Each resource ID is only handled
+        // once, as a volume is both destroyed and unreserved in the same offer.
+        Map<String, UninstallRecommendation> recommendationsByResourceId = new LinkedHashMap<>();
+        Map<String, Set<String>> resourceIdsByTaskName = new TreeMap<>();
+        for (OfferRecommendation offerRecommendation : offerRecommendations) {
+            if (!(offerRecommendation instanceof UninstallRecommendation)) {
+                continue;
+            }
+
+            // each offerRec ought to be tied to a resource with an ID
+            UninstallRecommendation uninstallRecommendation = (UninstallRecommendation) offerRecommendation;
+            Protos.Resource resource = uninstallRecommendation.getResource();
+            Optional<String> resourceId = ResourceUtils.getResourceId(resource);
+            if (!resourceId.isPresent() || recommendationsByResourceId.containsKey(resourceId.get())) {
+                continue;
+            }
+            logger.info("Marking resource as uninstalled: {}", TextFormat.shortDebugString(resource));
 
-        // Find the tasks referencing the resource in this OfferRecommendation
-        List<Protos.TaskInfo> tasksToUpdate = stateStore.fetchTasks().stream()
-                .filter(taskSpec -> containsResource(taskSpec, resource))
-                .collect(Collectors.toList());
-        if (tasksToUpdate.isEmpty()) {
+            Collection<String> taskNames = taskNamesByResourceId.get(resourceId.get());
+            if (taskNames == null || taskNames.isEmpty()) {
+                continue;
+            }
+            logger.info("Resource {}/{} found in {} task{}: {}",
+                    resource.getName(),
+                    resourceId.get(),
+                    taskNames.size(),
+                    taskNames.size() == 1 ? "" : "s",
+                    taskNames);
+
+            recommendationsByResourceId.put(resourceId.get(), uninstallRecommendation);
+            for (String taskName : taskNames) {
+                resourceIdsByTaskName.computeIfAbsent(taskName, name -> new HashSet<>()).add(resourceId.get());
+            }
+        }
+        if (recommendationsByResourceId.isEmpty()) {
             return;
         }
 
-        logger.info("Resource {}/{} found in {} task{}: {}",
-                resource.getName(),
-                ResourceUtils.getResourceId(resource),
-                tasksToUpdate.size(),
-                tasksToUpdate.size() == 1 ? "" : "s",
-                tasksToUpdate.stream().map(Protos.TaskInfo::getName).collect(Collectors.toList()));
+        List<Protos.TaskInfo> updatedTasks = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : resourceIdsByTaskName.entrySet()) {
+            Optional<Protos.TaskInfo> currentTask = stateStore.fetchTask(entry.getKey());
+            if (currentTask.isPresent()) {
+                updatedTasks.add(updateResources(currentTask.get(), entry.getValue()));
+            } else {
+                logger.warn("Task {} is no longer present in the state store, skipping update", entry.getKey());
+            }
+        }
+        if (!updatedTasks.isEmpty()) {
+            stateStore.storeTasks(updatedTasks);
+        }
 
-        stateStore.storeTasks(updateResources(resource, tasksToUpdate));
+        // The resources no longer appear in the stored tasks under their original IDs:
+        taskNamesByResourceId.keySet().removeAll(recommendationsByResourceId.keySet());
 
-        // Broadcast the resulting uninstallRecommendation to each resource step in the uninstall plan.
+        // Pass each resulting uninstallRecommendation to the matching resource step in the uninstall plan.
         // We need to manually pass the uninstall recommendation to the resource cleanup steps. They do not get this
         // information via DefaultPlanScheduler because that only handles deployment (and therefore is not used by
         // UninstallScheduler), whereas these are handled via the ResourceCleanerScheduler.
-        List<OfferRecommendation> uninstallRecommendations = Collections.singletonList(uninstallRecommendation);
-        resourceSteps.forEach(step -> step.updateOfferStatus(uninstallRecommendations));
-    }
-
-    private static boolean containsResource(Protos.TaskInfo taskInfo, Protos.Resource resource) {
-        return ResourceUtils.getAllResources(taskInfo).stream()
-                .anyMatch(taskInfoResource -> resourcesMatch(taskInfoResource, resource));
-    }
-
-    private static boolean resourcesMatch(Protos.Resource resource1, Protos.Resource resource2) {
-        return ResourceUtils.getResourceId(resource1).equals(ResourceUtils.getResourceId(resource2));
+        for (Map.Entry<String, UninstallRecommendation> entry : recommendationsByResourceId.entrySet()) {
+            ResourceCleanupStep resourceStep = resourceStepsByResourceId.get(entry.getKey());
+            if (resourceStep != null) {
+                resourceStep.updateOfferStatus(Collections.singletonList(entry.getValue()));
+            }
+        }
     }
 
-    private static Collection<Protos.TaskInfo> updateResources(
-            Protos.Resource resource, Collection<Protos.TaskInfo> tasksToUpdate) {
-        // create new copies of taskinfos with updated resources
-        final Optional<String> initialResourceId = ResourceUtils.getResourceId(resource);
-        Collection<Protos.TaskInfo> updatedTaskInfos = new ArrayList<>();
-        if (!initialResourceId.isPresent()) {
-            return updatedTaskInfos;
-        }
-        for (Protos.TaskInfo taskInfoToUpdate : tasksToUpdate) {
-            updatedTaskInfos.add(Protos.TaskInfo.newBuilder(taskInfoToUpdate)
-                    .clearResources()
-                    .addAllResources(updatedResources(initialResourceId.get(), taskInfoToUpdate.getResourcesList()))
-                    .build());
-        }
-        return updatedTaskInfos;
+    private static Protos.TaskInfo updateResources(Protos.TaskInfo taskInfoToUpdate, Set<String> initialResourceIds) {
+        // create a new copy of the taskinfo with updated resources
+        return Protos.TaskInfo.newBuilder(taskInfoToUpdate)
+                .clearResources()
+                .addAllResources(updatedResources(initialResourceIds, taskInfoToUpdate.getResourcesList()))
+                .build();
     }
 
     private static Collection<Protos.Resource> updatedResources(
-            String initialResourceId, Collection<Protos.Resource> resources) {
-        // find the matching resource in each task and update its resource_id
-        final String uninstalledResourceId = TOMBSTONE_MARKER + initialResourceId;
+            Set<String> initialResourceIds, Collection<Protos.Resource> resources) {
+        // find the matching resources in each task and update their resource_id
         Collection<Protos.Resource> updatedResources = new ArrayList<>();
         for (Protos.Resource resource : resources) {
             Optional<String> thisResourceId = ResourceUtils.getResourceId(resource);
-            if (thisResourceId.isPresent() && initialResourceId.equals(thisResourceId.get())) {
+            if (thisResourceId.isPresent() && initialResourceIds.contains(thisResourceId.get())) {
                 updatedResources.add(ResourceBuilder.fromExistingResource(resource)
-                        .setResourceId(uninstalledResourceId)
+                        .setResourceId(TOMBSTONE_MARKER + thisResourceId.get())
                         .build());
             } else {
                 updatedResources.add(resource);
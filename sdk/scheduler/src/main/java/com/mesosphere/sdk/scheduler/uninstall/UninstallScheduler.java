@@ -8,6 +8,7 @@ import com.mesosphere.sdk.http.types.PlanInfo;
 import com.mesosphere.sdk.offer.*;
 import com.mesosphere.sdk.scheduler.AbstractScheduler;
 import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.scheduler.TaskKiller;
 import com.mesosphere.sdk.scheduler.plan.*;
 import com.mesosphere.sdk.specification.ServiceSpec;
 import com.mesosphere.sdk.state.ConfigStore;
@@ -47,7 +48,8 @@ public class UninstallScheduler extends AbstractScheduler {
             StateStore stateStore,
             ConfigStore<ServiceSpec> configStore,
             SchedulerConfig schedulerConfig,
-            Optional<PlanCustomizer> planCustomizer) {
+            Optional<PlanCustomizer> planCustomizer,
+            TaskKiller taskKiller) {
         this(
                 frameworkInfo,
                 serviceSpec,
@@ -56,6 +58,7 @@ public class UninstallScheduler extends AbstractScheduler {
                 configStore,
                 schedulerConfig,
                 planCustomizer,
+                taskKiller,
                 Optional.empty());
     }
 
@@ -67,31 +70,34 @@ public class UninstallScheduler extends AbstractScheduler {
             ConfigStore<ServiceSpec> configStore,
             SchedulerConfig schedulerConfig,
             Optional<PlanCustomizer> planCustomizer,
+            TaskKiller taskKiller,
             Optional<SecretsClient> customSecretsClientForTests) {
-        super(frameworkInfo, frameworkStore, stateStore, configStore, schedulerConfig, planCustomizer);
+        super(
+                frameworkInfo,
+                frameworkStore,
+                stateStore,
+                configStore,
+                schedulerConfig,
+                planCustomizer,
+                taskKiller);
         this.secretsClient = customSecretsClientForTests;
 
-        Plan plan = new UninstallPlanBuilder(
+        UninstallPlanBuilder planBuilder = new UninstallPlanBuilder(
                 serviceSpec,
                 frameworkStore,
                 stateStore,
                 configStore,
                 schedulerConfig,
-                secretsClient)
-                .build();
+                taskKiller,
+                secretsClient);
+        Plan plan = planBuilder.build();
 
         this.uninstallPlanManager = DefaultPlanManager.createProceeding(plan);
         this.resources = Arrays.asList(
                 new PlansResource(Collections.singletonList(uninstallPlanManager)),
                 new HealthResource(Collections.singletonList(uninstallPlanManager)));
 
-        List<ResourceCleanupStep> resourceCleanupSteps = plan.getChildren().stream()
-                .flatMap(phase -> phase.getChildren().stream())
-                .filter(step -> step instanceof ResourceCleanupStep)
-                .map(step -> (ResourceCleanupStep) step)
-                .collect(Collectors.toList());
-        this.offerAccepter = new OfferAccepter(Collections.singletonList(
-                new UninstallRecorder(stateStore, resourceCleanupSteps)));
+        this.offerAccepter = new OfferAccepter(Collections.singletonList(planBuilder.getRecorder()));
 
         try {
             logger.info("Uninstall plan set to: {}", SerializationUtils.toJsonString(PlanInfo.forPlan(plan)));
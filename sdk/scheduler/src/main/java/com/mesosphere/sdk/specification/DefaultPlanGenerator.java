@@ -12,6 +12,7 @@ import com.mesosphere.sdk.state.StateStore;
 import org.slf4j.Logger;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -31,7 +32,7 @@ public class DefaultPlanGenerator implements PlanGenerator {
 
     @Override
     public Plan generate(RawPlan rawPlan, String planName, Collection<PodSpec> podsSpecs) {
-        final List<Phase> phases = rawPlan.getPhases().entrySet().stream()
+        final List<Phase> phases = rawPlan.getPhases().entrySet().parallelStream()
                 .map(entry-> from(entry.getValue(), entry.getKey(), podsSpecs))
                 .collect(Collectors.toList());
         return DeployPlanFactory.getPlan(planName, phases,
@@ -48,14 +49,15 @@ public class DefaultPlanGenerator implements PlanGenerator {
         }
         PodSpec podSpec = podSpecOptional.get();
 
-        final List<Step> steps = new LinkedList<>();
+        // Steps are generated in parallel below, as each involves fetching the pod instance's tasks:
+        final List<Supplier<Step>> stepSuppliers = new ArrayList<>();
         if (rawPhase.getSteps() == null || rawPhase.getSteps().isEmpty()) {
             // Generate steps from pod's tasks that are in RUNNING state.
             for (int i = 0; i < podSpec.getCount(); i++) {
                 List<String> taskNames = podSpec.getTasks().stream()
                         .map(taskSpec -> taskSpec.getName())
                         .collect(Collectors.toList());
-                steps.add(from(new DefaultPodInstance(podSpec, i), taskNames));
+                stepSuppliers.add(getStepSupplier(new DefaultPodInstance(podSpec, i), taskNames));
             }
         } else {
             // Guarantee each map has exactly one element
@@ -78,17 +80,20 @@ public class DefaultPlanGenerator implements PlanGenerator {
                     if (taskLists != null) {
                         // Use default defined behavior (e.g. default: [[foo, bar], [baz]])
                         for (List<String> taskNames : taskLists) {
-                            steps.add(from(new DefaultPodInstance(podSpec, i), taskNames));
+                            stepSuppliers.add(getStepSupplier(new DefaultPodInstance(podSpec, i), taskNames));
                         }
                     }
                 } else {
                     // Add steps defined for the specific step (e.g. 2: [[foo, bar], [baz]])
                     for (List<String> taskNames : taskLists) {
-                        steps.add(from(new DefaultPodInstance(podSpec, i), taskNames));
+                        stepSuppliers.add(getStepSupplier(new DefaultPodInstance(podSpec, i), taskNames));
                     }
                 }
             }
         }
+        final List<Step> steps = stepSuppliers.parallelStream()
+                .map(Supplier::get)
+                .collect(Collectors.toList());
         return DefaultPhaseFactory.getPhase(
                 phaseName,
                 steps,
@@ -108,13 +113,15 @@ public class DefaultPlanGenerator implements PlanGenerator {
         }
     }
 
-    private Step from(PodInstance podInstance, List<String> tasksToLaunch) {
-        try {
-            return stepFactory.getStep(podInstance, tasksToLaunch);
-        } catch (Exception e) {
-            LOGGER.error("Failed to generate step", e);
-            throw new IllegalStateException(e);
-        }
+    private Supplier<Step> getStepSupplier(PodInstance podInstance, List<String> tasksToLaunch) {
+        return () -> {
+            try {
+                return stepFactory.getStep(podInstance, tasksToLaunch);
+            } catch (Exception e) {
+                LOGGER.error("Failed to generate step", e);
+                throw new IllegalStateException(e);
+            }
+        };
     }
 
     @VisibleForTesting
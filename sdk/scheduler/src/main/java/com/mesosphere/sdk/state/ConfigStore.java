@@ -1,5 +1,9 @@
 package com.mesosphere.sdk.state;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.mesosphere.sdk.config.Configuration;
 import com.mesosphere.sdk.config.ConfigurationFactory;
 import com.mesosphere.sdk.offer.LoggingUtils;
@@ -11,6 +15,13 @@ import org.slf4j.Logger;
 
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * An implementation of {@link ConfigStore} which relies on the provided {@link Persister} for data persistence.
@@ -21,6 +32,19 @@ import java.util.*;
  * <br>&nbsp; Configurations/
  * <br>&nbsp; &nbsp; UUID-0 (contains serialized config)
  * <br>&nbsp; &nbsp; UUID-1 (contains serialized config)
+ * <br>&nbsp; ConfigTemplates/
+ * <br>&nbsp; &nbsp; SHA256-0 (contains config template content)
+ * <br>&nbsp; &nbsp; SHA256-1 (contains config template content)
+ * <p>
+ * <p>Config templates are typically large and rarely change between configurations, so rather than being serialized
+ * inline within each configuration, each distinct template is stored once under {@code ConfigTemplates}, named by the
+ * SHA-256 hash of its content. Stored configurations refer to their templates by hash. Configurations which were stored
+ * with inline templates are still read as-is. Templates which are no longer referenced by any configuration are removed
+ * by {@link #clearUnusedTemplates()}.
+ * <p>
+ * <p>Deserialized configurations are cached, up to a total of {@link #DEFAULT_MAX_CACHE_BYTES} of serialized content,
+ * with the least recently used configurations being evicted first. Configurations which are about to be needed may be
+ * loaded into the cache together via {@link #prefetch(Collection)}.
  *
  * @param <T> The {@code Configuration} object to be serialized and deserialized in the
  *            implementation of this interface
@@ -31,10 +55,45 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
 
     private static final String TARGET_ID_PATH_NAME = "ConfigTarget";
     private static final String CONFIGURATIONS_PATH_NAME = "Configurations";
+    private static final String TEMPLATES_PATH_NAME = "ConfigTemplates";
+
+    /**
+     * The default limit on the total size of cached configurations, as measured by their serialized size with templates
+     * inlined. This is an approximation of the memory used by the deserialized configurations.
+     */
+    static final long DEFAULT_MAX_CACHE_BYTES = 32 * 1024 * 1024;
+
+    /**
+     * Deserializes prefetched configurations. Shared across all instances.
+     */
+    private static final ExecutorService PARSE_EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())),
+            runnable -> {
+                Thread thread = new Thread(runnable, "config-parse");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * A deserialized configuration, along with the size of its serialized form.
+     */
+    private static class CachedConfig<T> {
+        private final T config;
+        private final int bytes;
+
+        private CachedConfig(T config, int bytes) {
+            this.config = config;
+            this.bytes = bytes;
+        }
+    }
 
     private final Persister persister;
     private final String namespace;
-    private final Map<UUID, T> cache = new HashMap<>();
+    /** Deserialized configurations by ID, evicted in LRU order. Accessed by HTTP threads and prefetch workers. */
+    private final Cache<UUID, CachedConfig<T>> cache;
+    private final AtomicLong cachedBytes = new AtomicLong(0);
+    /** Template content which is known to be present in storage, by hash. Accessed by HTTP threads. */
+    private final Map<String, String> templateCache = new ConcurrentHashMap<>();
 
     private ConfigurationFactory<T> factory;
 
@@ -58,9 +117,27 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
      * @param namespace The namespace for data to be stored within, or an empty string for no namespacing
      */
     public ConfigStore(ConfigurationFactory<T> factory, Persister persister, String namespace) {
+        this(factory, persister, namespace, DEFAULT_MAX_CACHE_BYTES);
+    }
+
+    @VisibleForTesting
+    ConfigStore(ConfigurationFactory<T> factory, Persister persister, String namespace, long maxCacheBytes) {
         this.factory = factory;
         this.persister = persister;
         this.namespace = namespace;
+        // A single segment, so that eviction is in LRU order across all entries:
+        this.cache = CacheBuilder.newBuilder()
+                .concurrencyLevel(1)
+                .maximumWeight(maxCacheBytes)
+                .<UUID, CachedConfig<T>>weigher((id, cachedConfig) -> cachedConfig.bytes)
+                .<UUID, CachedConfig<T>>removalListener(notification -> {
+                    cachedBytes.addAndGet(-notification.getValue().bytes);
+                    if (notification.wasEvicted()) {
+                        logger.info("Evicted configuration {} from cache, {} bytes remain cached",
+                                notification.getKey(), cachedBytes.get());
+                    }
+                })
+                .build();
     }
 
     /**
@@ -74,7 +151,7 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
      * Indicates whether the provided key is present in the store.
      */
     public boolean hasKey(UUID id) throws ConfigStoreException {
-        return cache.containsKey(id) || list().contains(id);
+        return cache.getIfPresent(id) != null || list().contains(id);
     }
 
     /**
@@ -97,15 +174,33 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
      */
     public void store(UUID id, T config) throws ConfigStoreException {
         String path = getConfigPath(namespace, id);
-        byte[] data = config.getBytes();
+        Map<String, String> templates = new HashMap<>();
+        byte[] bytes = config.getBytes();
+        byte[] data = TemplateReferences.extract(bytes, templates);
+
+        // Write any new templates in the same operation as the configuration which refers to them:
+        Map<String, byte[]> pathBytesMap = new HashMap<>();
+        for (Map.Entry<String, String> entry : templates.entrySet()) {
+            if (!templateCache.containsKey(entry.getKey())) {
+                pathBytesMap.put(
+                        getTemplatePath(namespace, entry.getKey()),
+                        entry.getValue().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        pathBytesMap.put(path, data);
         try {
-            persister.set(path, data);
+            persister.setMany(pathBytesMap);
         } catch (PersisterException e) {
             throw new ConfigStoreException(e, String.format(
                     "Failed to store configuration to path '%s': %s", path, config));
         }
+        if (!templates.isEmpty()) {
+            logger.info("Stored configuration {} with {} templates ({} new)",
+                    id, templates.size(), pathBytesMap.size() - 1);
+        }
 
-        cache.put(id, config);
+        templateCache.putAll(templates);
+        putCache(id, config, bytes.length);
     }
 
     /**
@@ -118,28 +213,91 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
      *                              config is missing
      */
     public T fetch(UUID id) throws ConfigStoreException {
-        if (cache.containsKey(id)) {
-            return cache.get(id);
+        CachedConfig<T> cachedConfig = cache.getIfPresent(id);
+        if (cachedConfig != null) {
+            return cachedConfig.config;
         }
 
-        String path = getConfigPath(namespace, id);
-        logger.info("Fetching configuration with ID={} from {}", id, path);
-        byte[] data;
+        logger.info("Fetching configuration with ID={} from {}", id, getConfigPath(namespace, id));
+        return parseAndCache(id, fetchStoredBytes(id));
+    }
+
+    /**
+     * Loads any of the provided configurations which aren't already cached, so that they may then be returned by
+     * {@link #fetch(UUID)} without accessing storage. The configurations and any templates that they refer to are
+     * retrieved in batches, and the configurations are then deserialized in parallel.
+     * <p>
+     * Configurations which are missing or which fail to be deserialized are skipped, so that the error is instead
+     * surfaced by {@link #fetch(UUID)}. If the configurations exceed the cache size limit, only the last ones to be
+     * deserialized will remain cached.
+     *
+     * @param ids The UUIDs of the configurations to be loaded
+     * @return the number of configurations which were loaded
+     * @throws ConfigStoreException if retrieval of the configurations fails
+     */
+    public int prefetch(Collection<UUID> ids) throws ConfigStoreException {
+        Map<String, UUID> idsByPath = new HashMap<>();
+        for (UUID id : ids) {
+            if (cache.getIfPresent(id) == null) {
+                idsByPath.put(getConfigPath(namespace, id), id);
+            }
+        }
+        if (idsByPath.isEmpty()) {
+            return 0;
+        }
+
+        long startMs = System.currentTimeMillis();
+        Map<String, byte[]> storedBytesByPath;
         try {
-            data = persister.get(path);
+            storedBytesByPath = persister.getMany(idsByPath.keySet());
         } catch (PersisterException e) {
-            if (e.getReason() == Reason.NOT_FOUND) {
-                throw new ConfigStoreException(Reason.NOT_FOUND, String.format(
-                        "Configuration '%s' was not found at path '%s'", id, path), e);
-            } else {
-                throw new ConfigStoreException(e, String.format(
-                        "Failed to retrieve configuration '%s' from path '%s'", id, path));
-            }
+            throw new ConfigStoreException(e, String.format(
+                    "Failed to retrieve configurations %s", idsByPath.values()));
         }
+        prefetchTemplates(storedBytesByPath.values());
 
-        T config = factory.parse(data);
-        cache.put(id, config);
-        return config;
+        List<CompletableFuture<Boolean>> parsed = storedBytesByPath.entrySet().stream()
+                .filter(entry -> entry.getValue() != null)
+                .map(entry -> CompletableFuture.supplyAsync(() -> {
+                    UUID id = idsByPath.get(entry.getKey());
+                    try {
+                        parseAndCache(id, entry.getValue());
+                        return true;
+                    } catch (ConfigStoreException | RuntimeException e) {
+                        logger.warn("Failed to prefetch configuration {}: {}", id, e.getMessage());
+                        return false;
+                    }
+                }, PARSE_EXECUTOR))
+                .collect(Collectors.toList());
+        int loaded = (int) parsed.stream().filter(CompletableFuture::join).count();
+        logger.info("Prefetched {} of {} requested configurations in {}ms, {} bytes cached",
+                loaded, idsByPath.size(), System.currentTimeMillis() - startMs, cachedBytes.get());
+        return loaded;
+    }
+
+    /**
+     * Retrieves the content of a config template within the configuration assigned to the provided UUID, without
+     * deserializing the configuration itself.
+     *
+     * @param id The UUID of the configuration containing the template
+     * @param locator Returns the JSON object within the serialized configuration which contains the template content,
+     *                or an empty {@link Optional} if the template wasn't found
+     * @return The content of the template, or an empty {@link Optional} if the template wasn't found
+     * @throws ConfigStoreException if retrieval or parsing fails, or if the requested config is missing
+     */
+    public Optional<String> fetchTemplate(UUID id, Function<JsonNode, Optional<JsonNode>> locator)
+            throws ConfigStoreException {
+        Optional<JsonNode> templateParent = locator.apply(TemplateReferences.parse(fetchStoredBytes(id)));
+        if (!templateParent.isPresent()) {
+            return Optional.empty();
+        }
+        JsonNode hash = templateParent.get().get(TemplateReferences.TEMPLATE_HASH_FIELD);
+        if (hash != null && hash.isTextual()) {
+            return Optional.of(fetchTemplate(hash.textValue()));
+        }
+        // Configuration was stored with inline templates:
+        JsonNode content = templateParent.get().get(TemplateReferences.TEMPLATE_CONTENT_FIELD);
+        return content != null && content.isTextual() ? Optional.of(content.textValue()) : Optional.empty();
     }
 
     /**
@@ -164,7 +322,80 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
             }
         }
 
-        cache.remove(id);
+        cache.invalidate(id);
+    }
+
+    /**
+     * Deletes any stored config templates which are not referenced by any stored configuration. This should be invoked
+     * after configurations have been removed via {@link #clear(UUID)}.
+     *
+     * @throws ConfigStoreException if reading the remaining configurations or deleting templates fails
+     */
+    public void clearUnusedTemplates() throws ConfigStoreException {
+        String templatesPath = getTemplatesPath(namespace);
+        Collection<String> storedHashes;
+        try {
+            storedHashes = persister.getChildren(templatesPath);
+        } catch (PersisterException e) {
+            if (e.getReason() == Reason.NOT_FOUND) {
+                // No templates have been stored.
+                return;
+            }
+            throw new ConfigStoreException(e, String.format(
+                    "Failed to retrieve list of config templates from '%s'", templatesPath));
+        }
+
+        Set<String> referencedHashes = new HashSet<>();
+        List<String> configPaths = new ArrayList<>();
+        for (UUID id : list()) {
+            configPaths.add(getConfigPath(namespace, id));
+        }
+        try {
+            for (Map.Entry<String, byte[]> entry : persister.getMany(configPaths).entrySet()) {
+                if (entry.getValue() == null) {
+                    // Removed since being listed. Nothing to retain.
+                    continue;
+                }
+                referencedHashes.addAll(TemplateReferences.getReferences(entry.getValue()));
+            }
+        } catch (PersisterException e) {
+            throw new ConfigStoreException(e, String.format(
+                    "Failed to retrieve configurations %s to find referenced templates", configPaths));
+        }
+
+        List<String> unusedPaths = new ArrayList<>();
+        for (String hash : storedHashes) {
+            if (!referencedHashes.contains(hash)) {
+                unusedPaths.add(getTemplatePath(namespace, hash));
+                templateCache.remove(hash);
+            }
+        }
+        if (unusedPaths.isEmpty()) {
+            return;
+        }
+        logger.info("Cleaning up {} unused config templates", unusedPaths.size());
+        try {
+            persister.recursiveDeleteMany(unusedPaths);
+        } catch (PersisterException e) {
+            throw new ConfigStoreException(e, String.format(
+                    "Failed to delete unused config templates: %s", unusedPaths));
+        }
+    }
+
+    /**
+     * Discards any cached state which is only valid while this instance is the sole writer to storage. This should be
+     * invoked before writing via an instance whose cache was populated while another scheduler may have been writing,
+     * e.g. by a standby scheduler upon taking over. Another scheduler may have removed templates via
+     * {@link #clearUnusedTemplates()}, which {@link #store(UUID, Configuration)} would otherwise assume to still be
+     * present, or removed configurations which are still cached.
+     *
+     * @throws ConfigStoreException if retrieving the list of stored configurations fails
+     */
+    public void revalidate() throws ConfigStoreException {
+        templateCache.clear();
+        Set<UUID> storedIds = new HashSet<>(list());
+        cache.asMap().keySet().retainAll(storedIds);
+        logger.info("Revalidated cache against storage: {} configurations remain cached", cache.size());
     }
 
     /**
@@ -232,6 +463,107 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
         }
     }
 
+    /**
+     * Returns whether the configuration with the provided UUID is currently cached.
+     */
+    @VisibleForTesting
+    boolean isCached(UUID id) {
+        return cache.getIfPresent(id) != null;
+    }
+
+    /**
+     * Deserializes the provided stored configuration, with any template references inlined, and adds it to the cache.
+     */
+    private T parseAndCache(UUID id, byte[] storedBytes) throws ConfigStoreException {
+        byte[] bytes = TemplateReferences.inline(storedBytes, this::fetchTemplate);
+        T config = factory.parse(bytes);
+        putCache(id, config, bytes.length);
+        return config;
+    }
+
+    private void putCache(UUID id, T config, int bytes) {
+        // Account for the entry before adding it, as adding it may evict it again immediately.
+        cachedBytes.addAndGet(bytes);
+        cache.put(id, new CachedConfig<>(config, bytes));
+    }
+
+    /**
+     * Loads any templates which are referenced by the provided stored configurations and aren't already cached, in a
+     * single batch. Any which fail to be retrieved are left to be retrieved individually by {@link #fetchTemplate}.
+     */
+    private void prefetchTemplates(Collection<byte[]> storedConfigs) {
+        Map<String, String> missingHashesByPath = new HashMap<>();
+        for (byte[] storedConfig : storedConfigs) {
+            if (storedConfig == null) {
+                continue;
+            }
+            try {
+                for (String hash : TemplateReferences.getReferences(storedConfig)) {
+                    if (!templateCache.containsKey(hash)) {
+                        missingHashesByPath.put(getTemplatePath(namespace, hash), hash);
+                    }
+                }
+            } catch (ConfigStoreException e) {
+                // Left to be surfaced when the configuration itself is parsed.
+            }
+        }
+        if (missingHashesByPath.isEmpty()) {
+            return;
+        }
+        try {
+            for (Map.Entry<String, byte[]> entry : persister.getMany(missingHashesByPath.keySet()).entrySet()) {
+                if (entry.getValue() != null) {
+                    String content = new String(entry.getValue(), StandardCharsets.UTF_8);
+                    templateCache.put(missingHashesByPath.get(entry.getKey()), content);
+                }
+            }
+        } catch (PersisterException e) {
+            logger.warn("Failed to prefetch config templates {}: {}", missingHashesByPath.values(), e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the serialized configuration as it was stored, with any templates left as references.
+     */
+    private byte[] fetchStoredBytes(UUID id) throws ConfigStoreException {
+        String path = getConfigPath(namespace, id);
+        try {
+            return persister.get(path);
+        } catch (PersisterException e) {
+            if (e.getReason() == Reason.NOT_FOUND) {
+                throw new ConfigStoreException(Reason.NOT_FOUND, String.format(
+                        "Configuration '%s' was not found at path '%s'", id, path), e);
+            } else {
+                throw new ConfigStoreException(e, String.format(
+                        "Failed to retrieve configuration '%s' from path '%s'", id, path));
+            }
+        }
+    }
+
+    /**
+     * Returns the content of the template with the provided hash.
+     */
+    private String fetchTemplate(String hash) throws ConfigStoreException {
+        String content = templateCache.get(hash);
+        if (content != null) {
+            return content;
+        }
+        String path = getTemplatePath(namespace, hash);
+        try {
+            content = new String(persister.get(path), StandardCharsets.UTF_8);
+        } catch (PersisterException e) {
+            if (e.getReason() == Reason.NOT_FOUND) {
+                throw new ConfigStoreException(Reason.NOT_FOUND, String.format(
+                        "Config template '%s' was not found at path '%s'", hash, path), e);
+            } else {
+                throw new ConfigStoreException(e, String.format(
+                        "Failed to retrieve config template '%s' from path '%s'", hash, path));
+            }
+        }
+        templateCache.put(hash, content);
+        return content;
+    }
+
     /**
      * @return {@code Services/[namespace]/ConfigTarget}, or {@code ConfigTarget}
      */
@@ -252,4 +584,18 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
     private static String getConfigsPath(String namespace) {
         return PersisterUtils.getServiceNamespacedRootPath(namespace, CONFIGURATIONS_PATH_NAME);
     }
+
+    /**
+     * @return {@code Services/[namespace]/ConfigTemplates/[hash]}, or {@code ConfigTemplates/[hash]}
+     */
+    private static String getTemplatePath(String namespace, String hash) {
+        return PersisterUtils.join(getTemplatesPath(namespace), hash);
+    }
+
+    /**
+     * @return {@code Services/[namespace]/ConfigTemplates}, or {@code ConfigTemplates}
+     */
+    private static String getTemplatesPath(String namespace) {
+        return PersisterUtils.getServiceNamespacedRootPath(namespace, TEMPLATES_PATH_NAME);
+    }
 }
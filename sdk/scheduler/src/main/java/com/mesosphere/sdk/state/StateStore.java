@@ -14,6 +14,9 @@ import org.slf4j.Logger;
 
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
  * A {@code StateStore} stores the state of a service, including tasks' TaskInfo and TaskStatus objects. Each
@@ -61,6 +64,46 @@ public class StateStore {
     protected final Persister persister;
     protected final String namespace;
 
+    /**
+     * Incremented after every write made via this instance. See {@link #getVersion()}.
+     */
+    private final AtomicLong version = new AtomicLong(0);
+
+    /**
+     * Incremented after writes to particular kinds of data, so that readers of only that data aren't affected by other
+     * writes. See {@link #getTaskInfoVersion()}, {@link #getTaskStatusVersion()}, and {@link #getPropertyVersion()}.
+     */
+    private final AtomicLong taskInfoVersion = new AtomicLong(0);
+    private final AtomicLong taskStatusVersion = new AtomicLong(0);
+    private final AtomicLong propertyVersion = new AtomicLong(0);
+
+    /**
+     * Notified after every increment of {@link #version}. See {@link #addChangeListener(Runnable)}.
+     */
+    private final Collection<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Notified of writes to particular tasks. See {@link #addTaskChangeListener(TaskChangeListener)}.
+     */
+    private final Collection<TaskChangeListener> taskChangeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Receives notifications of writes which affect particular tasks, so that data derived from those tasks may be
+     * updated without rereading every task.
+     */
+    public interface TaskChangeListener {
+        /**
+         * Invoked after the TaskInfo, TaskStatus, stored TaskStatus property, or metadata of each of the named tasks
+         * has been written or cleared.
+         */
+        void onTasksChanged(Collection<String> taskNames);
+
+        /**
+         * Invoked when any task may have changed, e.g. after the underlying data was refreshed.
+         */
+        void onAllTasksChanged();
+    }
+
     /**
      * Creates a new {@link StateStore} which uses the provided {@link Persister} to access state data.
      *
@@ -110,6 +153,8 @@ public class StateStore {
             persister.setMany(taskBytesMap);
         } catch (PersisterException e) {
             throw new StateStoreException(e, String.format("Failed to store %d TaskInfos", tasks.size()));
+        } finally {
+            markChanged(tasks.stream().map(Protos.TaskInfo::getName).collect(Collectors.toList()), taskInfoVersion);
         }
     }
 
@@ -147,6 +192,8 @@ public class StateStore {
             persister.set(path, status.toByteArray());
         } catch (PersisterException e) {
             throw new StateStoreException(e);
+        } finally {
+            markChanged(Collections.singletonList(taskName), taskStatusVersion);
         }
     }
 
@@ -166,6 +213,8 @@ public class StateStore {
             } else {
                 throw new StateStoreException(e);
             }
+        } finally {
+            markChanged(Collections.singletonList(taskName), taskInfoVersion, taskStatusVersion);
         }
     }
 
@@ -326,6 +375,8 @@ public class StateStore {
             persister.set(path, value);
         } catch (PersisterException e) {
             throw new StateStoreException(e);
+        } finally {
+            markPropertiesChanged(Collections.singletonList(key));
         }
     }
 
@@ -350,6 +401,8 @@ public class StateStore {
             persister.setMany(propertiesWithFixedPaths);
         } catch (PersisterException e) {
             throw new StateStoreException(e);
+        } finally {
+            markPropertiesChanged(properties.keySet());
         }
     }
 
@@ -410,6 +463,8 @@ public class StateStore {
             } else {
                 throw new StateStoreException(e);
             }
+        } finally {
+            markPropertiesChanged(Collections.singletonList(key));
         }
     }
 
@@ -439,6 +494,9 @@ public class StateStore {
             }
         } catch (PersisterException e) {
             throw new StateStoreException(e);
+        } finally {
+            // Goal overrides are reported alongside task statuses:
+            markChanged(Collections.singletonList(taskName), taskStatusVersion);
         }
     }
 
@@ -487,9 +545,121 @@ public class StateStore {
             } else {
                 throw new StateStoreException(e);
             }
+        } finally {
+            markChanged();
         }
     }
 
+    /**
+     * Returns a counter which is incremented whenever data is written via this instance. Readers may use this to
+     * detect whether data has changed since it was last read, e.g. to cache data derived from the state store. Note
+     * that writes made directly to the underlying {@link Persister} are not reflected here unless followed by a call
+     * to {@link #markChanged()}.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Returns a counter which is incremented whenever {@link Protos.TaskInfo}s are written or cleared via this
+     * instance, but not when only task statuses or properties are written. See {@link #getVersion()}.
+     */
+    public long getTaskInfoVersion() {
+        return taskInfoVersion.get();
+    }
+
+    /**
+     * Returns a counter which is incremented whenever task statuses (including those stored as properties) or goal
+     * state overrides are written or cleared via this instance. See {@link #getVersion()}.
+     */
+    public long getTaskStatusVersion() {
+        return taskStatusVersion.get();
+    }
+
+    /**
+     * Returns a counter which is incremented whenever properties are written or cleared via this instance. See
+     * {@link #getVersion()}.
+     */
+    public long getPropertyVersion() {
+        return propertyVersion.get();
+    }
+
+    /**
+     * Increments the version returned by {@link #getVersion()}. This is invoked automatically by writes made via this
+     * instance, but should also be invoked if the underlying data may have otherwise changed, e.g. when a persister
+     * cache is refreshed.
+     */
+    public void markChanged() {
+        taskInfoVersion.incrementAndGet();
+        taskStatusVersion.incrementAndGet();
+        propertyVersion.incrementAndGet();
+        version.incrementAndGet();
+        for (TaskChangeListener listener : taskChangeListeners) {
+            listener.onAllTasksChanged();
+        }
+        for (Runnable listener : changeListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Increments the version returned by {@link #getVersion()}, along with the provided versions of the kinds of data
+     * which were written, after a write which affected the named tasks, if any. Task listeners are notified first, so
+     * that change listeners observe their updates.
+     */
+    private void markChanged(Collection<String> taskNames, AtomicLong... dataVersions) {
+        for (AtomicLong dataVersion : dataVersions) {
+            dataVersion.incrementAndGet();
+        }
+        version.incrementAndGet();
+        if (!taskNames.isEmpty()) {
+            for (TaskChangeListener listener : taskChangeListeners) {
+                listener.onTasksChanged(taskNames);
+            }
+        }
+        for (Runnable listener : changeListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Marks the properties with the provided keys as changed. Properties which hold the last known status of a task
+     * are also reported as changes to task statuses.
+     */
+    private void markPropertiesChanged(Collection<String> keys) {
+        Collection<String> taskNames = getTaskNamesFromProperties(keys);
+        if (taskNames.isEmpty()) {
+            markChanged(taskNames, propertyVersion);
+        } else {
+            markChanged(taskNames, propertyVersion, taskStatusVersion);
+        }
+    }
+
+    /**
+     * Adds a listener which is invoked whenever the version returned by {@link #getVersion()} is incremented. Listeners
+     * are invoked on the writing thread, so they should return quickly, e.g. by handing off any work to be done.
+     */
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Adds a listener which is notified of the tasks affected by each write made via this instance, or that all tasks
+     * may have changed when {@link #markChanged()} is invoked. Listeners are invoked on the writing thread, so they
+     * should return quickly.
+     */
+    public void addTaskChangeListener(TaskChangeListener listener) {
+        taskChangeListeners.add(listener);
+    }
+
+    private static Collection<String> getTaskNamesFromProperties(Collection<String> keys) {
+        return keys.stream()
+                .map(StateStoreUtils::getTaskNameFromStatusProperty)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toList());
+    }
+
     private GoalStateOverride parseOverrideName(String taskName, byte[] nameBytes) throws StateStoreException {
         String overrideName = new String(nameBytes, StandardCharsets.UTF_8);
         for (GoalStateOverride override : GoalStateOverride.values()) {
@@ -260,6 +260,18 @@ public class StateStoreUtils {
         stateStore.storeProperty(taskName + PROPERTY_TASK_INFO_SUFFIX, taskStatus.toByteArray());
     }
 
+    /**
+     * Returns the name of the task whose TaskStatus is stored in the provided property, or an empty Optional if the
+     * property isn't a stored TaskStatus.
+     *
+     * @see #storeTaskStatusAsProperty(StateStore, String, Protos.TaskStatus)
+     */
+    static Optional<String> getTaskNameFromStatusProperty(String key) {
+        return key.endsWith(PROPERTY_TASK_INFO_SUFFIX)
+                ? Optional.of(key.substring(0, key.length() - PROPERTY_TASK_INFO_SUFFIX.length()))
+                : Optional.empty();
+    }
+
     /**
      * Returns an Optional<TaskStatus> from the properties in the provided state store for the specified
      * task name.
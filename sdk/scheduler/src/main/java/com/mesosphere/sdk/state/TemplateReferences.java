@@ -0,0 +1,179 @@
+package com.mesosphere.sdk.state;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mesosphere.sdk.storage.StorageError.Reason;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Converts between serialized configurations which contain their config template content inline, and serialized
+ * configurations which instead refer to that content by its SHA-256 hash. This allows each distinct template to be
+ * stored once by {@link ConfigStore}, regardless of how many configurations contain it.
+ */
+class TemplateReferences {
+
+    /**
+     * Field which contains the inline content of a config template.
+     *
+     * @see com.mesosphere.sdk.specification.ConfigFileSpec#getTemplateContent()
+     */
+    static final String TEMPLATE_CONTENT_FIELD = "template-content";
+
+    /**
+     * Field which replaces {@link #TEMPLATE_CONTENT_FIELD} in stored configurations, containing the hash of the content.
+     */
+    static final String TEMPLATE_HASH_FIELD = "template-sha256";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Returns a copy of the provided serialized configuration, with the content of any config templates moved to the
+     * provided map of template hashes to template content.
+     *
+     * @return the updated configuration, or the original configuration if it isn't a JSON object or contains no
+     *     templates
+     */
+    static byte[] extract(byte[] config, Map<String, String> templatesOut) throws ConfigStoreException {
+        if (!isJsonObject(config) || !contains(config, TEMPLATE_CONTENT_FIELD)) {
+            return config;
+        }
+        JsonNode root = parse(config);
+        replaceContent(root, templatesOut);
+        return serialize(root);
+    }
+
+    /**
+     * Returns a copy of the provided stored configuration, with any template references replaced by the content which
+     * they refer to.
+     *
+     * @return the updated configuration, or the original configuration if it contains no template references
+     */
+    static byte[] inline(byte[] config, TemplateLookup lookup) throws ConfigStoreException {
+        if (!contains(config, TEMPLATE_HASH_FIELD)) {
+            return config;
+        }
+        JsonNode root = parse(config);
+        replaceReferences(root, lookup);
+        return serialize(root);
+    }
+
+    /**
+     * Returns the hashes of all templates referenced by the provided stored configuration.
+     */
+    static Set<String> getReferences(byte[] config) throws ConfigStoreException {
+        Set<String> hashes = new HashSet<>();
+        if (contains(config, TEMPLATE_HASH_FIELD)) {
+            collectReferences(parse(config), hashes);
+        }
+        return hashes;
+    }
+
+    /**
+     * Returns the JSON tree of the provided stored configuration, without resolving any template references.
+     */
+    static JsonNode parse(byte[] config) throws ConfigStoreException {
+        try {
+            return OBJECT_MAPPER.readTree(config);
+        } catch (IOException e) {
+            throw new ConfigStoreException(Reason.SERIALIZATION_ERROR,
+                    "Failed to parse stored configuration as JSON: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the hash which identifies the provided template content.
+     */
+    static String hash(String content) {
+        return DigestUtils.sha256Hex(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Retrieves template content by its hash.
+     */
+    interface TemplateLookup {
+        String get(String hash) throws ConfigStoreException;
+    }
+
+    private static void replaceContent(JsonNode node, Map<String, String> templatesOut) {
+        if (node.isObject()) {
+            JsonNode content = node.get(TEMPLATE_CONTENT_FIELD);
+            if (content != null && content.isTextual()) {
+                String hash = hash(content.textValue());
+                templatesOut.put(hash, content.textValue());
+                ((ObjectNode) node).remove(TEMPLATE_CONTENT_FIELD);
+                ((ObjectNode) node).put(TEMPLATE_HASH_FIELD, hash);
+            }
+        }
+        for (JsonNode child : node) {
+            replaceContent(child, templatesOut);
+        }
+    }
+
+    private static void replaceReferences(JsonNode node, TemplateLookup lookup) throws ConfigStoreException {
+        if (node.isObject()) {
+            JsonNode hash = node.get(TEMPLATE_HASH_FIELD);
+            if (hash != null && hash.isTextual()) {
+                ((ObjectNode) node).remove(TEMPLATE_HASH_FIELD);
+                ((ObjectNode) node).put(TEMPLATE_CONTENT_FIELD, lookup.get(hash.textValue()));
+            }
+        }
+        for (JsonNode child : node) {
+            replaceReferences(child, lookup);
+        }
+    }
+
+    private static void collectReferences(JsonNode node, Set<String> hashes) {
+        if (node.isObject()) {
+            JsonNode hash = node.get(TEMPLATE_HASH_FIELD);
+            if (hash != null && hash.isTextual()) {
+                hashes.add(hash.textValue());
+            }
+        }
+        for (JsonNode child : node) {
+            collectReferences(child, hashes);
+        }
+    }
+
+    private static byte[] serialize(JsonNode root) throws ConfigStoreException {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(root);
+        } catch (IOException e) {
+            throw new ConfigStoreException(Reason.SERIALIZATION_ERROR,
+                    "Failed to serialize configuration as JSON: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean isJsonObject(byte[] data) {
+        for (byte b : data) {
+            if (!Character.isWhitespace(b)) {
+                return b == '{';
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the provided field name appears as a quoted string anywhere in the provided data. This is a
+     * cheap check which allows skipping the parse for configurations which can't contain the field.
+     */
+    private static boolean contains(byte[] data, String fieldName) {
+        byte[] pattern = ("\"" + fieldName + "\"").getBytes(StandardCharsets.UTF_8);
+        outer:
+        for (int i = 0; i <= data.length - pattern.length; ++i) {
+            for (int j = 0; j < pattern.length; ++j) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -22,7 +22,7 @@ public class PersisterCache implements Persister {
     private final Lock rwlock = internalLock.writeLock();
 
     private final Persister persister;
-    private MemPersister cache;
+    private volatile MemPersister cache;
 
     public PersisterCache(Persister persister) throws PersisterException {
         this.persister = persister;
@@ -126,6 +126,62 @@ public class PersisterCache implements Persister {
         }
     }
 
+    /**
+     * Loads the cache with the underlying persister's data, if it hasn't already been loaded. Otherwise this is done
+     * upon first access.
+     */
+    public void load() throws PersisterException {
+        rwlock.lock();
+        try {
+            getCache();
+        } finally {
+            rwlock.unlock();
+        }
+    }
+
+    /**
+     * Returns the underlying persister which this instance is caching.
+     */
+    public Persister getPersister() {
+        return persister;
+    }
+
+    /**
+     * Updates the cached value at the provided path to reflect a change which was made to the underlying storage by
+     * another process, without writing it back. Does nothing if the cache hasn't been loaded yet, as the change will
+     * then be included in the initial load.
+     */
+    public void applyExternalSet(String path, byte[] bytes) throws PersisterException {
+        rwlock.lock();
+        try {
+            if (cache != null) {
+                cache.set(path, bytes);
+            }
+        } finally {
+            rwlock.unlock();
+        }
+    }
+
+    /**
+     * Removes the cached value at the provided path, along with any children, to reflect a deletion which was made to
+     * the underlying storage by another process. Does nothing if the cache hasn't been loaded yet, or if the path isn't
+     * present in the cache, e.g. because a parent of the path was already deleted.
+     */
+    public void applyExternalDelete(String path) throws PersisterException {
+        rwlock.lock();
+        try {
+            if (cache != null) {
+                cache.recursiveDelete(path);
+            }
+        } catch (PersisterException e) {
+            if (e.getReason() != StorageError.Reason.NOT_FOUND) {
+                throw e;
+            }
+        } finally {
+            rwlock.unlock();
+        }
+    }
+
     /**
      * Refreshes the cache with the underlying persister's data.
      */
@@ -143,11 +199,18 @@ public class PersisterCache implements Persister {
     }
 
     private MemPersister getCache() throws PersisterException {
-        if (cache == null) {
-            // We already have our own locking, so we can disable locking in the underlying MemPersister:
-            cache = new MemPersister(MemPersister.LockMode.DISABLED, PersisterUtils.getAllData(persister));
-            logger.info("Loaded data from persister:\n{}", cache.getDebugString());
+        MemPersister loadedCache = cache;
+        if (loadedCache != null) {
+            return loadedCache;
+        }
+        // Multiple readers may get here at once upon first access: only load once.
+        synchronized (this) {
+            if (cache == null) {
+                // We already have our own locking, so we can disable locking in the underlying MemPersister:
+                cache = new MemPersister(MemPersister.LockMode.DISABLED, PersisterUtils.getAllData(persister));
+                logger.info("Loaded data from persister:\n{}", cache.getDebugString());
+            }
+            return cache;
         }
-        return cache;
     }
 }
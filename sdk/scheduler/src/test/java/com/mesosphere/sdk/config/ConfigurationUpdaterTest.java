@@ -185,6 +185,8 @@ public class ConfigurationUpdaterTest {
         ConfigurationUpdater.UpdateResult result = configurationUpdater.updateConfiguration(ORIGINAL_SERVICE_SPECIFICATION);
         Assert.assertEquals(TARGET_ID, result.getTargetId());
         Assert.assertTrue(result.getErrors().isEmpty());
+        // Only the target is prefetched, as no tasks refer to the other configs:
+        verify(mockConfigStore).prefetch(Collections.singleton(TARGET_ID));
     }
 
     @Test
@@ -0,0 +1,154 @@
+package com.mesosphere.sdk.curator;
+
+import com.mesosphere.sdk.specification.ServiceSpec;
+import com.mesosphere.sdk.storage.PersisterCache;
+import com.mesosphere.sdk.storage.PersisterException;
+import com.mesosphere.sdk.storage.PersisterUtils;
+import com.mesosphere.sdk.storage.StorageError.Reason;
+import com.mesosphere.sdk.testutils.TestConstants;
+
+import org.apache.curator.test.TestingServer;
+import org.junit.*;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link CuratorCacheSync}. The active and standby schedulers each have their own ZK sessions, as they would
+ * if they were running in separate processes.
+ */
+public class CuratorCacheSyncTest {
+    private static final byte[] DATA_1 = "one".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DATA_2 = "two".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DATA_3 = "three".getBytes(StandardCharsets.UTF_8);
+
+    @Mock private ServiceSpec mockServiceSpec;
+
+    private static TestingServer testZk;
+    private PersisterCache activeCache;
+    private CuratorPersister standbyPersister;
+    private PersisterCache standbyCache;
+    private CuratorCacheSync sync;
+
+    @BeforeClass
+    public static void beforeAll() throws Exception {
+        testZk = new TestingServer();
+    }
+
+    @Before
+    public void beforeEach() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        CuratorTestUtils.clear(testZk);
+
+        when(mockServiceSpec.getName()).thenReturn(TestConstants.SERVICE_NAME);
+        when(mockServiceSpec.getZookeeperConnection()).thenReturn(testZk.getConnectString());
+
+        activeCache = new PersisterCache(CuratorPersister.newBuilder(mockServiceSpec).build());
+        standbyPersister = CuratorPersister.newBuilder(mockServiceSpec).build();
+        standbyCache = new PersisterCache(standbyPersister);
+        sync = new CuratorCacheSync(standbyPersister, standbyCache);
+    }
+
+    @After
+    public void afterEach() {
+        sync.close();
+        activeCache.close();
+        standbyCache.close();
+    }
+
+    @Test
+    public void testInitialLoad() throws Exception {
+        activeCache.set("/a/1", DATA_1);
+        activeCache.set("/a/2", DATA_2);
+
+        sync.start();
+        assertArrayEquals(DATA_1, standbyCache.get("/a/1"));
+        assertArrayEquals(DATA_2, standbyCache.get("/a/2"));
+    }
+
+    @Test
+    public void testChangesAreApplied() throws Exception {
+        activeCache.set("/a/1", DATA_1);
+        activeCache.set("/b/1", DATA_1);
+        sync.start();
+
+        activeCache.set("/a/1", DATA_2);
+        activeCache.set("/a/2", DATA_3);
+        activeCache.set("/c/d/1", DATA_3);
+        activeCache.recursiveDelete("/b");
+        sync.catchUp();
+
+        assertArrayEquals(DATA_2, standbyCache.get("/a/1"));
+        assertArrayEquals(DATA_3, standbyCache.get("/a/2"));
+        assertArrayEquals(DATA_3, standbyCache.get("/c/d/1"));
+        assertNotFound("/b");
+        assertNotFound("/b/1");
+        assertDataEquals(
+                PersisterUtils.getAllData(activeCache.getPersister()), PersisterUtils.getAllData(standbyCache));
+    }
+
+    @Test
+    public void testWritesAfterTakeover() throws Exception {
+        sync.start();
+        activeCache.set("/a/1", DATA_1);
+        sync.catchUp();
+        sync.close();
+
+        // Once the standby has taken over, its writes go to ZK as usual:
+        standbyCache.set("/a/1", DATA_2);
+        assertArrayEquals(DATA_2, standbyPersister.get("/a/1"));
+        assertArrayEquals(DATA_2, activeCache.getPersister().get("/a/1"));
+    }
+
+    @Test
+    public void testTakeover() throws Exception {
+        CuratorLocker activeLocker = new CuratorLocker(mockServiceSpec);
+        CuratorLocker standbyLocker = new CuratorLocker(mockServiceSpec);
+        activeLocker.lock();
+        activeCache.set("/a/1", DATA_1);
+
+        sync.start();
+        CompletableFuture<Void> standby = CompletableFuture.runAsync(standbyLocker::lockWhenAvailable);
+
+        // The active scheduler keeps making changes until it exits:
+        for (int i = 0; i < 20; ++i) {
+            activeCache.set(String.format("/tasks/%d", i), DATA_2);
+        }
+        activeCache.set("/a/1", DATA_3);
+        assertFalse(standby.isDone());
+        activeLocker.unlock();
+
+        standby.get(10, TimeUnit.SECONDS);
+        sync.catchUp();
+        sync.close();
+        assertDataEquals(
+                PersisterUtils.getAllData(activeCache.getPersister()), PersisterUtils.getAllData(standbyCache));
+        standbyLocker.unlock();
+    }
+
+    private void assertNotFound(String path) {
+        try {
+            standbyCache.get(path);
+            fail("Expected " + path + " to be absent");
+        } catch (PersisterException e) {
+            assertEquals(Reason.NOT_FOUND, e.getReason());
+        }
+    }
+
+    private static void assertDataEquals(Map<String, byte[]> expected, Map<String, byte[]> actual) {
+        // The lock's nodes are ephemeral, and may differ in the meantime:
+        expected.keySet().removeIf(path -> path.startsWith("/lock"));
+        actual.keySet().removeIf(path -> path.startsWith("/lock"));
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, byte[]> entry : expected.entrySet()) {
+            assertArrayEquals(entry.getKey(), entry.getValue(), actual.get(entry.getKey()));
+        }
+    }
+}
@@ -10,6 +10,7 @@ import com.mesosphere.sdk.testutils.TestConstants;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.when;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.curator.test.TestingServer;
@@ -60,6 +61,25 @@ public class CuratorLockerTest {
         locker1.unlock();
     }
 
+    @Test
+    public void testLockWhenAvailable() throws Exception {
+        locker1.lock();
+        assertFalse(locker1.checkExited());
+
+        // The second locker waits for as long as the first holds the lock, rather than exiting:
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(locker2::lockWhenAvailable);
+        Thread.sleep(100);
+        assertFalse(waiting.isDone());
+
+        locker1.unlock();
+        waiting.get(10, TimeUnit.SECONDS);
+        assertFalse(locker2.checkExited());
+
+        locker1.lock();
+        assertTrue(locker1.checkExited());
+        locker2.unlock();
+    }
+
     @Test
     public void testDoubleLockFails() throws Exception {
         locker1.lock();
@@ -0,0 +1,105 @@
+package com.mesosphere.sdk.dcos;
+
+import com.codahale.metrics.Timer;
+import com.mesosphere.sdk.scheduler.Metrics;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Tests for {@link DcosHttpClientBuilder}.
+ */
+public class DcosHttpClientBuilderTest {
+
+    private final List<Integer> clientPorts = Collections.synchronizedList(new ArrayList<>());
+    private HttpServer server;
+    private String uri;
+
+    @Before
+    public void beforeEach() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "hello".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        uri = String.format("http://localhost:%d/test", server.getAddress().getPort());
+    }
+
+    @After
+    public void afterEach() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testConnectionsSharedAcrossClients() throws Exception {
+        PoolingHttpClientConnectionManager connectionManager = DcosHttpClientBuilder.newConnectionManager();
+        try {
+            DcosHttpExecutor executor1 = new DcosHttpExecutor(new DcosHttpClientBuilder(connectionManager));
+            DcosHttpExecutor executor2 = new DcosHttpExecutor(new DcosHttpClientBuilder(connectionManager));
+
+            Assert.assertEquals("hello", executor1.execute(Request.Get(uri)).returnContent().asString());
+            Assert.assertEquals("hello", executor2.execute(Request.Get(uri)).returnContent().asString());
+            Assert.assertEquals("hello", executor1.execute(Request.Get(uri)).returnContent().asString());
+
+            // All requests were sent over the same kept-alive connection:
+            Assert.assertEquals(3, clientPorts.size());
+            Assert.assertEquals(1, new HashSet<>(clientPorts).size());
+        } finally {
+            connectionManager.shutdown();
+        }
+    }
+
+    @Test
+    public void testClosingClientLeavesSharedPoolOpen() throws Exception {
+        PoolingHttpClientConnectionManager connectionManager = DcosHttpClientBuilder.newConnectionManager();
+        try {
+            CloseableHttpClient client = new DcosHttpClientBuilder(connectionManager).build();
+            DcosHttpExecutor executor = new DcosHttpExecutor(new DcosHttpClientBuilder(connectionManager));
+            Assert.assertEquals("hello", executor.execute(Request.Get(uri)).returnContent().asString());
+
+            client.close();
+            Assert.assertEquals("hello", executor.execute(Request.Get(uri)).returnContent().asString());
+        } finally {
+            connectionManager.shutdown();
+        }
+    }
+
+    @Test
+    public void testConnectionsNotSharedWithoutConnectionManager() throws Exception {
+        DcosHttpExecutor executor1 = new DcosHttpExecutor(new DcosHttpClientBuilder());
+        DcosHttpExecutor executor2 = new DcosHttpExecutor(new DcosHttpClientBuilder());
+
+        Assert.assertEquals("hello", executor1.execute(Request.Get(uri)).returnContent().asString());
+        Assert.assertEquals("hello", executor2.execute(Request.Get(uri)).returnContent().asString());
+
+        Assert.assertEquals(2, new HashSet<>(clientPorts).size());
+    }
+
+    @Test
+    public void testLatencyMetrics() throws Exception {
+        Timer timer = Metrics.getRegistry().timer("dcos_http.localhost");
+        long countBefore = timer.getCount();
+
+        DcosHttpExecutor executor = new DcosHttpExecutor(new DcosHttpClientBuilder());
+        executor.execute(Request.Get(uri)).returnContent();
+        executor.execute(Request.Get(uri)).returnContent();
+
+        Assert.assertEquals(countBefore + 2, timer.getCount());
+    }
+}
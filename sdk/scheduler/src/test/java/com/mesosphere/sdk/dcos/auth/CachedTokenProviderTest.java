@@ -1,6 +1,7 @@
 package com.mesosphere.sdk.dcos.auth;
 
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.mesosphere.sdk.scheduler.Metrics;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -10,8 +11,18 @@ import org.mockito.MockitoAnnotations;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
-
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -66,11 +77,132 @@ public class CachedTokenProviderTest {
 
         CachedTokenProvider cachedTokenProvider = getProvider();
         cachedTokenProvider.getToken();
-        // Second call should be cached
+        // Second call should not be cached, expiry is checked for each retrieved token
         cachedTokenProvider.getToken();
 
-        verify(mockToken, times(1)).getExpiresAt();
+        verify(mockToken, times(2)).getExpiresAt();
+        verify(mockProvider, times(2)).getToken();
+    }
+
+    @Test
+    public void testConcurrentRefreshesAreCoalesced() throws Exception {
+        when(mockToken.getExpiresAt()).thenReturn(
+                Date.from(Instant.now().plusSeconds(60)));
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch finishRefresh = new CountDownLatch(1);
+        when(mockProvider.getToken()).thenAnswer(invocation -> {
+            refreshStarted.countDown();
+            finishRefresh.await();
+            return mockToken;
+        });
+
+        CachedTokenProvider cachedTokenProvider = getProvider();
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<DecodedJWT>> results = new ArrayList<>();
+            for (int i = 0; i < 4; ++i) {
+                results.add(callers.submit(() -> cachedTokenProvider.getToken()));
+            }
+            Assert.assertTrue(refreshStarted.await(5, TimeUnit.SECONDS));
+            finishRefresh.countDown();
+            for (Future<DecodedJWT> result : results) {
+                Assert.assertEquals(mockToken, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        verify(mockProvider, times(1)).getToken();
+    }
+
+    @Test
+    public void testExpiringTokenIsServedDuringRefresh() throws Exception {
+        // Token is within the refresh threshold, but not yet expired
+        when(mockToken.getExpiresAt()).thenReturn(
+                Date.from(Instant.now().plusSeconds(20)));
+        DecodedJWT mockNewToken = mock(DecodedJWT.class);
+        when(mockNewToken.getExpiresAt()).thenReturn(
+                Date.from(Instant.now().plusSeconds(600)));
+        CountDownLatch finishRefresh = new CountDownLatch(1);
+        when(mockProvider.getToken())
+                .thenReturn(mockToken)
+                .thenAnswer(invocation -> {
+                    finishRefresh.await();
+                    return mockNewToken;
+                });
+
+        CachedTokenProvider cachedTokenProvider = getProvider();
+        Assert.assertEquals(mockToken, cachedTokenProvider.getToken());
+        // Refresh is started in the background, and the current token is returned without waiting for it:
+        Assert.assertEquals(mockToken, cachedTokenProvider.getToken());
+        Assert.assertEquals(mockToken, cachedTokenProvider.getToken());
+
+        finishRefresh.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cachedTokenProvider.getToken() != mockNewToken && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(mockNewToken, cachedTokenProvider.getToken());
         verify(mockProvider, times(2)).getToken();
     }
 
+    @Test
+    public void testRefreshFailure() throws Exception {
+        long failuresBefore = Metrics.getRegistry().counter(CachedTokenProvider.REFRESH_FAILURES).getCount();
+        IOException error = new IOException("test");
+        when(mockProvider.getToken()).thenThrow(error);
+
+        CachedTokenProvider cachedTokenProvider = getProvider();
+        try {
+            cachedTokenProvider.getToken();
+            Assert.fail("Expected exception");
+        } catch (IOException e) {
+            Assert.assertSame(error, e);
+        }
+
+        Assert.assertEquals(failuresBefore + 1,
+                Metrics.getRegistry().counter(CachedTokenProvider.REFRESH_FAILURES).getCount());
+    }
+
+    @Test
+    public void testRefreshTimesOut() throws Exception {
+        long failuresBefore = Metrics.getRegistry().counter(CachedTokenProvider.REFRESH_FAILURES).getCount();
+        CountDownLatch finishRefresh = new CountDownLatch(1);
+        when(mockProvider.getToken()).thenAnswer(invocation -> {
+            finishRefresh.await();
+            return mockToken;
+        });
+
+        CachedTokenProvider cachedTokenProvider =
+                new CachedTokenProvider(mockProvider, Duration.ofSeconds(30), Duration.ofMillis(100));
+        try {
+            cachedTokenProvider.getToken();
+            Assert.fail("Expected exception");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException);
+        } finally {
+            finishRefresh.countDown();
+        }
+
+        Assert.assertEquals(failuresBefore + 1,
+                Metrics.getRegistry().counter(CachedTokenProvider.REFRESH_FAILURES).getCount());
+    }
+
+    @Test
+    public void testScheduledRefreshSkippedWhenUnused() throws Exception {
+        when(mockToken.getExpiresAt()).thenReturn(
+                Date.from(Instant.now().plusSeconds(600)));
+        when(mockProvider.getToken()).thenReturn(mockToken);
+
+        CachedTokenProvider cachedTokenProvider = getProvider();
+        cachedTokenProvider.getToken();
+        // Nothing has requested the token since it was retrieved:
+        Assert.assertFalse(cachedTokenProvider.refreshIfUsed());
+        verify(mockProvider, times(1)).getToken();
+
+        cachedTokenProvider.getToken();
+        Assert.assertTrue(cachedTokenProvider.refreshIfUsed());
+        verify(mockProvider, timeout(5000).times(2)).getToken();
+        Assert.assertFalse(cachedTokenProvider.refreshIfUsed());
+    }
 }
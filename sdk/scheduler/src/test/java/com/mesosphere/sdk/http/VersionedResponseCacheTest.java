@@ -0,0 +1,154 @@
+package com.mesosphere.sdk.http;
+
+import org.json.JSONArray;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link VersionedResponseCache}.
+ */
+public class VersionedResponseCacheTest {
+
+    @Mock private Request mockRequest;
+
+    private final AtomicLong version = new AtomicLong(0);
+    private final AtomicInteger renderCount = new AtomicInteger(0);
+    private VersionedResponseCache cache;
+
+    @Before
+    public void beforeEach() {
+        MockitoAnnotations.initMocks(this);
+        version.set(0);
+        renderCount.set(0);
+        cache = new VersionedResponseCache(version::get);
+    }
+
+    @Test
+    public void testCachedUntilVersionChanges() {
+        Response response = cache.get("key", null, this::render);
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertEquals("[1]", response.getEntity());
+        EntityTag tag = response.getEntityTag();
+        Assert.assertNotNull(tag);
+
+        response = cache.get("key", null, this::render);
+        Assert.assertEquals("[1]", response.getEntity());
+        Assert.assertEquals(tag, response.getEntityTag());
+        Assert.assertEquals(1, renderCount.get());
+
+        version.incrementAndGet();
+        response = cache.get("key", null, this::render);
+        Assert.assertEquals("[2]", response.getEntity());
+        Assert.assertNotEquals(tag, response.getEntityTag());
+        Assert.assertEquals(2, renderCount.get());
+    }
+
+    @Test
+    public void testKeysAreSeparate() {
+        Assert.assertEquals("[1]", cache.get("a", null, this::render).getEntity());
+        Assert.assertEquals("[2]", cache.get("b", null, this::render).getEntity());
+        Assert.assertEquals("[1]", cache.get("a", null, this::render).getEntity());
+        Assert.assertEquals("[2]", cache.get("b", null, this::render).getEntity());
+    }
+
+    @Test
+    public void testNotModified() {
+        EntityTag tag = cache.get("key", null, this::render).getEntityTag();
+        when(mockRequest.evaluatePreconditions(tag)).thenReturn(Response.notModified());
+
+        Response response = cache.get("key", mockRequest, this::render);
+        Assert.assertEquals(304, response.getStatus());
+        Assert.assertEquals(tag, response.getEntityTag());
+        Assert.assertEquals(1, renderCount.get());
+
+        // Once the data has changed, the previous tag no longer matches:
+        version.incrementAndGet();
+        when(mockRequest.evaluatePreconditions(any(EntityTag.class))).thenReturn(null);
+        response = cache.get("key", mockRequest, this::render);
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertEquals(2, renderCount.get());
+    }
+
+    @Test
+    public void testErrorsNotCached() {
+        Response response = cache.get("key", null, () -> {
+            renderCount.incrementAndGet();
+            return Response.serverError().build();
+        });
+        Assert.assertEquals(500, response.getStatus());
+        Assert.assertNull(response.getHeaderString(HttpHeaders.ETAG));
+
+        Assert.assertEquals("[2]", cache.get("key", null, this::render).getEntity());
+    }
+
+    @Test
+    public void testNotCachedWhenChangedDuringRender() {
+        Response response = cache.get("key", null, () -> {
+            Response r = render();
+            version.incrementAndGet();
+            return r;
+        });
+        Assert.assertEquals("[1]", response.getEntity());
+        Assert.assertNull(response.getHeaderString(HttpHeaders.ETAG));
+
+        Assert.assertEquals("[2]", cache.get("key", null, this::render).getEntity());
+    }
+
+    @Test
+    public void testInvalidate() {
+        EntityTag tag = cache.get("key", null, this::render).getEntityTag();
+        cache.invalidate();
+        Response response = cache.get("key", null, this::render);
+        Assert.assertEquals("[2]", response.getEntity());
+        Assert.assertNotEquals(tag, response.getEntityTag());
+    }
+
+    @Test
+    public void testHeadersCached() {
+        Response response = cache.get("key", null, () -> Response.fromResponse(render())
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Test", "a")
+                .header("X-Test", "b")
+                .build());
+        response = cache.get("key", null, this::render);
+        Assert.assertEquals(1, renderCount.get());
+        Assert.assertEquals("[1]", response.getEntity());
+        Assert.assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getMediaType());
+        Assert.assertEquals("no-cache", response.getHeaderString(HttpHeaders.CACHE_CONTROL));
+        Assert.assertEquals(Arrays.asList("a", "b"), response.getHeaders().get("X-Test"));
+        Assert.assertEquals(1, response.getHeaders().get(HttpHeaders.ETAG).size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        cache = new VersionedResponseCache(version::get, 2);
+        Assert.assertEquals("[1]", cache.get("a", null, this::render).getEntity());
+        Assert.assertEquals("[2]", cache.get("b", null, this::render).getEntity());
+        Assert.assertEquals("[1]", cache.get("a", null, this::render).getEntity());
+        // Evicts "b", which was used least recently:
+        Assert.assertEquals("[3]", cache.get("c", null, this::render).getEntity());
+        Assert.assertEquals("[1]", cache.get("a", null, this::render).getEntity());
+        Assert.assertEquals("[3]", cache.get("c", null, this::render).getEntity());
+        Assert.assertEquals("[4]", cache.get("b", null, this::render).getEntity());
+    }
+
+    private Response render() {
+        return ResponseUtils.jsonResponseBean(
+                new JSONArray().put(renderCount.incrementAndGet()).toString(), Response.Status.OK);
+    }
+}
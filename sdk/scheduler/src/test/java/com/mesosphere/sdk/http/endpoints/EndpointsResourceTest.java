@@ -0,0 +1,113 @@
+package com.mesosphere.sdk.http.endpoints;
+
+import com.mesosphere.sdk.offer.taskdata.TaskLabelWriter;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.storage.MemPersister;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.SchedulerConfigTestUtils;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
+import org.apache.mesos.Protos.DiscoveryInfo;
+import org.apache.mesos.Protos.TaskInfo;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class EndpointsResourceTest {
+
+    @Mock private Request mockRequest;
+    @Mock private AsyncResponse mockAsyncResponse;
+
+    private StateStore stateStore;
+    private EndpointsResource resource;
+
+    @Before
+    public void beforeEach() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        stateStore = new StateStore(new MemPersister());
+        stateStore.storeTasks(Collections.singletonList(getTask(1234)));
+        resource = new EndpointsResource(stateStore, "svc", SchedulerConfigTestUtils.getTestSchedulerConfig());
+        Field requestField = EndpointsResource.class.getDeclaredField("request");
+        requestField.setAccessible(true);
+        requestField.set(resource, mockRequest);
+    }
+
+    @Test
+    public void testGetWithoutTag() {
+        resource.getEndpoint("http", 30, mockAsyncResponse);
+        Response response = getResponse(mockAsyncResponse);
+        assertEquals(200, response.getStatus());
+        verify(mockAsyncResponse, never()).setTimeout(anyLong(), any());
+    }
+
+    @Test
+    public void testGetMatchingTagWithoutWait() {
+        EntityTag tag = getCurrentTag();
+        when(mockRequest.evaluatePreconditions(tag)).thenReturn(Response.notModified());
+        resource.getEndpoint("http", null, mockAsyncResponse);
+        assertEquals(304, getResponse(mockAsyncResponse).getStatus());
+    }
+
+    @Test
+    public void testWaitReturnsOnChange() throws Exception {
+        EntityTag tag = getCurrentTag();
+        when(mockRequest.evaluatePreconditions(tag)).thenReturn(Response.notModified());
+        resource.getEndpoint("http", 1000, mockAsyncResponse);
+        verify(mockAsyncResponse).setTimeout(60, TimeUnit.SECONDS);
+
+        // Unrelated write: Still waiting.
+        stateStore.storeProperty("foo", new byte[1]);
+        Thread.sleep(100);
+        verify(mockAsyncResponse, never()).resume(any(Object.class));
+
+        // Endpoint content changes: Returns the new content.
+        stateStore.storeTasks(Collections.singletonList(getTask(4321)));
+        Response response = getResponse(mockAsyncResponse);
+        assertEquals(200, response.getStatus());
+        assertNotEquals(tag, response.getEntityTag());
+        assertTrue(((String) response.getEntity()).contains(":4321"));
+    }
+
+    private EntityTag getCurrentTag() {
+        AsyncResponse asyncResponse = mock(AsyncResponse.class);
+        resource.getEndpoint("http", null, asyncResponse);
+        return getResponse(asyncResponse).getEntityTag();
+    }
+
+    private static Response getResponse(AsyncResponse asyncResponse) {
+        ArgumentCaptor<Response> captor = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse, timeout(5000)).resume(captor.capture());
+        return captor.getValue();
+    }
+
+    private static TaskInfo getTask(int port) {
+        TaskInfo.Builder builder = TaskTestUtils.getTaskInfo(Collections.emptyList()).toBuilder();
+        builder.setLabels(new TaskLabelWriter(builder)
+                .setHostname(OfferTestUtils.getOffer(Collections.emptyList()))
+                .setType("some-task-type")
+                .toProto());
+        builder.getDiscoveryBuilder()
+                .setVisibility(DiscoveryInfo.Visibility.CLUSTER)
+                .getPortsBuilder().addPortsBuilder()
+                        .setName("http")
+                        .setNumber(port)
+                        .setProtocol("tcp")
+                        .setVisibility(DiscoveryInfo.Visibility.EXTERNAL);
+        return builder.build();
+    }
+}
@@ -1,12 +1,10 @@
 package com.mesosphere.sdk.http.queries;
 
-import com.mesosphere.sdk.specification.ConfigFileSpec;
-import com.mesosphere.sdk.specification.DefaultConfigFileSpec;
-import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.config.ConfigurationFactory;
 import com.mesosphere.sdk.specification.ServiceSpec;
-import com.mesosphere.sdk.specification.TaskSpec;
 import com.mesosphere.sdk.state.ConfigStore;
 import com.mesosphere.sdk.state.ConfigStoreException;
+import com.mesosphere.sdk.storage.MemPersister;
 import com.mesosphere.sdk.storage.StorageError.Reason;
 
 import org.junit.Before;
@@ -14,26 +12,29 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
-import java.util.Arrays;
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 public class ArtifactQueriesTest {
 
     @Mock private ConfigStore<ServiceSpec> mockConfigStore;
-    @Mock private ServiceSpec mockServiceSpec;
-    @Mock private PodSpec mockPodSpec;
-    @Mock private TaskSpec mockTaskSpec;
+    @Mock private ConfigurationFactory<ServiceSpec> mockConfigurationFactory;
+
+    private ConfigStore<ServiceSpec> configStore;
 
     @Before
     public void beforeAll() {
         MockitoAnnotations.initMocks(this);
+        configStore = new ConfigStore<>(mockConfigurationFactory, new MemPersister());
     }
 
     @Test
@@ -44,60 +45,51 @@ public class ArtifactQueriesTest {
     @Test
     public void testGetTemplateServiceConfigNotFound() throws ConfigStoreException {
         UUID uuid = UUID.randomUUID();
-        when(mockConfigStore.fetch(uuid)).thenThrow(new ConfigStoreException(Reason.NOT_FOUND, "hi"));
-        assertEquals(404, ArtifactQueries.getTemplate(mockConfigStore, uuid.toString(), "pod", "task", "conffile").getStatus());
+        assertEquals(404, ArtifactQueries.getTemplate(configStore, uuid.toString(), "pod", "task", "conffile").getStatus());
     }
 
     @Test
     public void testGetTemplateServiceConfigReadFailed() throws ConfigStoreException {
         UUID uuid = UUID.randomUUID();
-        when(mockConfigStore.fetch(uuid)).thenThrow(new ConfigStoreException(Reason.STORAGE_ERROR, "hi"));
+        when(mockConfigStore.fetchTemplate(eq(uuid), any())).thenThrow(new ConfigStoreException(Reason.STORAGE_ERROR, "hi"));
         assertEquals(500, ArtifactQueries.getTemplate(mockConfigStore, uuid.toString(), "pod", "task", "conffile").getStatus());
     }
 
     @Test
     public void testGetTemplatePodNotFound() throws ConfigStoreException {
-        UUID uuid = UUID.randomUUID();
-        when(mockConfigStore.fetch(uuid)).thenReturn(mockServiceSpec);
-        when(mockServiceSpec.getPods()).thenReturn(Collections.emptyList());
-        assertEquals(404, ArtifactQueries.getTemplate(mockConfigStore, uuid.toString(), "pod", "task", "conffile").getStatus());
+        UUID uuid = storeServiceSpec("{\"pod-specs\":[]}");
+        assertEquals(404, ArtifactQueries.getTemplate(configStore, uuid.toString(), "pod", "task", "conffile").getStatus());
     }
 
     @Test
     public void testGetTemplateTaskNotFound() throws ConfigStoreException {
-        UUID uuid = UUID.randomUUID();
-        when(mockConfigStore.fetch(uuid)).thenReturn(mockServiceSpec);
-        when(mockServiceSpec.getPods()).thenReturn(Arrays.asList(mockPodSpec));
-        when(mockPodSpec.getType()).thenReturn("pod");
-        when(mockPodSpec.getTasks()).thenReturn(Collections.emptyList());
-        assertEquals(404, ArtifactQueries.getTemplate(mockConfigStore, uuid.toString(), "pod", "task", "conffile").getStatus());
+        UUID uuid = storeServiceSpec("{\"pod-specs\":[{\"type\":\"pod\",\"task-specs\":[]}]}");
+        assertEquals(404, ArtifactQueries.getTemplate(configStore, uuid.toString(), "pod", "task", "conffile").getStatus());
     }
 
     @Test
     public void testGetTemplateConfigNameNotFound() throws ConfigStoreException {
-        UUID uuid = UUID.randomUUID();
-        when(mockConfigStore.fetch(uuid)).thenReturn(mockServiceSpec);
-        when(mockServiceSpec.getPods()).thenReturn(Arrays.asList(mockPodSpec));
-        when(mockPodSpec.getType()).thenReturn("pod");
-        when(mockPodSpec.getTasks()).thenReturn(Arrays.asList(mockTaskSpec));
-        when(mockTaskSpec.getName()).thenReturn("task");
-        when(mockTaskSpec.getConfigFiles()).thenReturn(Collections.emptyList());
-        assertEquals(404, ArtifactQueries.getTemplate(mockConfigStore, uuid.toString(), "pod", "task", "conffile").getStatus());
+        UUID uuid = storeServiceSpec(
+                "{\"pod-specs\":[{\"type\":\"pod\",\"task-specs\":[{\"name\":\"task\",\"config-files\":[]}]}]}");
+        assertEquals(404, ArtifactQueries.getTemplate(configStore, uuid.toString(), "pod", "task", "conffile").getStatus());
     }
 
     @Test
     public void testGetTemplateSuccess() throws ConfigStoreException {
-        UUID uuid = UUID.randomUUID();
-        when(mockConfigStore.fetch(uuid)).thenReturn(mockServiceSpec);
-        when(mockServiceSpec.getPods()).thenReturn(Arrays.asList(mockPodSpec));
-        when(mockPodSpec.getType()).thenReturn("pod");
-        when(mockPodSpec.getTasks()).thenReturn(Arrays.asList(mockTaskSpec));
-        when(mockTaskSpec.getName()).thenReturn("task");
-        ConfigFileSpec configSpec = new DefaultConfigFileSpec("conffile", "../conf/confpath.xml", "content goes here");
-        when(mockTaskSpec.getConfigFiles()).thenReturn(Arrays.asList(configSpec));
-        Response r = ArtifactQueries.getTemplate(mockConfigStore, uuid.toString(), "pod", "task", "conffile");
+        UUID uuid = storeServiceSpec(
+                "{\"pod-specs\":[{\"type\":\"pod\",\"task-specs\":[{\"name\":\"task\",\"config-files\":[" +
+                        "{\"name\":\"other\",\"relative-path\":\"../conf/other.xml\",\"template-content\":\"other content\"}," +
+                        "{\"name\":\"conffile\",\"relative-path\":\"../conf/confpath.xml\",\"template-content\":\"content goes here\"}" +
+                        "]}]}]}");
+        Response r = ArtifactQueries.getTemplate(configStore, uuid.toString(), "pod", "task", "conffile");
         assertEquals(200, r.getStatus());
         assertEquals(MediaType.TEXT_PLAIN_TYPE, r.getMediaType());
-        assertEquals(configSpec.getTemplateContent(), r.getEntity());
+        assertEquals("content goes here", r.getEntity());
+    }
+
+    private UUID storeServiceSpec(String json) throws ConfigStoreException {
+        ServiceSpec serviceSpec = mock(ServiceSpec.class);
+        when(serviceSpec.getBytes()).thenReturn(json.getBytes(StandardCharsets.UTF_8));
+        return configStore.store(serviceSpec);
     }
 }
@@ -25,6 +25,11 @@ import javax.ws.rs.core.Response;
 import java.util.*;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class EndpointsQueriesTest {
@@ -318,4 +323,65 @@ public class EndpointsQueriesTest {
         assertEquals(200, response.getStatus());
         assertEquals(CUSTOM_VALUE, response.getEntity());
     }
+
+    @Test
+    public void testModelUpdatedOnlyForChangedTasks() throws Exception {
+        when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
+        EndpointsModel model = new EndpointsModel(
+                mockStateStore, SERVICE_NAME, SchedulerConfigTestUtils.getTestSchedulerConfig());
+
+        Map<String, EndpointsModel.Endpoint> endpoints = model.getEndpoints();
+        assertEquals(Arrays.asList(CUSTOM_KEY, "novip", "porta", "portb"), new ArrayList<>(endpoints.keySet()));
+        // No tasks have changed: Nothing is reread.
+        assertSame(endpoints, model.getEndpoints());
+        verify(mockStateStore, times(1)).fetchTasks();
+        verify(mockStateStore, times(1)).fetchStatus(TASK_WITH_PORTS_1.getName());
+
+        // A task was written but its content didn't change: Same endpoints.
+        when(mockStateStore.fetchTask(TASK_WITH_PORTS_1.getName())).thenReturn(Optional.of(TASK_WITH_PORTS_1));
+        model.onTasksChanged(Collections.singletonList(TASK_WITH_PORTS_1.getName()));
+        assertSame(endpoints, model.getEndpoints());
+        verify(mockStateStore, times(2)).fetchStatus(TASK_WITH_PORTS_1.getName());
+
+        // Only 'porta' is affected by removing 'ports-2', and only that task is reread:
+        when(mockStateStore.fetchTask(TASK_WITH_PORTS_2.getName())).thenReturn(Optional.empty());
+        model.onTasksChanged(Collections.singletonList(TASK_WITH_PORTS_2.getName()));
+        Map<String, EndpointsModel.Endpoint> refreshed = model.getEndpoints();
+        assertNotEquals(endpoints.get("porta").getTag(), refreshed.get("porta").getTag());
+        assertSame(endpoints.get("portb"), refreshed.get("portb"));
+        assertEquals(3, refreshed.get("porta").getContent().getJSONArray("dns").length());
+        verify(mockStateStore, times(1)).fetchTasks();
+        verify(mockStateStore, times(2)).fetchStatus(TASK_WITH_PORTS_1.getName());
+
+        // An IP address showing up in a task's status changes its endpoints:
+        when(mockStateStore.fetchStatus(TASK_WITH_PORTS_1.getName()))
+                .thenReturn(Optional.of(createTaskStatus(TestConstants.OVERLAY_HOSTNAME)));
+        model.onTasksChanged(Collections.singletonList(TASK_WITH_PORTS_1.getName()));
+        Map<String, EndpointsModel.Endpoint> withIp = model.getEndpoints();
+        assertNotEquals(refreshed.get("portb").getTag(), withIp.get("portb").getTag());
+        assertSame(refreshed.get("novip"), withIp.get("novip"));
+        assertEquals(TestConstants.OVERLAY_HOSTNAME + ":1235",
+                withIp.get("portb").getContent().getJSONArray("address").get(0));
+
+        // All tasks are reread if the underlying data may have changed:
+        model.onAllTasksChanged();
+        Map<String, EndpointsModel.Endpoint> reloaded = model.getEndpoints();
+        verify(mockStateStore, times(2)).fetchTasks();
+        // 'ports-2' is still listed by fetchTasks():
+        assertEquals(4, reloaded.get("porta").getContent().getJSONArray("dns").length());
+        assertEquals(withIp.get("portb").getTag(), reloaded.get("portb").getTag());
+    }
+
+    @Test
+    public void testEndpointTaggedWithContent() throws Exception {
+        when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
+        EndpointsModel model = new EndpointsModel(
+                mockStateStore, SERVICE_NAME, SchedulerConfigTestUtils.getTestSchedulerConfig());
+        Response response = EndpointsQueries.getEndpoint(model, CUSTOM_ENDPOINTS, "porta");
+        assertEquals(200, response.getStatus());
+        assertEquals(model.getEndpoints().get("porta").getTag(), response.getEntityTag().getValue());
+
+        // Custom endpoints may change at any time, so they aren't tagged:
+        assertNull(EndpointsQueries.getEndpoint(model, CUSTOM_ENDPOINTS, CUSTOM_KEY).getEntityTag());
+    }
 }
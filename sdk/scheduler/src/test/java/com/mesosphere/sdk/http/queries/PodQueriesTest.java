@@ -3,7 +3,6 @@ package com.mesosphere.sdk.http.queries;
 import com.mesosphere.sdk.http.types.TaskInfoAndStatus;
 import com.mesosphere.sdk.offer.CommonIdUtils;
 import com.mesosphere.sdk.offer.taskdata.TaskLabelWriter;
-import com.mesosphere.sdk.scheduler.Driver;
 import com.mesosphere.sdk.scheduler.TaskKiller;
 import com.mesosphere.sdk.scheduler.recovery.RecoveryType;
 import com.mesosphere.sdk.specification.ServiceSpec;
@@ -19,9 +18,7 @@ import org.apache.mesos.Protos.TaskStatus;
 import org.apache.mesos.SchedulerDriver;
 import org.json.JSONArray;
 import org.json.JSONObject;
-import org.junit.AfterClass;
 import org.junit.Before;
-import org.junit.BeforeClass;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -118,21 +115,13 @@ public class PodQueriesTest {
     @Mock private ConfigStore<ServiceSpec> mockConfigStore;
     @Mock private SchedulerDriver mockDriver;
     @Mock private PodQueries.FailureSetter mockFailureSetter;
-
-    @BeforeClass
-    public static void beforeAll() throws InterruptedException {
-        TaskKiller.reset(false); // disable background executor to avoid unexpected calls
-    }
-
-    @AfterClass
-    public static void afterAll() throws InterruptedException {
-        TaskKiller.reset(true); // reenable background executor to return to default behavior
-    }
+    private TaskKiller taskKiller;
 
     @Before
     public void beforeEach() {
         MockitoAnnotations.initMocks(this);
-        Driver.setDriver(mockDriver);
+        // Background retries are disabled to avoid unexpected calls:
+        taskKiller = TaskKiller.withoutRetries(() -> Optional.of(mockDriver));
     }
 
     @Test
@@ -343,7 +332,7 @@ public class PodQueriesTest {
     public void testPauseEntirePod() {
         when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
         when(mockStateStore.fetchStatuses()).thenReturn(TASK_STATUSES);
-        Response response = PodQueries.pause(mockStateStore, "test-0", null);
+        Response response = PodQueries.pause(mockStateStore, taskKiller, "test-0", null);
         assertEquals(200, response.getStatus());
 
         JSONObject json = new JSONObject((String) response.getEntity());
@@ -367,7 +356,7 @@ public class PodQueriesTest {
     public void testPauseEntirePodNotFound() {
         when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
         when(mockStateStore.fetchStatuses()).thenReturn(TASK_STATUSES);
-        Response response = PodQueries.pause(mockStateStore, "aaa", null);
+        Response response = PodQueries.pause(mockStateStore, taskKiller, "aaa", null);
         assertEquals(404, response.getStatus());
 
         verify(mockStateStore, times(0)).storeGoalOverrideStatus(any(), any());
@@ -381,7 +370,7 @@ public class PodQueriesTest {
         // allow both task names with and without a "pod-#-" prefix:
         jsonReq.put("a");
         jsonReq.put("test-0-c");
-        Response response = PodQueries.pause(mockStateStore, "test-0", jsonReq.toString());
+        Response response = PodQueries.pause(mockStateStore, taskKiller, "test-0", jsonReq.toString());
         assertEquals(200, response.getStatus());
 
         JSONObject json = new JSONObject((String) response.getEntity());
@@ -407,7 +396,7 @@ public class PodQueriesTest {
         jsonReq.put("a");
         jsonReq.put("test-0-c");
         jsonReq.put("e");
-        Response response = PodQueries.pause(mockStateStore, "test-0", jsonReq.toString());
+        Response response = PodQueries.pause(mockStateStore, taskKiller, "test-0", jsonReq.toString());
         assertEquals(404, response.getStatus());
 
         verify(mockStateStore, times(0)).storeGoalOverrideStatus(any(), any());
@@ -419,7 +408,8 @@ public class PodQueriesTest {
     public void testRestartPodNotFound() {
         when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
         when(mockStateStore.fetchStatuses()).thenReturn(TASK_STATUSES);
-        Response response = PodQueries.restartPod(mockStateStore, mockConfigStore, "aaa", RecoveryType.TRANSIENT, null);
+        Response response = PodQueries.restartPod(
+                mockStateStore, mockConfigStore, taskKiller, "aaa", RecoveryType.TRANSIENT, null);
         assertEquals(404, response.getStatus());
     }
 
@@ -428,7 +418,8 @@ public class PodQueriesTest {
         when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
         when(mockStateStore.fetchStatuses()).thenReturn(TASK_STATUSES);
 
-        Response response = PodQueries.restartPod(mockStateStore, mockConfigStore, "test-0", RecoveryType.TRANSIENT, null);
+        Response response = PodQueries.restartPod(
+                mockStateStore, mockConfigStore, taskKiller, "test-0", RecoveryType.TRANSIENT, null);
         assertEquals(200, response.getStatus());
         JSONObject json = new JSONObject((String) response.getEntity());
         assertEquals(2, json.length());
@@ -453,7 +444,8 @@ public class PodQueriesTest {
         when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
         when(mockStateStore.fetchStatuses()).thenReturn(TASK_STATUSES);
 
-        Response response = PodQueries.restartPod(mockStateStore, mockConfigStore, "test-1", RecoveryType.TRANSIENT, null);
+        Response response = PodQueries.restartPod(
+                mockStateStore, mockConfigStore, taskKiller, "test-1", RecoveryType.TRANSIENT, null);
         assertEquals(200, response.getStatus());
         JSONObject json = new JSONObject((String) response.getEntity());
         assertEquals(2, json.length());
@@ -475,7 +467,8 @@ public class PodQueriesTest {
     public void testReplacePodNotFound() {
         when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
         when(mockStateStore.fetchStatuses()).thenReturn(TASK_STATUSES);
-        Response response = PodQueries.restartPod(mockStateStore, mockConfigStore, "aaa", RecoveryType.PERMANENT, null);
+        Response response = PodQueries.restartPod(
+                mockStateStore, mockConfigStore, taskKiller, "aaa", RecoveryType.PERMANENT, null);
         assertEquals(404, response.getStatus());
 
         verifyNoMoreInteractions(mockConfigStore);
@@ -489,7 +482,12 @@ public class PodQueriesTest {
         String podInstanceName = "test-0";
 
         Response response = PodQueries.restartPod(
-                mockStateStore, mockConfigStore, podInstanceName, RecoveryType.PERMANENT, mockFailureSetter);
+                mockStateStore,
+                mockConfigStore,
+                taskKiller,
+                podInstanceName,
+                RecoveryType.PERMANENT,
+                mockFailureSetter);
         assertEquals(200, response.getStatus());
         JSONObject json = new JSONObject((String) response.getEntity());
         assertEquals(2, json.length());
@@ -521,7 +519,12 @@ public class PodQueriesTest {
         String podInstanceName = "test-1";
 
         Response response = PodQueries.restartPod(
-                mockStateStore, mockConfigStore, podInstanceName, RecoveryType.PERMANENT, mockFailureSetter);
+                mockStateStore,
+                mockConfigStore,
+                taskKiller,
+                podInstanceName,
+                RecoveryType.PERMANENT,
+                mockFailureSetter);
         assertEquals(200, response.getStatus());
         JSONObject json = new JSONObject((String) response.getEntity());
         assertEquals(2, json.length());
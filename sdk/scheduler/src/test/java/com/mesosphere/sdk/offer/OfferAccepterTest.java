@@ -20,6 +20,7 @@ import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 import static org.mockito.Mockito.*;
@@ -80,6 +81,58 @@ public class OfferAccepterTest {
                 anyObject());
     }
 
+    @Test
+    public void testAcceptByAgentRecordsBeforeAccepting() {
+        Offer offerA = OfferTestUtils.getOffer(ResourceTestUtils.getReservedCpus(1.0, "resource-a")).toBuilder()
+                .setId(OfferID.newBuilder().setValue("offer-a"))
+                .build();
+        Offer offerB = OfferTestUtils.getOffer(ResourceTestUtils.getReservedCpus(1.0, "resource-b")).toBuilder()
+                .setId(OfferID.newBuilder().setValue("offer-b"))
+                .build();
+
+        List<List<OfferRecommendation>> batches = new ArrayList<>();
+        OperationRecorder recorder = new OperationRecorder() {
+            @Override
+            public void record(OfferRecommendation offerRecommendation) throws Exception {
+                Assert.fail("Expected a single batch");
+            }
+
+            @Override
+            public void recordAll(Collection<OfferRecommendation> offerRecommendations) throws Exception {
+                // Nothing should have been accepted yet:
+                verifyZeroInteractions(driver);
+                batches.add(new ArrayList<>(offerRecommendations));
+            }
+        };
+        OfferAccepter accepter = new OfferAccepter(Arrays.asList(recorder));
+        Driver.setDriver(driver);
+        List<OfferID> acceptedIds = accepter.acceptByAgent(Arrays.asList(
+                Arrays.asList(new UnreserveOfferRecommendation(offerA, offerA.getResources(0))),
+                Arrays.asList(new UnreserveOfferRecommendation(offerB, offerB.getResources(0)))));
+
+        Assert.assertEquals(Arrays.asList(offerA.getId(), offerB.getId()), acceptedIds);
+        Assert.assertEquals(1, batches.size());
+        Assert.assertEquals(2, batches.get(0).size());
+        verify(driver, times(1)).acceptOffers(
+                eq(Arrays.asList(offerA.getId())), anyCollectionOf(Operation.class), anyObject());
+        verify(driver, times(1)).acceptOffers(
+                eq(Arrays.asList(offerB.getId())), anyCollectionOf(Operation.class), anyObject());
+    }
+
+    @Test
+    public void testAcceptByAgentRecordFailure() {
+        Offer offer = OfferTestUtils.getOffer(ResourceTestUtils.getReservedCpus(1.0, "resource-a"));
+        OfferAccepter accepter = new OfferAccepter(Arrays.asList(offerRecommendation -> {
+            throw new Exception("test failure");
+        }));
+        Driver.setDriver(driver);
+        List<OfferID> acceptedIds = accepter.acceptByAgent(Arrays.asList(
+                Arrays.asList(new UnreserveOfferRecommendation(offer, offer.getResources(0)))));
+
+        Assert.assertTrue(acceptedIds.isEmpty());
+        verifyZeroInteractions(driver);
+    }
+
     public static class TestOperationRecorder implements OperationRecorder {
         private List<Operation> reserves = new ArrayList<>();
         private List<Operation> unreserves = new ArrayList<>();
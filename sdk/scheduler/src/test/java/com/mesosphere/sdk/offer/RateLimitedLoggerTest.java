@@ -0,0 +1,85 @@
+package com.mesosphere.sdk.offer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.*;
+
+public class RateLimitedLoggerTest {
+
+    private static final Duration INTERVAL = Duration.ofSeconds(10);
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private Logger mockLogger;
+    private RateLimitedLogger rateLimitedLogger;
+
+    // Note: Arguments are verified as arrays, as RateLimitedLogger always calls the varargs variants of Logger methods.
+
+    @Before
+    public void beforeEach() {
+        mockLogger = mock(Logger.class);
+        when(mockLogger.isInfoEnabled()).thenReturn(true);
+        rateLimitedLogger = new RateLimitedLogger(mockLogger, INTERVAL, nanoTime::get);
+    }
+
+    @Test
+    public void testRepeatedMessagesAreDemoted() {
+        rateLimitedLogger.info("message {}", 1);
+        verify(mockLogger).info("message {}", new Object[] { 1 });
+
+        nanoTime.addAndGet(INTERVAL.toNanos() - 1);
+        rateLimitedLogger.info("message {}", 1);
+        rateLimitedLogger.info("message {}", 1);
+        verify(mockLogger, times(2)).debug("message {}", new Object[] { 1 });
+
+        nanoTime.addAndGet(1);
+        rateLimitedLogger.info("message {}", 1);
+        verify(mockLogger).info("message {} (repeated {} more times at DEBUG)", new Object[] { 1, 2L });
+
+        nanoTime.addAndGet(INTERVAL.toNanos());
+        rateLimitedLogger.info("message {}", 1);
+        verify(mockLogger, times(2)).info("message {}", new Object[] { 1 });
+    }
+
+    @Test
+    public void testChangedMessagesAreNotDemoted() {
+        rateLimitedLogger.info("message {}", 1);
+        rateLimitedLogger.info("message {}", 1);
+        verify(mockLogger).info("message {}", new Object[] { 1 });
+        verify(mockLogger).debug("message {}", new Object[] { 1 });
+
+        // The arguments changed within the interval: logged at INFO, noting the demoted repeats of the prior message
+        rateLimitedLogger.info("message {}", 2);
+        verify(mockLogger).info(
+                "message {} (previous message repeated {} more times at DEBUG)", new Object[] { 2, 1L });
+
+        rateLimitedLogger.info("message {}", 1);
+        verify(mockLogger, times(2)).info("message {}", new Object[] { 1 });
+
+        rateLimitedLogger.info("message {}", 1);
+        verify(mockLogger, times(2)).debug("message {}", new Object[] { 1 });
+    }
+
+    @Test
+    public void testFormatsAreLimitedSeparately() {
+        rateLimitedLogger.info("first {}", 1);
+        rateLimitedLogger.info("second {}", 1);
+        verify(mockLogger).info("first {}", new Object[] { 1 });
+        verify(mockLogger).info("second {}", new Object[] { 1 });
+
+        rateLimitedLogger.info("first {}", 1);
+        verify(mockLogger).debug("first {}", new Object[] { 1 });
+    }
+
+    @Test
+    public void testNothingLoggedWhenInfoDisabled() {
+        when(mockLogger.isInfoEnabled()).thenReturn(false);
+        rateLimitedLogger.info("message {}", 1);
+        verify(mockLogger).isInfoEnabled();
+        verifyNoMoreInteractions(mockLogger);
+    }
+}
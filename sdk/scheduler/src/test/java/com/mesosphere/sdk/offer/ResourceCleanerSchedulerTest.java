@@ -6,10 +6,14 @@ import com.mesosphere.sdk.testutils.ResourceTestUtils;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -22,6 +26,8 @@ public class ResourceCleanerSchedulerTest {
     private OfferAccepter offerAccepter;
     @Mock
     private SchedulerDriver driver;
+    @Captor
+    private ArgumentCaptor<Collection<List<OfferRecommendation>>> recommendationsCaptor;
 
     private ResourceCleanerScheduler scheduler;
     private List<OfferRecommendation> recommendations;
@@ -66,7 +72,16 @@ public class ResourceCleanerSchedulerTest {
     @Test
     public void testResourceOffers() {
         scheduler.resourceOffers(offers);
-        verify(offerAccepter, times(2)).accept(any());
+        // Both agents are accepted in a single call, so that their operations are recorded together:
+        verify(offerAccepter, times(1)).acceptByAgent(recommendationsCaptor.capture());
+        Assert.assertEquals(2, recommendationsCaptor.getValue().size());
+    }
+
+    @Test
+    public void testResourceOffersNoRecommendations() {
+        when(resourceCleaner.evaluate(offers)).thenReturn(Collections.emptyList());
+        Assert.assertTrue(scheduler.resourceOffers(offers).isEmpty());
+        verifyZeroInteractions(offerAccepter);
     }
 
     @Test
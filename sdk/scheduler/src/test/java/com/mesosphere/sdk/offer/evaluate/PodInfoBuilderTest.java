@@ -0,0 +1,86 @@
+package com.mesosphere.sdk.offer.evaluate;
+
+import com.mesosphere.sdk.http.endpoints.ArtifactResource;
+import com.mesosphere.sdk.offer.Constants;
+import com.mesosphere.sdk.offer.InvalidRequirementException;
+import com.mesosphere.sdk.offer.MesosResourcePool;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirementTestUtils;
+import com.mesosphere.sdk.testutils.*;
+import org.apache.mesos.Protos;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Tests for {@link PodInfoBuilder}.
+ */
+public class PodInfoBuilderTest extends DefaultCapabilitiesTestSuite {
+    private PodInstanceRequirement podInstanceRequirement;
+    private UUID targetConfigId;
+
+    @Before
+    public void beforeEach() {
+        podInstanceRequirement = PodInstanceRequirementTestUtils.getCpuRequirement(1.0);
+        targetConfigId = UUID.randomUUID();
+    }
+
+    @Test
+    public void testPrototypeMatchesConstructor() throws InvalidRequirementException {
+        PodInfoBuilder expected = new PodInfoBuilder(
+                podInstanceRequirement,
+                TestConstants.SERVICE_NAME,
+                targetConfigId,
+                ArtifactResource.getUrlFactory(TestConstants.SERVICE_NAME),
+                SchedulerConfigTestUtils.getTestSchedulerConfig(),
+                Collections.emptyList(),
+                TestConstants.FRAMEWORK_ID,
+                true,
+                Collections.emptyMap());
+        PodInfoBuilder actual = getPrototype().newBuilder();
+
+        Assert.assertEquals(
+                expected.getTaskBuilder(TestConstants.TASK_NAME).build(),
+                actual.getTaskBuilder(TestConstants.TASK_NAME).build());
+        Assert.assertEquals(expected.getExecutorBuilder().get().build(), actual.getExecutorBuilder().get().build());
+        Assert.assertEquals(expected.getAssignedOverlayPorts(), actual.getAssignedOverlayPorts());
+        Assert.assertEquals(expected.getPodInstance(), actual.getPodInstance());
+    }
+
+    @Test
+    public void testPrototypeBuildersAreIndependent() throws InvalidRequirementException {
+        PodInfoBuilder.Prototype prototype = getPrototype();
+        PodInfoBuilder first = prototype.newBuilder();
+        PodInfoBuilder second = prototype.newBuilder();
+        Protos.TaskInfo original = second.getTaskBuilder(TestConstants.TASK_NAME).build();
+
+        new LaunchEvaluationStage(TestConstants.SERVICE_NAME, TestConstants.TASK_NAME, true, true).evaluate(
+                new MesosResourcePool(
+                        OfferTestUtils.getOffer(ResourceTestUtils.getUnreservedCpus(2.0)),
+                        Optional.of(Constants.ANY_ROLE)),
+                first);
+        first.addAssignedOverlayPort(1234);
+
+        Assert.assertNotEquals(original, first.getTaskBuilder(TestConstants.TASK_NAME).build());
+        Assert.assertEquals(original, second.getTaskBuilder(TestConstants.TASK_NAME).build());
+        Assert.assertEquals(original, prototype.newBuilder().getTaskBuilder(TestConstants.TASK_NAME).build());
+        Assert.assertFalse(second.isAssignedOverlayPort(1234));
+    }
+
+    private PodInfoBuilder.Prototype getPrototype() throws InvalidRequirementException {
+        return PodInfoBuilder.newPrototype(
+                podInstanceRequirement,
+                TestConstants.SERVICE_NAME,
+                targetConfigId,
+                ArtifactResource.getUrlFactory(TestConstants.SERVICE_NAME),
+                SchedulerConfigTestUtils.getTestSchedulerConfig(),
+                Collections.emptyList(),
+                TestConstants.FRAMEWORK_ID,
+                true,
+                Collections.emptyMap());
+    }
+}
@@ -7,6 +7,7 @@ import com.mesosphere.sdk.offer.MesosResourcePool;
 import com.mesosphere.sdk.offer.evaluate.security.TLSArtifact;
 import com.mesosphere.sdk.offer.evaluate.security.TLSArtifactPaths;
 import com.mesosphere.sdk.offer.evaluate.security.TLSArtifactsUpdater;
+import com.mesosphere.sdk.offer.evaluate.security.TLSProvisioner;
 import com.mesosphere.sdk.scheduler.SchedulerConfig;
 import com.mesosphere.sdk.scheduler.plan.DefaultPodInstance;
 import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
@@ -25,6 +26,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.io.IOException;
+import java.time.Clock;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -35,6 +37,7 @@ public class TLSEvaluationStageTest {
     @Mock private TLSArtifactsUpdater mockTLSArtifactsUpdater;
 
     private TLSArtifactPaths tlsArtifactPaths;
+    private TLSProvisioner tlsProvisioner;
     private TLSEvaluationStage tlsEvaluationStage;
 
     @Before
@@ -43,16 +46,19 @@ public class TLSEvaluationStageTest {
 
         // echo -n "pod-type-0-test-task-name.service-name.autoip.dcos.thisdcos.directory" | sha1sum
         String sanHash = "8ffc618c478beb31a043d978652d7bc571fedfe2";
+        SchedulerConfig schedulerConfig = SchedulerConfig.fromEnv();
+        // Provision on the calling thread, so that artifacts are ready by the time that evaluation checks them.
+        tlsProvisioner = new TLSProvisioner(
+                TestConstants.SERVICE_NAME, schedulerConfig, mockTLSArtifactsUpdater, Runnable::run, Clock.systemUTC());
         tlsArtifactPaths = new TLSArtifactPaths(
-                "test-namespace",
+                tlsProvisioner.getNamespace(),
                 TestConstants.POD_TYPE + "-" + TestConstants.TASK_INDEX + "-" + TestConstants.TASK_NAME,
                 sanHash);
         tlsEvaluationStage = new TLSEvaluationStage(
                 TestConstants.SERVICE_NAME,
                 TestConstants.TASK_NAME,
-                "test-namespace",
-                mockTLSArtifactsUpdater,
-                SchedulerConfig.fromEnv());
+                tlsProvisioner,
+                schedulerConfig);
     }
 
     private static PodInstanceRequirement getRequirementWithTransportEncryption(
@@ -208,6 +214,51 @@ public class TLSEvaluationStageTest {
         Assert.assertFalse(outcome.isPassing());
     }
 
+    @Test
+    public void testPendingProvisioning() throws Exception {
+        // Provisioning is queued but never run:
+        List<Runnable> queued = new ArrayList<>();
+        tlsEvaluationStage = new TLSEvaluationStage(
+                TestConstants.SERVICE_NAME,
+                TestConstants.TASK_NAME,
+                new TLSProvisioner(
+                        TestConstants.SERVICE_NAME,
+                        SchedulerConfig.fromEnv(),
+                        mockTLSArtifactsUpdater,
+                        queued::add,
+                        Clock.systemUTC()),
+                SchedulerConfig.fromEnv());
+
+        ArrayList<TransportEncryptionSpec> transportEncryptionSpecs = new ArrayList<>();
+        transportEncryptionSpecs.add(new DefaultTransportEncryptionSpec
+                .Builder()
+                .name("test-tls")
+                .type(TransportEncryptionSpec.Type.TLS)
+                .build());
+
+        Protos.Offer offer = OfferTestUtils.getOffer(ResourceTestUtils.getUnreservedCpus(2.0));
+        PodInfoBuilder podInfoBuilder = getPodInfoBuilderForTransportEncryption(transportEncryptionSpecs);
+
+        EvaluationOutcome outcome = tlsEvaluationStage.evaluate(
+                new MesosResourcePool(offer, Optional.of(Constants.ANY_ROLE)),
+                podInfoBuilder);
+        Assert.assertFalse(outcome.isPassing());
+        Assert.assertEquals(1, queued.size());
+        verifyZeroInteractions(mockTLSArtifactsUpdater);
+        Assert.assertEquals(0, podInfoBuilder.getTaskBuilder(TestConstants.TASK_NAME).getContainer().getVolumesCount());
+
+        // Once provisioning completes, the next evaluation passes without provisioning again:
+        queued.get(0).run();
+        outcome = tlsEvaluationStage.evaluate(
+                new MesosResourcePool(offer, Optional.of(Constants.ANY_ROLE)),
+                podInfoBuilder);
+        Assert.assertTrue(outcome.isPassing());
+        Assert.assertEquals(1, queued.size());
+        verify(mockTLSArtifactsUpdater).update(Matchers.any(), Matchers.any(), Matchers.eq("test-tls"));
+        assertTLSArtifacts(
+                podInfoBuilder.getTaskBuilder(TestConstants.TASK_NAME).getContainer(), tlsArtifactPaths, "test-tls");
+    }
+
     private void assertTLSArtifacts(Protos.ContainerInfo container, TLSArtifactPaths secretPaths, String encryptionSpecName) {
         Protos.Volume volume = findVolumeWithContainerPath(container, TLSArtifact.CERTIFICATE.getMountPath(encryptionSpecName)).get();
         Assert.assertEquals(
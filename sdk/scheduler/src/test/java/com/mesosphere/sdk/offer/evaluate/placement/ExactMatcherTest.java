@@ -87,4 +87,13 @@ public class ExactMatcherTest {
         StringMatcher matcher = ExactMatcher.create("100");
         Assert.assertTrue(matcher.matches("100.00011"));
     }
+
+    @Test
+    public void nonNumericValuesDontMatchNumbers() {
+        StringMatcher matcher = ExactMatcher.create("100");
+        Assert.assertFalse(matcher.matches("rack:100"));
+        Assert.assertFalse(matcher.matches(""));
+        Assert.assertTrue(matcher.matches(" 100.0"));
+        Assert.assertTrue(matcher.matches("+100"));
+    }
 }
@@ -0,0 +1,78 @@
+package com.mesosphere.sdk.offer.evaluate.placement;
+
+import com.mesosphere.sdk.offer.taskdata.AttributeStringUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.Value;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests for {@link OfferPlacementInfo}.
+ */
+public class OfferPlacementInfoTest {
+
+    @Test
+    public void testValuesMatchOffer() {
+        Offer offer = getOffer("host-1", true);
+        OfferPlacementInfo info = OfferPlacementInfo.of(offer);
+
+        Assert.assertEquals(TestConstants.AGENT_ID.getValue(), info.getAgentId());
+        Assert.assertEquals("host-1", info.getHostname());
+        Assert.assertEquals(Arrays.asList("host-1"), info.getHostnameKeys());
+        Assert.assertEquals(Arrays.asList(TestConstants.REMOTE_REGION), info.getRegionKeys());
+        Assert.assertEquals(Arrays.asList(TestConstants.ZONE), info.getZoneKeys());
+        Assert.assertEquals(
+                Arrays.asList(
+                        AttributeStringUtils.toString(offer.getAttributes(0)),
+                        AttributeStringUtils.toString(offer.getAttributes(1))),
+                info.getAttributeStrings());
+        Assert.assertEquals("[1-5]", info.getAttributeValue("PORTS"));
+        Assert.assertEquals("a", info.getAttributeValue("rack"));
+        Assert.assertNull(info.getAttributeValue("missing"));
+    }
+
+    @Test
+    public void testNoDomain() {
+        OfferPlacementInfo info = OfferPlacementInfo.of(getOffer("host-1", false));
+        Assert.assertEquals(Collections.emptyList(), info.getRegionKeys());
+        Assert.assertEquals(Collections.emptyList(), info.getZoneKeys());
+    }
+
+    @Test
+    public void testCachedPerOffer() {
+        Offer offer = getOffer("host-1", true);
+        Assert.assertSame(OfferPlacementInfo.of(offer), OfferPlacementInfo.of(offer));
+
+        // An equal but distinct offer gets its own entry, while sharing the interned values:
+        Offer copy = offer.toBuilder().build();
+        Assert.assertNotSame(OfferPlacementInfo.of(offer), OfferPlacementInfo.of(copy));
+        Assert.assertSame(OfferPlacementInfo.of(offer).getHostname(), OfferPlacementInfo.of(copy).getHostname());
+        Assert.assertSame(
+                OfferPlacementInfo.of(offer).getAttributeStrings().get(1),
+                OfferPlacementInfo.of(copy).getAttributeStrings().get(1));
+    }
+
+    private static Offer getOffer(String hostname, boolean withDomain) {
+        Offer.Builder offerBuilder = Offer.newBuilder()
+                .setId(TestConstants.OFFER_ID)
+                .setFrameworkId(TestConstants.FRAMEWORK_ID)
+                .setSlaveId(TestConstants.AGENT_ID)
+                .setHostname(hostname);
+        offerBuilder.addAttributesBuilder()
+                .setName("ports")
+                .setType(Value.Type.RANGES)
+                .getRangesBuilder().addRangeBuilder().setBegin(1).setEnd(5);
+        offerBuilder.addAttributesBuilder()
+                .setName("rack")
+                .setType(Value.Type.TEXT)
+                .getTextBuilder().setValue("a");
+        if (withDomain) {
+            offerBuilder.setDomain(TestConstants.REMOTE_DOMAIN_INFO);
+        }
+        return offerBuilder.build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.mesosphere.sdk.offer.evaluate.placement;
+
+import com.mesosphere.sdk.offer.TaskException;
+import com.mesosphere.sdk.offer.taskdata.TaskLabelWriter;
+import com.mesosphere.sdk.scheduler.plan.DefaultPodInstance;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirementTestUtils;
+import com.mesosphere.sdk.specification.PodInstance;
+import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos.Offer;
+import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.Value;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests for {@link TaskPlacementInfo}.
+ */
+public class TaskPlacementInfoTest {
+
+    @Test
+    public void testValuesMatchLabels() throws TaskException {
+        TaskPlacementInfo info = TaskPlacementInfo.of(getTask("type", 2));
+
+        Assert.assertEquals(TestConstants.AGENT_ID.getValue(), info.getAgentId());
+        Assert.assertEquals("type", info.getType());
+        Assert.assertTrue(info.hasType());
+        Assert.assertEquals(TestConstants.HOSTNAME, info.getHostname());
+        Assert.assertEquals(Arrays.asList(TestConstants.HOSTNAME), info.getHostnameKeys());
+        Assert.assertEquals(Arrays.asList(TestConstants.LOCAL_REGION), info.getRegionKeys());
+        Assert.assertEquals(Arrays.asList(TestConstants.ZONE), info.getZoneKeys());
+        Assert.assertEquals(Arrays.asList("rack:a"), info.getOfferAttributeStrings());
+        Assert.assertEquals("a", info.getOfferAttributeValue("RACK"));
+        Assert.assertNull(info.getOfferAttributeValue("missing"));
+
+        Assert.assertTrue(info.isSamePodInstance(getPodInstance("type", 2)));
+        Assert.assertFalse(info.isSamePodInstance(getPodInstance("type", 1)));
+        Assert.assertFalse(info.isSamePodInstance(getPodInstance("other", 2)));
+    }
+
+    @Test
+    public void testMissingLabels() {
+        TaskInfo task = getTask("type", 0).toBuilder().clearLabels().build();
+        TaskPlacementInfo info = TaskPlacementInfo.of(task);
+
+        Assert.assertFalse(info.hasType());
+        Assert.assertEquals(Collections.emptyList(), info.getHostnameKeys());
+        Assert.assertEquals(Collections.emptyList(), info.getRegionKeys());
+        Assert.assertEquals(Collections.emptyList(), info.getZoneKeys());
+        Assert.assertEquals(Collections.emptyList(), info.getOfferAttributeStrings());
+        try {
+            info.getType();
+            Assert.fail("Expected an exception");
+        } catch (TaskException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("type"));
+        }
+        try {
+            info.getHostname();
+            Assert.fail("Expected an exception");
+        } catch (TaskException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("hostname"));
+        }
+        try {
+            info.isSamePodInstance(getPodInstance("type", 0));
+            Assert.fail("Expected an exception");
+        } catch (TaskException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("index"));
+        }
+    }
+
+    @Test
+    public void testCachedPerTask() {
+        TaskInfo task = getTask("type", 0);
+        Assert.assertSame(TaskPlacementInfo.of(task), TaskPlacementInfo.of(task));
+        Assert.assertNotSame(TaskPlacementInfo.of(task), TaskPlacementInfo.of(task.toBuilder().build()));
+    }
+
+    private static TaskInfo getTask(String type, int index) {
+        Offer.Builder offerBuilder = OfferTestUtils.getEmptyOfferBuilder()
+                .setHostname(TestConstants.HOSTNAME)
+                .setDomain(TestConstants.LOCAL_DOMAIN_INFO);
+        offerBuilder.addAttributesBuilder()
+                .setName("rack")
+                .setType(Value.Type.TEXT)
+                .getTextBuilder().setValue("a");
+        Offer offer = offerBuilder.build();
+
+        TaskInfo.Builder taskBuilder = TaskTestUtils.getTaskInfo(Collections.emptyList()).toBuilder();
+        taskBuilder.setLabels(new TaskLabelWriter(taskBuilder)
+                .setType(type)
+                .setIndex(index)
+                .setHostname(offer)
+                .setOfferAttributes(offer)
+                .setRegion(offer.getDomain().getFaultDomain().getRegion())
+                .setZone(offer.getDomain().getFaultDomain().getZone())
+                .toProto());
+        return taskBuilder.build();
+    }
+
+    private static PodInstance getPodInstance(String type, int index) {
+        PodSpec podSpec = PodInstanceRequirementTestUtils.getRequirement(
+                PodInstanceRequirementTestUtils.getCpuResourceSet(1.0), type, index)
+                .getPodInstance()
+                .getPod();
+        return new DefaultPodInstance(podSpec, index);
+    }
+}
@@ -0,0 +1,51 @@
+package com.mesosphere.sdk.offer.evaluate.security;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for {@link KeyPairPool}.
+ */
+public class KeyPairPoolTest {
+
+    @Test
+    public void testPreGenerated() throws Exception {
+        KeyPairPool pool = new KeyPairPool(getGenerator(), 2);
+        waitForAvailable(pool, 2);
+
+        KeyPair first = pool.take();
+        KeyPair second = pool.take();
+        Assert.assertNotNull(first);
+        Assert.assertNotNull(second);
+        Assert.assertNotSame(first, second);
+
+        // Taken keypairs are replaced in the background:
+        waitForAvailable(pool, 2);
+    }
+
+    @Test
+    public void testNoPool() throws Exception {
+        KeyPairPool pool = new KeyPairPool(getGenerator(), 0);
+        Assert.assertEquals(0, pool.available());
+        Assert.assertNotNull(pool.take());
+        Assert.assertEquals(0, pool.available());
+    }
+
+    private static KeyPairGenerator getGenerator() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(512);
+        return generator;
+    }
+
+    private static void waitForAvailable(KeyPairPool pool, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pool.available() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(count, pool.available());
+    }
+}
@@ -0,0 +1,330 @@
+package com.mesosphere.sdk.offer.evaluate.security;
+
+import com.mesosphere.sdk.dcos.DcosHttpClientBuilder;
+import com.mesosphere.sdk.dcos.DcosHttpExecutor;
+import com.mesosphere.sdk.dcos.clients.CertificateAuthorityClient;
+import com.mesosphere.sdk.dcos.clients.SecretsClient;
+import com.mesosphere.sdk.offer.Constants;
+import com.mesosphere.sdk.scheduler.SchedulerConfig;
+import com.mesosphere.sdk.scheduler.plan.DefaultPodInstance;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirementTestUtils;
+import com.mesosphere.sdk.specification.*;
+import com.mesosphere.sdk.testutils.TestConstants;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.apache.commons.io.IOUtils;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x500.X500NameBuilder;
+import org.bouncycastle.asn1.x500.style.BCStyle;
+import org.bouncycastle.asn1.x509.SubjectPublicKeyInfo;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.openssl.PEMParser;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.pkcs.PKCS10CertificationRequest;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link TLSProvisioner}.
+ */
+public class TLSProvisionerTest {
+
+    private static final String SPEC_NAME = "spec-name";
+
+    @Mock private TLSArtifactsUpdater mockTLSArtifactsUpdater;
+    @Mock private CertificateNamesGenerator mockCertificateNamesGenerator;
+    @Mock private TLSArtifactPaths mockTLSArtifactPaths;
+    @Mock private Clock mockClock;
+
+    private final List<Runnable> queued = new ArrayList<>();
+    private TLSProvisioner tlsProvisioner;
+
+    @Before
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+        when(mockTLSArtifactPaths.getSecretStorePath(TLSArtifact.CERTIFICATE, SPEC_NAME)).thenReturn("a-secret-path");
+        when(mockClock.millis()).thenReturn(0L);
+        queued.clear();
+        tlsProvisioner = new TLSProvisioner(
+                TestConstants.SERVICE_NAME, SchedulerConfig.fromEnv(), mockTLSArtifactsUpdater, queued::add, mockClock);
+    }
+
+    @Test
+    public void testPendingThenReady() throws Exception {
+        Assert.assertEquals(TLSProvisioner.Status.State.PENDING, getStatus().getState());
+        Assert.assertTrue(tlsProvisioner.hasPendingProvisioning());
+        // Repeated checks don't start provisioning again:
+        Assert.assertEquals(TLSProvisioner.Status.State.PENDING, getStatus().getState());
+        Assert.assertEquals(1, queued.size());
+
+        queued.get(0).run();
+        Assert.assertFalse(tlsProvisioner.hasPendingProvisioning());
+        Assert.assertEquals(TLSProvisioner.Status.State.READY, getStatus().getState());
+        Assert.assertEquals(1, queued.size());
+        verify(mockTLSArtifactsUpdater, only())
+                .update(mockTLSArtifactPaths, mockCertificateNamesGenerator, SPEC_NAME);
+    }
+
+    @Test
+    public void testFailureIsRetried() throws Exception {
+        IOException error = new IOException("test");
+        doThrow(error).when(mockTLSArtifactsUpdater)
+                .update(mockTLSArtifactPaths, mockCertificateNamesGenerator, SPEC_NAME);
+
+        getStatus();
+        queued.get(0).run();
+        TLSProvisioner.Status status = getStatus();
+        Assert.assertEquals(TLSProvisioner.Status.State.FAILED, status.getState());
+        Assert.assertSame(error, status.getError().get());
+
+        // The failure is reported once, and the next check starts a new attempt:
+        Assert.assertEquals(TLSProvisioner.Status.State.PENDING, getStatus().getState());
+        Assert.assertEquals(2, queued.size());
+    }
+
+    @Test
+    public void testReadyIsRevalidated() throws Exception {
+        getStatus();
+        queued.get(0).run();
+        Assert.assertEquals(TLSProvisioner.Status.State.READY, getStatus().getState());
+
+        when(mockClock.millis()).thenReturn(Duration.ofMinutes(11).toMillis());
+        Assert.assertEquals(TLSProvisioner.Status.State.PENDING, getStatus().getState());
+        Assert.assertEquals(2, queued.size());
+    }
+
+    @Test
+    public void testCompletedProvisioningIsDiscardedOnceNotNeeded() throws Exception {
+        PodInstance podInstance = getPodInstance();
+        tlsProvisioner.provision(Collections.singletonList(podInstance));
+        Assert.assertEquals(1, queued.size());
+
+        // Provisioning which is still in progress is kept, even if it's no longer needed:
+        tlsProvisioner.provision(Collections.emptyList());
+        Assert.assertEquals(1, tlsProvisioner.getProvisioningCount());
+        Assert.assertTrue(tlsProvisioner.hasPendingProvisioning());
+
+        queued.get(0).run();
+        tlsProvisioner.provision(Collections.emptyList());
+        Assert.assertEquals(0, tlsProvisioner.getProvisioningCount());
+
+        // Provisioning which is still needed is kept after it completes:
+        tlsProvisioner.provision(Collections.singletonList(podInstance));
+        queued.get(1).run();
+        tlsProvisioner.provision(Collections.singletonList(podInstance));
+        Assert.assertEquals(1, tlsProvisioner.getProvisioningCount());
+        Assert.assertEquals(2, queued.size());
+    }
+
+    @Test
+    public void testProvisionAgainstStubServers() throws Exception {
+        StubCluster stubCluster = new StubCluster();
+        try {
+            DcosHttpExecutor httpExecutor = new DcosHttpExecutor(new DcosHttpClientBuilder());
+            TLSArtifactsUpdater tlsArtifactsUpdater = new TLSArtifactsUpdater(
+                    TestConstants.SERVICE_NAME,
+                    new SecretsClient(httpExecutor, stubCluster.getUri() + StubCluster.SECRETS_PATH),
+                    new CertificateAuthorityClient(httpExecutor, stubCluster.getUri() + StubCluster.CA_PATH));
+            // Provision on the calling thread, so that each call to provision() completes its requests:
+            tlsProvisioner = new TLSProvisioner(
+                    TestConstants.SERVICE_NAME,
+                    SchedulerConfig.fromEnv(),
+                    tlsArtifactsUpdater,
+                    Runnable::run,
+                    Clock.systemUTC());
+            PodInstance podInstance = getPodInstance();
+
+            tlsProvisioner.provision(Collections.singletonList(podInstance));
+            Assert.assertFalse(tlsProvisioner.hasPendingProvisioning());
+            Assert.assertEquals(1, stubCluster.signRequests.get());
+            Assert.assertEquals(TLSArtifact.values().length, stubCluster.secrets.size());
+            // The stored certificate was signed by the CA:
+            String certificatePem = stubCluster.secrets.values().stream()
+                    .map(JSONObject::new)
+                    .filter(secret -> secret.getString("description").equals(TLSArtifact.CERTIFICATE.getDescription()))
+                    .findAny()
+                    .get()
+                    .getString("value");
+            ((X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(
+                    new ByteArrayInputStream(certificatePem.getBytes(StandardCharsets.UTF_8))))
+                    .verify(stubCluster.caKeyPair.getPublic());
+
+            // Once the pod is no longer being deployed, its provisioning is discarded:
+            tlsProvisioner.provision(Collections.emptyList());
+            Assert.assertEquals(0, tlsProvisioner.getProvisioningCount());
+
+            // If the pod is deployed again, the existing secrets are found without signing a new certificate:
+            tlsProvisioner.provision(Collections.singletonList(podInstance));
+            Assert.assertEquals(1, tlsProvisioner.getProvisioningCount());
+            Assert.assertEquals(1, stubCluster.signRequests.get());
+            Assert.assertEquals(TLSArtifact.values().length, stubCluster.secrets.size());
+        } finally {
+            stubCluster.stop();
+        }
+    }
+
+    /**
+     * Serves minimal versions of the CA and secret store APIs, backed by a self-signed CA certificate and an in-memory
+     * map of secrets.
+     */
+    private static class StubCluster {
+        private static final String CA_PATH = "/ca/api/v2/";
+        private static final String SECRETS_PATH = "/secrets/v1/secret/default/";
+
+        private final HttpServer server;
+        private final KeyPair caKeyPair;
+        private final X509Certificate caCertificate;
+        private final Map<String, String> secrets = new ConcurrentHashMap<>();
+        private final AtomicInteger signRequests = new AtomicInteger();
+
+        private StubCluster() throws Exception {
+            caKeyPair = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+            X500Name caName = new X500NameBuilder().addRDN(BCStyle.CN, "stub-ca").build();
+            caCertificate = createCertificate(
+                    caName, SubjectPublicKeyInfo.getInstance(caKeyPair.getPublic().getEncoded()));
+
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext(CA_PATH + "sign", exchange -> {
+                signRequests.incrementAndGet();
+                String csrPem = new JSONObject(IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8))
+                        .getString("certificate_request");
+                String certificatePem;
+                try (PEMParser parser = new PEMParser(new StringReader(csrPem))) {
+                    PKCS10CertificationRequest csr = (PKCS10CertificationRequest) parser.readObject();
+                    certificatePem = PEMUtils.toPEM(createCertificate(csr.getSubject(), csr.getSubjectPublicKeyInfo()));
+                } catch (Exception e) {
+                    respond(exchange, 500, e.getMessage());
+                    return;
+                }
+                respond(exchange, 200, new JSONObject()
+                        .put("success", true)
+                        .put("result", new JSONObject().put("certificate", certificatePem))
+                        .toString());
+            });
+            server.createContext(CA_PATH + "bundle", exchange -> {
+                String rootPem;
+                try {
+                    rootPem = PEMUtils.toPEM(caCertificate);
+                } catch (Exception e) {
+                    respond(exchange, 500, e.getMessage());
+                    return;
+                }
+                respond(exchange, 200, new JSONObject()
+                        .put("success", true)
+                        .put("result", new JSONObject().put("bundle", "").put("root", rootPem))
+                        .toString());
+            });
+            server.createContext(SECRETS_PATH, exchange -> {
+                String path = exchange.getRequestURI().getPath().substring(SECRETS_PATH.length());
+                switch (exchange.getRequestMethod()) {
+                case "GET":
+                    JSONArray names = new JSONArray();
+                    secrets.keySet().stream()
+                            .filter(secretPath -> secretPath.startsWith(path + "/"))
+                            .forEach(secretPath -> names.put(secretPath.substring(path.length() + 1)));
+                    respond(exchange, 200, new JSONObject().put("array", names).toString());
+                    break;
+                case "PUT":
+                    secrets.put(path, IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8));
+                    respond(exchange, 201, "");
+                    break;
+                case "DELETE":
+                    secrets.remove(path);
+                    respond(exchange, 204, "");
+                    break;
+                default:
+                    respond(exchange, 405, "");
+                }
+            });
+            server.start();
+        }
+
+        private String getUri() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        private X509Certificate createCertificate(X500Name subject, SubjectPublicKeyInfo publicKeyInfo)
+                throws Exception {
+            byte[] encoded = new X509v3CertificateBuilder(
+                    new X500NameBuilder().addRDN(BCStyle.CN, "stub-ca").build(),
+                    BigInteger.valueOf(signRequests.get() + 1),
+                    Date.from(Instant.now()),
+                    Date.from(Instant.now().plusSeconds(100000)),
+                    subject,
+                    publicKeyInfo)
+                    .build(new JcaContentSignerBuilder("SHA256withRSA").build(caKeyPair.getPrivate()))
+                    .getEncoded();
+            return (X509Certificate) CertificateFactory.getInstance("X.509")
+                    .generateCertificate(new ByteArrayInputStream(encoded));
+        }
+
+        private static void respond(HttpExchange exchange, int code, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(code, bytes.length == 0 ? -1 : bytes.length);
+            if (bytes.length > 0) {
+                exchange.getResponseBody().write(bytes);
+            }
+            exchange.close();
+        }
+
+        private void stop() {
+            server.stop(0);
+        }
+    }
+
+    private static PodInstance getPodInstance() {
+        TaskSpec taskSpec = DefaultTaskSpec.newBuilder()
+                .name(TestConstants.TASK_NAME)
+                .commandSpec(DefaultCommandSpec.newBuilder(Collections.emptyMap())
+                        .value(TestConstants.TASK_CMD)
+                        .build())
+                .goalState(GoalState.RUNNING)
+                .resourceSet(PodInstanceRequirementTestUtils.getCpuResourceSet(1.0))
+                .setTransportEncryption(Collections.singletonList(new DefaultTransportEncryptionSpec.Builder()
+                        .name(SPEC_NAME)
+                        .type(TransportEncryptionSpec.Type.TLS)
+                        .build()))
+                .build();
+        PodSpec podSpec = DefaultPodSpec.newBuilder("executor-uri")
+                .type(TestConstants.POD_TYPE)
+                .count(1)
+                .tasks(Arrays.asList(taskSpec))
+                .preReservedRole(Constants.ANY_ROLE)
+                .build();
+        return new DefaultPodInstance(podSpec, 0);
+    }
+
+    private TLSProvisioner.Status getStatus() {
+        return tlsProvisioner.getStatus(mockTLSArtifactPaths, mockCertificateNamesGenerator, SPEC_NAME);
+    }
+}
@@ -6,6 +6,13 @@ import org.json.JSONObject;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
 public class OfferOutcomeTrackerTest {
 
     @Test
@@ -61,6 +68,120 @@ public class OfferOutcomeTrackerTest {
         verifyJson(tracker.toJson(), "pass", "fail");
     }
 
+    @Test
+    public void verifyDetailsRenderedOnce() {
+        AtomicInteger renderCount = new AtomicInteger();
+        OfferOutcome outcome = new OfferOutcome(
+                "instance-name", false, Protos.Offer.getDefaultInstance(), Arrays.asList("stage"), () -> {
+                    renderCount.incrementAndGet();
+                    return "rendered outcome";
+                });
+        OfferOutcomeTracker tracker = new OfferOutcomeTracker();
+        tracker.track(outcome);
+        Assert.assertEquals(0, renderCount.get());
+
+        verifyJson(tracker.toJson(), "fail");
+        Assert.assertEquals("rendered outcome", outcome.getOutcomeDetails());
+        Assert.assertEquals(1, renderCount.get());
+    }
+
+    @Test
+    public void verifyQueries() {
+        OfferOutcomeTracker tracker = new OfferOutcomeTracker();
+        tracker.track(
+                generateTestOutcome("pod-0", "agent-0", "A"),
+                generateTestOutcome("pod-1", "agent-0", "A", "B"),
+                generateTestOutcome("pod-0", "agent-1"),
+                generateTestOutcome("pod-1", "agent-1", "B"),
+                generateTestOutcome("pod-0", "agent-0", "B"));
+
+        Assert.assertEquals(Arrays.asList("pod-0/agent-0", "pod-0/agent-1", "pod-0/agent-0"),
+                describe(tracker.getOutcomes(new OfferOutcomeTracker.Query().setPodInstanceName("pod-0"))));
+        Assert.assertEquals(Arrays.asList("pod-1/agent-1", "pod-0/agent-1"),
+                describe(tracker.getOutcomes(new OfferOutcomeTracker.Query().setAgentId("agent-1"))));
+        Assert.assertEquals(Arrays.asList("pod-0/agent-0", "pod-1/agent-1", "pod-1/agent-0"),
+                describe(tracker.getOutcomes(new OfferOutcomeTracker.Query().setFailedStage("B"))));
+        Assert.assertEquals(Arrays.asList("pod-0/agent-0"),
+                describe(tracker.getOutcomes(new OfferOutcomeTracker.Query()
+                        .setPodInstanceName("pod-0")
+                        .setAgentId("agent-0")
+                        .setFailedStage("A"))));
+        Assert.assertEquals(Arrays.asList("pod-0/agent-1"),
+                describe(tracker.getOutcomes(new OfferOutcomeTracker.Query().setPass(true))));
+        Assert.assertEquals(Arrays.asList("pod-0/agent-0", "pod-1/agent-1"),
+                describe(tracker.getOutcomes(new OfferOutcomeTracker.Query().setLimit(2))));
+        Assert.assertTrue(tracker.getOutcomes(new OfferOutcomeTracker.Query().setFailedStage("C")).isEmpty());
+        Assert.assertTrue(tracker.getOutcomes(new OfferOutcomeTracker.Query().setAgentId("agent-2")).isEmpty());
+    }
+
+    @Test
+    public void verifyIndexEviction() {
+        OfferOutcomeTracker tracker = new OfferOutcomeTracker(3);
+        tracker.track(
+                generateTestOutcome("pod-0", "agent-0", "A"),
+                generateTestOutcome("pod-1", "agent-1", "A"),
+                generateTestOutcome("pod-1", "agent-1"),
+                generateTestOutcome("pod-1", "agent-1", "B"));
+
+        // The first outcome has been evicted from the ring buffer and from each index:
+        Assert.assertTrue(tracker.getOutcomes(new OfferOutcomeTracker.Query().setPodInstanceName("pod-0")).isEmpty());
+        Assert.assertTrue(tracker.getOutcomes(new OfferOutcomeTracker.Query().setAgentId("agent-0")).isEmpty());
+        Assert.assertEquals(Arrays.asList("pod-1/agent-1"),
+                describe(tracker.getOutcomes(new OfferOutcomeTracker.Query().setFailedStage("A"))));
+        Assert.assertEquals(3, tracker.getOutcomes(new OfferOutcomeTracker.Query()).size());
+
+        // Failure counts cover all outcomes which were ever tracked:
+        Map<String, Long> expectedCounts = new TreeMap<>();
+        expectedCounts.put("A", 2L);
+        expectedCounts.put("B", 1L);
+        Assert.assertEquals(expectedCounts, tracker.getFailureCountsByStage());
+
+        JSONObject summary = tracker.toJson().getJSONObject(OfferOutcomeTracker.SUMMARY_FIELD);
+        Assert.assertEquals(1, summary.getLong(OfferOutcomeTracker.PASSED_COUNT_FIELD));
+        Assert.assertEquals(3, summary.getLong(OfferOutcomeTracker.FAILED_COUNT_FIELD));
+        Assert.assertEquals(2, summary.getJSONObject(OfferOutcomeTracker.STAGE_FAILURE_COUNTS_FIELD).getLong("A"));
+    }
+
+    @Test
+    public void verifyDetailsDiscarded() {
+        OfferOutcomeTracker tracker = new OfferOutcomeTracker(4, 2);
+        OfferOutcome first = generateTestOutcome("pod-0", "agent-0", "A");
+        OfferOutcome second = generateTestOutcome("pod-0", "agent-0", "A");
+        OfferOutcome third = generateTestOutcome("pod-0", "agent-0");
+        tracker.track(first, second, third);
+
+        Assert.assertFalse(first.getOffer().isPresent());
+        Assert.assertEquals(OfferOutcome.DISCARDED_DETAILS, first.getOutcomeDetails());
+        Assert.assertTrue(second.getOffer().isPresent());
+        Assert.assertEquals("an outcome", second.getOutcomeDetails());
+        Assert.assertTrue(third.getOffer().isPresent());
+
+        // Compact outcomes are still returned, with a summary in place of the offer:
+        JSONArray outcomes = tracker.toJson().getJSONArray(OfferOutcomeTracker.OUTCOMES_FIELD);
+        Assert.assertEquals(3, outcomes.length());
+        JSONObject compact = outcomes.getJSONObject(2);
+        Assert.assertEquals("agent-0", compact.getString(OfferOutcomeTracker.AGENT_ID_FIELD));
+        Assert.assertEquals(OfferOutcome.DISCARDED_DETAILS, compact.getString(OfferOutcomeTracker.EXPLANATION_FIELD));
+        Assert.assertTrue(compact.getString(OfferOutcomeTracker.OFFER_FIELD).contains("agent-0"));
+    }
+
+    private static List<String> describe(List<OfferOutcome> outcomes) {
+        return outcomes.stream()
+                .map(outcome -> outcome.getPodInstanceName() + "/" + outcome.getAgentId())
+                .collect(Collectors.toList());
+    }
+
+    private static OfferOutcome generateTestOutcome(String podInstanceName, String agentId, String... failedStages) {
+        Protos.Offer offer = Protos.Offer.newBuilder()
+                .setId(Protos.OfferID.newBuilder().setValue("offer-" + agentId))
+                .setFrameworkId(Protos.FrameworkID.newBuilder().setValue("framework"))
+                .setSlaveId(Protos.SlaveID.newBuilder().setValue(agentId))
+                .setHostname("host-" + agentId)
+                .build();
+        return new OfferOutcome(
+                podInstanceName, failedStages.length == 0, offer, Arrays.asList(failedStages), () -> "an outcome");
+    }
+
     private OfferOutcome generateTestOutcome(boolean pass) {
         return new OfferOutcome("instance-name",
                 pass,
@@ -126,6 +126,49 @@ public class TaskLabelReaderWriterTest {
         Assert.assertEquals(inReadinessCheck.getDelaySeconds(), outReadinessCheck.getDelaySeconds(), 0.0);
     }
 
+    @Test
+    public void testDecodedValuesShared() throws TaskException {
+        Protos.TaskInfo.Builder builder = getTestTaskInfo().toBuilder();
+        builder.setLabels(new TaskLabelWriter(builder)
+                .setTargetConfiguration(testTargetConfigurationId)
+                .setIndex(3)
+                .toProto());
+        Protos.TaskInfo taskInfo = builder.build();
+
+        // Equal labels on a separate TaskInfo share the values decoded for the first one:
+        UUID targetConfig = new TaskLabelReader(taskInfo).getTargetConfiguration();
+        Assert.assertEquals(testTargetConfigurationId, targetConfig);
+        Assert.assertSame(targetConfig, new TaskLabelReader(taskInfo.toBuilder().build()).getTargetConfiguration());
+        Assert.assertEquals(3, new TaskLabelReader(taskInfo).getIndex());
+
+        // Rewritten labels are read afresh:
+        builder.setLabels(new TaskLabelWriter(builder).setIndex(4).toProto());
+        Assert.assertEquals(4, new TaskLabelReader(builder.build()).getIndex());
+        Assert.assertEquals(3, new TaskLabelReader(taskInfo).getIndex());
+    }
+
+    @Test
+    public void testDecodingFailuresNotShared() throws TaskException {
+        Protos.TaskInfo.Builder builder = getTestTaskInfo().toBuilder();
+        builder.getLabelsBuilder().addLabelsBuilder().setKey(LabelConstants.TASK_INDEX_LABEL).setValue("invalid");
+        for (int i = 0; i < 2; ++i) {
+            try {
+                new TaskLabelReader(builder.build()).getIndex();
+                Assert.fail("Expected an exception");
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testPermanentlyFailed() {
+        Protos.TaskInfo.Builder builder = getTestTaskInfo().toBuilder();
+        Assert.assertFalse(new TaskLabelReader(builder).isPermanentlyFailed());
+        builder.setLabels(new TaskLabelWriter(builder).setPermanentlyFailed().toProto());
+        Assert.assertTrue(new TaskLabelReader(builder).isPermanentlyFailed());
+    }
+
     private static Protos.TaskInfo getTestTaskInfo() {
         return Protos.TaskInfo.newBuilder()
                 .setName(testTaskName)
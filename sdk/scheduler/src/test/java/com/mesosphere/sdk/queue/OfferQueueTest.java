@@ -5,8 +5,11 @@ import org.apache.mesos.Protos;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class tests the {@link OfferQueue}.
@@ -75,6 +78,36 @@ public class OfferQueueTest {
         Assert.assertEquals(TEST_CAPACITY, offerQueue.getRemainingCapacity());
     }
 
+    @Test
+    public void testAwaitCapacity() throws Exception {
+        OfferQueue offerQueue = new OfferQueue(TEST_CAPACITY);
+        for (int i = 0; i < TEST_CAPACITY - 1; i++) {
+            offerQueue.offer(getOffer());
+        }
+
+        Assert.assertTrue(offerQueue.awaitCapacity(1, Duration.ZERO));
+        Assert.assertFalse(offerQueue.awaitCapacity(2, Duration.ofMillis(10)));
+        // Requests beyond the queue's capacity only wait for the queue to be empty:
+        Assert.assertFalse(offerQueue.awaitCapacity(TEST_CAPACITY * 2, Duration.ofMillis(10)));
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return offerQueue.awaitCapacity(TEST_CAPACITY * 2, Duration.ofSeconds(30));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        offerQueue.takeAll();
+        Assert.assertTrue(waiter.get(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testAwaitCapacityUnlimited() throws Exception {
+        OfferQueue offerQueue = new OfferQueue(0);
+        offerQueue.offer(getOffer());
+        Assert.assertTrue(offerQueue.awaitCapacity(Integer.MAX_VALUE, Duration.ZERO));
+    }
+
     @Test
     public void testRemoveFromEmptyQueue() {
         OfferQueue offerQueue = new OfferQueue();
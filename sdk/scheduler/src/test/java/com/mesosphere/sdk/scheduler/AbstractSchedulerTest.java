@@ -184,7 +184,14 @@ public class AbstractSchedulerTest {
                 StateStore stateStore,
                 ConfigStore<ServiceSpec> configStore,
                 SchedulerConfig schedulerConfig) {
-            super(frameworkInfo, frameworkStore, stateStore, configStore, schedulerConfig, Optional.empty());
+            super(
+                    frameworkInfo,
+                    frameworkStore,
+                    stateStore,
+                    configStore,
+                    schedulerConfig,
+                    Optional.empty(),
+                    TaskKiller.withoutRetries(Driver::getDriver));
             when(mockPlanCoordinator.getPlanManagers()).thenReturn(Collections.emptyList());
             when(mockPlanCoordinator.getCandidates()).thenReturn(Collections.emptyList());
         }
@@ -23,10 +23,8 @@ import org.apache.mesos.SchedulerDriver;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
-import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.Before;
-import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.contrib.java.lang.system.ExpectedSystemExit;
@@ -183,26 +181,6 @@ public class DefaultSchedulerTest {
     private ConfigStore<ServiceSpec> configStore;
     private DefaultScheduler defaultScheduler;
 
-    @BeforeClass
-    public static void beforeAll() {
-        // Disable background TaskKiller thread, to avoid erroneous kill invocations
-        try {
-            TaskKiller.reset(false);
-        } catch (Exception e) {
-            throw new IllegalStateException(e);
-        }
-    }
-
-    @AfterClass
-    public static void afterAll() {
-        // Re-enable TaskKiller thread
-        try {
-            TaskKiller.reset(false);
-        } catch (Exception e) {
-            throw new IllegalStateException(e);
-        }
-    }
-
     @Before
     public void beforeEach() throws Exception {
         MockitoAnnotations.initMocks(this);
@@ -644,6 +622,7 @@ public class DefaultSchedulerTest {
         DefaultScheduler.newBuilder(
                 getServiceSpec(podA, scaledInPodB), SchedulerConfigTestUtils.getTestSchedulerConfig(), persister)
                 .setPlanCustomizer(planCustomizer)
+                .disableTaskKillRetries()
                 .build()
                 .disableApiServer()
                 .disableThreading()
@@ -818,6 +797,8 @@ public class DefaultSchedulerTest {
     private DefaultScheduler getScheduler(ServiceSpec serviceSpec) throws PersisterException {
         AbstractScheduler scheduler = DefaultScheduler.newBuilder(
                 serviceSpec, SchedulerConfigTestUtils.getTestSchedulerConfig(), persister)
+                // Disable background TaskKiller retries, to avoid erroneous kill invocations
+                .disableTaskKillRetries()
                 .build()
                 .disableApiServer()
                 .disableThreading()
@@ -6,9 +6,13 @@ import com.mesosphere.sdk.offer.evaluate.placement.*;
 import com.mesosphere.sdk.scheduler.plan.DefaultPlan;
 import com.mesosphere.sdk.scheduler.plan.Phase;
 import com.mesosphere.sdk.scheduler.plan.Plan;
+import com.mesosphere.sdk.specification.ConfigFileSpec;
 import com.mesosphere.sdk.specification.DefaultPodSpec;
 import com.mesosphere.sdk.specification.DefaultServiceSpec;
 import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import com.mesosphere.sdk.specification.yaml.YAMLToInternalMappers;
+import com.mesosphere.sdk.state.ConfigStore;
 import com.mesosphere.sdk.storage.MemPersister;
 import com.mesosphere.sdk.storage.Persister;
 import com.mesosphere.sdk.testutils.SchedulerConfigTestUtils;
@@ -26,6 +30,8 @@ import static org.mockito.Mockito.when;
 import java.io.File;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * This class tests the {@link SchedulerBuilder}.
@@ -35,6 +41,7 @@ public class SchedulerBuilderTest {
     private static final SchedulerConfig SCHEDULER_CONFIG = SchedulerConfigTestUtils.getTestSchedulerConfig();
 
     @Mock private Capabilities mockCapabilities;
+    @Mock private YAMLToInternalMappers.ConfigTemplateReader mockConfigTemplateReader;
 
     @Before
     public void beforeEach() {
@@ -110,6 +117,53 @@ public class SchedulerBuilderTest {
         Assert.assertEquals(2, deployPlan.getChildren().size());
     }
 
+    @Test
+    public void testTakeoverAfterWarmUpRewritesRemovedTemplates() throws Exception {
+        when(mockConfigTemplateReader.read("config-one.conf.mustache")).thenReturn("hello");
+        when(mockConfigTemplateReader.read("config-two.xml.mustache")).thenReturn("hey");
+        DefaultServiceSpec serviceSpec = getServiceSpec("valid-minimal-health-configfile.yml");
+        Persister persister = new MemPersister();
+        // A previous scheduler stored the config, with its templates:
+        DefaultScheduler.newBuilder(serviceSpec, SCHEDULER_CONFIG, persister).build();
+
+        SchedulerBuilder standbyBuilder = DefaultScheduler.newBuilder(serviceSpec, SCHEDULER_CONFIG, persister);
+        standbyBuilder.warmUp();
+
+        // While this scheduler is in standby, the active scheduler switches to a config without templates, and cleans
+        // up the previous config and its templates:
+        ConfigStore<ServiceSpec> activeConfigStore =
+                new ConfigStore<>(DefaultServiceSpec.getConfigurationFactory(serviceSpec), persister);
+        UUID activeId = activeConfigStore.store(getServiceSpec("valid-minimal.yml"));
+        activeConfigStore.setTargetConfig(activeId);
+        for (UUID id : activeConfigStore.list()) {
+            if (!id.equals(activeId)) {
+                activeConfigStore.clear(id);
+            }
+        }
+        activeConfigStore.clearUnusedTemplates();
+        Assert.assertTrue(persister.getChildren("ConfigTemplates").isEmpty());
+
+        // The standby takes over, and stores its config again, including the templates:
+        standbyBuilder.build();
+        ConfigStore<ServiceSpec> configStore =
+                new ConfigStore<>(DefaultServiceSpec.getConfigurationFactory(serviceSpec), persister);
+        UUID targetId = configStore.getTargetConfig();
+        Assert.assertNotEquals(activeId, targetId);
+        Collection<ConfigFileSpec> configFiles =
+                configStore.fetch(targetId).getPods().get(0).getTasks().get(0).getConfigFiles();
+        Assert.assertEquals(Arrays.asList("hello", "hey"), configFiles.stream()
+                .map(ConfigFileSpec::getTemplateContent)
+                .collect(Collectors.toList()));
+        Assert.assertFalse(persister.getChildren("ConfigTemplates").isEmpty());
+    }
+
+    private DefaultServiceSpec getServiceSpec(String fileName) throws Exception {
+        File file = new File(getClass().getClassLoader().getResource(fileName).getFile());
+        return DefaultServiceSpec.newGenerator(file, SCHEDULER_CONFIG)
+                .setConfigTemplateReader(mockConfigTemplateReader)
+                .build();
+    }
+
     private PlacementRule getRemoteRegionRule() {
         return RegionRuleFactory.getInstance().require(ExactMatcher.create(TestConstants.REMOTE_REGION));
     }
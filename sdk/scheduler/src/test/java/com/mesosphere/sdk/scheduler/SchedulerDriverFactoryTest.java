@@ -1,5 +1,6 @@
 package com.mesosphere.sdk.scheduler;
 
+import com.mesosphere.mesos.HTTPAdapter.MesosToSchedulerDriverAdapter;
 import org.apache.mesos.MesosSchedulerDriver;
 import org.apache.mesos.Protos.*;
 import org.apache.mesos.Scheduler;
@@ -142,6 +143,61 @@ public class SchedulerDriverFactoryTest {
                 new NoOpScheduler(), FRAMEWORK_WITHOUT_PRINCIPAL, MASTER_URL, mockSchedulerConfig, SECRET);
     }
 
+    @Test
+    public void testHttpDriver() throws Exception {
+        when(mockSchedulerConfig.isMesosHttpDriverEnabled()).thenReturn(true);
+        when(mockSchedulerConfig.getMesosHttpDriverUrl()).thenReturn("http://leader.mesos:5050");
+        CustomSchedulerDriverFactory factory = new CustomSchedulerDriverFactory();
+        assertTrue(factory.create(new NoOpScheduler(), FRAMEWORK_WITH_PRINCIPAL, MASTER_URL, mockSchedulerConfig)
+                instanceof MesosToSchedulerDriverAdapter);
+        assertEquals(0, factory.createCalls);
+    }
+
+    @Test
+    public void testHttpDriverStopClosesClient() throws Exception {
+        when(mockSchedulerConfig.isMesosHttpDriverEnabled()).thenReturn(true);
+        // Nothing listens here, so the driver keeps failing to subscribe until it's stopped:
+        when(mockSchedulerConfig.getMesosHttpDriverUrl()).thenReturn("http://127.0.0.1:1");
+        FrameworkInfo frameworkInfo = FrameworkInfo.newBuilder(FRAMEWORK_WITH_PRINCIPAL)
+                .setId(FrameworkID.newBuilder().setValue("fake-framework-id"))
+                .build();
+        SchedulerDriver driver = new CustomSchedulerDriverFactory().create(
+                new NoOpScheduler(), frameworkInfo, MASTER_URL, mockSchedulerConfig);
+        assertEquals(Status.DRIVER_RUNNING, driver.start());
+        assertTrue(hasHttpClientThreads());
+
+        assertEquals(Status.DRIVER_STOPPED, driver.stop());
+        long deadline = System.currentTimeMillis() + 10000;
+        while (hasHttpClientThreads() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(hasHttpClientThreads());
+    }
+
+    private static boolean hasHttpClientThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().startsWith("mesos-http-"));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testHttpDriverInvalidUrl() throws Exception {
+        when(mockSchedulerConfig.isMesosHttpDriverEnabled()).thenReturn(true);
+        when(mockSchedulerConfig.getMesosHttpDriverUrl()).thenReturn("leader.mesos:5050");
+        new CustomSchedulerDriverFactory().create(
+                new NoOpScheduler(), FRAMEWORK_WITH_PRINCIPAL, MASTER_URL, mockSchedulerConfig);
+    }
+
+    @Test
+    public void testHttpDriverAuthorization() throws Exception {
+        assertFalse(SchedulerDriverFactory.getAuthorizationProvider(null, mockSchedulerConfig)
+                .getAuthorization().isPresent());
+
+        Credential credential = Credential.newBuilder().setPrincipal("user").setSecret("pass").build();
+        assertEquals("Basic dXNlcjpwYXNz",
+                SchedulerDriverFactory.getAuthorizationProvider(credential, mockSchedulerConfig)
+                        .getAuthorization().get());
+    }
+
     private static class CustomSchedulerDriverFactory extends SchedulerDriverFactory {
 
         public int createCalls = 0;
@@ -0,0 +1,55 @@
+package com.mesosphere.sdk.scheduler;
+
+import com.codahale.metrics.Timer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class tests the {@link StartupTimer} class.
+ */
+public class StartupTimerTest {
+
+    @Test
+    public void stagesAreRecorded() {
+        Timer syncTimer = Metrics.getRegistry().timer("startup.test_sync");
+        Timer asyncTimer = Metrics.getRegistry().timer("startup.test_async");
+        Timer totalTimer = Metrics.getRegistry().timer("startup.total");
+        long syncVal = syncTimer.getCount();
+        long asyncVal = asyncTimer.getCount();
+        long totalVal = totalTimer.getCount();
+
+        StartupTimer startupTimer = new StartupTimer();
+        CompletableFuture<String> future = startupTimer.timeAsync("test_async", () -> "async");
+        Assert.assertEquals("sync", startupTimer.time("test_sync", () -> "sync"));
+        Assert.assertEquals("async", StartupTimer.join(future));
+        startupTimer.finish();
+
+        Assert.assertEquals(1, syncTimer.getCount() - syncVal);
+        Assert.assertEquals(1, asyncTimer.getCount() - asyncVal);
+        Assert.assertEquals(1, totalTimer.getCount() - totalVal);
+    }
+
+    @Test
+    public void failedStageIsRecorded() {
+        Timer timer = Metrics.getRegistry().timer("startup.test_failed");
+        long val = timer.getCount();
+        try {
+            new StartupTimer().time("test_failed", () -> {
+                throw new IllegalStateException("failed");
+            });
+            Assert.fail("Expected exception");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("failed", e.getMessage());
+        }
+        Assert.assertEquals(1, timer.getCount() - val);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void joinRethrowsStageException() {
+        StartupTimer.join(new StartupTimer().timeAsync("test_async_failed", () -> {
+            throw new IllegalStateException("failed");
+        }));
+    }
+}
@@ -9,7 +9,11 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.Matchers.any;
@@ -26,8 +30,7 @@ public class TaskCleanerTest {
     @Before
     public void beforeEach() {
         MockitoAnnotations.initMocks(this);
-        Driver.setDriver(driver);
-        taskCleaner = new TaskCleaner(stateStore, false);
+        taskCleaner = new TaskCleaner(stateStore, TaskKiller.withoutRetries(() -> Optional.of(driver)), false);
     }
 
     @Test
@@ -68,6 +71,62 @@ public class TaskCleanerTest {
         verify(driver, times(1)).killTask(any());
     }
 
+    @Test
+    public void expectedTasksFetchedOnlyWhenTaskInfosChange() {
+        when(stateStore.fetchTasks()).thenReturn(Arrays.asList(TestConstants.TASK_INFO));
+        when(stateStore.getVersion()).thenReturn(1L);
+        when(stateStore.getTaskInfoVersion()).thenReturn(1L);
+        taskCleaner.statusUpdate(getNonTerminalStatus());
+        taskCleaner.statusUpdate(getNonTerminalStatus());
+        verify(stateStore, times(1)).fetchTasks();
+
+        // A status is stored, which doesn't change the TaskInfos:
+        when(stateStore.getVersion()).thenReturn(2L);
+        taskCleaner.statusUpdate(getNonTerminalStatus());
+        verify(stateStore, times(1)).fetchTasks();
+
+        // The task is replaced:
+        when(stateStore.fetchTasks()).thenReturn(Collections.emptyList());
+        when(stateStore.getVersion()).thenReturn(3L);
+        when(stateStore.getTaskInfoVersion()).thenReturn(2L);
+        taskCleaner.statusUpdate(getNonTerminalStatus());
+        verify(stateStore, times(2)).fetchTasks();
+        verify(driver, times(1)).killTask(TestConstants.TASK_STATUS.getTaskId());
+    }
+
+    @Test
+    public void unexpectedTasksKilledTogether() {
+        TaskKiller mockTaskKiller = mock(TaskKiller.class);
+        taskCleaner = new TaskCleaner(stateStore, mockTaskKiller, false);
+        taskCleaner.statusUpdate(getNonTerminalStatus());
+        verify(mockTaskKiller, times(1)).killTasks(Arrays.asList(TestConstants.TASK_STATUS.getTaskId()));
+        verifyNoMoreInteractions(mockTaskKiller);
+    }
+
+    @Test
+    public void concurrentUpdatesCoalesced() throws Exception {
+        taskCleaner = new TaskCleaner(stateStore, TaskKiller.withoutRetries(() -> Optional.of(driver)), true);
+        when(stateStore.fetchTasks()).thenReturn(Arrays.asList(TestConstants.TASK_INFO));
+
+        List<Protos.TaskID> unexpectedTaskIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            unexpectedTaskIds.add(Protos.TaskID.newBuilder().setValue(UUID.randomUUID().toString()).build());
+        }
+        for (int i = 0; i < 10; i++) {
+            taskCleaner.statusUpdate(getNonTerminalStatus());
+            for (Protos.TaskID taskId : unexpectedTaskIds) {
+                taskCleaner.statusUpdate(getNonTerminalStatus().toBuilder().setTaskId(taskId).build());
+            }
+        }
+
+        // Each unexpected task is killed at least once, the expected task is never killed:
+        for (Protos.TaskID taskId : unexpectedTaskIds) {
+            verify(driver, timeout(5000).atLeastOnce()).killTask(taskId);
+        }
+        verify(driver, never()).killTask(TestConstants.TASK_STATUS.getTaskId());
+        verify(stateStore, times(1)).fetchTasks();
+    }
+
     private Protos.TaskStatus getTerminalStatus() {
         return TestConstants.TASK_STATUS.toBuilder()
                 .setState(Protos.TaskState.TASK_FAILED)
@@ -3,13 +3,18 @@ package com.mesosphere.sdk.scheduler;
 import com.mesosphere.sdk.testutils.TestConstants;
 import org.apache.mesos.Protos;
 import org.apache.mesos.SchedulerDriver;
-import org.junit.AfterClass;
 import org.junit.Before;
-import org.junit.BeforeClass;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -17,44 +22,43 @@ import static org.mockito.Mockito.*;
  */
 public class TaskKillerTest {
     @Mock private SchedulerDriver driver;
+    @Mock private ScheduledExecutorService mockExecutor;
 
-    @BeforeClass
-    public static void beforeAll() throws InterruptedException {
-        TaskKiller.reset(false); // disable background executor to avoid unexpected calls
-    }
-
-    @AfterClass
-    public static void afterAll() throws InterruptedException {
-        TaskKiller.reset(true); // reenable background executor to return to default behavior
-    }
+    private Optional<SchedulerDriver> currentDriver;
+    private long nowMs;
+    private TaskKiller taskKiller;
 
     @Before
-    public void beforeEach() throws InterruptedException {
+    public void beforeEach() {
         MockitoAnnotations.initMocks(this);
-        Driver.setDriver(driver);
+        currentDriver = Optional.of(driver);
+        nowMs = 1000;
+        // Disable background executor to avoid unexpected calls
+        taskKiller = new TaskKiller(() -> currentDriver, Optional.empty(), () -> nowMs);
     }
 
     @Test
     public void emptyTaskId() {
         verify(driver, never()).killTask(TestConstants.TASK_ID);
 
-        TaskKiller.killTask(Protos.TaskID.newBuilder().setValue("").build());
+        taskKiller.killTask(Protos.TaskID.newBuilder().setValue("").build());
         verify(driver, never()).killTask(TestConstants.TASK_ID);
 
-        TaskKiller.killAllTasks();
+        advanceAndRetry(Duration.ofMinutes(1));
         verify(driver, never()).killTask(TestConstants.TASK_ID);
+        assertEquals(0, taskKiller.getOutstandingKillCount());
     }
 
     @Test
-    public void delayedDriverSet() throws InterruptedException {
+    public void delayedDriverSet() {
         // Enqueue a task to kill, but it shouldn't be killed since no driver exists
-        Driver.setDriver(null);
-        TaskKiller.killTask(TestConstants.TASK_ID);
+        currentDriver = Optional.empty();
+        taskKiller.killTask(TestConstants.TASK_ID);
         verify(driver, never()).killTask(TestConstants.TASK_ID);
 
-        // Re-add driver and perform an iteration of task killing. Should happen now.
-        Driver.setDriver(driver);
-        TaskKiller.killAllTasks();
+        // Re-add driver and perform an iteration of task killing. Should happen now, without waiting for a backoff.
+        currentDriver = Optional.of(driver);
+        taskKiller.retryKills();
         verify(driver, times(1)).killTask(TestConstants.TASK_ID);
 
         completeKilling(1);
@@ -65,63 +69,225 @@ public class TaskKillerTest {
         verify(driver, never()).killTask(TestConstants.TASK_ID);
 
         // Enqueue a task to kill, and it should have a kill call issued immediately
-        TaskKiller.killTask(TestConstants.TASK_ID);
+        taskKiller.killTask(TestConstants.TASK_ID);
         verify(driver, times(1)).killTask(TestConstants.TASK_ID);
+        assertEquals(1, taskKiller.getOutstandingKillCount());
 
         completeKilling(1);
     }
 
     @Test
-    public void multipleKillAttempts() {
+    public void repeatedRequestsResendKillWithoutResettingBackoff() {
+        taskKiller.killTask(TestConstants.TASK_ID);
+        taskKiller.killTask(TestConstants.TASK_ID);
+        taskKiller.killTask(TestConstants.TASK_ID);
+        // Each explicit request is sent immediately, but the task is only tracked once:
+        verify(driver, times(3)).killTask(TestConstants.TASK_ID);
+        assertEquals(1, taskKiller.getOutstandingKillCount());
+
+        // The requests count towards the backoff, so the next retry is after 20s rather than 5s:
+        advanceAndRetry(Duration.ofSeconds(19));
+        verify(driver, times(3)).killTask(TestConstants.TASK_ID);
+        advanceAndRetry(Duration.ofSeconds(1));
+        verify(driver, times(4)).killTask(TestConstants.TASK_ID);
+
+        completeKilling(4);
+    }
+
+    @Test
+    public void multipleKillAttemptsBackOff() {
         verify(driver, never()).killTask(TestConstants.TASK_ID);
 
         // Enqueue a task to kill, and it should have a kill call issued immediately
-        TaskKiller.killTask(TestConstants.TASK_ID);
+        taskKiller.killTask(TestConstants.TASK_ID);
         verify(driver, times(1)).killTask(TestConstants.TASK_ID);
 
-        // Validate the next killing interation attempts to kill the task again since we haven't
-        // received a status update yet.
-        TaskKiller.killAllTasks();
+        // No retry until the minimum interval has passed
+        advanceAndRetry(Duration.ofSeconds(4));
+        verify(driver, times(1)).killTask(TestConstants.TASK_ID);
+        advanceAndRetry(Duration.ofSeconds(1));
         verify(driver, times(2)).killTask(TestConstants.TASK_ID);
 
-        completeKilling(2);
+        // The interval then doubles with each attempt: 10s, 20s, ...
+        advanceAndRetry(Duration.ofSeconds(9));
+        verify(driver, times(2)).killTask(TestConstants.TASK_ID);
+        advanceAndRetry(Duration.ofSeconds(1));
+        verify(driver, times(3)).killTask(TestConstants.TASK_ID);
+        advanceAndRetry(Duration.ofSeconds(19));
+        verify(driver, times(3)).killTask(TestConstants.TASK_ID);
+        advanceAndRetry(Duration.ofSeconds(1));
+        verify(driver, times(4)).killTask(TestConstants.TASK_ID);
+
+        completeKilling(4);
     }
 
     @Test
-    public void multipleKillAttemptsWithNonTerminalStatus() {
-        verify(driver, never()).killTask(TestConstants.TASK_ID);
+    public void backoffIsCapped() {
+        taskKiller.killTask(TestConstants.TASK_ID);
+        for (int i = 0; i < 20; i++) {
+            advanceAndRetry(Duration.ofMinutes(2));
+        }
+        verify(driver, times(21)).killTask(TestConstants.TASK_ID);
 
-        // Enqueue a task to kill, and it should have a kill call issued immediately
-        TaskKiller.killTask(TestConstants.TASK_ID);
+        completeKilling(21);
+    }
+
+    @Test
+    public void retriesWaitForKillGracePeriod() {
+        Protos.TaskInfo taskInfo = TestConstants.TASK_INFO.toBuilder()
+                .setTaskId(TestConstants.TASK_ID)
+                .setKillPolicy(Protos.KillPolicy.newBuilder()
+                        .setGracePeriod(Protos.DurationInfo.newBuilder()
+                                .setNanoseconds(TimeUnit.SECONDS.toNanos(30))))
+                .build();
+        taskKiller.killTask(taskInfo);
         verify(driver, times(1)).killTask(TestConstants.TASK_ID);
 
-        // Validate the next killing interation attempts to kill the task again since we haven't
-        // received a status update yet.
-        TaskKiller.killAllTasks();
+        advanceAndRetry(Duration.ofSeconds(29));
+        verify(driver, times(1)).killTask(TestConstants.TASK_ID);
+        advanceAndRetry(Duration.ofSeconds(1));
         verify(driver, times(2)).killTask(TestConstants.TASK_ID);
 
-        // Sent a status update that doesn't stop killing
-        TaskKiller.update(
-                TestConstants.TASK_STATUS.toBuilder()
-                        .setState(Protos.TaskState.TASK_RUNNING)
-                        .build());
+        completeKilling(2);
+    }
+
+    @Test
+    public void killingStatusDelaysRetry() {
+        taskKiller.killTask(TestConstants.TASK_ID);
+        verify(driver, times(1)).killTask(TestConstants.TASK_ID);
 
-        // Validate AGAIN that the next killing interation attempts to kill the task again since we haven't
-        // received a status update yet.
-        TaskKiller.killAllTasks();
+        // Mesos acknowledges the kill just before the retry would have been sent: wait out another interval
+        nowMs += Duration.ofSeconds(4).toMillis();
+        taskKiller.update(TestConstants.TASK_STATUS.toBuilder().setState(Protos.TaskState.TASK_KILLING).build());
+        advanceAndRetry(Duration.ofSeconds(4));
+        verify(driver, times(1)).killTask(TestConstants.TASK_ID);
+        advanceAndRetry(Duration.ofSeconds(1));
+        verify(driver, times(2)).killTask(TestConstants.TASK_ID);
+
+        // Non-terminal statuses don't stop killing
+        taskKiller.update(TestConstants.TASK_STATUS.toBuilder().setState(Protos.TaskState.TASK_RUNNING).build());
+        advanceAndRetry(Duration.ofSeconds(10));
         verify(driver, times(3)).killTask(TestConstants.TASK_ID);
 
         completeKilling(3);
     }
 
+    @Test
+    public void retriesAreBatched() {
+        for (int i = 0; i < 150; i++) {
+            taskKiller.killTask(Protos.TaskID.newBuilder().setValue("task-" + i).build());
+        }
+        verify(driver, times(150)).killTask(any());
+
+        // At most 100 retries per pass, with the remainder sent in the next pass
+        advanceAndRetry(Duration.ofSeconds(5));
+        verify(driver, times(250)).killTask(any());
+        taskKiller.retryKills();
+        verify(driver, times(300)).killTask(any());
+        taskKiller.retryKills();
+        verify(driver, times(300)).killTask(any());
+        assertEquals(150, taskKiller.getOutstandingKillCount());
+    }
+
+    @Test
+    public void instancesAreIndependent() {
+        TaskKiller otherTaskKiller = new TaskKiller(() -> currentDriver, Optional.empty(), () -> nowMs);
+        taskKiller.killTask(TestConstants.TASK_ID);
+        verify(driver, times(1)).killTask(TestConstants.TASK_ID);
+
+        // The other instance doesn't retry this instance's kills
+        nowMs += Duration.ofSeconds(5).toMillis();
+        otherTaskKiller.retryKills();
+        verify(driver, times(1)).killTask(TestConstants.TASK_ID);
+        assertEquals(0, otherTaskKiller.getOutstandingKillCount());
+
+        completeKilling(1);
+    }
+
+    @Test
+    public void batchedKills() {
+        Protos.TaskID otherTaskId = Protos.TaskID.newBuilder().setValue("other-task-id").build();
+        taskKiller.killTask(TestConstants.TASK_ID);
+        verify(driver, times(1)).killTask(TestConstants.TASK_ID);
+
+        // The empty TaskID is skipped, and the task which is already being killed is killed again
+        taskKiller.killTasks(Arrays.asList(
+                TestConstants.TASK_ID, Protos.TaskID.newBuilder().setValue("").build(), otherTaskId));
+        verify(driver, times(2)).killTask(TestConstants.TASK_ID);
+        verify(driver, times(1)).killTask(otherTaskId);
+        verify(driver, times(3)).killTask(any());
+        assertEquals(2, taskKiller.getOutstandingKillCount());
+
+        // Each is retried with its own backoff: the resent kill counted as a second attempt
+        advanceAndRetry(Duration.ofSeconds(5));
+        verify(driver, times(2)).killTask(TestConstants.TASK_ID);
+        verify(driver, times(2)).killTask(otherTaskId);
+
+        taskKiller.update(TestConstants.TASK_STATUS.toBuilder()
+                .setTaskId(otherTaskId)
+                .setState(Protos.TaskState.TASK_KILLED)
+                .build());
+        completeKilling(2);
+    }
+
+    @Test
+    public void retriesScheduledOnFirstKill() {
+        taskKiller = new TaskKiller(() -> currentDriver, Optional.of(mockExecutor), () -> nowMs);
+        verifyZeroInteractions(mockExecutor);
+
+        taskKiller.killTask(TestConstants.TASK_ID);
+        taskKiller.killTask(TestConstants.TASK_ID);
+        verify(mockExecutor, times(1)).isShutdown();
+        verify(mockExecutor, times(1)).scheduleWithFixedDelay(any(), anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS));
+
+        taskKiller.close();
+        verify(mockExecutor, times(1)).shutdownNow();
+        verifyNoMoreInteractions(mockExecutor);
+
+        completeKilling(2);
+    }
+
+    @Test
+    public void noRetriesScheduledAfterClose() {
+        when(mockExecutor.isShutdown()).thenReturn(true);
+        taskKiller = new TaskKiller(() -> currentDriver, Optional.of(mockExecutor), () -> nowMs);
+        taskKiller.close();
+
+        // The kill is still sent, but no retries are scheduled on the closed executor
+        taskKiller.killTask(TestConstants.TASK_ID);
+        verify(driver, times(1)).killTask(TestConstants.TASK_ID);
+        verify(mockExecutor, never()).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+
+        completeKilling(1);
+    }
+
+    @Test
+    public void completedKillIsMeasured() {
+        long countBefore = Metrics.getRegistry().timer(Metrics.TASK_KILL_DURATION).getCount();
+        long outstandingBefore = Metrics.getRegistry().counter(Metrics.OUTSTANDING_TASK_KILLS).getCount();
+
+        taskKiller.killTask(TestConstants.TASK_ID);
+        assertEquals(outstandingBefore + 1, Metrics.getRegistry().counter(Metrics.OUTSTANDING_TASK_KILLS).getCount());
+
+        completeKilling(1);
+        assertEquals(outstandingBefore, Metrics.getRegistry().counter(Metrics.OUTSTANDING_TASK_KILLS).getCount());
+        assertEquals(countBefore + 1, Metrics.getRegistry().timer(Metrics.TASK_KILL_DURATION).getCount());
+    }
+
+    private void advanceAndRetry(Duration duration) {
+        nowMs += duration.toMillis();
+        taskKiller.retryKills();
+    }
+
     private void completeKilling(int count) {
         // Remove the task from the queue by reporting it as killed
-        TaskKiller.update(
+        taskKiller.update(
                 TestConstants.TASK_STATUS.toBuilder()
                         .setState(Protos.TaskState.TASK_KILLED)
                         .build());
+        assertEquals(0, taskKiller.getOutstandingKillCount());
 
-        TaskKiller.killAllTasks();
+        advanceAndRetry(Duration.ofMinutes(10));
         verify(driver, times(count)).killTask(TestConstants.TASK_ID);
     }
 }
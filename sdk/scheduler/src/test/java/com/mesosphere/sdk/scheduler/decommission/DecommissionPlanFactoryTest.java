@@ -14,6 +14,8 @@ import org.mockito.MockitoAnnotations;
 
 import com.mesosphere.sdk.dcos.Capabilities;
 import com.mesosphere.sdk.offer.taskdata.TaskLabelWriter;
+import com.mesosphere.sdk.scheduler.Driver;
+import com.mesosphere.sdk.scheduler.TaskKiller;
 import com.mesosphere.sdk.scheduler.decommission.DecommissionPlanFactory.PodKey;
 import com.mesosphere.sdk.scheduler.plan.Phase;
 import com.mesosphere.sdk.scheduler.plan.Plan;
@@ -122,7 +124,8 @@ public class DecommissionPlanFactoryTest {
         when(mockPodSpecE.getCount()).thenReturn(2);
         when(mockServiceSpec.getPods()).thenReturn(
                 Arrays.asList(mockPodSpecA, mockPodSpecB, mockPodSpecC, mockPodSpecD, mockPodSpecE));
-        DecommissionPlanFactory factory = new DecommissionPlanFactory(mockServiceSpec, mockStateStore);
+        DecommissionPlanFactory factory = new DecommissionPlanFactory(
+                mockServiceSpec, mockStateStore, TaskKiller.withoutRetries(Driver::getDriver));
         Assert.assertFalse(factory.getPlan().isPresent());
         Assert.assertTrue(factory.getResourceSteps().isEmpty());
 
@@ -142,7 +145,8 @@ public class DecommissionPlanFactoryTest {
     @Test
     public void testBigPlanConstruction() {
         when(mockStateStore.fetchTasks()).thenReturn(tasks);
-        DecommissionPlanFactory factory = new DecommissionPlanFactory(mockServiceSpec, mockStateStore);
+        DecommissionPlanFactory factory = new DecommissionPlanFactory(
+                mockServiceSpec, mockStateStore, TaskKiller.withoutRetries(Driver::getDriver));
 
         // any tasks with existing decommission bits but which are not to be decommissioned have had their decommission bits cleared (see list above):
         for (String taskToClear : Arrays.asList("podA-0-taskA", "podB-0-taskB")) {
@@ -0,0 +1,374 @@
+package com.mesosphere.sdk.scheduler.mesos;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.apache.mesos.v1.Protos;
+import org.apache.mesos.v1.scheduler.Mesos;
+import org.apache.mesos.v1.scheduler.Protos.Call;
+import org.apache.mesos.v1.scheduler.Protos.Event;
+import org.apache.mesos.v1.scheduler.Scheduler;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for {@link HttpMesos}, against a fake master which serves the V1 scheduler API.
+ */
+public class HttpMesosTest {
+
+    private static final Protos.FrameworkID FRAMEWORK_ID =
+            Protos.FrameworkID.newBuilder().setValue("framework").build();
+    private static final String STREAM_ID = "test-stream";
+    private static final long TIMEOUT_S = 10;
+
+    /**
+     * A master which accepts a single subscription at a time, and records all other calls.
+     */
+    private static class FakeMaster {
+        private final HttpServer server;
+        private final BlockingQueue<Call> subscribeCalls = new LinkedBlockingQueue<>();
+        private final BlockingQueue<Call> calls = new LinkedBlockingQueue<>();
+        private final BlockingQueue<String> callStreamIds = new LinkedBlockingQueue<>();
+        private final BlockingQueue<String> authorizations = new LinkedBlockingQueue<>();
+        private volatile HttpExchange subscription;
+
+        private FakeMaster() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext(HttpMesos.SCHEDULER_API_PATH, exchange -> {
+                Call call = Call.parseFrom(IOUtils.toByteArray(exchange.getRequestBody()));
+                String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+                authorizations.add(authorization == null ? "" : authorization);
+                if (call.getType() == Call.Type.SUBSCRIBE) {
+                    exchange.getResponseHeaders().add(HttpMesos.STREAM_ID_HEADER, STREAM_ID);
+                    exchange.sendResponseHeaders(200, 0);
+                    subscription = exchange;
+                    subscribeCalls.add(call);
+                } else {
+                    callStreamIds.add(exchange.getRequestHeaders().getFirst(HttpMesos.STREAM_ID_HEADER));
+                    exchange.sendResponseHeaders(202, -1);
+                    exchange.close();
+                    calls.add(call);
+                }
+            });
+            server.start();
+        }
+
+        private URI getUri() {
+            return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+        }
+
+        private void sendEvent(Event event) throws IOException {
+            byte[] bytes = event.toByteArray();
+            OutputStream output = subscription.getResponseBody();
+            output.write((bytes.length + "\n").getBytes(StandardCharsets.UTF_8));
+            output.write(bytes);
+            output.flush();
+        }
+
+        private void endSubscription() {
+            subscription.close();
+        }
+
+        private void stop() {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Subscribes whenever connected, and records everything it's told.
+     */
+    private static class RecordingScheduler implements Scheduler {
+        private final BlockingQueue<String> notifications = new LinkedBlockingQueue<>();
+        private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void connected(Mesos mesos) {
+            notifications.add("connected");
+            mesos.send(Call.newBuilder()
+                    .setType(Call.Type.SUBSCRIBE)
+                    .setSubscribe(Call.Subscribe.newBuilder()
+                            .setFrameworkInfo(Protos.FrameworkInfo.newBuilder().setUser("user").setName("name")))
+                    .build());
+        }
+
+        @Override
+        public void disconnected(Mesos mesos) {
+            notifications.add("disconnected");
+        }
+
+        @Override
+        public void received(Mesos mesos, Event event) {
+            events.add(event);
+        }
+    }
+
+    private FakeMaster master;
+    private RecordingScheduler scheduler;
+    private HttpMesos mesos;
+
+    @Before
+    public void beforeEach() throws Exception {
+        master = new FakeMaster();
+        scheduler = new RecordingScheduler();
+    }
+
+    @After
+    public void afterEach() {
+        if (mesos != null) {
+            mesos.close();
+        }
+        master.stop();
+    }
+
+    @Test
+    public void testSubscribeAndReceiveEvents() throws Exception {
+        mesos = start(offerCount -> { }, Optional.empty());
+        Assert.assertEquals("connected", scheduler.notifications.poll(TIMEOUT_S, TimeUnit.SECONDS));
+        Assert.assertNotNull(master.subscribeCalls.poll(TIMEOUT_S, TimeUnit.SECONDS));
+
+        master.sendEvent(subscribed());
+        Assert.assertEquals(Event.Type.SUBSCRIBED, scheduler.events.poll(TIMEOUT_S, TimeUnit.SECONDS).getType());
+        master.sendEvent(heartbeat());
+        Assert.assertEquals(Event.Type.HEARTBEAT, scheduler.events.poll(TIMEOUT_S, TimeUnit.SECONDS).getType());
+    }
+
+    @Test
+    public void testCallsUseStreamIdAndAuthorization() throws Exception {
+        mesos = start(offerCount -> { }, Optional.of("token=abc"));
+        subscribe();
+
+        mesos.send(decline(Protos.Filters.getDefaultInstance(), "offer-1"));
+        Call call = master.calls.poll(TIMEOUT_S, TimeUnit.SECONDS);
+        Assert.assertEquals(Call.Type.DECLINE, call.getType());
+        Assert.assertEquals(STREAM_ID, master.callStreamIds.poll(TIMEOUT_S, TimeUnit.SECONDS));
+        // Both the subscription and the call are authorized:
+        Assert.assertEquals("token=abc", master.authorizations.poll(TIMEOUT_S, TimeUnit.SECONDS));
+        Assert.assertEquals("token=abc", master.authorizations.poll(TIMEOUT_S, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testOfferBackpressure() throws Exception {
+        CountDownLatch capacityAvailable = new CountDownLatch(1);
+        BlockingQueue<Integer> awaitedOfferCounts = new LinkedBlockingQueue<>();
+        mesos = start(offerCount -> {
+            awaitedOfferCounts.add(offerCount);
+            try {
+                capacityAvailable.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }, Optional.empty());
+        subscribe();
+
+        master.sendEvent(offers("offer-1", "offer-2"));
+        master.sendEvent(rescind("offer-1"));
+        master.sendEvent(heartbeat());
+
+        // The stream is still read while waiting for capacity, and heartbeats get through:
+        Assert.assertEquals(2, awaitedOfferCounts.poll(TIMEOUT_S, TimeUnit.SECONDS).intValue());
+        Assert.assertEquals(Event.Type.HEARTBEAT, scheduler.events.poll(TIMEOUT_S, TimeUnit.SECONDS).getType());
+        // Neither the offers nor the events after them are delivered until there's capacity:
+        Assert.assertNull(scheduler.events.poll(100, TimeUnit.MILLISECONDS));
+
+        capacityAvailable.countDown();
+        Assert.assertEquals(Event.Type.OFFERS, scheduler.events.poll(TIMEOUT_S, TimeUnit.SECONDS).getType());
+        Assert.assertEquals(Event.Type.RESCIND, scheduler.events.poll(TIMEOUT_S, TimeUnit.SECONDS).getType());
+    }
+
+    @Test
+    public void testOffersReceivedWhileWaitingAreMerged() throws Exception {
+        CountDownLatch capacityAvailable = new CountDownLatch(1);
+        BlockingQueue<Integer> awaitedOfferCounts = new LinkedBlockingQueue<>();
+        mesos = start(offerCount -> {
+            awaitedOfferCounts.add(offerCount);
+            try {
+                capacityAvailable.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }, Optional.empty());
+        subscribe();
+
+        master.sendEvent(offers("offer-1"));
+        Assert.assertEquals(1, awaitedOfferCounts.poll(TIMEOUT_S, TimeUnit.SECONDS).intValue());
+        master.sendEvent(offers("offer-2"));
+        master.sendEvent(offers("offer-3", "offer-4"));
+        // Once the heartbeat is delivered, the offers before it have been read:
+        master.sendEvent(heartbeat());
+        Assert.assertEquals(Event.Type.HEARTBEAT, scheduler.events.poll(TIMEOUT_S, TimeUnit.SECONDS).getType());
+
+        capacityAvailable.countDown();
+        Assert.assertEquals(1, scheduler.events.poll(TIMEOUT_S, TimeUnit.SECONDS).getOffers().getOffersCount());
+        // The offers which arrived while waiting only wait for capacity once:
+        Assert.assertEquals(3, awaitedOfferCounts.poll(TIMEOUT_S, TimeUnit.SECONDS).intValue());
+        Assert.assertEquals(3, scheduler.events.poll(TIMEOUT_S, TimeUnit.SECONDS).getOffers().getOffersCount());
+        Assert.assertTrue(awaitedOfferCounts.isEmpty());
+    }
+
+    @Test
+    public void testCloseSendsQueuedCalls() throws Exception {
+        mesos = start(offerCount -> { }, Optional.empty());
+        subscribe();
+
+        Call teardown = Call.newBuilder().setFrameworkId(FRAMEWORK_ID).setType(Call.Type.TEARDOWN).build();
+        mesos.send(teardown);
+        mesos.close();
+        Assert.assertEquals(teardown, master.calls.poll(TIMEOUT_S, TimeUnit.SECONDS));
+
+        // Calls after closing are dropped, and the scheduler isn't told about the closed subscription:
+        mesos.send(decline(Protos.Filters.getDefaultInstance(), "offer-1"));
+        Assert.assertNull(master.calls.poll(100, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(scheduler.notifications.isEmpty());
+    }
+
+    @Test
+    public void testRedirectToLeader() throws Exception {
+        HttpServer follower = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        String leaderLocation = String.format("//127.0.0.1:%d%s",
+                master.server.getAddress().getPort(), HttpMesos.SCHEDULER_API_PATH);
+        follower.createContext(HttpMesos.SCHEDULER_API_PATH, exchange -> {
+            IOUtils.toByteArray(exchange.getRequestBody());
+            exchange.getResponseHeaders().add("Location", leaderLocation);
+            exchange.sendResponseHeaders(307, -1);
+            exchange.close();
+        });
+        follower.start();
+        try {
+            mesos = new HttpMesos(
+                    scheduler,
+                    URI.create("http://127.0.0.1:" + follower.getAddress().getPort()),
+                    Optional::empty,
+                    offerCount -> { },
+                    Duration.ZERO).start();
+            subscribe();
+
+            // Later calls go directly to the leader:
+            mesos.send(decline(Protos.Filters.getDefaultInstance(), "offer-1"));
+            Assert.assertEquals(Call.Type.DECLINE, master.calls.poll(TIMEOUT_S, TimeUnit.SECONDS).getType());
+        } finally {
+            follower.stop(0);
+        }
+    }
+
+    @Test
+    public void testStreamEndTriggersReconnect() throws Exception {
+        mesos = start(offerCount -> { }, Optional.empty());
+        subscribe();
+
+        master.endSubscription();
+        Assert.assertEquals("disconnected", scheduler.notifications.poll(TIMEOUT_S, TimeUnit.SECONDS));
+        Assert.assertEquals("connected", scheduler.notifications.poll(TIMEOUT_S, TimeUnit.SECONDS));
+        Assert.assertNotNull(master.subscribeCalls.poll(TIMEOUT_S, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCoalesceConsecutiveDeclines() {
+        Protos.Filters shortFilters = Protos.Filters.newBuilder().setRefuseSeconds(5).build();
+        Protos.Filters longFilters = Protos.Filters.newBuilder().setRefuseSeconds(1209600).build();
+        Call revive = Call.newBuilder().setFrameworkId(FRAMEWORK_ID).setType(Call.Type.REVIVE).build();
+
+        List<Call> coalesced = HttpMesos.coalesce(Arrays.asList(
+                decline(shortFilters, "a"),
+                decline(shortFilters, "b", "c"),
+                revive,
+                decline(shortFilters, "d"),
+                decline(longFilters, "e"),
+                decline(longFilters, "f")));
+
+        Assert.assertEquals(4, coalesced.size());
+        Assert.assertEquals(decline(shortFilters, "a", "b", "c"), coalesced.get(0));
+        Assert.assertEquals(revive, coalesced.get(1));
+        Assert.assertEquals(decline(shortFilters, "d"), coalesced.get(2));
+        Assert.assertEquals(decline(longFilters, "e", "f"), coalesced.get(3));
+    }
+
+    @Test
+    public void testCoalesceRespectsBatchSize() {
+        List<Call> calls = new ArrayList<>();
+        for (int i = 0; i < HttpMesos.MAX_DECLINE_BATCH_SIZE + 1; ++i) {
+            calls.add(decline(Protos.Filters.getDefaultInstance(), "offer-" + i));
+        }
+        List<Call> coalesced = HttpMesos.coalesce(calls);
+        Assert.assertEquals(2, coalesced.size());
+        Assert.assertEquals(HttpMesos.MAX_DECLINE_BATCH_SIZE, coalesced.get(0).getDecline().getOfferIdsCount());
+        Assert.assertEquals(1, coalesced.get(1).getDecline().getOfferIdsCount());
+    }
+
+    private HttpMesos start(HttpMesos.OfferFlowControl offerFlowControl, Optional<String> authorization) {
+        return new HttpMesos(scheduler, master.getUri(), () -> authorization, offerFlowControl, Duration.ZERO)
+                .start();
+    }
+
+    private void subscribe() throws Exception {
+        Assert.assertEquals("connected", scheduler.notifications.poll(TIMEOUT_S, TimeUnit.SECONDS));
+        Assert.assertNotNull(master.subscribeCalls.poll(TIMEOUT_S, TimeUnit.SECONDS));
+        master.sendEvent(subscribed());
+        Assert.assertEquals(Event.Type.SUBSCRIBED, scheduler.events.poll(TIMEOUT_S, TimeUnit.SECONDS).getType());
+    }
+
+    private static Event subscribed() {
+        return Event.newBuilder()
+                .setType(Event.Type.SUBSCRIBED)
+                .setSubscribed(Event.Subscribed.newBuilder().setFrameworkId(FRAMEWORK_ID))
+                .build();
+    }
+
+    private static Event heartbeat() {
+        return Event.newBuilder().setType(Event.Type.HEARTBEAT).build();
+    }
+
+    private static Event offers(String... offerIds) {
+        Event.Offers.Builder offers = Event.Offers.newBuilder();
+        for (String offerId : offerIds) {
+            offers.addOffers(offer(offerId));
+        }
+        return Event.newBuilder().setType(Event.Type.OFFERS).setOffers(offers).build();
+    }
+
+    private static Event rescind(String offerId) {
+        return Event.newBuilder()
+                .setType(Event.Type.RESCIND)
+                .setRescind(Event.Rescind.newBuilder().setOfferId(Protos.OfferID.newBuilder().setValue(offerId)))
+                .build();
+    }
+
+    private static Protos.Offer offer(String offerId) {
+        return Protos.Offer.newBuilder()
+                .setId(Protos.OfferID.newBuilder().setValue(offerId))
+                .setFrameworkId(FRAMEWORK_ID)
+                .setAgentId(Protos.AgentID.newBuilder().setValue("agent"))
+                .setHostname("host")
+                .build();
+    }
+
+    private static Call decline(Protos.Filters filters, String... offerIds) {
+        Call.Decline.Builder decline = Call.Decline.newBuilder().setFilters(filters);
+        for (String offerId : offerIds) {
+            decline.addOfferIds(Protos.OfferID.newBuilder().setValue(offerId));
+        }
+        return Call.newBuilder()
+                .setFrameworkId(FRAMEWORK_ID)
+                .setType(Call.Type.DECLINE)
+                .setDecline(decline)
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.mesosphere.sdk.scheduler.mesos;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class RecordIOReaderTest {
+
+    @Test
+    public void testReadRecords() throws IOException {
+        RecordIOReader reader = reader("5\nhello0\n12\nhello\nworld!");
+        Assert.assertEquals("hello", new String(reader.read().get(), StandardCharsets.UTF_8));
+        Assert.assertEquals(0, reader.read().get().length);
+        Assert.assertEquals("hello\nworld!", new String(reader.read().get(), StandardCharsets.UTF_8));
+        Assert.assertFalse(reader.read().isPresent());
+    }
+
+    @Test
+    public void testEmptyStream() throws IOException {
+        Assert.assertFalse(reader("").read().isPresent());
+    }
+
+    @Test(expected = EOFException.class)
+    public void testTruncatedRecord() throws IOException {
+        reader("10\nhello").read();
+    }
+
+    @Test(expected = EOFException.class)
+    public void testTruncatedLength() throws IOException {
+        reader("10").read();
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidLength() throws IOException {
+        reader("1a\nhello").read();
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingLength() throws IOException {
+        reader("\nhello").read();
+    }
+
+    private static RecordIOReader reader(String content) {
+        return new RecordIOReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
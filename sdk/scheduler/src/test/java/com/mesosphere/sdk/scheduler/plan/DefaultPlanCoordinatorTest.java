@@ -4,6 +4,8 @@ import com.mesosphere.sdk.http.endpoints.ArtifactResource;
 import com.mesosphere.sdk.offer.OfferAccepter;
 import com.mesosphere.sdk.offer.evaluate.OfferEvaluator;
 import com.mesosphere.sdk.offer.history.OfferOutcomeTracker;
+import com.mesosphere.sdk.scheduler.Driver;
+import com.mesosphere.sdk.scheduler.TaskKiller;
 import com.mesosphere.sdk.specification.*;
 import com.mesosphere.sdk.state.ConfigStore;
 import com.mesosphere.sdk.state.FrameworkStore;
@@ -12,6 +14,7 @@ import com.mesosphere.sdk.storage.MemPersister;
 import com.mesosphere.sdk.storage.Persister;
 import com.mesosphere.sdk.testutils.*;
 import org.apache.mesos.Protos;
+import org.apache.mesos.SchedulerDriver;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -84,6 +87,8 @@ public class DefaultPlanCoordinatorTest extends DefaultCapabilitiesTestSuite {
     @Before
     public void setupTest() throws Exception {
         MockitoAnnotations.initMocks(this);
+        // Offers are accepted via the global driver, rather than relying on another test to have set it:
+        Driver.setDriver(mock(SchedulerDriver.class));
 
         serviceSpecification = DefaultServiceSpec.newBuilder()
                 .name(SERVICE_NAME)
@@ -111,7 +116,8 @@ public class DefaultPlanCoordinatorTest extends DefaultCapabilitiesTestSuite {
                         SchedulerConfigTestUtils.getTestSchedulerConfig(),
                         Optional.empty(),
                         true),
-                stateStore);
+                stateStore,
+                TaskKiller.withoutRetries(Driver::getDriver));
         serviceSpecificationB = DefaultServiceSpec.newBuilder()
                 .name(SERVICE_NAME + "-B")
                 .role(TestConstants.ROLE)
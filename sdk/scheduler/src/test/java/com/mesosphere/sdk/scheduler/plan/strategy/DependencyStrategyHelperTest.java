@@ -0,0 +1,157 @@
+package com.mesosphere.sdk.scheduler.plan.strategy;
+
+import com.mesosphere.sdk.scheduler.plan.Status;
+import com.mesosphere.sdk.scheduler.plan.TestStep;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class tests the {@link DependencyStrategyHelper}.
+ */
+public class DependencyStrategyHelperTest {
+
+    /**
+     * A step which counts how often its completion is checked.
+     */
+    private static class CountingStep extends TestStep {
+        private final AtomicInteger completionChecks = new AtomicInteger();
+
+        private CountingStep(String name) {
+            super(name, null);
+        }
+
+        @Override
+        public boolean isComplete() {
+            completionChecks.incrementAndGet();
+            return super.isComplete();
+        }
+    }
+
+    private final TestStep a = new TestStep("a", null);
+    private final TestStep b = new TestStep("b", null);
+    private final TestStep c = new TestStep("c", null);
+    private final TestStep d = new TestStep("d", null);
+
+    @Test
+    public void testDiamond() throws Exception {
+        // a -> (b, c) -> d
+        DependencyStrategyHelper<TestStep> helper = new DependencyStrategyHelper<>(Arrays.asList(a, b, c, d));
+        helper.addDependency(b, a);
+        helper.addDependency(c, a);
+        helper.addDependency(d, b);
+        helper.addDependency(d, c);
+        helper.validate();
+
+        Assert.assertEquals(Arrays.asList(a), getCandidates(helper));
+        a.setStatus(Status.COMPLETE);
+        Assert.assertEquals(Arrays.asList(b, c), getCandidates(helper));
+        c.setStatus(Status.COMPLETE);
+        Assert.assertEquals(Arrays.asList(b), getCandidates(helper));
+        b.setStatus(Status.COMPLETE);
+        Assert.assertEquals(Arrays.asList(d), getCandidates(helper));
+        d.setStatus(Status.COMPLETE);
+        Assert.assertTrue(getCandidates(helper).isEmpty());
+    }
+
+    @Test
+    public void testRestartedPrerequisiteBlocksDependents() {
+        DependencyStrategyHelper<TestStep> helper = new DependencyStrategyHelper<>(Arrays.asList(a, b));
+        helper.addDependency(b, a);
+
+        a.setStatus(Status.COMPLETE);
+        Assert.assertEquals(Arrays.asList(b), getCandidates(helper));
+
+        a.restart();
+        Assert.assertEquals(Arrays.asList(a), getCandidates(helper));
+    }
+
+    @Test
+    public void testDependencyAddedAfterCandidates() {
+        DependencyStrategyHelper<TestStep> helper = new DependencyStrategyHelper<>(Arrays.asList(a, b));
+        Assert.assertEquals(Arrays.asList(a, b), getCandidates(helper));
+
+        helper.addDependency(b, a);
+        Assert.assertEquals(Arrays.asList(a), getCandidates(helper));
+    }
+
+    @Test
+    public void testHasElements() {
+        DependencyStrategyHelper<TestStep> helper = new DependencyStrategyHelper<>(Arrays.asList(a, b));
+        Assert.assertTrue(helper.hasElements(Arrays.asList(a, b)));
+        Assert.assertFalse(helper.hasElements(Arrays.asList(b, a)));
+        Assert.assertFalse(helper.hasElements(Arrays.asList(a)));
+        Assert.assertFalse(helper.hasElements(Arrays.asList(a, new TestStep("b", null))));
+    }
+
+    @Test
+    public void testInterrupted() {
+        DependencyStrategyHelper<TestStep> helper = new DependencyStrategyHelper<>(Arrays.asList(a, b));
+        Assert.assertTrue(helper.getCandidates(true, Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void testCompletionCheckedOncePerPrerequisite() {
+        // Every step depends on all of the steps before it, as with a serial strategy:
+        CountingStep first = new CountingStep("first");
+        CountingStep second = new CountingStep("second");
+        CountingStep third = new CountingStep("third");
+        CountingStep fourth = new CountingStep("fourth");
+        List<CountingStep> steps = Arrays.asList(first, second, third, fourth);
+        DependencyStrategyHelper<CountingStep> helper = new DependencyStrategyHelper<>(steps);
+        for (int i = 0; i < steps.size(); ++i) {
+            for (int j = i + 1; j < steps.size(); ++j) {
+                helper.addDependency(steps.get(j), steps.get(i));
+            }
+        }
+
+        helper.getCandidates(false, Collections.emptyList());
+        steps.forEach(step -> step.completionChecks.set(0));
+        Assert.assertEquals(Arrays.asList(first), helper.getCandidates(false, Collections.emptyList()));
+
+        // Each prerequisite is checked once to detect changes, plus once more by the eligibility check if it's ready:
+        Assert.assertEquals(2, first.completionChecks.get());
+        Assert.assertEquals(1, second.completionChecks.get());
+        Assert.assertEquals(1, third.completionChecks.get());
+        Assert.assertEquals(0, fourth.completionChecks.get());
+    }
+
+    @Test(expected = DependencyStrategyHelper.InvalidDependencyException.class)
+    public void testCycleDetected() throws Exception {
+        DependencyStrategyHelper<TestStep> helper = new DependencyStrategyHelper<>(Arrays.asList(a, b, c, d));
+        helper.addDependency(b, a);
+        helper.addDependency(c, b);
+        helper.addDependency(a, c);
+        helper.validate();
+    }
+
+    @Test
+    public void testCycleDetectedByStrategy() {
+        DependencyStrategyHelper<TestStep> helper = new DependencyStrategyHelper<>(Arrays.asList(a, b, c));
+        helper.addDependency(b, a);
+        helper.addDependency(c, b);
+        helper.addDependency(b, c);
+        try {
+            new DependencyStrategy<>(helper);
+            Assert.fail("Expected a cycle to be detected");
+        } catch (DependencyStrategyHelper.InvalidDependencyException e) {
+            Assert.assertEquals("Dependency cycle detected among elements: [b, c]", e.getMessage());
+        }
+    }
+
+    @Test(expected = DependencyStrategyHelper.InvalidDependencyException.class)
+    public void testSelfDependencyDetected() throws Exception {
+        DependencyStrategyHelper<TestStep> helper = new DependencyStrategyHelper<>(Arrays.asList(a));
+        helper.addDependency(a, a);
+        helper.validate();
+    }
+
+    private static Collection<TestStep> getCandidates(DependencyStrategyHelper<TestStep> helper) {
+        return helper.getCandidates(false, Collections.emptyList());
+    }
+}
@@ -98,6 +98,20 @@ public class ParallelStrategyTest {
         Assert.assertTrue(getCandidates(strategy, steps).isEmpty());
     }
 
+    @Test
+    public void testElementsChanged() {
+        TestStep step0 = new TestStep();
+        TestStep step1 = new TestStep();
+        Assert.assertEquals(Arrays.asList(step0), getCandidates(strategy, Arrays.asList(step0)));
+        Assert.assertEquals(Arrays.asList(step0, step1), getCandidates(strategy, Arrays.asList(step0, step1)));
+
+        // The first step is replaced, e.g. by a plan customizer:
+        TestStep replacedStep0 = new TestStep();
+        step0.setStatus(Status.COMPLETE);
+        Assert.assertEquals(
+                Arrays.asList(replacedStep0, step1), getCandidates(strategy, Arrays.asList(replacedStep0, step1)));
+    }
+
     private Collection<Step> getCandidates() {
         return getCandidates(strategy, steps);
     }
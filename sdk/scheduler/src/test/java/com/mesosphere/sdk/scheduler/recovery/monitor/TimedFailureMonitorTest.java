@@ -0,0 +1,173 @@
+package com.mesosphere.sdk.scheduler.recovery.monitor;
+
+import com.mesosphere.sdk.offer.CommonIdUtils;
+import com.mesosphere.sdk.offer.taskdata.TaskLabelWriter;
+import com.mesosphere.sdk.scheduler.recovery.FailureUtils;
+import com.mesosphere.sdk.specification.DefaultServiceSpec;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import com.mesosphere.sdk.state.ConfigStore;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.storage.MemPersister;
+import com.mesosphere.sdk.storage.Persister;
+import com.mesosphere.sdk.testutils.SchedulerConfigTestUtils;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos;
+import org.apache.mesos.Protos.TaskInfo;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class TimedFailureMonitorTest {
+    private static final String TASK_NAME = "test-task-type-0-test-task-name";
+    private static final String PROPERTY_KEY = TASK_NAME + ":failure-detected";
+    private static final String ONCE_TASK_NAME = "once-task-type-0-once-task-name";
+
+    private UUID configId;
+
+    private StateStore stateStore;
+    private ConfigStore<ServiceSpec> configStore;
+    private TaskInfo taskInfo;
+
+    @Before
+    public void beforeEach() throws Exception {
+        Persister persister = new MemPersister();
+        stateStore = new StateStore(persister);
+        File specFile = new File(getClass().getClassLoader().getResource("timed-failure-monitor-test.yml").getPath());
+        ServiceSpec serviceSpec = DefaultServiceSpec
+                .newGenerator(specFile, SchedulerConfigTestUtils.getTestSchedulerConfig())
+                .build();
+        configStore = new ConfigStore<>(DefaultServiceSpec.getConfigurationFactory(serviceSpec), persister);
+        configId = configStore.store(serviceSpec);
+        configStore.setTargetConfig(configId);
+
+        taskInfo = storeTask("test-task-type", TASK_NAME);
+    }
+
+    @Test
+    public void testMarkedPermanentlyFailedAtDeadline() throws Exception {
+        TimedFailureMonitor monitor = new TimedFailureMonitor(Duration.ofMillis(200), stateStore, configStore);
+        monitor.update(storeStatus(Protos.TaskState.TASK_FAILED));
+        assertTrue(stateStore.fetchPropertyKeys().contains(PROPERTY_KEY));
+        assertFalse(monitor.hasFailed(taskInfo));
+
+        // The expiry is recorded without further calls to the monitor, but the task is left for the recovery plan:
+        waitForExpired(monitor, TASK_NAME);
+        assertFalse(FailureUtils.isPermanentlyFailed(stateStore.fetchTask(TASK_NAME).get()));
+
+        assertTrue(monitor.hasFailed(taskInfo));
+        assertTrue(FailureUtils.isPermanentlyFailed(stateStore.fetchTask(TASK_NAME).get()));
+    }
+
+    @Test
+    public void testFinishedOnceTaskNotFailed() throws Exception {
+        TaskInfo onceTaskInfo = storeTask("once-task-type", ONCE_TASK_NAME);
+        Protos.TaskStatus status =
+                TaskTestUtils.generateStatus(onceTaskInfo.getTaskId(), Protos.TaskState.TASK_FINISHED);
+        stateStore.storeStatus(ONCE_TASK_NAME, status);
+
+        TimedFailureMonitor monitor = new TimedFailureMonitor(Duration.ofMillis(200), stateStore, configStore);
+        monitor.update(status);
+        assertFalse(stateStore.fetchPropertyKeys().contains(ONCE_TASK_NAME + ":failure-detected"));
+
+        Thread.sleep(400);
+        assertFalse(monitor.isExpired(ONCE_TASK_NAME));
+        assertFalse(FailureUtils.isPermanentlyFailed(stateStore.fetchTask(ONCE_TASK_NAME).get()));
+    }
+
+    @Test
+    public void testDeadlineRechecksStatus() throws Exception {
+        TimedFailureMonitor monitor = new TimedFailureMonitor(Duration.ofMillis(200), stateStore, configStore);
+        monitor.update(storeStatus(Protos.TaskState.TASK_FAILED));
+        // The task's status changes without the monitor being told, e.g. while it's paused:
+        storeStatus(Protos.TaskState.TASK_STAGING);
+
+        for (int i = 0; i < 100 && stateStore.fetchPropertyKeys().contains(PROPERTY_KEY); i++) {
+            Thread.sleep(50);
+        }
+        assertFalse(stateStore.fetchPropertyKeys().contains(PROPERTY_KEY));
+        assertFalse(monitor.isExpired(TASK_NAME));
+        assertFalse(FailureUtils.isPermanentlyFailed(stateStore.fetchTask(TASK_NAME).get()));
+    }
+
+    @Test
+    public void testRecoveryClearsFailure() throws Exception {
+        TimedFailureMonitor monitor = new TimedFailureMonitor(Duration.ofMillis(200), stateStore, configStore);
+        monitor.update(storeStatus(Protos.TaskState.TASK_LOST));
+        monitor.update(storeStatus(Protos.TaskState.TASK_RUNNING));
+        assertFalse(stateStore.fetchPropertyKeys().contains(PROPERTY_KEY));
+
+        Thread.sleep(400);
+        assertFalse(FailureUtils.isPermanentlyFailed(stateStore.fetchTask(TASK_NAME).get()));
+        assertFalse(monitor.hasFailed(taskInfo));
+    }
+
+    @Test
+    public void testFailureResumedAfterRestart() throws Exception {
+        storeStatus(Protos.TaskState.TASK_FAILED);
+        stateStore.storeProperty(PROPERTY_KEY,
+                Long.toString(System.currentTimeMillis() - Duration.ofMinutes(10).toMillis())
+                        .getBytes(StandardCharsets.UTF_8));
+
+        TimedFailureMonitor monitor = new TimedFailureMonitor(Duration.ofMinutes(5), stateStore, configStore);
+        assertTrue(monitor.hasFailed(taskInfo));
+        waitForPermanentlyFailed();
+    }
+
+    @Test
+    public void testStaleFailureDroppedAfterRestart() throws Exception {
+        storeStatus(Protos.TaskState.TASK_RUNNING);
+        stateStore.storeProperty(PROPERTY_KEY, "0".getBytes(StandardCharsets.UTF_8));
+
+        new TimedFailureMonitor(Duration.ofMinutes(5), stateStore, configStore);
+        assertFalse(stateStore.fetchPropertyKeys().contains(PROPERTY_KEY));
+    }
+
+    private TaskInfo storeTask(String podType, String taskName) {
+        TaskInfo taskInfo = TaskTestUtils.getTaskInfo(Collections.emptyList());
+        taskInfo = taskInfo.toBuilder()
+                .setLabels(new TaskLabelWriter(taskInfo)
+                        .setTargetConfiguration(configId)
+                        .setType(podType)
+                        .setIndex(0)
+                        .toProto())
+                .setName(taskName)
+                .setTaskId(CommonIdUtils.toTaskId(TestConstants.SERVICE_NAME, taskName))
+                .build();
+        stateStore.storeTasks(Collections.singletonList(taskInfo));
+        return taskInfo;
+    }
+
+    private Protos.TaskStatus storeStatus(Protos.TaskState state) {
+        Protos.TaskStatus status = TaskTestUtils.generateStatus(taskInfo.getTaskId(), state);
+        stateStore.storeStatus(TASK_NAME, status);
+        return status;
+    }
+
+    private static void waitForExpired(TimedFailureMonitor monitor, String taskName) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (monitor.isExpired(taskName)) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("Task's deadline wasn't recorded as expired");
+    }
+
+    private void waitForPermanentlyFailed() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (FailureUtils.isPermanentlyFailed(stateStore.fetchTask(TASK_NAME).get())) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("Task wasn't marked as permanently failed");
+    }
+}
@@ -1,6 +1,7 @@
 package com.mesosphere.sdk.scheduler.uninstall;
 
 import com.mesosphere.sdk.scheduler.Driver;
+import com.mesosphere.sdk.scheduler.TaskKiller;
 import com.mesosphere.sdk.scheduler.plan.Status;
 import org.apache.mesos.Protos;
 import org.apache.mesos.SchedulerDriver;
@@ -34,7 +35,7 @@ public class TaskKillStepTest {
     }
 
     private TaskKillStep createStep() {
-        TaskKillStep step = new TaskKillStep(taskID);
+        TaskKillStep step = new TaskKillStep(taskID, TaskKiller.withoutRetries(Driver::getDriver));
         return step;
     }
 }
@@ -1,25 +1,129 @@
 package com.mesosphere.sdk.scheduler.uninstall;
 
+import com.mesosphere.sdk.offer.Constants;
 import com.mesosphere.sdk.offer.CreateOfferRecommendation;
+import com.mesosphere.sdk.offer.DestroyOfferRecommendation;
 import com.mesosphere.sdk.offer.OfferRecommendation;
 import com.mesosphere.sdk.offer.OperationRecorder;
+import com.mesosphere.sdk.offer.ResourceUtils;
+import com.mesosphere.sdk.offer.UnreserveOfferRecommendation;
+import com.mesosphere.sdk.scheduler.plan.Status;
 import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.storage.MemPersister;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
 import com.mesosphere.sdk.testutils.ResourceTestUtils;
-
+import com.mesosphere.sdk.testutils.TaskTestUtils;
 import org.apache.mesos.Protos;
+import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.*;
 
 public class UninstallRecorderTest {
+
+    private static final Protos.Resource RESOURCE_1 = ResourceTestUtils.getReservedCpus(1.0, "resource-1");
+    private static final Protos.Resource RESOURCE_2 = ResourceTestUtils.getReservedMem(1.0, "resource-2");
+    private static final Protos.Resource RESOURCE_3 = ResourceTestUtils.getReservedDisk(1.0, "resource-3");
+
+    private static final Protos.TaskInfo TASK_A = TaskTestUtils.getTaskInfo(Arrays.asList(RESOURCE_1, RESOURCE_2))
+            .toBuilder().setName("task-a").build();
+    private static final Protos.TaskInfo TASK_B = TaskTestUtils.getTaskInfo(Arrays.asList(RESOURCE_2, RESOURCE_3))
+            .toBuilder().setName("task-b").build();
+
     @Test
     public void testHandlingOfUnexpectedOfferRecommendation() throws Exception {
         Protos.Resource resource = ResourceTestUtils.getUnreservedCpus(1.0);
         OfferRecommendation unsupportedOfferRecommendation = new CreateOfferRecommendation(null, resource);
         StateStore mockStateStore = mock(StateStore.class);
-        OperationRecorder operationRecorder = new UninstallRecorder(mockStateStore, null);
+        OperationRecorder operationRecorder =
+                new UninstallRecorder(mockStateStore, Collections.emptyList(), Collections.emptyList());
         // should just return without error
         operationRecorder.record(unsupportedOfferRecommendation);
+        verifyZeroInteractions(mockStateStore);
+    }
+
+    @Test
+    public void testBatchIsStoredOnce() throws Exception {
+        StateStore spyStateStore = spy(new StateStore(new MemPersister()));
+        spyStateStore.storeTasks(Arrays.asList(TASK_A, TASK_B));
+        reset(spyStateStore);
+        List<ResourceCleanupStep> steps = Arrays.asList(
+                new ResourceCleanupStep("resource-1", Status.PENDING),
+                new ResourceCleanupStep("resource-2", Status.PENDING),
+                new ResourceCleanupStep("resource-3", Status.PENDING));
+        OperationRecorder operationRecorder =
+                new UninstallRecorder(spyStateStore, steps, Arrays.asList(TASK_A, TASK_B));
+
+        Protos.Offer offer = OfferTestUtils.getOffer(Arrays.asList(RESOURCE_1, RESOURCE_2));
+        operationRecorder.recordAll(Arrays.asList(
+                new UnreserveOfferRecommendation(offer, RESOURCE_1),
+                // The same resource may be both destroyed and unreserved:
+                new DestroyOfferRecommendation(offer, RESOURCE_2),
+                new UnreserveOfferRecommendation(offer, RESOURCE_2)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Protos.TaskInfo>> captor = ArgumentCaptor.forClass((Class) Collection.class);
+        verify(spyStateStore, times(1)).storeTasks(captor.capture());
+        Map<String, Protos.TaskInfo> storedTasks = captor.getValue().stream()
+                .collect(Collectors.toMap(Protos.TaskInfo::getName, Function.identity()));
+        Assert.assertEquals(2, storedTasks.size());
+        Assert.assertEquals(
+                Arrays.asList(Constants.TOMBSTONE_MARKER + "resource-1", Constants.TOMBSTONE_MARKER + "resource-2"),
+                ResourceUtils.getResourceIds(storedTasks.get("task-a").getResourcesList()));
+        Assert.assertEquals(
+                Arrays.asList(Constants.TOMBSTONE_MARKER + "resource-2", "resource-3"),
+                ResourceUtils.getResourceIds(storedTasks.get("task-b").getResourcesList()));
+
+        Assert.assertTrue(steps.get(0).isComplete());
+        Assert.assertTrue(steps.get(1).isComplete());
+        Assert.assertTrue(steps.get(2).isPending());
+
+        // Later updates build on the previously tombstoned tasks, and already-uninstalled resources are ignored:
+        operationRecorder.record(new UnreserveOfferRecommendation(offer, RESOURCE_1));
+        verify(spyStateStore, times(1)).storeTasks(any());
+
+        operationRecorder.record(new UnreserveOfferRecommendation(offer, RESOURCE_3));
+        verify(spyStateStore, times(2)).storeTasks(captor.capture());
+        Protos.TaskInfo taskB = captor.getValue().iterator().next();
+        Assert.assertEquals(
+                Arrays.asList(Constants.TOMBSTONE_MARKER + "resource-2", Constants.TOMBSTONE_MARKER + "resource-3"),
+                ResourceUtils.getResourceIds(taskB.getResourcesList()));
+        Assert.assertTrue(steps.get(2).isComplete());
     }
 
+    @Test
+    public void testTasksAreReadAtWriteTime() throws Exception {
+        StateStore stateStore = new StateStore(new MemPersister());
+        stateStore.storeTasks(Arrays.asList(TASK_A, TASK_B));
+        OperationRecorder operationRecorder = new UninstallRecorder(
+                stateStore,
+                Collections.singletonList(new ResourceCleanupStep("resource-1", Status.PENDING)),
+                Arrays.asList(TASK_A, TASK_B));
+
+        // The task is updated after the recorder was created:
+        Protos.TaskInfo updatedTaskA = TASK_A.toBuilder()
+                .setLabels(Protos.Labels.newBuilder()
+                        .addLabels(Protos.Label.newBuilder().setKey("updated").setValue("true")))
+                .build();
+        stateStore.storeTasks(Collections.singletonList(updatedTaskA));
+
+        Protos.Offer offer = OfferTestUtils.getOffer(Collections.singletonList(RESOURCE_1));
+        operationRecorder.record(new UnreserveOfferRecommendation(offer, RESOURCE_1));
+
+        Protos.TaskInfo storedTaskA = stateStore.fetchTask("task-a").get();
+        Assert.assertEquals(updatedTaskA.getLabels(), storedTaskA.getLabels());
+        Assert.assertEquals(
+                Arrays.asList(Constants.TOMBSTONE_MARKER + "resource-1", "resource-2"),
+                ResourceUtils.getResourceIds(storedTaskA.getResourcesList()));
+        Assert.assertEquals(TASK_B, stateStore.fetchTask("task-b").get());
+    }
 }
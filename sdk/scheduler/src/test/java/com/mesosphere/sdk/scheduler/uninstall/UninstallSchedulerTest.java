@@ -3,6 +3,8 @@ package com.mesosphere.sdk.scheduler.uninstall;
 import com.mesosphere.sdk.dcos.clients.SecretsClient;
 import com.mesosphere.sdk.offer.CommonIdUtils;
 import com.mesosphere.sdk.offer.taskdata.TaskLabelWriter;
+import com.mesosphere.sdk.scheduler.Driver;
+import com.mesosphere.sdk.scheduler.TaskKiller;
 import com.mesosphere.sdk.scheduler.plan.*;
 import com.mesosphere.sdk.specification.*;
 import com.mesosphere.sdk.state.ConfigStore;
@@ -212,7 +214,9 @@ public class UninstallSchedulerTest extends DefaultCapabilitiesTestSuite {
                 new StateStore(persister),
                 mockConfigStore,
                 SchedulerConfigTestUtils.getTestSchedulerConfig(),
-                Optional.empty(), Optional.of(mockSecretsClient));
+                Optional.empty(),
+                TaskKiller.withoutRetries(Driver::getDriver),
+                Optional.of(mockSecretsClient));
         // Returns a simple placeholder plan with status COMPLETE
         PlanCoordinator planCoordinator = uninstallScheduler.getPlanCoordinator();
         Plan plan = planCoordinator.getPlanManagers().stream().findFirst().get().getPlan();
@@ -282,6 +286,7 @@ public class UninstallSchedulerTest extends DefaultCapabilitiesTestSuite {
                 mockConfigStore,
                 SchedulerConfigTestUtils.getTestSchedulerConfig(),
                 Optional.of(getReversingPlanCustomizer()),
+                TaskKiller.withoutRetries(Driver::getDriver),
                 Optional.of(mockSecretsClient));
         uninstallScheduler.start();
 
@@ -320,6 +325,7 @@ public class UninstallSchedulerTest extends DefaultCapabilitiesTestSuite {
                 mockConfigStore,
                 SchedulerConfigTestUtils.getTestSchedulerConfig(),
                 Optional.of(mockPlanCustomizer),
+                TaskKiller.withoutRetries(Driver::getDriver),
                 Optional.of(mockSecretsClient));
         uninstallScheduler
                 .disableApiServer()
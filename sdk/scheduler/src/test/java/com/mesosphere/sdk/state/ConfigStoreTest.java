@@ -1,5 +1,6 @@
 package com.mesosphere.sdk.state;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.mesosphere.sdk.config.StringConfiguration;
 import com.mesosphere.sdk.storage.MemPersister;
 import com.mesosphere.sdk.storage.Persister;
@@ -12,7 +13,11 @@ import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -147,6 +152,190 @@ public class ConfigStoreTest {
         Assert.assertTrue(store.hasKey(testId));
     }
 
+    @Test
+    public void testTemplatesStoredOnce() throws Exception {
+        StringConfiguration config1 = getTemplatedConfig("one", "shared content");
+        StringConfiguration config2 = getTemplatedConfig("two", "shared content");
+        UUID id1 = store.store(config1);
+        UUID id2 = store.store(config2);
+
+        String hash = TemplateReferences.hash("shared content");
+        Assert.assertEquals(Arrays.asList(hash), new ArrayList<>(persister.getChildren("ConfigTemplates")));
+        Assert.assertEquals("shared content", new String(persister.get("ConfigTemplates/" + hash), StandardCharsets.UTF_8));
+        String stored = new String(persister.get("Configurations/" + id1.toString()), StandardCharsets.UTF_8);
+        Assert.assertFalse(stored, stored.contains("shared content"));
+        Assert.assertTrue(stored, stored.contains(hash));
+
+        // Fetch from a fresh store to bypass caching:
+        store = new ConfigStore<StringConfiguration>(new StringConfiguration.Factory(), persister);
+        Assert.assertEquals(config1, store.fetch(id1));
+        Assert.assertEquals(config2, store.fetch(id2));
+    }
+
+    @Test
+    public void testInlineTemplatesStillRead() throws Exception {
+        // Written as by a prior version, without extracting the template:
+        StringConfiguration config = getTemplatedConfig("one", "inline content");
+        UUID id = UUID.randomUUID();
+        persister.set("Configurations/" + id.toString(), config.getBytes());
+
+        Assert.assertEquals(config, store.fetch(id));
+        Assert.assertEquals(Optional.of("inline content"), store.fetchTemplate(id, root -> getConfigFile(root)));
+        store.clearUnusedTemplates();
+        Assert.assertEquals(config, store.fetch(id));
+    }
+
+    @Test
+    public void testFetchTemplate() throws Exception {
+        UUID id = store.store(getTemplatedConfig("one", "some content"));
+        store = new ConfigStore<StringConfiguration>(new StringConfiguration.Factory(), persister);
+        Assert.assertEquals(Optional.of("some content"), store.fetchTemplate(id, root -> getConfigFile(root)));
+        Assert.assertEquals(Optional.empty(), store.fetchTemplate(id, root -> Optional.empty()));
+        try {
+            store.fetchTemplate(UUID.randomUUID(), root -> getConfigFile(root));
+            Assert.fail("Expected an exception");
+        } catch (ConfigStoreException e) {
+            Assert.assertEquals(StorageError.Reason.NOT_FOUND, e.getReason());
+        }
+    }
+
+    @Test
+    public void testClearUnusedTemplates() throws Exception {
+        // No templates stored yet:
+        store.clearUnusedTemplates();
+
+        UUID id1 = store.store(getTemplatedConfig("one", "old content"));
+        UUID id2 = store.store(getTemplatedConfig("two", "new content"));
+        UUID id3 = store.store(getTemplatedConfig("three", "new content"));
+        store.clear(id1);
+        store.clear(id2);
+        store.clearUnusedTemplates();
+
+        Assert.assertEquals(
+                new HashSet<>(Arrays.asList(TemplateReferences.hash("new content"))),
+                new HashSet<>(persister.getChildren("ConfigTemplates")));
+        Assert.assertEquals(Optional.of("new content"), store.fetchTemplate(id3, root -> getConfigFile(root)));
+
+        // Storing the removed template again brings it back:
+        UUID id4 = store.store(getTemplatedConfig("four", "old content"));
+        store = new ConfigStore<StringConfiguration>(new StringConfiguration.Factory(), persister);
+        Assert.assertEquals(Optional.of("old content"), store.fetchTemplate(id4, root -> getConfigFile(root)));
+
+        store.clear(id3);
+        store.clear(id4);
+        store.clearUnusedTemplates();
+        Assert.assertEquals(Collections.emptySet(), new HashSet<>(persister.getChildren("ConfigTemplates")));
+    }
+
+    @Test
+    public void testPrefetch() throws Exception {
+        StringConfiguration config1 = getTemplatedConfig("one", "shared content");
+        StringConfiguration config2 = getTemplatedConfig("two", "shared content");
+        UUID id1 = store.store(config1);
+        UUID id2 = store.store(config2);
+        UUID missingId = UUID.randomUUID();
+
+        store = new ConfigStore<StringConfiguration>(new StringConfiguration.Factory(), persister);
+        Assert.assertFalse(store.isCached(id1));
+        Assert.assertEquals(2, store.prefetch(Arrays.asList(id1, id2, missingId)));
+        Assert.assertTrue(store.isCached(id1));
+        Assert.assertTrue(store.isCached(id2));
+        Assert.assertEquals(0, store.prefetch(Arrays.asList(id1, id2)));
+
+        // Prefetched configs are then served without accessing storage:
+        persister.recursiveDelete("Configurations");
+        persister.recursiveDelete("ConfigTemplates");
+        Assert.assertEquals(config1, store.fetch(id1));
+        Assert.assertEquals(config2, store.fetch(id2));
+        try {
+            store.fetch(missingId);
+            Assert.fail("Expected exception");
+        } catch (ConfigStoreException e) {
+            Assert.assertEquals(StorageError.Reason.NOT_FOUND, e.getReason());
+        }
+    }
+
+    @Test
+    public void testPrefetchSkipsInvalidConfigs() throws Exception {
+        UUID validId = store.store(getTemplatedConfig("one", "some content"));
+        // A config whose template is missing can't be read:
+        UUID invalidId = UUID.randomUUID();
+        persister.set("Configurations/" + invalidId.toString(), String.format(
+                "{\"pod-specs\":[{\"task-specs\":[{\"config-files\":[{\"%s\":\"missing\"}]}]}]}",
+                TemplateReferences.TEMPLATE_HASH_FIELD).getBytes(StandardCharsets.UTF_8));
+
+        store = new ConfigStore<StringConfiguration>(new StringConfiguration.Factory(), persister);
+        Assert.assertEquals(1, store.prefetch(Arrays.asList(validId, invalidId)));
+        Assert.assertTrue(store.isCached(validId));
+        Assert.assertFalse(store.isCached(invalidId));
+        try {
+            store.fetch(invalidId);
+            Assert.fail("Expected exception");
+        } catch (ConfigStoreException e) {
+            Assert.assertEquals(StorageError.Reason.NOT_FOUND, e.getReason());
+        }
+    }
+
+    @Test
+    public void testCacheEvictsLeastRecentlyUsed() throws Exception {
+        StringConfiguration config1 = new StringConfiguration("config-1");
+        StringConfiguration config2 = new StringConfiguration("config-2");
+        StringConfiguration config3 = new StringConfiguration("config-3");
+        // Room for two of the configs:
+        store = new ConfigStore<StringConfiguration>(
+                new StringConfiguration.Factory(), persister, "", config1.getBytes().length * 2);
+
+        UUID id1 = store.store(config1);
+        UUID id2 = store.store(config2);
+        Assert.assertEquals(config1, store.fetch(id1));
+        UUID id3 = store.store(config3);
+        Assert.assertTrue(store.isCached(id1));
+        Assert.assertFalse(store.isCached(id2));
+        Assert.assertTrue(store.isCached(id3));
+
+        // Evicted configs are read from storage again:
+        Assert.assertEquals(config2, store.fetch(id2));
+        Assert.assertTrue(store.isCached(id2));
+        Assert.assertFalse(store.isCached(id1));
+    }
+
+    @Test
+    public void testRevalidateAfterExternalCleanup() throws Exception {
+        StringConfiguration config = getTemplatedConfig("one", "some content");
+        UUID id = store.store(config);
+        store.prefetch(Arrays.asList(id));
+
+        // Another writer removes the config, along with its template:
+        ConfigStore<StringConfiguration> otherStore =
+                new ConfigStore<StringConfiguration>(new StringConfiguration.Factory(), persister);
+        otherStore.clear(id);
+        otherStore.clearUnusedTemplates();
+        Assert.assertTrue(persister.getChildren("ConfigTemplates").isEmpty());
+
+        store.revalidate();
+        Assert.assertFalse(store.isCached(id));
+        Assert.assertFalse(store.hasKey(id));
+
+        // The template is no longer assumed to be stored, and is written again:
+        UUID newId = store.store(config);
+        otherStore = new ConfigStore<StringConfiguration>(new StringConfiguration.Factory(), persister);
+        Assert.assertEquals(config, otherStore.fetch(newId));
+    }
+
+    /**
+     * Returns a config in the same form as a serialized ServiceSpec, with one config file.
+     */
+    private static StringConfiguration getTemplatedConfig(String name, String templateContent) {
+        return new StringConfiguration(String.format(
+                "{\"name\":\"%s\",\"pod-specs\":[{\"type\":\"pod\",\"task-specs\":[{\"name\":\"task\"," +
+                        "\"config-files\":[{\"name\":\"conf\",\"template-content\":\"%s\"}]}]}]}",
+                name, templateContent));
+    }
+
+    private static Optional<JsonNode> getConfigFile(JsonNode root) {
+        return Optional.of(root.get("pod-specs").get(0).get("task-specs").get(0).get("config-files").get(0));
+    }
+
     private void checkPathNotFound(String path) {
         try {
             persister.get(path);
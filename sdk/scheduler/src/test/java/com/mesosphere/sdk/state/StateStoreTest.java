@@ -74,6 +74,120 @@ public class StateStoreTest {
         assertEquals(PROPERTY_VALUE, new String(store.fetchProperty(GOOD_PROPERTY_KEY), StandardCharsets.UTF_8));
     }
 
+    @Test
+    public void testVersionIncrementedOnWrites() throws Exception {
+        long version = store.getVersion();
+
+        store.storeTasks(createTasks(TestConstants.TASK_NAME));
+        assertTrue(store.getVersion() > version);
+        version = store.getVersion();
+
+        store.storeStatus(TestConstants.TASK_NAME, TASK_STATUS);
+        assertTrue(store.getVersion() > version);
+        version = store.getVersion();
+
+        store.storeGoalOverrideStatus(TestConstants.TASK_NAME,
+                GoalStateOverride.PAUSED.newStatus(GoalStateOverride.Progress.PENDING));
+        assertTrue(store.getVersion() > version);
+        version = store.getVersion();
+
+        store.storeProperty(GOOD_PROPERTY_KEY, PROPERTY_VALUE.getBytes(StandardCharsets.UTF_8));
+        assertTrue(store.getVersion() > version);
+        version = store.getVersion();
+
+        store.clearProperty(GOOD_PROPERTY_KEY);
+        assertTrue(store.getVersion() > version);
+        version = store.getVersion();
+
+        store.clearTask(TestConstants.TASK_NAME);
+        assertTrue(store.getVersion() > version);
+        version = store.getVersion();
+
+        // Reads don't affect the version:
+        store.fetchTasks();
+        store.fetchStatuses();
+        store.fetchPropertyKeys();
+        assertEquals(version, store.getVersion());
+    }
+
+    @Test
+    public void testDataVersionsOnlyIncrementedByTheirWrites() throws Exception {
+        long[] versions = getDataVersions();
+        store.storeTasks(createTasks(TestConstants.TASK_NAME));
+        versions = assertDataVersionsIncremented(versions, true, false, false);
+
+        store.storeStatus(TestConstants.TASK_NAME, TASK_STATUS);
+        versions = assertDataVersionsIncremented(versions, false, true, false);
+
+        store.storeGoalOverrideStatus(TestConstants.TASK_NAME,
+                GoalStateOverride.PAUSED.newStatus(GoalStateOverride.Progress.PENDING));
+        versions = assertDataVersionsIncremented(versions, false, true, false);
+
+        store.storeProperty(GOOD_PROPERTY_KEY, PROPERTY_VALUE.getBytes(StandardCharsets.UTF_8));
+        versions = assertDataVersionsIncremented(versions, false, false, true);
+
+        // Properties holding a task's status are reported as status changes too:
+        StateStoreUtils.storeTaskStatusAsProperty(store, TestConstants.TASK_NAME, TASK_STATUS);
+        versions = assertDataVersionsIncremented(versions, false, true, true);
+
+        store.clearTask(TestConstants.TASK_NAME);
+        versions = assertDataVersionsIncremented(versions, true, true, false);
+
+        store.markChanged();
+        assertDataVersionsIncremented(versions, true, true, true);
+    }
+
+    private long[] getDataVersions() {
+        return new long[] { store.getTaskInfoVersion(), store.getTaskStatusVersion(), store.getPropertyVersion() };
+    }
+
+    private long[] assertDataVersionsIncremented(
+            long[] previous, boolean taskInfos, boolean taskStatuses, boolean properties) {
+        long[] current = getDataVersions();
+        assertEquals(taskInfos, current[0] > previous[0]);
+        assertEquals(taskStatuses, current[1] > previous[1]);
+        assertEquals(properties, current[2] > previous[2]);
+        return current;
+    }
+
+    @Test
+    public void testTaskChangeListenerNotifiedOfWrittenTasks() throws Exception {
+        List<Collection<String>> changes = new ArrayList<>();
+        int[] reloads = {0};
+        store.addTaskChangeListener(new StateStore.TaskChangeListener() {
+            @Override
+            public void onTasksChanged(Collection<String> taskNames) {
+                changes.add(new ArrayList<>(taskNames));
+            }
+
+            @Override
+            public void onAllTasksChanged() {
+                reloads[0]++;
+            }
+        });
+
+        store.storeTasks(createTasks("a", "b"));
+        store.storeStatus("a", TASK_STATUS);
+        store.storeGoalOverrideStatus("b", GoalStateOverride.PAUSED.newStatus(GoalStateOverride.Progress.PENDING));
+        StateStoreUtils.storeTaskStatusAsProperty(store, "c", TASK_STATUS);
+        store.clearTask("b");
+        assertEquals(Arrays.asList(
+                Arrays.asList("a", "b"),
+                Collections.singletonList("a"),
+                Collections.singletonList("b"),
+                Collections.singletonList("c"),
+                Collections.singletonList("b")), changes);
+
+        // Unrelated properties don't affect any tasks:
+        store.storeProperty(GOOD_PROPERTY_KEY, PROPERTY_VALUE.getBytes(StandardCharsets.UTF_8));
+        store.clearProperty(GOOD_PROPERTY_KEY);
+        assertEquals(5, changes.size());
+        assertEquals(0, reloads[0]);
+
+        store.markChanged();
+        assertEquals(1, reloads[0]);
+    }
+
     @Test
     public void testNamespacedPathMapping() throws Exception {
         store = new StateStore(persister, NAMESPACE);
@@ -0,0 +1,139 @@
+package com.mesosphere.sdk.testing;
+
+import com.mesosphere.sdk.storage.MemPersister;
+import com.mesosphere.sdk.storage.Persister;
+import com.mesosphere.sdk.storage.PersisterException;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Persister} which passes calls through to an underlying {@link Persister}, while counting the operations
+ * which were performed. When used in place of ZooKeeper-backed storage, this gives an idea of the load which the
+ * scheduler would place on ZooKeeper. Each call counts as one operation, matching how multi-path calls are issued as a
+ * single ZooKeeper transaction. The number of individual paths written or deleted is also counted separately.
+ */
+public class CountingPersister implements Persister {
+
+    private final Persister persister;
+
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong deletes = new AtomicLong();
+    private final AtomicLong writtenPaths = new AtomicLong();
+    private final AtomicLong deletedPaths = new AtomicLong();
+
+    /**
+     * Creates a new instance which is backed by a new, empty {@link MemPersister}.
+     */
+    public CountingPersister() {
+        this(new MemPersister());
+    }
+
+    /**
+     * Creates a new instance which passes through to the provided {@link Persister}.
+     */
+    public CountingPersister(Persister persister) {
+        this.persister = persister;
+    }
+
+    @Override
+    public byte[] get(String path) throws PersisterException {
+        reads.incrementAndGet();
+        return persister.get(path);
+    }
+
+    @Override
+    public Collection<String> getChildren(String path) throws PersisterException {
+        reads.incrementAndGet();
+        return persister.getChildren(path);
+    }
+
+    @Override
+    public void set(String path, byte[] bytes) throws PersisterException {
+        writes.incrementAndGet();
+        writtenPaths.incrementAndGet();
+        persister.set(path, bytes);
+    }
+
+    @Override
+    public Map<String, byte[]> getMany(Collection<String> paths) throws PersisterException {
+        reads.incrementAndGet();
+        return persister.getMany(paths);
+    }
+
+    @Override
+    public void setMany(Map<String, byte[]> pathBytesMap) throws PersisterException {
+        writes.incrementAndGet();
+        writtenPaths.addAndGet(pathBytesMap.size());
+        persister.setMany(pathBytesMap);
+    }
+
+    @Override
+    public void recursiveDeleteMany(Collection<String> paths) throws PersisterException {
+        deletes.incrementAndGet();
+        deletedPaths.addAndGet(paths.size());
+        persister.recursiveDeleteMany(paths);
+    }
+
+    @Override
+    public void recursiveDelete(String path) throws PersisterException {
+        deletes.incrementAndGet();
+        deletedPaths.incrementAndGet();
+        persister.recursiveDelete(path);
+    }
+
+    @Override
+    public void close() {
+        persister.close();
+    }
+
+    /**
+     * Returns the number of read calls: {@link #get(String)}, {@link #getChildren(String)}, and
+     * {@link #getMany(Collection)}.
+     */
+    public long getReadCount() {
+        return reads.get();
+    }
+
+    /**
+     * Returns the number of write calls: {@link #set(String, byte[])} and {@link #setMany(Map)}.
+     */
+    public long getWriteCount() {
+        return writes.get();
+    }
+
+    /**
+     * Returns the number of delete calls: {@link #recursiveDelete(String)} and
+     * {@link #recursiveDeleteMany(Collection)}.
+     */
+    public long getDeleteCount() {
+        return deletes.get();
+    }
+
+    /**
+     * Returns the total number of paths which were written across all write calls.
+     */
+    public long getWrittenPathCount() {
+        return writtenPaths.get();
+    }
+
+    /**
+     * Returns the total number of paths which were deleted across all delete calls.
+     */
+    public long getDeletedPathCount() {
+        return deletedPaths.get();
+    }
+
+    /**
+     * Resets all counts to zero.
+     */
+    public void resetCounts() {
+        reads.set(0);
+        writes.set(0);
+        deletes.set(0);
+        writtenPaths.set(0);
+        deletedPaths.set(0);
+    }
+}
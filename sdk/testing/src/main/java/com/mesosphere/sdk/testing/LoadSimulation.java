@@ -0,0 +1,422 @@
+package com.mesosphere.sdk.testing;
+
+import com.mesosphere.sdk.offer.LoggingUtils;
+import com.mesosphere.sdk.scheduler.AbstractScheduler;
+import com.mesosphere.sdk.scheduler.plan.Plan;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A load simulation against a scheduler, as an alternative to hand-written {@link SimulationTick}s. Instead of a
+ * scripted sequence of offers and task statuses, the scheduler is run with threading enabled against a simulated Mesos
+ * cluster of many agents. The cluster generates offers, rescinds, task status updates, and failures from a seeded model.
+ *
+ * <p>The simulation first waits for the service to be fully deployed, then applies each of the configured
+ * {@link Event}s in order, waiting for the service to recover from each one before applying the next. Run a simulation
+ * via {@link ServiceTestRunner#runLoadSimulation(LoadSimulation)}, which returns a {@link LoadSimulationResult}
+ * containing offer latency percentiles, time to deploy, time to recover from each event, and storage operation
+ * counts.
+ *
+ * <p>The simulation runs in real time, as the scheduler's internal timers (e.g. revive throttling and reconciliation
+ * backoff) aren't simulated. Refuse durations in declined offers may be capped via
+ * {@link Builder#setMaxRefuseDuration(Duration)} to keep simulations short.
+ *
+ * <p>As simulations take a while to run, tests which run them should be skipped unless {@link #isEnabled()}. They may
+ * then be run with e.g. {@code ./gradlew :helloworld:test -PloadSimulation}.
+ */
+public class LoadSimulation {
+
+    /**
+     * System property which enables tests that run load simulations, see {@link #isEnabled()}.
+     */
+    public static final String ENABLED_PROPERTY = "sdk.loadSimulation";
+
+    private static final Logger LOGGER = LoggingUtils.getLogger(LoadSimulation.class);
+
+    /** How frequently the simulation checks whether the service has deployed or recovered. */
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(20);
+
+    /**
+     * Returns whether tests which run load simulations have been enabled via the {@link #ENABLED_PROPERTY} system
+     * property. This is set by the build when the {@code loadSimulation} project property is provided.
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    /**
+     * A disruption which is applied to the simulated cluster once the service has been deployed.
+     */
+    public static class Event {
+
+        /**
+         * The kinds of disruptions which may be simulated.
+         */
+        enum Type {
+            TASK_FAILURES,
+            AGENT_OUTAGE,
+            OFFER_STORM
+        }
+
+        private final Type type;
+        private final double fraction;
+        private final Duration downtime;
+
+        private Event(Type type, double fraction, Duration downtime) {
+            this.type = type;
+            this.fraction = fraction;
+            this.downtime = downtime;
+        }
+
+        /**
+         * Fails a random {@code fraction} (0.0-1.0) of the running tasks at once, as {@code TASK_FAILED}. The
+         * scheduler is expected to relaunch the tasks in place.
+         */
+        public static Event taskFailures(double fraction) {
+            return new Event(Type.TASK_FAILURES, validateFraction(fraction), Duration.ZERO);
+        }
+
+        /**
+         * Takes a random {@code fraction} (0.0-1.0) of agents offline for {@code downtime}. Tasks on those agents are
+         * reported as {@code TASK_LOST}, and any outstanding offers from those agents are rescinded. The agents then
+         * return with their reserved resources intact.
+         */
+        public static Event agentOutage(double fraction, Duration downtime) {
+            return new Event(Type.AGENT_OUTAGE, validateFraction(fraction), downtime);
+        }
+
+        /**
+         * Clears all offer filters and immediately offers every online agent to the scheduler at once, one offer per
+         * callback, as may happen following a Mesos master failover.
+         */
+        public static Event offerStorm() {
+            return new Event(Type.OFFER_STORM, 1.0, Duration.ZERO);
+        }
+
+        Type getType() {
+            return type;
+        }
+
+        double getFraction() {
+            return fraction;
+        }
+
+        Duration getDowntime() {
+            return downtime;
+        }
+
+        /**
+         * Returns a human-readable description of this event.
+         */
+        public String getDescription() {
+            switch (type) {
+                case TASK_FAILURES:
+                    return String.format("Fail %.0f%% of tasks", fraction * 100);
+                case AGENT_OUTAGE:
+                    return String.format("Outage of %.0f%% of agents for %dms", fraction * 100, downtime.toMillis());
+                case OFFER_STORM:
+                    return "Offer storm";
+                default:
+                    throw new IllegalStateException("Unsupported event type: " + type);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return getDescription();
+        }
+
+        private static double validateFraction(double fraction) {
+            if (fraction < 0 || fraction > 1) {
+                throw new IllegalArgumentException(String.format("Fraction must be in range [0.0, 1.0]: %f", fraction));
+            }
+            return fraction;
+        }
+    }
+
+    /**
+     * Builder for {@link LoadSimulation}.
+     */
+    public static class Builder {
+        private long seed = 0;
+        private int agentCount = 10;
+        private double agentCpus = 16;
+        private double agentMemoryMb = 64 * 1024;
+        private double agentDiskMb = 512 * 1024;
+        private int agentMountVolumes = 2;
+        private double agentMountVolumeSizeMb = 100 * 1024;
+        private long agentPortBegin = 1025;
+        private long agentPortEnd = 32000;
+        private Duration offerInterval = Duration.ofMillis(100);
+        private int offersPerCallback = 100;
+        private double rescindRate = 0;
+        private Duration minLaunchDelay = Duration.ofMillis(10);
+        private Duration maxLaunchDelay = Duration.ofMillis(50);
+        private Optional<Duration> maxRefuseDuration = Optional.empty();
+        private Duration timeout = Duration.ofMinutes(10);
+        private final List<Event> events = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the seed for the model, which determines e.g. the order of offers, which offers are rescinded, task
+         * launch delays, and which tasks or agents are affected by {@link Event}s. Default: 0
+         */
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets the number of agents in the simulated cluster. Default: 10
+         */
+        public Builder setAgentCount(int agentCount) {
+            this.agentCount = agentCount;
+            return this;
+        }
+
+        /**
+         * Sets the unreserved resources available on each agent. Defaults: 16 cpus, 64GB memory, 512GB disk
+         */
+        public Builder setAgentResources(double cpus, double memoryMb, double diskMb) {
+            this.agentCpus = cpus;
+            this.agentMemoryMb = memoryMb;
+            this.agentDiskMb = diskMb;
+            return this;
+        }
+
+        /**
+         * Sets the number and size of {@code MOUNT} volumes on each agent. Default: 2 volumes of 100GB
+         */
+        public Builder setAgentMountVolumes(int count, double sizeMb) {
+            this.agentMountVolumes = count;
+            this.agentMountVolumeSizeMb = sizeMb;
+            return this;
+        }
+
+        /**
+         * Sets the range of ports available on each agent. Default: 1025-32000
+         */
+        public Builder setAgentPorts(long begin, long end) {
+            this.agentPortBegin = begin;
+            this.agentPortEnd = end;
+            return this;
+        }
+
+        /**
+         * Sets how frequently offers are sent for agents which aren't already offered or filtered, equivalent to the
+         * Mesos master's allocation interval. Default: 100ms
+         */
+        public Builder setOfferInterval(Duration offerInterval) {
+            this.offerInterval = offerInterval;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of offers to be included in each call to the scheduler. Default: 100
+         */
+        public Builder setOffersPerCallback(int offersPerCallback) {
+            this.offersPerCallback = offersPerCallback;
+            return this;
+        }
+
+        /**
+         * Sets the fraction (0.0-1.0) of sent offers which are rescinded shortly after being sent, if they haven't
+         * been accepted or declined by then. Default: 0
+         */
+        public Builder setRescindRate(double rescindRate) {
+            this.rescindRate = Event.validateFraction(rescindRate);
+            return this;
+        }
+
+        /**
+         * Sets the range of delays between a task being launched and its initial status being sent to the scheduler.
+         * Default: 10-50ms
+         */
+        public Builder setLaunchDelay(Duration min, Duration max) {
+            if (min.compareTo(max) > 0) {
+                throw new IllegalArgumentException(String.format("Min delay %s exceeds max delay %s", min, max));
+            }
+            this.minLaunchDelay = min;
+            this.maxLaunchDelay = max;
+            return this;
+        }
+
+        /**
+         * Caps the refuse duration of offer filters, which are otherwise honored as Mesos would. For example the
+         * scheduler may decline offers for two weeks, relying on revives to get them back. Default: not capped
+         */
+        public Builder setMaxRefuseDuration(Duration maxRefuseDuration) {
+            this.maxRefuseDuration = Optional.of(maxRefuseDuration);
+            return this;
+        }
+
+        /**
+         * Sets the overall limit on the duration of the simulation. If the limit is reached, the simulation stops and
+         * any remaining durations are omitted from the result. Default: 10 minutes
+         */
+        public Builder setTimeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Adds an event to be applied after the service has deployed, or after the service has recovered from the
+         * previously added event.
+         */
+        public Builder addEvent(Event event) {
+            this.events.add(event);
+            return this;
+        }
+
+        public LoadSimulation build() {
+            return new LoadSimulation(this);
+        }
+    }
+
+    private final Builder builder;
+    private final List<Event> events;
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    private LoadSimulation(Builder builder) {
+        this.builder = builder;
+        this.events = Collections.unmodifiableList(new ArrayList<>(builder.events));
+    }
+
+    long getSeed() {
+        return builder.seed;
+    }
+
+    int getAgentCount() {
+        return builder.agentCount;
+    }
+
+    double getAgentCpus() {
+        return builder.agentCpus;
+    }
+
+    double getAgentMemoryMb() {
+        return builder.agentMemoryMb;
+    }
+
+    double getAgentDiskMb() {
+        return builder.agentDiskMb;
+    }
+
+    int getAgentMountVolumes() {
+        return builder.agentMountVolumes;
+    }
+
+    double getAgentMountVolumeSizeMb() {
+        return builder.agentMountVolumeSizeMb;
+    }
+
+    long getAgentPortBegin() {
+        return builder.agentPortBegin;
+    }
+
+    long getAgentPortEnd() {
+        return builder.agentPortEnd;
+    }
+
+    Duration getOfferInterval() {
+        return builder.offerInterval;
+    }
+
+    int getOffersPerCallback() {
+        return builder.offersPerCallback;
+    }
+
+    double getRescindRate() {
+        return builder.rescindRate;
+    }
+
+    Duration getMinLaunchDelay() {
+        return builder.minLaunchDelay;
+    }
+
+    Duration getMaxLaunchDelay() {
+        return builder.maxLaunchDelay;
+    }
+
+    Optional<Duration> getMaxRefuseDuration() {
+        return builder.maxRefuseDuration;
+    }
+
+    List<Event> getEvents() {
+        return events;
+    }
+
+    /**
+     * Runs the simulation against the provided scheduler, which must not have been started yet. The scheduler is
+     * started with threading enabled.
+     */
+    LoadSimulationResult run(AbstractScheduler scheduler, ServiceSpec serviceSpec, CountingPersister persister)
+            throws Exception {
+        SimulatedCluster cluster = new SimulatedCluster(this, serviceSpec, scheduler.getMesosScheduler().get());
+        List<LoadSimulationResult.Phase> phases = new ArrayList<>();
+        long deadlineNanos = System.nanoTime() + builder.timeout.toNanos();
+
+        scheduler.start();
+        try {
+            persister.resetCounts();
+            long startNanos = System.nanoTime();
+            cluster.startSimulation();
+            Optional<Duration> deployDuration = await(startNanos, deadlineNanos, () -> isComplete(scheduler));
+            phases.add(new LoadSimulationResult.Phase("Deploy", deployDuration, persister));
+            LOGGER.info("Deploy: {}", deployDuration.map(Duration::toString).orElse("timed out"));
+
+            if (deployDuration.isPresent()) {
+                for (Event event : events) {
+                    persister.resetCounts();
+                    int expectedRunningTasks = cluster.getRunningTaskCount();
+                    startNanos = System.nanoTime();
+                    cluster.apply(event);
+                    Optional<Duration> recoveryDuration = await(startNanos, deadlineNanos, () ->
+                            cluster.getRunningTaskCount() >= expectedRunningTasks
+                                    && !cluster.hasPendingStormOffers()
+                                    && isComplete(scheduler));
+                    phases.add(new LoadSimulationResult.Phase(event.getDescription(), recoveryDuration, persister));
+                    LOGGER.info("{}: {}",
+                            event.getDescription(), recoveryDuration.map(Duration::toString).orElse("timed out"));
+                    if (!recoveryDuration.isPresent()) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            cluster.stopSimulation();
+        }
+        return new LoadSimulationResult(phases, cluster.getStats());
+    }
+
+    private static boolean isComplete(AbstractScheduler scheduler) {
+        return scheduler.getPlans().stream().allMatch(Plan::isComplete);
+    }
+
+    /**
+     * Waits for the provided condition to be met, returning the time since {@code startNanos}, or an empty
+     * {@link Optional} if the deadline was reached first.
+     */
+    private static Optional<Duration> await(long startNanos, long deadlineNanos, BooleanSupplier condition)
+            throws InterruptedException {
+        while (System.nanoTime() < deadlineNanos) {
+            if (condition.getAsBoolean()) {
+                return Optional.of(Duration.ofNanos(System.nanoTime() - startNanos));
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,195 @@
+package com.mesosphere.sdk.testing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * The outcome of a {@link LoadSimulation}: how long each phase of the simulation took, what it cost in storage
+ * operations, and how quickly the scheduler responded to offers throughout.
+ */
+public class LoadSimulationResult {
+
+    /**
+     * A phase of the simulation: The initial deployment, or the recovery from an {@link LoadSimulation.Event}.
+     */
+    public static class Phase {
+        private final String name;
+        private final Optional<Duration> duration;
+        private final long reads;
+        private final long writes;
+        private final long writtenPaths;
+        private final long deletes;
+
+        Phase(String name, Optional<Duration> duration, CountingPersister persister) {
+            this.name = name;
+            this.duration = duration;
+            this.reads = persister.getReadCount();
+            this.writes = persister.getWriteCount();
+            this.writtenPaths = persister.getWrittenPathCount();
+            this.deletes = persister.getDeleteCount();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns how long the phase took to complete, or an empty {@link Optional} if the simulation timed out.
+         */
+        public Optional<Duration> getDuration() {
+            return duration;
+        }
+
+        public long getReadCount() {
+            return reads;
+        }
+
+        public long getWriteCount() {
+            return writes;
+        }
+
+        public long getWrittenPathCount() {
+            return writtenPaths;
+        }
+
+        public long getDeleteCount() {
+            return deletes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %s (storage: %d reads, %d writes of %d paths, %d deletes)",
+                    name,
+                    duration.map(d -> String.format("%dms", d.toMillis())).orElse("TIMED OUT"),
+                    reads, writes, writtenPaths, deletes);
+        }
+    }
+
+    private final List<Phase> phases;
+    private final List<Long> sortedLatenciesNanos;
+    private final long offersSent;
+    private final long offersAccepted;
+    private final long offersDeclined;
+    private final long offersRescinded;
+    private final long revives;
+    private final long tasksLaunched;
+    private final long tasksKilled;
+    private final long statusUpdates;
+
+    LoadSimulationResult(List<Phase> phases, SimulatedCluster.Stats stats) {
+        this.phases = Collections.unmodifiableList(new ArrayList<>(phases));
+        this.sortedLatenciesNanos = stats.offerLatenciesNanos.stream().sorted().collect(Collectors.toList());
+        this.offersSent = stats.offersSent.get();
+        this.offersAccepted = stats.offersAccepted.get();
+        this.offersDeclined = stats.offersDeclined.get();
+        this.offersRescinded = stats.offersRescinded.get();
+        this.revives = stats.revives.get();
+        this.tasksLaunched = stats.tasksLaunched.get();
+        this.tasksKilled = stats.tasksKilled.get();
+        this.statusUpdates = stats.statusUpdates.get();
+    }
+
+    /**
+     * Returns all phases of the simulation in the order they occurred. The first phase is always the deployment.
+     * Phases after a timed out phase are not run.
+     */
+    public List<Phase> getPhases() {
+        return phases;
+    }
+
+    /**
+     * Returns whether the service deployed and recovered from all events before the simulation timed out.
+     */
+    public boolean isComplete() {
+        return phases.stream().allMatch(phase -> phase.getDuration().isPresent());
+    }
+
+    /**
+     * Returns how long it took to complete all plans after the scheduler first registered, or an empty
+     * {@link Optional} if the deployment didn't finish before the simulation timed out.
+     */
+    public Optional<Duration> getTimeToDeploy() {
+        return phases.get(0).getDuration();
+    }
+
+    /**
+     * Returns how long it took to recover from each event, in the order that the events were applied.
+     */
+    public List<Optional<Duration>> getTimesToRecovery() {
+        return phases.subList(1, phases.size()).stream().map(Phase::getDuration).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the provided percentile (0-100) of the time taken by the scheduler to accept or decline each offer, or
+     * {@link Duration#ZERO} if no offers were responded to.
+     */
+    public Duration getOfferLatencyPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException(String.format("Percentile must be within [0, 100]: %f", percentile));
+        }
+        if (sortedLatenciesNanos.isEmpty()) {
+            return Duration.ZERO;
+        }
+        // Nearest-rank method:
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedLatenciesNanos.size());
+        return Duration.ofNanos(sortedLatenciesNanos.get(Math.max(0, rank - 1)));
+    }
+
+    public long getOffersSent() {
+        return offersSent;
+    }
+
+    public long getOffersAccepted() {
+        return offersAccepted;
+    }
+
+    public long getOffersDeclined() {
+        return offersDeclined;
+    }
+
+    public long getOffersRescinded() {
+        return offersRescinded;
+    }
+
+    public long getRevives() {
+        return revives;
+    }
+
+    public long getTasksLaunched() {
+        return tasksLaunched;
+    }
+
+    public long getTasksKilled() {
+        return tasksKilled;
+    }
+
+    public long getStatusUpdates() {
+        return statusUpdates;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Load simulation result:\n");
+        for (Phase phase : phases) {
+            sb.append("  ").append(phase).append('\n');
+        }
+        sb.append(String.format("  Offer latency: p50=%.3fms p90=%.3fms p99=%.3fms max=%.3fms%n",
+                toMillis(getOfferLatencyPercentile(50)),
+                toMillis(getOfferLatencyPercentile(90)),
+                toMillis(getOfferLatencyPercentile(99)),
+                toMillis(getOfferLatencyPercentile(100))));
+        sb.append(String.format("  Offers: %d sent, %d accepted, %d declined, %d rescinded, %d revives%n",
+                offersSent, offersAccepted, offersDeclined, offersRescinded, revives));
+        sb.append(String.format("  Tasks: %d launched, %d killed, %d status updates",
+                tasksLaunched, tasksKilled, statusUpdates));
+        return sb.toString();
+    }
+
+    private static double toMillis(Duration duration) {
+        return duration.toNanos() / 1000000.0;
+    }
+}
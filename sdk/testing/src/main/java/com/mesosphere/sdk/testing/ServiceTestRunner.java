@@ -2,6 +2,7 @@ package com.mesosphere.sdk.testing;
 
 import com.mesosphere.sdk.config.validate.ConfigValidator;
 import com.mesosphere.sdk.dcos.Capabilities;
+import com.mesosphere.sdk.dcos.DcosVersion;
 import com.mesosphere.sdk.offer.Constants;
 import com.mesosphere.sdk.offer.LoggingUtils;
 import com.mesosphere.sdk.offer.evaluate.PodInfoBuilder;
@@ -9,7 +10,6 @@ import com.mesosphere.sdk.scheduler.AbstractScheduler;
 import com.mesosphere.sdk.scheduler.DefaultScheduler;
 import com.mesosphere.sdk.scheduler.SchedulerBuilder;
 import com.mesosphere.sdk.scheduler.SchedulerConfig;
-import com.mesosphere.sdk.scheduler.TaskKiller;
 import com.mesosphere.sdk.scheduler.plan.DefaultPodInstance;
 import com.mesosphere.sdk.scheduler.recovery.RecoveryPlanOverriderFactory;
 import com.mesosphere.sdk.specification.*;
@@ -17,6 +17,7 @@ import com.mesosphere.sdk.specification.yaml.RawServiceSpec;
 import com.mesosphere.sdk.specification.yaml.TemplateUtils;
 import com.mesosphere.sdk.storage.MemPersister;
 import com.mesosphere.sdk.storage.Persister;
+import com.mesosphere.sdk.storage.PersisterCache;
 import org.apache.mesos.SchedulerDriver;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
@@ -26,7 +27,7 @@ import java.util.*;
 
 /**
  * Exercises the service's packaging and Service Specification YAML file by building a Scheduler object against it, then
- * optionally running a series of {@link SimulationTick}s against the result.
+ * optionally running a series of {@link SimulationTick}s or a {@link LoadSimulation} against the result.
  */
 public class ServiceTestRunner {
 
@@ -312,9 +313,6 @@ public class ServiceTestRunner {
         Mockito.when(mockCapabilities.supportsDefaultExecutor()).thenReturn(supportsDefaultExecutor);
         Capabilities.overrideCapabilities(mockCapabilities);
 
-        // Disable background TaskKiller thread, to avoid erroneous kill invocations
-        TaskKiller.reset(false);
-
         Map<String, String> schedulerEnvironment =
                 CosmosRenderer.renderSchedulerEnvironment(cosmosOptions, buildTemplateParams);
         schedulerEnvironment.putAll(customSchedulerEnv);
@@ -332,7 +330,9 @@ public class ServiceTestRunner {
         SchedulerBuilder schedulerBuilder = DefaultScheduler.newBuilder(serviceSpec, mockSchedulerConfig, persister)
                 .setPlansFrom(rawServiceSpec)
                 .setRecoveryManagerFactory(recoveryManagerFactory)
-                .setCustomConfigValidators(validators);
+                .setCustomConfigValidators(validators)
+                // Disable background TaskKiller retries, to avoid erroneous kill invocations
+                .disableTaskKillRetries();
         if (namespace.isPresent()) {
             schedulerBuilder.setNamespace(namespace.get());
         }
@@ -373,13 +373,83 @@ public class ServiceTestRunner {
         // Reset Capabilities API to default behavior:
         Capabilities.overrideCapabilities(null);
 
-        // Re-enable background TaskKiller thread for other tests
-        TaskKiller.reset(true);
-
         return new ServiceTestResult(
                 serviceSpec, rawServiceSpec, schedulerEnvironment, taskConfigs, persister, clusterState);
     }
 
+    /**
+     * Exercises the service's packaging and resulting Service Specification YAML file, then runs the scheduler against
+     * a simulated cluster as configured by the provided {@link LoadSimulation}. Unlike {@link #run(Collection)}, the
+     * scheduler is run with its threading enabled, as it would be in production.
+     *
+     * <p>Any storage provided via {@link #setState(ServiceTestResult)} is used as the scheduler's initial state, and
+     * the simulated cluster always starts out empty.
+     *
+     * @return a {@link LoadSimulationResult} containing timings and operation counts from the simulation
+     * @throws Exception if the scheduler couldn't be built, or if the simulation was interrupted
+     */
+    public LoadSimulationResult runLoadSimulation(LoadSimulation simulation) throws Exception {
+        Map<String, String> schedulerEnvironment =
+                CosmosRenderer.renderSchedulerEnvironment(cosmosOptions, buildTemplateParams);
+        schedulerEnvironment.putAll(customSchedulerEnv);
+
+        // Use real objects rather than mocks: mocks would record every call made over the course of the simulation.
+        Map<String, String> configEnvironment = new HashMap<>();
+        configEnvironment.put("EXECUTOR_URI", "test-executor-uri");
+        configEnvironment.put("LIBMESOS_URI", "test-libmesos-uri");
+        configEnvironment.put("JAVA_URI", "test-java-uri");
+        configEnvironment.put("BOOTSTRAP_URI", "bootstrap-uri");
+        configEnvironment.put("JAVA_HOME", "test-java-home");
+        configEnvironment.put("PORT_API", "8080");
+        configEnvironment.putAll(schedulerEnvironment);
+        SchedulerConfig schedulerConfig = SchedulerConfig.fromMap(configEnvironment);
+
+        final boolean supportsDefaultExecutor = this.supportsDefaultExecutor;
+        Capabilities.overrideCapabilities(new Capabilities(new DcosVersion("1.11.0")) {
+            @Override
+            public boolean supportsDefaultExecutor() {
+                return supportsDefaultExecutor;
+            }
+        });
+
+        try {
+            RawServiceSpec rawServiceSpec = RawServiceSpec.newBuilder(specPath)
+                    .setEnv(schedulerEnvironment)
+                    .build();
+            ServiceSpec serviceSpec = DefaultServiceSpec.newGenerator(
+                    rawServiceSpec, schedulerConfig, schedulerEnvironment, configTemplateDir).build();
+
+            // Count the operations which reach storage, after any caching performed by the scheduler:
+            CountingPersister countingPersister = new CountingPersister(persister);
+            Persister schedulerPersister = schedulerConfig.isStateCacheEnabled()
+                    ? new PersisterCache(countingPersister)
+                    : countingPersister;
+            SchedulerBuilder schedulerBuilder =
+                    DefaultScheduler.newBuilder(serviceSpec, schedulerConfig, schedulerPersister)
+                            .setPlansFrom(rawServiceSpec)
+                            .setRecoveryManagerFactory(recoveryManagerFactory)
+                            .setCustomConfigValidators(validators);
+            if (namespace.isPresent()) {
+                schedulerBuilder.setNamespace(namespace.get());
+            }
+            AbstractScheduler scheduler = schedulerBuilder
+                    .build()
+                    .disableApiServer();
+
+            LoadSimulationResult result;
+            try {
+                result = simulation.run(scheduler, serviceSpec, countingPersister);
+            } finally {
+                scheduler.stop();
+            }
+            LOGGER.info("{}", result);
+            return result;
+        } finally {
+            // Reset Capabilities API to default behavior:
+            Capabilities.overrideCapabilities(null);
+        }
+    }
+
     private static AssertionError buildSimulationError(
             Collection<SimulationTick> allTicks, SimulationTick failedTick, Throwable originalError) {
         StringJoiner errorRows = new StringJoiner("\n");
@@ -0,0 +1,917 @@
+package com.mesosphere.sdk.testing;
+
+import com.google.protobuf.TextFormat;
+import com.mesosphere.sdk.offer.LoggingUtils;
+import com.mesosphere.sdk.offer.ResourceUtils;
+import com.mesosphere.sdk.offer.TaskUtils;
+import com.mesosphere.sdk.offer.ValueUtils;
+import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
+import com.mesosphere.sdk.scheduler.plan.DefaultPodInstance;
+import com.mesosphere.sdk.specification.GoalState;
+import com.mesosphere.sdk.specification.PodSpec;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import org.apache.mesos.Protos;
+import org.apache.mesos.Scheduler;
+import org.apache.mesos.SchedulerDriver;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * A simulated Mesos master and its agents, which is presented to the scheduler as a {@link SchedulerDriver}.
+ *
+ * <p>Agents offer their unreserved resources, along with any resources reserved by the scheduler which aren't in use by
+ * a task or executor. Accepted operations are applied to the agent: reservations and volumes are tracked by resource
+ * ID, and launched tasks consume the reserved resources they reference until they exit. Offer filters from declines and
+ * accepts are honored, and revives clear them.
+ *
+ * <p>All of the cluster's state is only accessed from a single "master" thread, which is also the thread that calls into
+ * the scheduler, just as the Mesos driver would. Calls from the scheduler into this driver are recorded and then handed
+ * off to the master thread.
+ */
+class SimulatedCluster implements SchedulerDriver {
+
+    private static final Logger LOGGER = LoggingUtils.getLogger(SimulatedCluster.class);
+
+    private static final Protos.FrameworkID FRAMEWORK_ID =
+            Protos.FrameworkID.newBuilder().setValue("simulated-framework-id").build();
+    /** Mesos' default refuse duration when the scheduler doesn't specify one. */
+    private static final Duration DEFAULT_REFUSE_DURATION = Duration.ofSeconds(5);
+    private static final double EPSILON = 0.0001;
+
+    /**
+     * Statistics gathered over the course of a simulation. Safe to read from any thread.
+     */
+    static class Stats {
+        final AtomicLong offersSent = new AtomicLong();
+        final AtomicLong offersAccepted = new AtomicLong();
+        final AtomicLong offersDeclined = new AtomicLong();
+        final AtomicLong offersRescinded = new AtomicLong();
+        final AtomicLong revives = new AtomicLong();
+        final AtomicLong tasksLaunched = new AtomicLong();
+        final AtomicLong tasksKilled = new AtomicLong();
+        final AtomicLong statusUpdates = new AtomicLong();
+        /** Time between each offer being sent and its being accepted or declined, in nanoseconds. */
+        final Collection<Long> offerLatenciesNanos = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * A simulated agent. Only accessed from the master thread.
+     */
+    private static class Agent {
+        private final Protos.SlaveID id;
+        private final String hostname;
+        private final String rack;
+
+        /** Unreserved resources by name, excluding mount volumes. */
+        private final Map<String, Protos.Value> unreserved = new LinkedHashMap<>();
+        /** Unreserved mount volumes by their root path. */
+        private final Map<String, Protos.Resource> unreservedMounts = new LinkedHashMap<>();
+        /** Resources reserved by the scheduler, by resource ID. */
+        private final Map<String, Protos.Resource> reserved = new LinkedHashMap<>();
+        /** Resource IDs which are in use by a task or executor. */
+        private final Set<String> inUse = new HashSet<>();
+        /** Running executors, mapped to the resource IDs they are using. */
+        private final Map<Protos.ExecutorID, Collection<String>> executors = new HashMap<>();
+
+        private boolean online = true;
+        private Optional<Protos.OfferID> outstandingOffer = Optional.empty();
+        private long filteredUntilNanos = 0;
+
+        private Agent(int index) {
+            this.id = Protos.SlaveID.newBuilder().setValue(String.format("agent-%d", index)).build();
+            this.hostname = String.format("agent-%d.simulated", index);
+            this.rack = String.format("rack-%d", index % 10);
+        }
+    }
+
+    /**
+     * A task which has been launched on an agent. Only accessed from the master thread.
+     */
+    private static class Task {
+        private final Protos.TaskInfo taskInfo;
+        private final Agent agent;
+        private final Protos.ExecutorID executorId;
+        private final Collection<String> resourceIds;
+        private Protos.TaskStatus status;
+
+        private Task(Protos.TaskInfo taskInfo, Agent agent, Protos.ExecutorID executorId) {
+            this.taskInfo = taskInfo;
+            this.agent = agent;
+            this.executorId = executorId;
+            this.resourceIds = ResourceUtils.getResourceIds(taskInfo.getResourcesList());
+        }
+
+        private boolean isActive() {
+            return status == null || !TaskUtils.isTerminal(status);
+        }
+    }
+
+    private final LoadSimulation simulation;
+    private final ServiceSpec serviceSpec;
+    private final Scheduler scheduler;
+    private final Random random;
+    private final Stats stats = new Stats();
+
+    private final ScheduledExecutorService master = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "simulated-master");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only accessed from the master thread:
+    private final List<Agent> agents = new ArrayList<>();
+    private final Map<Protos.OfferID, Agent> offers = new HashMap<>();
+    private final Map<Protos.TaskID, Task> tasks = new HashMap<>();
+    private long offerCounter = 0;
+    private boolean suppressed = false;
+
+    // Accessed from any thread:
+    private final Map<Protos.OfferID, Long> offerSentNanos = new ConcurrentHashMap<>();
+    private final Set<Protos.OfferID> pendingStormOffers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger runningTasks = new AtomicInteger();
+
+    SimulatedCluster(LoadSimulation simulation, ServiceSpec serviceSpec, Scheduler scheduler) {
+        this.simulation = simulation;
+        this.serviceSpec = serviceSpec;
+        this.scheduler = scheduler;
+        this.random = new Random(simulation.getSeed());
+        for (int i = 0; i < simulation.getAgentCount(); ++i) {
+            agents.add(newAgent(i));
+        }
+    }
+
+    /**
+     * Registers the scheduler and starts sending offers.
+     */
+    void startSimulation() throws InterruptedException, ExecutionException {
+        master.submit(() -> scheduler.registered(
+                this,
+                FRAMEWORK_ID,
+                Protos.MasterInfo.newBuilder().setId("simulated-master").setIp(0).setPort(5050).build()))
+                .get();
+        long intervalMs = simulation.getOfferInterval().toMillis();
+        master.scheduleAtFixedRate(this::sendOffers, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Applies the provided event to the cluster, returning once any resulting status updates have been sent.
+     */
+    void apply(LoadSimulation.Event event) throws InterruptedException, ExecutionException {
+        master.submit(() -> {
+            switch (event.getType()) {
+                case TASK_FAILURES:
+                    failTasks(event.getFraction());
+                    break;
+                case AGENT_OUTAGE:
+                    disconnectAgents(event.getFraction(), event.getDowntime());
+                    break;
+                case OFFER_STORM:
+                    sendOfferStorm();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported event: " + event);
+            }
+        }).get();
+    }
+
+    /**
+     * Stops all activity in the cluster. Any later calls from the scheduler are ignored.
+     */
+    void stopSimulation() {
+        master.shutdownNow();
+    }
+
+    /**
+     * Returns the number of tasks which are currently in {@code TASK_RUNNING} state.
+     */
+    int getRunningTaskCount() {
+        return runningTasks.get();
+    }
+
+    /**
+     * Returns whether any offers sent by an {@link LoadSimulation.Event#offerStorm()} haven't yet been accepted,
+     * declined, or rescinded.
+     */
+    boolean hasPendingStormOffers() {
+        return !pendingStormOffers.isEmpty();
+    }
+
+    Stats getStats() {
+        return stats;
+    }
+
+    // Master thread: offers
+
+    private void sendOffers() {
+        try {
+            long nowNanos = System.nanoTime();
+            List<Protos.Offer> batch = new ArrayList<>();
+            for (Agent agent : shuffledAgents()) {
+                if (suppressed || agent.filteredUntilNanos > nowNanos) {
+                    continue;
+                }
+                Optional<Protos.Offer> offer = createOffer(agent);
+                if (!offer.isPresent()) {
+                    continue;
+                }
+                batch.add(offer.get());
+                if (batch.size() >= simulation.getOffersPerCallback()) {
+                    deliverOffers(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                deliverOffers(batch);
+            }
+        } catch (Throwable t) {
+            // Avoid killing the periodic task:
+            LOGGER.error("Failed to send offers", t);
+        }
+    }
+
+    private void sendOfferStorm() {
+        for (Agent agent : shuffledAgents()) {
+            agent.filteredUntilNanos = 0;
+            Optional<Protos.Offer> offer = createOffer(agent);
+            if (offer.isPresent()) {
+                pendingStormOffers.add(offer.get().getId());
+                deliverOffers(Collections.singletonList(offer.get()));
+            }
+        }
+    }
+
+    private List<Agent> shuffledAgents() {
+        List<Agent> shuffled = new ArrayList<>(agents);
+        Collections.shuffle(shuffled, random);
+        return shuffled;
+    }
+
+    private void deliverOffers(List<Protos.Offer> offersToSend) {
+        long nowNanos = System.nanoTime();
+        for (Protos.Offer offer : offersToSend) {
+            offerSentNanos.put(offer.getId(), nowNanos);
+        }
+        stats.offersSent.addAndGet(offersToSend.size());
+        scheduler.resourceOffers(this, offersToSend);
+
+        for (Protos.Offer offer : offersToSend) {
+            if (random.nextDouble() < simulation.getRescindRate()) {
+                long delayMs = random.nextInt((int) Math.max(1, simulation.getOfferInterval().toMillis()));
+                master.schedule(() -> rescind(offer.getId()), delayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void rescind(Protos.OfferID offerId) {
+        Agent agent = offers.remove(offerId);
+        if (agent == null) {
+            // Already accepted or declined.
+            return;
+        }
+        agent.outstandingOffer = Optional.empty();
+        offerSentNanos.remove(offerId);
+        pendingStormOffers.remove(offerId);
+        stats.offersRescinded.incrementAndGet();
+        scheduler.offerRescinded(this, offerId);
+    }
+
+    private Optional<Protos.Offer> createOffer(Agent agent) {
+        if (!agent.online || agent.outstandingOffer.isPresent()) {
+            return Optional.empty();
+        }
+
+        List<Protos.Resource> resources = new ArrayList<>();
+        for (Map.Entry<String, Protos.Value> entry : agent.unreserved.entrySet()) {
+            if (!isEmpty(entry.getValue())) {
+                resources.add(toUnreservedResource(entry.getKey(), entry.getValue()));
+            }
+        }
+        resources.addAll(agent.unreservedMounts.values());
+        for (Map.Entry<String, Protos.Resource> entry : agent.reserved.entrySet()) {
+            if (!agent.inUse.contains(entry.getKey())) {
+                resources.add(entry.getValue());
+            }
+        }
+        if (resources.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Protos.Offer.Builder offerBuilder = Protos.Offer.newBuilder()
+                .setId(Protos.OfferID.newBuilder().setValue(String.format("offer-%d", ++offerCounter)))
+                .setFrameworkId(FRAMEWORK_ID)
+                .setSlaveId(agent.id)
+                .setHostname(agent.hostname)
+                .addAllResources(resources)
+                .addAllExecutorIds(agent.executors.keySet());
+        offerBuilder.addAttributesBuilder()
+                .setName("rack")
+                .setType(Protos.Value.Type.TEXT)
+                .getTextBuilder().setValue(agent.rack);
+        Protos.Offer offer = offerBuilder.build();
+
+        agent.outstandingOffer = Optional.of(offer.getId());
+        offers.put(offer.getId(), agent);
+        return Optional.of(offer);
+    }
+
+    /**
+     * Handles an accept or decline of the provided offers, which are no longer outstanding afterwards.
+     *
+     * @return the agent which sent the offers, or an empty {@link Optional} if any of the offers were no longer valid
+     */
+    private Optional<Agent> closeOffers(Collection<Protos.OfferID> offerIds, Protos.Filters filters) {
+        Agent offerAgent = null;
+        boolean valid = true;
+        for (Protos.OfferID offerId : offerIds) {
+            pendingStormOffers.remove(offerId);
+            Agent agent = offers.remove(offerId);
+            if (agent == null || (offerAgent != null && offerAgent != agent)) {
+                LOGGER.warn("Scheduler used invalid offer: {}", offerId.getValue());
+                valid = false;
+                continue;
+            }
+            offerAgent = agent;
+            agent.outstandingOffer = Optional.empty();
+            Duration refuse = filters.hasRefuseSeconds()
+                    ? Duration.ofMillis((long) (filters.getRefuseSeconds() * 1000))
+                    : DEFAULT_REFUSE_DURATION;
+            if (simulation.getMaxRefuseDuration().isPresent()
+                    && refuse.compareTo(simulation.getMaxRefuseDuration().get()) > 0) {
+                refuse = simulation.getMaxRefuseDuration().get();
+            }
+            agent.filteredUntilNanos = System.nanoTime() + refuse.toNanos();
+        }
+        return valid ? Optional.ofNullable(offerAgent) : Optional.empty();
+    }
+
+    // Master thread: operations
+
+    private void accept(Collection<Protos.OfferID> offerIds, Collection<Protos.Offer.Operation> operations,
+            Protos.Filters filters) {
+        Optional<Agent> agent = closeOffers(offerIds, filters);
+        if (!agent.isPresent()) {
+            // Mesos drops all operations against invalid offers. Any launched tasks are reported as lost.
+            for (Protos.TaskInfo taskInfo : getLaunchedTasks(operations)) {
+                sendStatus(taskInfo.getTaskId(), taskInfo.getSlaveId(),
+                        Protos.TaskState.TASK_LOST, Protos.TaskStatus.Reason.REASON_INVALID_OFFERS,
+                        "Task launched with invalid offers");
+            }
+            return;
+        }
+        for (Protos.Offer.Operation operation : operations) {
+            switch (operation.getType()) {
+                case RESERVE:
+                    reserve(agent.get(), operation.getReserve().getResourcesList());
+                    break;
+                case UNRESERVE:
+                    unreserve(agent.get(), operation.getUnreserve().getResourcesList());
+                    break;
+                case CREATE:
+                    putReserved(agent.get(), operation.getCreate().getVolumesList());
+                    break;
+                case DESTROY:
+                    destroy(agent.get(), operation.getDestroy().getVolumesList());
+                    break;
+                case LAUNCH:
+                    for (Protos.TaskInfo taskInfo : operation.getLaunch().getTaskInfosList()) {
+                        Protos.ExecutorInfo executorInfo = taskInfo.hasExecutor()
+                                ? taskInfo.getExecutor()
+                                : Protos.ExecutorInfo.newBuilder()
+                                        .setExecutorId(Protos.ExecutorID.newBuilder()
+                                                .setValue(taskInfo.getTaskId().getValue()))
+                                        .buildPartial();
+                        launch(agent.get(), executorInfo, Collections.singletonList(taskInfo));
+                    }
+                    break;
+                case LAUNCH_GROUP:
+                    launch(agent.get(),
+                            operation.getLaunchGroup().getExecutor(),
+                            operation.getLaunchGroup().getTaskGroup().getTasksList());
+                    break;
+                default:
+                    LOGGER.warn("Ignoring unsupported operation: {}", TextFormat.shortDebugString(operation));
+                    break;
+            }
+        }
+    }
+
+    private void reserve(Agent agent, Collection<Protos.Resource> resources) {
+        for (Protos.Resource resource : resources) {
+            Optional<String> sourceRoot = ResourceUtils.getSourceRoot(resource);
+            if (sourceRoot.isPresent()) {
+                if (agent.unreservedMounts.remove(sourceRoot.get()) == null) {
+                    LOGGER.warn("Reserved mount volume not available on {}: {}",
+                            agent.hostname, TextFormat.shortDebugString(resource));
+                }
+            } else {
+                Protos.Value available = agent.unreserved.get(resource.getName());
+                if (available == null) {
+                    LOGGER.warn("Reserved resource not available on {}: {}",
+                            agent.hostname, TextFormat.shortDebugString(resource));
+                } else {
+                    agent.unreserved.put(
+                            resource.getName(), ValueUtils.subtract(available, ValueUtils.getValue(resource)));
+                }
+            }
+        }
+        putReserved(agent, resources);
+    }
+
+    private void unreserve(Agent agent, Collection<Protos.Resource> resources) {
+        for (Protos.Resource resource : resources) {
+            Optional<String> resourceId = ResourceUtils.getResourceId(resource);
+            if (!resourceId.isPresent() || agent.reserved.remove(resourceId.get()) == null) {
+                LOGGER.warn("Unreserved resource wasn't reserved on {}: {}",
+                        agent.hostname, TextFormat.shortDebugString(resource));
+                continue;
+            }
+            Optional<String> sourceRoot = ResourceUtils.getSourceRoot(resource);
+            if (sourceRoot.isPresent()) {
+                agent.unreservedMounts.put(
+                        sourceRoot.get(), toUnreservedMount(sourceRoot.get(), ValueUtils.getValue(resource)));
+            } else {
+                agent.unreserved.merge(resource.getName(), ValueUtils.getValue(resource), ValueUtils::add);
+            }
+        }
+    }
+
+    private void destroy(Agent agent, Collection<Protos.Resource> volumes) {
+        List<Protos.Resource> destroyed = new ArrayList<>();
+        for (Protos.Resource volume : volumes) {
+            Protos.Resource.Builder builder = volume.toBuilder();
+            builder.getDiskBuilder().clearPersistence().clearVolume();
+            destroyed.add(builder.build());
+        }
+        putReserved(agent, destroyed);
+    }
+
+    private static void putReserved(Agent agent, Collection<Protos.Resource> resources) {
+        for (Protos.Resource resource : resources) {
+            Optional<String> resourceId = ResourceUtils.getResourceId(resource);
+            if (resourceId.isPresent()) {
+                agent.reserved.put(resourceId.get(), resource);
+            } else {
+                LOGGER.warn("Ignoring reserved resource without a resource ID on {}: {}",
+                        agent.hostname, TextFormat.shortDebugString(resource));
+            }
+        }
+    }
+
+    private void launch(Agent agent, Protos.ExecutorInfo executorInfo, Collection<Protos.TaskInfo> taskInfos) {
+        Protos.ExecutorID executorId = executorInfo.getExecutorId();
+        if (!agent.executors.containsKey(executorId)) {
+            Collection<String> executorResourceIds = ResourceUtils.getResourceIds(executorInfo.getResourcesList());
+            if (!isAvailable(agent, executorResourceIds)) {
+                for (Protos.TaskInfo taskInfo : taskInfos) {
+                    sendStatus(taskInfo.getTaskId(), agent.id, Protos.TaskState.TASK_ERROR,
+                            Protos.TaskStatus.Reason.REASON_TASK_INVALID, "Executor resources aren't available");
+                }
+                return;
+            }
+            agent.inUse.addAll(executorResourceIds);
+            agent.executors.put(executorId, executorResourceIds);
+        }
+
+        for (Protos.TaskInfo taskInfo : taskInfos) {
+            Task task = new Task(taskInfo, agent, executorId);
+            if (!isAvailable(agent, task.resourceIds)) {
+                tasks.put(taskInfo.getTaskId(), task);
+                updateTask(task, Protos.TaskState.TASK_ERROR,
+                        Protos.TaskStatus.Reason.REASON_TASK_INVALID, "Task resources aren't available");
+                continue;
+            }
+            agent.inUse.addAll(task.resourceIds);
+            tasks.put(taskInfo.getTaskId(), task);
+            stats.tasksLaunched.incrementAndGet();
+
+            long minDelayMs = simulation.getMinLaunchDelay().toMillis();
+            long delayMs = minDelayMs +
+                    (long) (random.nextDouble() * (simulation.getMaxLaunchDelay().toMillis() - minDelayMs));
+            master.schedule(() -> startTask(task), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void startTask(Task task) {
+        if (!task.isActive() || tasks.get(task.taskInfo.getTaskId()) != task) {
+            // Killed or lost in the meantime.
+            return;
+        }
+        if (getGoalState(task.taskInfo) == GoalState.RUNNING) {
+            updateTask(task, Protos.TaskState.TASK_RUNNING, null, "Task is running");
+        } else {
+            updateTask(task, Protos.TaskState.TASK_FINISHED, null, "Task has finished");
+        }
+    }
+
+    private static boolean isAvailable(Agent agent, Collection<String> resourceIds) {
+        for (String resourceId : resourceIds) {
+            if (!agent.reserved.containsKey(resourceId) || agent.inUse.contains(resourceId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Master thread: failures
+
+    private void failTasks(double fraction) {
+        List<Task> running = tasks.values().stream()
+                .filter(task -> task.status != null && task.status.getState() == Protos.TaskState.TASK_RUNNING)
+                .collect(Collectors.toList());
+        Collections.shuffle(running, random);
+        int count = (int) Math.round(running.size() * fraction);
+        LOGGER.info("Failing {} of {} running tasks", count, running.size());
+        for (Task task : running.subList(0, count)) {
+            updateTask(task, Protos.TaskState.TASK_FAILED,
+                    Protos.TaskStatus.Reason.REASON_COMMAND_EXECUTOR_FAILED, "Simulated task failure");
+        }
+    }
+
+    private void disconnectAgents(double fraction, Duration downtime) {
+        List<Agent> affected = shuffledAgents();
+        affected = affected.subList(0, (int) Math.round(affected.size() * fraction));
+        LOGGER.info("Disconnecting {} of {} agents for {}ms", affected.size(), agents.size(), downtime.toMillis());
+        for (Agent agent : affected) {
+            agent.online = false;
+            if (agent.outstandingOffer.isPresent()) {
+                rescind(agent.outstandingOffer.get());
+            }
+            for (Task task : new ArrayList<>(tasks.values())) {
+                if (task.agent == agent && task.isActive()) {
+                    updateTask(task, Protos.TaskState.TASK_LOST,
+                            Protos.TaskStatus.Reason.REASON_SLAVE_REMOVED, "Simulated agent outage");
+                }
+            }
+            master.schedule(() -> {
+                LOGGER.info("Reconnecting agent {}", agent.hostname);
+                agent.online = true;
+            }, downtime.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Master thread: task status
+
+    /**
+     * Updates the state of the provided task and sends the resulting status to the scheduler. Resources are released
+     * if the task has exited.
+     */
+    private void updateTask(Task task, Protos.TaskState state, Protos.TaskStatus.Reason reason, String message) {
+        boolean wasRunning = task.status != null && task.status.getState() == Protos.TaskState.TASK_RUNNING;
+        task.status = buildStatus(task.taskInfo.getTaskId(), task.agent.id, state, reason, message);
+        if (!wasRunning && state == Protos.TaskState.TASK_RUNNING) {
+            runningTasks.incrementAndGet();
+        } else if (wasRunning && state != Protos.TaskState.TASK_RUNNING) {
+            runningTasks.decrementAndGet();
+        }
+
+        if (!task.isActive()) {
+            task.agent.inUse.removeAll(task.resourceIds);
+            boolean executorInUse = tasks.values().stream()
+                    .anyMatch(t -> t.agent == task.agent && t.executorId.equals(task.executorId) && t.isActive());
+            if (!executorInUse) {
+                Collection<String> executorResourceIds = task.agent.executors.remove(task.executorId);
+                if (executorResourceIds != null) {
+                    task.agent.inUse.removeAll(executorResourceIds);
+                }
+            }
+        }
+        deliverStatus(task.status);
+    }
+
+    private void sendStatus(
+            Protos.TaskID taskId,
+            Protos.SlaveID agentId,
+            Protos.TaskState state,
+            Protos.TaskStatus.Reason reason,
+            String message) {
+        deliverStatus(buildStatus(taskId, agentId, state, reason, message));
+    }
+
+    private void deliverStatus(Protos.TaskStatus status) {
+        stats.statusUpdates.incrementAndGet();
+        scheduler.statusUpdate(this, status);
+    }
+
+    private static Protos.TaskStatus buildStatus(
+            Protos.TaskID taskId,
+            Protos.SlaveID agentId,
+            Protos.TaskState state,
+            Protos.TaskStatus.Reason reason,
+            String message) {
+        Protos.TaskStatus.Builder statusBuilder = Protos.TaskStatus.newBuilder()
+                .setTaskId(taskId)
+                .setSlaveId(agentId)
+                .setState(state)
+                .setMessage(message)
+                .setTimestamp(System.currentTimeMillis() / 1000.0);
+        if (reason != null) {
+            statusBuilder.setReason(reason);
+        }
+        if (state == Protos.TaskState.TASK_RUNNING) {
+            // Any readiness check passes immediately:
+            statusBuilder.getCheckStatusBuilder()
+                    .setType(Protos.CheckInfo.Type.COMMAND)
+                    .getCommandBuilder().setExitCode(0);
+        }
+        return statusBuilder.build();
+    }
+
+    private void reconcile(Collection<Protos.TaskStatus> statuses) {
+        if (statuses.isEmpty()) {
+            // Implicit reconciliation: Send the latest status of all active tasks.
+            for (Task task : tasks.values()) {
+                if (task.isActive() && task.status != null) {
+                    deliverStatus(task.status);
+                }
+            }
+            return;
+        }
+        for (Protos.TaskStatus status : statuses) {
+            Task task = tasks.get(status.getTaskId());
+            if (task != null && task.status != null) {
+                deliverStatus(task.status);
+            } else if (task == null) {
+                sendStatus(status.getTaskId(), status.getSlaveId(), Protos.TaskState.TASK_LOST,
+                        Protos.TaskStatus.Reason.REASON_RECONCILIATION, "Task is unknown to the master");
+            }
+            // Otherwise the task is still launching, and its status will be sent once it's started.
+        }
+    }
+
+    private void kill(Protos.TaskID taskId) {
+        Task task = tasks.get(taskId);
+        if (task == null || !task.isActive()) {
+            sendStatus(taskId, task == null ? Protos.SlaveID.newBuilder().setValue("unknown").build() : task.agent.id,
+                    Protos.TaskState.TASK_LOST, Protos.TaskStatus.Reason.REASON_RECONCILIATION,
+                    "Task is unknown to the master");
+            return;
+        }
+        stats.tasksKilled.incrementAndGet();
+        updateTask(task, Protos.TaskState.TASK_KILLED, null, "Task was killed");
+    }
+
+    private GoalState getGoalState(Protos.TaskInfo taskInfo) {
+        try {
+            TaskLabelReader reader = new TaskLabelReader(taskInfo);
+            String podType = reader.getType();
+            Optional<PodSpec> podSpec = serviceSpec.getPods().stream()
+                    .filter(pod -> pod.getType().equals(podType))
+                    .findAny();
+            if (podSpec.isPresent()) {
+                return TaskUtils.getGoalState(
+                        new DefaultPodInstance(podSpec.get(), reader.getIndex()), taskInfo.getName());
+            }
+        } catch (Exception e) {
+            LOGGER.warn(String.format("Unable to determine goal state of task %s", taskInfo.getName()), e);
+        }
+        return GoalState.RUNNING;
+    }
+
+    private static Collection<Protos.TaskInfo> getLaunchedTasks(Collection<Protos.Offer.Operation> operations) {
+        List<Protos.TaskInfo> launched = new ArrayList<>();
+        for (Protos.Offer.Operation operation : operations) {
+            if (operation.getType() == Protos.Offer.Operation.Type.LAUNCH) {
+                launched.addAll(operation.getLaunch().getTaskInfosList());
+            } else if (operation.getType() == Protos.Offer.Operation.Type.LAUNCH_GROUP) {
+                launched.addAll(operation.getLaunchGroup().getTaskGroup().getTasksList());
+            }
+        }
+        return launched;
+    }
+
+    // Agent resources
+
+    private Agent newAgent(int index) {
+        Agent agent = new Agent(index);
+        agent.unreserved.put("cpus", scalar(simulation.getAgentCpus()));
+        agent.unreserved.put("mem", scalar(simulation.getAgentMemoryMb()));
+        agent.unreserved.put("disk", scalar(simulation.getAgentDiskMb()));
+        Protos.Value.Builder ports = Protos.Value.newBuilder().setType(Protos.Value.Type.RANGES);
+        ports.getRangesBuilder().addRangeBuilder()
+                .setBegin(simulation.getAgentPortBegin())
+                .setEnd(simulation.getAgentPortEnd());
+        agent.unreserved.put("ports", ports.build());
+        for (int i = 0; i < simulation.getAgentMountVolumes(); ++i) {
+            String root = String.format("/mnt/volume%d", i);
+            agent.unreservedMounts.put(root, toUnreservedMount(root, scalar(simulation.getAgentMountVolumeSizeMb())));
+        }
+        return agent;
+    }
+
+    private static boolean isEmpty(Protos.Value value) {
+        switch (value.getType()) {
+            case SCALAR:
+                return value.getScalar().getValue() < EPSILON;
+            case RANGES:
+                return value.getRanges().getRangeCount() == 0;
+            default:
+                return false;
+        }
+    }
+
+    @SuppressWarnings("deprecation") // for Resource.setRole()
+    private static Protos.Resource toUnreservedResource(String name, Protos.Value value) {
+        Protos.Resource.Builder builder = Protos.Resource.newBuilder()
+                .setName(name)
+                .setRole("*")
+                .setType(value.getType());
+        if (value.getType() == Protos.Value.Type.RANGES) {
+            builder.setRanges(value.getRanges());
+        } else {
+            builder.setScalar(value.getScalar());
+        }
+        return builder.build();
+    }
+
+    private static Protos.Resource toUnreservedMount(String root, Protos.Value value) {
+        Protos.Resource.Builder builder = toUnreservedResource("disk", value).toBuilder();
+        builder.getDiskBuilder().getSourceBuilder()
+                .setType(Protos.Resource.DiskInfo.Source.Type.MOUNT)
+                .getMountBuilder().setRoot(root);
+        return builder.build();
+    }
+
+    private static Protos.Value scalar(double value) {
+        Protos.Value.Builder builder = Protos.Value.newBuilder().setType(Protos.Value.Type.SCALAR);
+        builder.getScalarBuilder().setValue(value);
+        return builder.build();
+    }
+
+    // SchedulerDriver: Calls from the scheduler, which may be made from any thread.
+
+    /**
+     * Runs the provided call on the master thread. Calls are dropped once the cluster has been stopped, rather than
+     * throwing back into the scheduler.
+     */
+    private Protos.Status onMaster(Runnable runnable) {
+        try {
+            master.execute(() -> {
+                try {
+                    runnable.run();
+                } catch (Throwable t) {
+                    LOGGER.error("Failed to handle call from scheduler", t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOGGER.info("Ignoring call from scheduler: Simulation has stopped");
+        }
+        return Protos.Status.DRIVER_RUNNING;
+    }
+
+    private void recordResponse(Protos.OfferID offerId) {
+        Long sentNanos = offerSentNanos.remove(offerId);
+        if (sentNanos != null) {
+            stats.offerLatenciesNanos.add(System.nanoTime() - sentNanos);
+        }
+    }
+
+    @Override
+    public Protos.Status acceptOffers(
+            Collection<Protos.OfferID> offerIds,
+            Collection<Protos.Offer.Operation> operations,
+            Protos.Filters filters) {
+        offerIds.forEach(this::recordResponse);
+        stats.offersAccepted.addAndGet(offerIds.size());
+        List<Protos.OfferID> offerIdsCopy = new ArrayList<>(offerIds);
+        List<Protos.Offer.Operation> operationsCopy = new ArrayList<>(operations);
+        return onMaster(() -> accept(offerIdsCopy, operationsCopy, filters));
+    }
+
+    @Override
+    public Protos.Status declineOffer(Protos.OfferID offerId, Protos.Filters filters) {
+        recordResponse(offerId);
+        stats.offersDeclined.incrementAndGet();
+        return onMaster(() -> closeOffers(Collections.singletonList(offerId), filters));
+    }
+
+    @Override
+    public Protos.Status declineOffer(Protos.OfferID offerId) {
+        return declineOffer(offerId, Protos.Filters.getDefaultInstance());
+    }
+
+    @Override
+    public Protos.Status launchTasks(
+            Collection<Protos.OfferID> offerIds, Collection<Protos.TaskInfo> tasks, Protos.Filters filters) {
+        Protos.Offer.Operation.Builder operation = Protos.Offer.Operation.newBuilder()
+                .setType(Protos.Offer.Operation.Type.LAUNCH);
+        operation.getLaunchBuilder().addAllTaskInfos(tasks);
+        return acceptOffers(offerIds, Collections.singletonList(operation.build()), filters);
+    }
+
+    @Override
+    public Protos.Status launchTasks(Collection<Protos.OfferID> offerIds, Collection<Protos.TaskInfo> tasks) {
+        return launchTasks(offerIds, tasks, Protos.Filters.getDefaultInstance());
+    }
+
+    @Override
+    @Deprecated
+    public Protos.Status launchTasks(
+            Protos.OfferID offerId, Collection<Protos.TaskInfo> tasks, Protos.Filters filters) {
+        return launchTasks(Collections.singletonList(offerId), tasks, filters);
+    }
+
+    @Override
+    @Deprecated
+    public Protos.Status launchTasks(Protos.OfferID offerId, Collection<Protos.TaskInfo> tasks) {
+        return launchTasks(Collections.singletonList(offerId), tasks);
+    }
+
+    @Override
+    public Protos.Status killTask(Protos.TaskID taskId) {
+        return onMaster(() -> kill(taskId));
+    }
+
+    @Override
+    public Protos.Status reviveOffers() {
+        stats.revives.incrementAndGet();
+        return onMaster(() -> {
+            suppressed = false;
+            for (Agent agent : agents) {
+                agent.filteredUntilNanos = 0;
+            }
+        });
+    }
+
+    @Override
+    public Protos.Status suppressOffers() {
+        return onMaster(() -> {
+            suppressed = true;
+            // Outstanding offers are rescinded when offers are suppressed:
+            new ArrayList<>(offers.keySet()).forEach(SimulatedCluster.this::rescind);
+        });
+    }
+
+    @Override
+    public Protos.Status reconcileTasks(Collection<Protos.TaskStatus> statuses) {
+        List<Protos.TaskStatus> statusesCopy = new ArrayList<>(statuses);
+        return onMaster(() -> reconcile(statusesCopy));
+    }
+
+    @Override
+    public Protos.Status acknowledgeStatusUpdate(Protos.TaskStatus status) {
+        return Protos.Status.DRIVER_RUNNING;
+    }
+
+    @Override
+    public Protos.Status requestResources(Collection<Protos.Request> requests) {
+        return Protos.Status.DRIVER_RUNNING;
+    }
+
+    @Override
+    public Protos.Status sendFrameworkMessage(
+            Protos.ExecutorID executorId, Protos.SlaveID agentId, byte[] data) {
+        return Protos.Status.DRIVER_RUNNING;
+    }
+
+    @Override
+    public Protos.Status start() {
+        return Protos.Status.DRIVER_RUNNING;
+    }
+
+    @Override
+    public Protos.Status stop(boolean failover) {
+        return Protos.Status.DRIVER_STOPPED;
+    }
+
+    @Override
+    public Protos.Status stop() {
+        return stop(false);
+    }
+
+    @Override
+    public Protos.Status abort() {
+        return Protos.Status.DRIVER_ABORTED;
+    }
+
+    @Override
+    public Protos.Status join() {
+        return Protos.Status.DRIVER_RUNNING;
+    }
+
+    @Override
+    public Protos.Status run() {
+        return Protos.Status.DRIVER_RUNNING;
+    }
+}